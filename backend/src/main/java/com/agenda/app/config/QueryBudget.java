@@ -0,0 +1,18 @@
+package com.agenda.app.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Número máximo de comandos SQL que o endpoint pode executar por requisição.
+ * Endpoints sem a anotação não são contados. O orçamento é verificado pelos testes MockMvc
+ * ({@code QueryBudgetAssertions}); em execução o estouro só gera aviso. Ver {@link QueryBudgetInterceptor}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int value();
+}
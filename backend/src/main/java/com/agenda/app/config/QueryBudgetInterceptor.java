@@ -0,0 +1,58 @@
+package com.agenda.app.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Conta os comandos SQL dos endpoints anotados com {@link QueryBudget}.
+ * <p>
+ * A contagem fica no atributo {@link #STATEMENT_COUNT} da requisição, onde os testes MockMvc a
+ * comparam com o orçamento e falham o build. Em execução o estouro só gera um aviso: a resposta
+ * nunca muda por causa do orçamento.
+ */
+@Slf4j
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    /** Atributo da requisição com a quantidade de comandos SQL executados pelo endpoint */
+    public static final String STATEMENT_COUNT = QueryBudgetInterceptor.class.getName() + ".STATEMENT_COUNT";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (budgetOf(handler) != null) {
+            QueryCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryBudget budget = budgetOf(handler);
+        if (budget == null) {
+            return;
+        }
+        int count = QueryCounter.stop();
+        if (count < 0) {
+            return;
+        }
+        request.setAttribute(STATEMENT_COUNT, count);
+        if (count > budget.value()) {
+            log.warn("Query budget exceeded on {} {}: {} statements (limit {})",
+                    request.getMethod(), request.getRequestURI(), count, budget.value());
+        }
+    }
+
+    /**
+     * Respostas assíncronas (SSE, exportações) continuam em outra thread: a contagem é descartada
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.stop();
+    }
+
+    private static QueryBudget budgetOf(Object handler) {
+        return handler instanceof HandlerMethod method ? method.getMethodAnnotation(QueryBudget.class) : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.agenda.app.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na requisição corrente.
+ * A contagem só acontece entre {@link #start()} e {@link #stop()}; fora disso
+ * (jobs agendados, threads assíncronas) o inspetor apenas devolve o SQL.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = CURRENT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    static void start() {
+        CURRENT.set(new int[1]);
+    }
+
+    /**
+     * Encerra a contagem da requisição
+     *
+     * @return Quantidade de comandos executados, ou -1 se não havia contagem ativa
+     */
+    static int stop() {
+        int[] count = CURRENT.get();
+        CURRENT.remove();
+        return count != null ? count[0] : -1;
+    }
+}
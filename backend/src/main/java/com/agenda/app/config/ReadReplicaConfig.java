@@ -0,0 +1,102 @@
+package com.agenda.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Réplica de leitura: ativada quando {@code agenda.datasource.replica.jdbc-url} está definido.
+ * <p>
+ * O primário continua configurado em {@code spring.datasource.*}; a réplica em
+ * {@code agenda.datasource.replica.*} (propriedades do Hikari). Transações
+ * {@code @Transactional(readOnly = true)} vão à réplica, exceto quando ela está atrasada
+ * além de {@code max-lag-ms} ou quando o cliente escreveu nos últimos
+ * {@code read-your-writes-window-ms}.
+ * <p>
+ * Cada transação pega a própria conexão (ver {@link #replicaConnectionHandling()}), então o
+ * roteamento vale mesmo com {@code spring.jpa.open-in-view} ligado.
+ */
+@Configuration
+@ConditionalOnProperty(name = "agenda.datasource.replica.jdbc-url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("agenda.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Target.PRIMARY, primary,
+                ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    /**
+     * DataSource usado pelo JPA, Flyway e demais componentes
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Devolve a conexão ao fim de cada transação. Com open-in-view a sessão dura a requisição
+     * inteira e, no modo padrão, ficaria com a conexão da primeira transação: uma escrita
+     * depois de uma leitura sairia pela conexão da réplica (e vice-versa).
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandling() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaRoutingDataSource routing,
+            @Value("${agenda.datasource.replica.max-lag-ms:2000}") long maxLagMs) {
+        return new ReplicaLagMonitor(replica, routing, maxLagMs);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${agenda.datasource.replica.read-your-writes-window-ms:5000}") long windowMs) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(Duration.ofMillis(windowMs)));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
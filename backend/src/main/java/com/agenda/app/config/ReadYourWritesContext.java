@@ -0,0 +1,79 @@
+package com.agenda.app.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Duration;
+
+/**
+ * Marcador de "leia o que escreveu" da requisição corrente.
+ * <p>
+ * Depois de um commit de escrita, as leituras seguintes do mesmo cliente vão ao primário
+ * durante uma janela curta (cookie {@value #COOKIE_NAME}), para não verem a réplica atrasada.
+ * Na própria requisição o desvio vale imediatamente; nas seguintes, enquanto o cookie existir.
+ */
+public final class ReadYourWritesContext {
+
+    public static final String COOKIE_NAME = "agenda_primary_until";
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    /**
+     * Abre o contexto da requisição
+     *
+     * @param response      Resposta, usada para gravar o cookie após uma escrita
+     * @param window        Janela em que as leituras ficam no primário após uma escrita
+     * @param forcePrimary  Se o cliente ainda está dentro da janela de uma escrita anterior
+     */
+    static void begin(HttpServletResponse response, Duration window, boolean forcePrimary) {
+        CURRENT.set(new State(response, window, forcePrimary));
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * A requisição corrente deve ler do primário?
+     */
+    public static boolean isPrimaryRequired() {
+        State state = CURRENT.get();
+        return state != null && state.forcePrimary;
+    }
+
+    /**
+     * Registra que a requisição corrente acabou de confirmar uma escrita
+     */
+    public static void markWrite() {
+        State state = CURRENT.get();
+        if (state == null) {
+            return;
+        }
+        state.forcePrimary = true;
+        if (!state.cookieWritten && !state.response.isCommitted()) {
+            long until = System.currentTimeMillis() + state.window.toMillis();
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, state.window.toSeconds()));
+            state.response.addCookie(cookie);
+            state.cookieWritten = true;
+        }
+    }
+
+    private static final class State {
+        private final HttpServletResponse response;
+        private final Duration window;
+        private boolean forcePrimary;
+        private boolean cookieWritten;
+
+        private State(HttpServletResponse response, Duration window, boolean forcePrimary) {
+            this.response = response;
+            this.window = window;
+            this.forcePrimary = forcePrimary;
+        }
+    }
+}
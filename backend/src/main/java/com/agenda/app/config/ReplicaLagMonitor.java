@@ -0,0 +1,56 @@
+package com.agenda.app.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Mede periodicamente o atraso de replicação da réplica e a retira do roteamento quando
+ * passa do limite (ou quando não responde), devolvendo-a assim que volta ao normal.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /** Atraso em ms; zero quando a réplica já reproduziu tudo o que recebeu */
+    private static final String LAG_SQL = """
+        SELECT CASE
+                 WHEN NOT pg_is_in_recovery() THEN 0
+                 WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+               END
+        """;
+
+    private final JdbcTemplate replica;
+    private final ReplicaRoutingDataSource routing;
+    private final long maxLagMs;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaRoutingDataSource routing, long maxLagMs) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.replica.setQueryTimeout(2);
+        this.routing = routing;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${agenda.datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        boolean available;
+        try {
+            Double lagMs = replica.queryForObject(LAG_SQL, Double.class);
+            available = lagMs != null && lagMs <= maxLagMs;
+            if (!available && routing.isReplicaAvailable()) {
+                log.warn("Replica lag {} ms exceeds {} ms, routing reads to primary", lagMs, maxLagMs);
+            }
+        } catch (Exception e) {
+            available = false;
+            if (routing.isReplicaAvailable()) {
+                log.warn("Replica unavailable, routing reads to primary: {}", e.getMessage());
+            }
+        }
+        if (available && !routing.isReplicaAvailable()) {
+            log.info("Replica caught up, routing read-only transactions to replica again");
+        }
+        routing.setReplicaAvailable(available);
+    }
+}
@@ -0,0 +1,63 @@
+package com.agenda.app.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Encaminha transações {@code readOnly} para a réplica e o restante para o primário.
+ * <p>
+ * Vai ao primário mesmo sendo leitura quando a réplica está atrasada/indisponível
+ * ({@link #setReplicaAvailable(boolean)}) ou quando o cliente acabou de escrever
+ * ({@link ReadYourWritesContext}). Deve ficar atrás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, para que a conexão
+ * só seja obtida depois que a transação já marcou se é somente leitura.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final String WRITE_MARKER = ReplicaRoutingDataSource.class.getName() + ".WRITE";
+
+    private volatile boolean replicaAvailable = true;
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return replicaAvailable && !ReadYourWritesContext.isPrimaryRequired() ? Target.REPLICA : Target.PRIMARY;
+        }
+        registerWriteMarker();
+        return Target.PRIMARY;
+    }
+
+    public void setReplicaAvailable(boolean replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /**
+     * Após o commit de uma transação de escrita, as leituras do mesmo cliente passam ao primário
+     */
+    private void registerWriteMarker() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReadYourWritesContext.markWrite();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.agenda.app.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reexecuta o método (e a transação inteira que ele abre) quando a gravação falha por conflito
+ * de versão ({@code @Version}) com outra transação. Ver {@link RetryOnConflictAspect}.
+ * <p>
+ * Só faz sentido em métodos que abrem a própria transação e releem o estado a cada execução;
+ * chamado dentro de uma transação já ativa, o método executa uma única vez.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /** Total de tentativas, incluindo a primeira */
+    int maxAttempts() default 4;
+
+    /** Espera máxima antes da primeira nova tentativa; dobra a cada tentativa */
+    long backoffMs() default 20;
+
+    /** Teto da espera entre tentativas */
+    long maxBackoffMs() default 500;
+}
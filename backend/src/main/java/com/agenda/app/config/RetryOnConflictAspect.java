@@ -0,0 +1,83 @@
+package com.agenda.app.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Aplica {@link RetryOnConflict}: em {@link OptimisticLockingFailureException} espera um tempo
+ * aleatório entre zero e o backoff exponencial da tentativa (full jitter, para as transações
+ * concorrentes não colidirem de novo ao mesmo tempo) e executa o método outra vez.
+ * <p>
+ * Roda por fora do interceptor de {@code @Transactional}: cada tentativa abre, commita ou
+ * desfaz a sua transação, e o rollback limpa o contexto de persistência, então a próxima
+ * tentativa relê as entidades. Esgotadas as tentativas, a exceção segue para o
+ * {@code GlobalExceptionHandler} (409).
+ * <p>
+ * Métricas: {@code agenda.retry.conflicts} com {@code outcome} = retried (cada nova tentativa),
+ * recovered (sucesso após conflito) ou exhausted (desistiu), por {@code method}.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryOnConflictAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public RetryOnConflictAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retry)")
+    public Object retryOnConflict(ProceedingJoinPoint pjp, RetryOnConflict retry) throws Throwable {
+        // Dentro de uma transação maior, repetir só este trecho não resolve o conflito
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return pjp.proceed();
+        }
+
+        String method = pjp.getSignature().getDeclaringType().getSimpleName() + "." + pjp.getSignature().getName();
+        int maxAttempts = Math.max(1, retry.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = pjp.proceed();
+                if (attempt > 1) {
+                    counter(method, "recovered").increment();
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    counter(method, "exhausted").increment();
+                    log.warn("Optimistic lock conflict on {} after {} attempt(s): {}", method, attempt, e.getMessage());
+                    throw e;
+                }
+                counter(method, "retried").increment();
+                log.debug("Optimistic lock conflict on {}, attempt {} of {}", method, attempt, maxAttempts);
+                Thread.sleep(backoff(retry, attempt));
+            }
+        }
+    }
+
+    private static long backoff(RetryOnConflict retry, int attempt) {
+        long ceiling = Math.min(retry.maxBackoffMs(), retry.backoffMs() << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    private Counter counter(String method, String outcome) {
+        return Counter.builder("agenda.retry.conflicts")
+                .description("Optimistic lock conflicts handled by @RetryOnConflict")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
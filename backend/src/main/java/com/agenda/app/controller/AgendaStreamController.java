@@ -0,0 +1,26 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.service.AgendaStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Canal de push da agenda (Server-Sent Events), substituindo o polling de /appointments/agenda.
+ * Eventos: {@code appointment} (criação, alteração, cancelamento) e {@code schedule} (horários).
+ */
+@RestController
+@RequestMapping("/appointments/stream")
+@RequiredArgsConstructor
+public class AgendaStreamController {
+
+    private final AgendaStreamService streamService;
+
+    @GetMapping(value = "/subsidiary/{subsidiaryId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@PathVariable UUID subsidiaryId) {
+        return streamService.subscribe(subsidiaryId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.config.QueryBudget;
+import com.agenda.app.dto.ChairUtilizationResponse;
+import com.agenda.app.dto.RevenueGrouping;
+import com.agenda.app.dto.RevenueSummaryRow;
+import com.agenda.app.service.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService service;
+
+    /**
+     * Faturamento do período por subsidiária, profissional, serviço ou dia. Filtre por empresa
+     * e/ou subsidiária.
+     */
+    @QueryBudget(1)
+    @GetMapping("/revenue")
+    public List<RevenueSummaryRow> revenue(
+            @RequestParam(required = false) UUID companyId,
+            @RequestParam(required = false) UUID subsidiaryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "SUBSIDIARY") RevenueGrouping groupBy) {
+        return service.getRevenue(companyId, subsidiaryId, startDate, endDate, groupBy);
+    }
+
+    /**
+     * Ocupação das salas/cadeiras da subsidiária no período
+     */
+    @QueryBudget(1)
+    @GetMapping("/chair-utilization")
+    public List<ChairUtilizationResponse> chairUtilization(
+            @RequestParam UUID subsidiaryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return service.getChairUtilization(subsidiaryId, startDate, endDate);
+    }
+}
@@ -1,16 +1,27 @@
 package com.agenda.app.controller;
 
+import com.agenda.app.config.QueryBudget;
+import com.agenda.app.dto.AgendaGridResponse;
+import com.agenda.app.dto.AppointmentChangeFeedResponse;
+import com.agenda.app.dto.AppointmentHistoryRow;
 import com.agenda.app.dto.AppointmentRequest;
 import com.agenda.app.dto.AppointmentResponse;
+import com.agenda.app.dto.CursorPage;
+import com.agenda.app.service.AgendaGridService;
+import com.agenda.app.service.AppointmentArchiveService;
+import com.agenda.app.service.AppointmentChangeService;
 import com.agenda.app.service.AppointmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,6 +30,9 @@ import java.util.UUID;
 public class AppointmentController {
 
     private final AppointmentService service;
+    private final AgendaGridService agendaGridService;
+    private final AppointmentChangeService changeService;
+    private final AppointmentArchiveService archiveService;
 
     @PostMapping
     public ResponseEntity<AppointmentResponse> create(
@@ -28,6 +42,7 @@ public class AppointmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(resp);
     }
 
+    @QueryBudget(2)
     @GetMapping
     public ResponseEntity<Page<AppointmentResponse>> list(
             Pageable pageable
@@ -44,12 +59,77 @@ public class AppointmentController {
         return ResponseEntity.ok(resp);
     }
 
+    @QueryBudget(2)
     @GetMapping("/agenda")
     public ResponseEntity<Page<AppointmentResponse>> getAgenda(Pageable pageable) {
         Page<AppointmentResponse> page = service.getAgendaAppointments(pageable);
         return ResponseEntity.ok(page);
     }
 
+    /**
+     * Listagem paginada por cursor (keyset), sem contagem total.
+     * Envie o {@code nextCursor} retornado para buscar a próxima página.
+     */
+    @QueryBudget(1)
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<AppointmentResponse>> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(service.listAppointmentsByCursor(cursor, size));
+    }
+
+    @QueryBudget(1)
+    @GetMapping("/agenda/scroll")
+    public ResponseEntity<CursorPage<AppointmentResponse>> scrollAgenda(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(service.getAgendaAppointmentsByCursor(cursor, size));
+    }
+
+    /**
+     * Grade da agenda (dia/semana) de uma subsidiária, agrupada por profissional e sala/cadeira,
+     * com blocos de agendamento e blocos livres
+     */
+    @QueryBudget(5)
+    @GetMapping("/grid")
+    public ResponseEntity<AgendaGridResponse> grid(
+            @RequestParam UUID subsidiaryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        LocalDate end = endDate != null ? endDate : startDate;
+        return ResponseEntity.ok(agendaGridService.getGrid(subsidiaryId, startDate, end));
+    }
+
+    /**
+     * Feed de alterações (delta-sync): agendamentos criados, alterados, cancelados ou removidos
+     * do escopo depois do token {@code since}. Informe subsidiaryId ou professionalId.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<AppointmentChangeFeedResponse> changes(
+            @RequestParam(required = false) UUID subsidiaryId,
+            @RequestParam(required = false) UUID professionalId,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "200") int size
+    ) {
+        return ResponseEntity.ok(changeService.getChangesSince(subsidiaryId, professionalId, since, size));
+    }
+
+    /**
+     * Histórico de agendamentos do cliente no intervalo, incluindo os já arquivados
+     */
+    @QueryBudget(2)
+    @GetMapping("/history")
+    public ResponseEntity<List<AppointmentHistoryRow>> history(
+            @RequestParam UUID customerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        return ResponseEntity.ok(archiveService.getCustomerHistory(customerId, startDate, endDate));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<AppointmentResponse> update(
             @PathVariable UUID id,
@@ -59,6 +139,13 @@ public class AppointmentController {
         return ResponseEntity.ok(resp);
     }
 
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<AppointmentResponse> complete(
+            @PathVariable UUID id
+    ) {
+        return ResponseEntity.ok(service.completeAppointment(id));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(
             @PathVariable UUID id
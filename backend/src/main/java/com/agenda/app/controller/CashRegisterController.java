@@ -0,0 +1,39 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.dto.CashRegisterDayResponse;
+import com.agenda.app.service.CashRegisterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/cash-register")
+@RequiredArgsConstructor
+public class CashRegisterController {
+
+    private final CashRegisterService service;
+
+    @GetMapping("/{subsidiaryId}/{date}")
+    public CashRegisterDayResponse getDay(
+            @PathVariable UUID subsidiaryId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return service.getDay(subsidiaryId, date);
+    }
+
+    @PostMapping("/{subsidiaryId}/{date}/close")
+    public CashRegisterDayResponse close(
+            @PathVariable UUID subsidiaryId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return service.close(subsidiaryId, date);
+    }
+
+    @PostMapping("/{subsidiaryId}/{date}/reopen")
+    public CashRegisterDayResponse reopen(
+            @PathVariable UUID subsidiaryId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return service.reopen(subsidiaryId, date);
+    }
+}
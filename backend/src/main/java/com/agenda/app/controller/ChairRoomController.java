@@ -1,6 +1,7 @@
 package com.agenda.app.controller;
 
 
+import com.agenda.app.config.QueryBudget;
 import com.agenda.app.service.ChairRoomService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -25,6 +26,7 @@ public class ChairRoomController {
 
     private final ChairRoomService chairRoomService;
 
+    @QueryBudget(2)
     @GetMapping
     public ResponseEntity<Page<ChairRoomResponse>> getAllChairRooms(Pageable pageable) {
         return ResponseEntity.ok(chairRoomService.getAllChairRooms(pageable));
@@ -35,11 +37,13 @@ public class ChairRoomController {
         return ResponseEntity.ok(chairRoomService.getChairRoomById(id));
     }
 
+    @QueryBudget(1)
     @GetMapping("/subsidiary/{subsidiaryId}")
     public ResponseEntity<List<ChairRoomResponse>> getChairRoomsBySubsidiary(@PathVariable UUID subsidiaryId) {
         return ResponseEntity.ok(chairRoomService.getChairRoomsBySubsidiary(subsidiaryId));
     }
 
+    @QueryBudget(1)
     @GetMapping(  "/available")
     public ResponseEntity<List<ChairRoomResponse>> getAvailableRoomsForTimeSlot(
             @RequestParam UUID subsidiaryId,
@@ -5,12 +5,14 @@ import com.agenda.app.exception.ScheduleConflictException;
 import com.agenda.app.service.ChairRoomScheduleService;
 import com.agenda.app.service.RecurringScheduleService;
 import com.agenda.app.service.ScheduleConflictService;
+import com.agenda.app.service.ScopeVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -29,6 +31,7 @@ public class ChairRoomScheduleController {
     private final ChairRoomScheduleService chairRoomScheduleService;
     private final RecurringScheduleService recurringScheduleService;
     private final ScheduleConflictService conflictService;
+    private final ScopeVersionService scopeVersionService;
 
     @PostMapping
     public ResponseEntity<ChairRoomScheduleEntryResponse> create(
@@ -40,10 +43,34 @@ public class ChairRoomScheduleController {
 
     @GetMapping("/chair-room/{chairRoomId}")
     public ResponseEntity<List<ChairRoomScheduleEntryResponse>> getByChairRoom(
-            @PathVariable UUID chairRoomId) {
+            @PathVariable UUID chairRoomId,
+            WebRequest webRequest) {
+        var tag = scopeVersionService.current(ScopeVersionService.chairRoomSchedule(chairRoomId));
+        if (webRequest.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(chairRoomScheduleService.getByChairRoomId(chairRoomId));
     }
 
+    @GetMapping("/chair-room/{chairRoomId}/range")
+    public ResponseEntity<List<ChairRoomScheduleEntryResponse>> getByChairRoomAndRange(
+            @PathVariable UUID chairRoomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(chairRoomScheduleService.getByChairRoomAndDateRange(chairRoomId, startDate, endDate));
+    }
+
+    @GetMapping("/chair-room/{chairRoomId}/page")
+    public ResponseEntity<CursorPage<ChairRoomScheduleEntryResponse>> getPageByChairRoom(
+            @PathVariable UUID chairRoomId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(chairRoomScheduleService.getPageByChairRoom(
+                chairRoomId, cursor, startDate, endDate, size));
+    }
+
     @GetMapping("/chair-room/{chairRoomId}/date/{date}")
     public ResponseEntity<ChairRoomScheduleEntryResponse> getByChairRoomAndDate(
             @PathVariable UUID chairRoomId,
@@ -0,0 +1,33 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.config.QueryBudget;
+import com.agenda.app.dto.AccountStatementLine;
+import com.agenda.app.dto.CursorPage;
+import com.agenda.app.service.AccountLedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/accounts")
+@RequiredArgsConstructor
+public class ClientAccountController {
+
+    private final AccountLedgerService ledgerService;
+
+    /**
+     * Extrato da conta (mais recentes primeiro) com saldo após cada lançamento.
+     * Envie o {@code nextCursor} retornado para buscar a página seguinte.
+     */
+    @QueryBudget(2)
+    @GetMapping("/{clientAccountId}/statement")
+    public ResponseEntity<CursorPage<AccountStatementLine>> statement(
+            @PathVariable UUID clientAccountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(ledgerService.getStatement(clientAccountId, cursor, size));
+    }
+}
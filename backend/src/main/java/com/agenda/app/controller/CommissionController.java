@@ -0,0 +1,44 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.config.QueryBudget;
+import com.agenda.app.dto.CommissionStatementResponse;
+import com.agenda.app.service.CommissionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/commissions")
+@RequiredArgsConstructor
+public class CommissionController {
+
+    private final CommissionService service;
+
+    /**
+     * Calcula (ou recalcula) os extratos de comissão do período. Processamento em lote: os
+     * comandos crescem com o número de profissionais, então o orçamento de SQL não se aplica.
+     */
+    @QueryBudget(Integer.MAX_VALUE)
+    @PostMapping("/statements")
+    public List<CommissionStatementResponse> generate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return service.generateStatements(startDate, endDate);
+    }
+
+    @GetMapping("/statements")
+    public List<CommissionStatementResponse> list(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return service.getStatements(startDate, endDate);
+    }
+
+    @GetMapping("/statements/by-professional/{professionalId}")
+    public List<CommissionStatementResponse> listByProfessional(@PathVariable UUID professionalId) {
+        return service.getStatementsByProfessional(professionalId);
+    }
+}
@@ -0,0 +1,60 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.dto.ExportFormat;
+import com.agenda.app.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Exportações em streaming (CSV / NDJSON) para a contabilidade.
+ * O arquivo é gerado enquanto é enviado, sem paginação.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(required = false) UUID companyId,
+            @RequestParam(required = false) UUID subsidiaryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        exportService.validateRange(startDate, endDate);
+        return stream("appointments", startDate, endDate, format, out ->
+                exportService.exportAppointments(companyId, subsidiaryId, startDate, endDate, format, out));
+    }
+
+    @GetMapping("/account-transactions")
+    public ResponseEntity<StreamingResponseBody> exportAccountTransactions(
+            @RequestParam(required = false) UUID companyId,
+            @RequestParam(required = false) UUID subsidiaryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+        exportService.validateRange(startDate, endDate);
+        return stream("account-transactions", startDate, endDate, format, out ->
+                exportService.exportAccountTransactions(companyId, subsidiaryId, startDate, endDate, format, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(String name, LocalDate startDate, LocalDate endDate,
+                                                         ExportFormat format, StreamingResponseBody body) {
+        String filename = name + "_" + startDate + "_" + endDate + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -1,11 +1,14 @@
 package com.agenda.app.controller;
 
+import com.agenda.app.config.QueryBudget;
 import com.agenda.app.dto.*;
 import com.agenda.app.service.ItemService;
+import com.agenda.app.service.ScopeVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +19,7 @@ import java.util.UUID;
 public class ItemController {
 
     private final ItemService service;
+    private final ScopeVersionService scopeVersionService;
 
     @PostMapping
     public ResponseEntity<ItemResponse> create(
@@ -27,6 +31,7 @@ public class ItemController {
                 .body(respoense);
     }
 
+    @QueryBudget(2)
     @GetMapping
     public ResponseEntity<List<ItemResponse>> getAll() {
         List<ItemResponse> items = service.getAll();
@@ -38,12 +43,18 @@ public class ItemController {
         return service.get(id);
     }
 
+    @QueryBudget(3)
     @GetMapping("/by-subsidiary/{subsidiaryId}")
-    public ResponseEntity<List<ItemResponse>> listBySubsidiary(@PathVariable UUID subsidiaryId) {
+    public ResponseEntity<List<ItemResponse>> listBySubsidiary(@PathVariable UUID subsidiaryId, WebRequest request) {
+        var tag = scopeVersionService.current(ScopeVersionService.catalog(subsidiaryId));
+        if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
         List<ItemResponse> items = service.listBySubsidiary(subsidiaryId);
         return ResponseEntity.ok(items);
     }
 
+    @QueryBudget(2)
     @GetMapping("/by-company/{companyId}")
     public ResponseEntity<List<ItemResponse>> listByCompany(@PathVariable UUID companyId) {
         List<ItemResponse> items = service.listByCompany(companyId);
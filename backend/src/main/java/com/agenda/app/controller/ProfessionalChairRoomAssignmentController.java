@@ -1,5 +1,6 @@
 package com.agenda.app.controller;
 
+import com.agenda.app.config.QueryBudget;
 import com.agenda.app.dto.ProfessionalChairRoomAssignmentRequest;
 import com.agenda.app.dto.ProfessionalChairRoomAssignmentResponse;
 import com.agenda.app.mapper.ProfessionalChairRoomAssignmentMapper;
@@ -93,6 +94,7 @@ public class ProfessionalChairRoomAssignmentController {
     /**
      * Busca todas as atribuições de um profissional para uma data
      */
+    @QueryBudget(2)
     @GetMapping("/professional/{professionalId}/date/{date}")
     public ResponseEntity<List<ProfessionalChairRoomAssignmentResponse>> findByProfessionalAndDate(
             @PathVariable UUID professionalId,
@@ -107,6 +109,7 @@ public class ProfessionalChairRoomAssignmentController {
     /**
      * Busca todas as atribuições de uma cadeira/sala para uma data
      */
+    @QueryBudget(2)
     @GetMapping("/chair-room/{chairRoomId}/date/{date}")
     public ResponseEntity<List<ProfessionalChairRoomAssignmentResponse>> findByChairRoomAndDate(
             @PathVariable UUID chairRoomId,
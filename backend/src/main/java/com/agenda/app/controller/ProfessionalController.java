@@ -1,11 +1,14 @@
 package com.agenda.app.controller;
 
+import com.agenda.app.config.QueryBudget;
 import com.agenda.app.dto.*;
 import com.agenda.app.service.ProfessionalService;
+import com.agenda.app.service.ScopeVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +19,7 @@ import java.util.UUID;
 public class ProfessionalController {
 
     private final ProfessionalService service;
+    private final ScopeVersionService scopeVersionService;
 
     @PostMapping
     public ResponseEntity<ProfessionalResponse> create(
@@ -33,16 +37,23 @@ public class ProfessionalController {
         return service.get(id);
     }
 
+    @QueryBudget(3)
     @GetMapping("/{id}/services")
     public ResponseEntity<List<ItemResponse>> getServices(@PathVariable UUID id) {
         return ResponseEntity.ok(service.getServicesByProfessional(id));
     }
 
+    @QueryBudget(3)
     @GetMapping("/by-subsidiary/{id}")
-    public List<ProfessionalResponse> listBySubsidiary(@PathVariable UUID id) {
+    public List<ProfessionalResponse> listBySubsidiary(@PathVariable UUID id, WebRequest request) {
+        var tag = scopeVersionService.current(ScopeVersionService.professionals(id));
+        if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
         return service.listBySubsidiary(id);
     }
 
+    @QueryBudget(2)
     @GetMapping
     public List<ProfessionalResponse> listAll() {
         return service.listAll();
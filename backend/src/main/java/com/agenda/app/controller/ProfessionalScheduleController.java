@@ -1,13 +1,16 @@
 package com.agenda.app.controller;
 
+import com.agenda.app.dto.CursorPage;
 import com.agenda.app.dto.ProfessionalScheduleEntryRequest;
 import com.agenda.app.dto.ProfessionalScheduleEntryResponse;
 import com.agenda.app.service.ProfessionalScheduleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,6 +36,26 @@ public class ProfessionalScheduleController {
         return service.listByProfessional(professionalId);
     }
 
+    @GetMapping("/{professionalId}/range")
+    public List<ProfessionalScheduleEntryResponse> listByRange(
+            @PathVariable UUID professionalId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate
+    ) {
+        return service.listByProfessionalAndDateRange(professionalId, startDate, endDate);
+    }
+
+    @GetMapping("/{professionalId}/page")
+    public CursorPage<ProfessionalScheduleEntryResponse> listPage(
+            @PathVariable UUID professionalId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return service.listPageByProfessional(professionalId, cursor, startDate, endDate, size);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable UUID id) {
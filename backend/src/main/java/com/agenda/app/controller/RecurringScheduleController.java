@@ -1,7 +1,10 @@
 package com.agenda.app.controller;
 
 import com.agenda.app.dto.RecurringScheduleRequest;
+import com.agenda.app.dto.ScheduleCloneRequest;
+import com.agenda.app.dto.ScheduleCloneResponse;
 import com.agenda.app.service.RecurringScheduleService;
+import com.agenda.app.service.ScheduleCloneService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -22,6 +25,7 @@ import java.util.UUID;
 public class RecurringScheduleController {
 
     private final RecurringScheduleService recurringScheduleService;
+    private final ScheduleCloneService scheduleCloneService;
 
     /**
      * Cria horários recorrentes para uma subsidiária
@@ -85,4 +89,15 @@ public class RecurringScheduleController {
 
         return ResponseEntity.ok(count);
     }
-}
\ No newline at end of file
+
+    /**
+     * Copia os horários de uma subsidiária (semana/mês) de um intervalo de origem para um destino
+     */
+    @PostMapping("/subsidiary/{subsidiaryId}/clone")
+    public ResponseEntity<ScheduleCloneResponse> cloneSubsidiarySchedules(
+            @PathVariable UUID subsidiaryId,
+            @RequestBody @Valid ScheduleCloneRequest request) {
+
+        return ResponseEntity.ok(scheduleCloneService.cloneSubsidiarySchedules(subsidiaryId, request));
+    }
+}
@@ -0,0 +1,35 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.dto.ScheduleCalendarResponse;
+import com.agenda.app.dto.ScheduleCalendarResponse.CalendarView;
+import com.agenda.app.service.ScheduleCalendarService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Controller para a visão de calendário (semana/mês) dos horários
+ */
+@RestController
+@RequestMapping("/api/schedule-calendar")
+@RequiredArgsConstructor
+public class ScheduleCalendarController {
+
+    private final ScheduleCalendarService calendarService;
+
+    /**
+     * Busca os horários da subsidiária, salas/cadeiras e profissionais para a semana ou mês
+     * que contém a data informada
+     */
+    @GetMapping("/subsidiary/{subsidiaryId}")
+    public ResponseEntity<ScheduleCalendarResponse> getCalendar(
+            @PathVariable UUID subsidiaryId,
+            @RequestParam(defaultValue = "WEEK") CalendarView view,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(calendarService.getCalendar(subsidiaryId, view, date));
+    }
+}
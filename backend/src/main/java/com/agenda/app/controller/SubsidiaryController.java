@@ -1,15 +1,18 @@
 // src/main/java/com/agenda/app/controller/SubsidiaryController.java
 package com.agenda.app.controller;
 
+import com.agenda.app.config.QueryBudget;
 import com.agenda.app.dto.SubsidiaryRequest;
 import com.agenda.app.dto.SubsidiaryResponse;
 import com.agenda.app.dto.ItemResponse;
+import com.agenda.app.service.ScopeVersionService;
 import com.agenda.app.service.SubsidiaryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 import java.util.List;
@@ -20,6 +23,7 @@ import java.util.List;
 public class SubsidiaryController {
 
     private final SubsidiaryService service;
+    private final ScopeVersionService scopeVersionService;
 
     @PostMapping
     public ResponseEntity<SubsidiaryResponse> create(@RequestBody @Valid SubsidiaryRequest body) {
@@ -31,20 +35,36 @@ public class SubsidiaryController {
         return service.get(id);
     }
 
+    @QueryBudget(3)
     @GetMapping
-    public ResponseEntity<List<SubsidiaryResponse>> listAll() {
+    public ResponseEntity<List<SubsidiaryResponse>> listAll(WebRequest request) {
+        var tag = scopeVersionService.current(ScopeVersionService.subsidiaries());
+        if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
         List<SubsidiaryResponse> subsidiaries = service.listAll();
         return ResponseEntity.ok(subsidiaries);
     }
     
+    @QueryBudget(3)
     @GetMapping("/by-company/{companyId}")
-    public ResponseEntity<List<SubsidiaryResponse>> listByCompany(@PathVariable UUID companyId) {
+    public ResponseEntity<List<SubsidiaryResponse>> listByCompany(@PathVariable UUID companyId, WebRequest request) {
+        var tag = scopeVersionService.current(ScopeVersionService.subsidiaries());
+        if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
         List<SubsidiaryResponse> subsidiaries = service.listByCompany(companyId);
         return ResponseEntity.ok(subsidiaries);
     }
 
+    @QueryBudget(3)
     @GetMapping("/services/by-subsidiary/{subsidiaryId}")
-    public ResponseEntity<List<ItemResponse>> listServicesBySubsidiary(@PathVariable UUID subsidiaryId) {
+    public ResponseEntity<List<ItemResponse>> listServicesBySubsidiary(@PathVariable UUID subsidiaryId,
+                                                                       WebRequest request) {
+        var tag = scopeVersionService.current(ScopeVersionService.catalog(subsidiaryId));
+        if (request.checkNotModified(tag.etag(), tag.lastModified())) {
+            return null;
+        }
         List<ItemResponse> services = service.listServicesBySubsidiary(subsidiaryId);
         return ResponseEntity.ok(services);
     }
@@ -5,6 +5,7 @@ import com.agenda.app.dto.SubsidiaryScheduleEntryResponse;
 import com.agenda.app.service.SubsidiaryScheduleEntryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -39,6 +40,14 @@ public class SubsidiaryScheduleEntryController {
         return service.listBySubsidiary(subsidiaryId);
     }
 
+    @GetMapping("/by-subsidiary/{subsidiaryId}/range")
+    public List<SubsidiaryScheduleEntryResponse> listBySubsidiaryAndRange(
+            @PathVariable UUID subsidiaryId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return service.listBySubsidiaryAndDateRange(subsidiaryId, startDate, endDate);
+    }
+
     @GetMapping("/by-date")
     public SubsidiaryScheduleEntryResponse getByDate(
             @RequestParam UUID subsidiaryId,
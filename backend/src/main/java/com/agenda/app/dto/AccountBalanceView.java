@@ -0,0 +1,15 @@
+package com.agenda.app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção (consulta nativa) dos saldos devolvidos pelo UPDATE ... RETURNING do ledger
+ */
+public interface AccountBalanceView {
+
+    BigDecimal getFreeBalance();
+
+    BigDecimal getHeldBalance();
+
+    Long getLedgerSequence();
+}
@@ -0,0 +1,26 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AccountTransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Linha do extrato da conta do cliente
+ *
+ * @param freeBalance Saldo livre logo após o lançamento
+ * @param heldBalance Saldo retido logo após o lançamento
+ */
+public record AccountStatementLine(
+        UUID transactionId,
+        Instant createdAt,
+        AccountTransactionType transactionType,
+        BigDecimal amount,
+        String description,
+        Long ledgerSequence,
+        UUID appointmentId,
+        UUID paymentId,
+        BigDecimal freeBalance,
+        BigDecimal heldBalance
+) {}
@@ -0,0 +1,25 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AccountTransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Linha da exportação de movimentações de conta (projeção, sem carregar entidades)
+ */
+public record AccountTransactionExportRow(
+        UUID id,
+        Instant createdAt,
+        UUID clientAccountId,
+        UUID customerId,
+        String customerName,
+        AccountTransactionType transactionType,
+        BigDecimal amount,
+        String description,
+        UUID appointmentId,
+        UUID paymentId,
+        BigDecimal newFreeBalance,
+        BigDecimal newHeldBalance
+) {}
@@ -0,0 +1,23 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projeção (JPQL constructor expression) de um agendamento para a grade da agenda.
+ * Carrega apenas as colunas exibidas, sem instanciar entidades.
+ */
+public record AgendaAppointmentRow(
+        UUID appointmentId,
+        UUID professionalId,
+        String professionalName,
+        UUID chairRoomId,
+        String chairRoomName,
+        String customerName,
+        String itemName,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        AppointmentStatus status
+) {}
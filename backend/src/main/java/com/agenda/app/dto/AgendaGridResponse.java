@@ -0,0 +1,56 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AppointmentStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Grade da agenda de uma subsidiária: uma coluna por profissional e uma por sala/cadeira,
+ * cada uma com seus blocos ocupados (agendamentos) e livres, em ordem cronológica
+ */
+public record AgendaGridResponse(
+        UUID subsidiaryId,
+        LocalDate startDate,
+        LocalDate endDate,
+        List<Column> professionals,
+        List<Column> chairRooms
+) {
+
+    public record Column(
+            UUID id,
+            String name,
+            List<Block> blocks
+    ) {}
+
+    /**
+     * Bloco da grade. Blocos livres só possuem tipo, início e fim.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Block(
+            BlockType type,
+            LocalDateTime start,
+            LocalDateTime end,
+            UUID appointmentId,
+            String customerName,
+            String itemName,
+            AppointmentStatus status
+    ) {
+        public static Block free(LocalDateTime start, LocalDateTime end) {
+            return new Block(BlockType.FREE, start, end, null, null, null, null);
+        }
+
+        public static Block appointment(AgendaAppointmentRow row) {
+            return new Block(BlockType.APPOINTMENT, row.startTime(), row.endTime(),
+                    row.appointmentId(), row.customerName(), row.itemName(), row.status());
+        }
+    }
+
+    public enum BlockType {
+        APPOINTMENT,
+        FREE
+    }
+}
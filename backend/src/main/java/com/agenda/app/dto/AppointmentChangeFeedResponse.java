@@ -0,0 +1,13 @@
+package com.agenda.app.dto;
+
+import java.util.List;
+
+/**
+ * Página do feed de alterações. Envie {@code nextToken} (opaco) como {@code since} na próxima chamada;
+ * enquanto {@code hasMore} for true ainda há alterações pendentes.
+ */
+public record AppointmentChangeFeedResponse(
+        List<AppointmentChangeResponse> changes,
+        String nextToken,
+        boolean hasMore
+) {}
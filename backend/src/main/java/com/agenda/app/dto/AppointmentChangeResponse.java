@@ -0,0 +1,19 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AppointmentChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Item do feed de alterações. Para tombstones (DELETED) o {@code appointment} é omitido.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AppointmentChangeResponse(
+        long token,
+        AppointmentChangeType changeType,
+        UUID appointmentId,
+        Instant changedAt,
+        AppointmentResponse appointment
+) {}
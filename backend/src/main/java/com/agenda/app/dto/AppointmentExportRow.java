@@ -0,0 +1,24 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha da exportação de agendamentos (projeção, sem carregar entidades)
+ */
+public record AppointmentExportRow(
+        UUID id,
+        UUID companyId,
+        UUID subsidiaryId,
+        UUID professionalId,
+        String professionalName,
+        UUID customerId,
+        String customerName,
+        UUID itemId,
+        String itemName,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        AppointmentStatus status
+) {}
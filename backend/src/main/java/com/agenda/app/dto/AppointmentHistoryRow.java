@@ -0,0 +1,24 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha do histórico de agendamentos, vinda da tabela quente ou do arquivo
+ * ({@code archived = true})
+ */
+public record AppointmentHistoryRow(
+        UUID appointmentId,
+        UUID subsidiaryId,
+        UUID professionalId,
+        String professionalName,
+        UUID itemId,
+        String itemName,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        AppointmentStatus status,
+        boolean archived
+) {
+}
@@ -0,0 +1,11 @@
+package com.agenda.app.dto;
+
+/**
+ * Projeção (consulta nativa) das referências órfãs a agendamentos de uma tabela
+ */
+public interface AppointmentOrphanView {
+
+    String getTableName();
+
+    long getOrphans();
+}
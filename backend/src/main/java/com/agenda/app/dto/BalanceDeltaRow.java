@@ -0,0 +1,12 @@
+package com.agenda.app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção (JPQL constructor expression) da soma das variações de saldo de um trecho do ledger
+ */
+public record BalanceDeltaRow(
+        BigDecimal freeDelta,
+        BigDecimal heldDelta,
+        long transactionCount
+) {}
@@ -0,0 +1,31 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.CashRegisterStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Caixa do dia de uma subsidiária com os totais por forma de pagamento (PAYMENT) e por
+ * tipo de lançamento da conta do cliente (ACCOUNT)
+ */
+public record CashRegisterDayResponse(
+        UUID subsidiaryId,
+        LocalDate businessDate,
+        CashRegisterStatus status,
+        Instant closedAt,
+        Instant reopenedAt,
+        List<Total> totals
+) {
+
+    public record Total(
+            String source,
+            String kind,
+            long entryCount,
+            BigDecimal amount,
+            BigDecimal orderTotal
+    ) {}
+}
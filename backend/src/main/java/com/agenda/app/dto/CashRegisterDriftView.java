@@ -0,0 +1,33 @@
+package com.agenda.app.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projeção (consulta nativa) de um total do caixa que diverge do recalculado a partir dos
+ * pagamentos e lançamentos. Os campos {@code expected*} vêm da origem; os {@code stored*} do
+ * rollup (nulos se o rollup não existe).
+ */
+public interface CashRegisterDriftView {
+
+    UUID getSubsidiaryId();
+
+    LocalDate getBusinessDate();
+
+    String getSource();
+
+    String getKind();
+
+    Long getExpectedCount();
+
+    BigDecimal getExpectedAmount();
+
+    BigDecimal getExpectedOrderTotal();
+
+    Long getStoredCount();
+
+    BigDecimal getStoredAmount();
+
+    String getDayStatus();
+}
@@ -0,0 +1,17 @@
+package com.agenda.app.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Ocupação de uma sala/cadeira no período
+ *
+ * @param utilizationPct Minutos agendados / minutos de abertura, em %; nulo sem agenda aberta
+ */
+public record ChairUtilizationResponse(
+        UUID chairRoomId,
+        long bookedCount,
+        long bookedMinutes,
+        long openMinutes,
+        BigDecimal utilizationPct
+) {}
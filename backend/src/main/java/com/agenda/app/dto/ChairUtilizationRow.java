@@ -0,0 +1,13 @@
+package com.agenda.app.dto;
+
+import java.util.UUID;
+
+/**
+ * Projeção (JPQL constructor expression) dos minutos agendados e de abertura de uma sala/cadeira
+ */
+public record ChairUtilizationRow(
+        UUID chairRoomId,
+        long bookedCount,
+        long bookedMinutes,
+        long openMinutes
+) {}
@@ -0,0 +1,28 @@
+package com.agenda.app.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public record CommissionStatementResponse(
+        UUID id,
+        UUID professionalId,
+        String professionalName,
+        LocalDate periodStart,
+        LocalDate periodEnd,
+        int appointmentCount,
+        int unpaidCount,
+        BigDecimal baseAmount,
+        BigDecimal commissionAmount,
+        List<Line> lines
+) {
+
+    public record Line(
+            UUID serviceId,
+            String serviceName,
+            int appointmentCount,
+            BigDecimal baseAmount,
+            BigDecimal commissionAmount
+    ) {}
+}
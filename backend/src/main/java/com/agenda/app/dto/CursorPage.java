@@ -0,0 +1,13 @@
+package com.agenda.app.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados navegada por cursor (keyset), sem contagem total.
+ * O cliente envia {@code nextCursor} de volta para buscar a próxima página.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasNext
+) {}
@@ -0,0 +1,27 @@
+package com.agenda.app.dto;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de exportação em streaming
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(contentType);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,20 @@
+package com.agenda.app.dto;
+
+import java.util.UUID;
+
+/**
+ * Saldos da conta (em centavos) após o lançamento de sequência {@code ledgerSequence}
+ *
+ * @param transactionId Lançamento que produziu o saldo; nulo em saldos reconstruídos
+ */
+public record LedgerBalance(
+        UUID clientAccountId,
+        long ledgerSequence,
+        long freeBalanceCents,
+        long heldBalanceCents,
+        UUID transactionId
+) {
+    public long totalBalanceCents() {
+        return freeBalanceCents + heldBalanceCents;
+    }
+}
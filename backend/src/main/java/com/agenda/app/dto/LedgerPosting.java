@@ -0,0 +1,23 @@
+package com.agenda.app.dto;
+
+import com.agenda.app.model.AccountTransactionType;
+
+import java.util.UUID;
+
+/**
+ * Lançamento a aplicar na conta do cliente.
+ * {@code amountCents} é positivo para todos os tipos, exceto ADJUSTMENT, em que o sinal
+ * indica crédito (+) ou débito (-) do saldo livre. {@code createdByUserId} nulo identifica
+ * lançamentos do sistema. Com {@code subsidiaryId} o lançamento entra no caixa do dia da
+ * subsidiária.
+ */
+public record LedgerPosting(
+        UUID clientAccountId,
+        AccountTransactionType type,
+        long amountCents,
+        String description,
+        UUID createdByUserId,
+        UUID appointmentId,
+        UUID paymentId,
+        UUID subsidiaryId
+) {}
@@ -0,0 +1,18 @@
+package com.agenda.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projeção (consulta nativa) de um agendamento PENDING aguardando pré-pagamento
+ */
+public interface PendingPrePaymentView {
+
+    UUID getId();
+
+    LocalDateTime getStartTime();
+
+    UUID getSubsidiaryId();
+
+    UUID getProfessionalId();
+}
@@ -0,0 +1,11 @@
+package com.agenda.app.dto;
+
+/**
+ * Dimensão de agrupamento do relatório de faturamento
+ */
+public enum RevenueGrouping {
+    SUBSIDIARY,
+    PROFESSIONAL,
+    ITEM,
+    DAY
+}
@@ -0,0 +1,20 @@
+package com.agenda.app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção (JPQL constructor expression) do faturamento agregado por uma dimensão
+ *
+ * @param key           Id da subsidiária, do profissional ou do serviço, ou a data (ISO) no agrupamento por dia
+ * @param bookedCount   Agendamentos não cancelados
+ * @param revenue       Preço dos atendimentos concluídos
+ * @param bookedMinutes Minutos agendados (não cancelados)
+ */
+public record RevenueSummaryRow(
+        String key,
+        long bookedCount,
+        long completedCount,
+        long cancelledCount,
+        BigDecimal revenue,
+        long bookedMinutes
+) {}
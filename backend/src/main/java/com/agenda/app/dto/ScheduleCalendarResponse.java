@@ -0,0 +1,24 @@
+package com.agenda.app.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Visão de calendário (semana ou mês) dos horários de uma subsidiária,
+ * suas salas/cadeiras e seus profissionais
+ */
+public record ScheduleCalendarResponse(
+        UUID subsidiaryId,
+        CalendarView view,
+        LocalDate startDate,
+        LocalDate endDate,
+        List<SubsidiaryScheduleEntryResponse> subsidiarySchedule,
+        List<ChairRoomScheduleEntryResponse> chairRoomSchedules,
+        List<ProfessionalScheduleEntryResponse> professionalSchedules
+) {
+    public enum CalendarView {
+        WEEK,
+        MONTH
+    }
+}
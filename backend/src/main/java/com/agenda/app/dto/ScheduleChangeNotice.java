@@ -0,0 +1,26 @@
+package com.agenda.app.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Aviso de alteração de horário enviado no canal de push.
+ * O cliente recarrega apenas o recurso e o intervalo de datas indicados.
+ */
+public record ScheduleChangeNotice(
+        ResourceType resourceType,
+        UUID resourceId,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+    public ScheduleChangeNotice(ResourceType resourceType, UUID resourceId, LocalDate date) {
+        this(resourceType, resourceId, date, date);
+    }
+
+    public enum ResourceType {
+        SUBSIDIARY,
+        PROFESSIONAL,
+        CHAIR_ROOM,
+        ASSIGNMENT
+    }
+}
@@ -0,0 +1,52 @@
+package com.agenda.app.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO para copiar os horários de uma subsidiária de um intervalo de origem
+ * (ex.: semana ou mês atual) para um intervalo de destino
+ */
+@Data
+public class ScheduleCloneRequest {
+
+    /**
+     * Estratégia para datas de destino que já possuem horário
+     */
+    public enum ConflictStrategy {
+        SKIP,
+        REPLACE
+    }
+
+    /**
+     * Primeira data do intervalo de origem
+     */
+    @NotNull
+    private LocalDate sourceStartDate;
+
+    /**
+     * Última data do intervalo de origem
+     */
+    @NotNull
+    private LocalDate sourceEndDate;
+
+    /**
+     * Primeira data do intervalo de destino (o destino tem o mesmo tamanho da origem)
+     */
+    @NotNull
+    @FutureOrPresent
+    private LocalDate targetStartDate;
+
+    /**
+     * Se deve copiar também as atribuições (não recorrentes) de profissionais a cadeiras/salas
+     */
+    private boolean includeAssignments = false;
+
+    /**
+     * O que fazer quando o destino já possui horário
+     */
+    private ConflictStrategy conflictStrategy = ConflictStrategy.SKIP;
+}
@@ -0,0 +1,18 @@
+package com.agenda.app.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Resultado da cópia de horários: quantidade de registros criados e substituídos por tipo
+ */
+public record ScheduleCloneResponse(
+        UUID subsidiaryId,
+        LocalDate targetStartDate,
+        LocalDate targetEndDate,
+        int subsidiaryEntriesCreated,
+        int chairRoomEntriesCreated,
+        int professionalEntriesCreated,
+        int assignmentsCreated,
+        int entriesReplaced
+) {}
@@ -0,0 +1,17 @@
+package com.agenda.app.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Projeção (JPQL constructor expression) de uma janela de horário de um recurso
+ * (profissional ou sala/cadeira) em um dia
+ */
+public record ScheduleWindowRow(
+        UUID resourceId,
+        String resourceName,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime
+) {}
@@ -0,0 +1,20 @@
+package com.agenda.app.event;
+
+import java.util.UUID;
+
+/**
+ * Evento da agenda de uma subsidiária, enviado aos clientes conectados no canal de push
+ * depois do commit da transação que o gerou.
+ *
+ * @param subsidiaryId Subsidiária (escopo de entrega)
+ * @param name         Nome do evento SSE ({@code appointment} ou {@code schedule})
+ * @param data         Corpo serializado em JSON
+ */
+public record AgendaEvent(
+        UUID subsidiaryId,
+        String name,
+        Object data
+) {
+    public static final String APPOINTMENT = "appointment";
+    public static final String SCHEDULE = "schedule";
+}
@@ -0,0 +1,51 @@
+package com.agenda.app.event;
+
+import com.agenda.app.dto.ScheduleChangeNotice;
+import com.agenda.app.dto.ScheduleChangeNotice.ResourceType;
+import com.agenda.app.model.ChairRoomScheduleEntry;
+import com.agenda.app.model.ProfessionalChairRoomAssignment;
+import com.agenda.app.model.ProfessionalScheduleEntry;
+import com.agenda.app.model.SubsidiaryScheduleEntry;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.UUID;
+
+/**
+ * Listener JPA das entidades de horário: publica um {@link AgendaEvent} a cada inclusão,
+ * alteração ou remoção. A entrega aos clientes acontece só depois do commit.
+ * Operações em lote via SQL nativo não passam por aqui e publicam o evento no próprio serviço.
+ */
+public class ScheduleChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public ScheduleChangeListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof SubsidiaryScheduleEntry e) {
+            publish(e.getSubsidiary().getId(),
+                    new ScheduleChangeNotice(ResourceType.SUBSIDIARY, e.getSubsidiary().getId(), e.getDate()));
+        } else if (entity instanceof ProfessionalScheduleEntry e && e.getProfessional().getSubsidiary() != null) {
+            publish(e.getProfessional().getSubsidiary().getId(),
+                    new ScheduleChangeNotice(ResourceType.PROFESSIONAL, e.getProfessional().getId(), e.getDate()));
+        } else if (entity instanceof ChairRoomScheduleEntry e) {
+            publish(e.getChairRoom().getSubsidiary().getId(),
+                    new ScheduleChangeNotice(ResourceType.CHAIR_ROOM, e.getChairRoom().getId(), e.getDate()));
+        } else if (entity instanceof ProfessionalChairRoomAssignment e) {
+            publish(e.getChairRoom().getSubsidiary().getId(),
+                    new ScheduleChangeNotice(ResourceType.ASSIGNMENT, e.getChairRoom().getId(), e.getDate()));
+        }
+    }
+
+    private void publish(UUID subsidiaryId, ScheduleChangeNotice notice) {
+        publisher.publishEvent(new AgendaEvent(subsidiaryId, AgendaEvent.SCHEDULE, notice));
+    }
+}
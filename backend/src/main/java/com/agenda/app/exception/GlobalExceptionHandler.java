@@ -1,12 +1,14 @@
 package com.agenda.app.exception;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -92,6 +94,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Trata conflitos de versão que persistiram após as novas tentativas ({@code @RetryOnConflict})
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLock(
+            OptimisticLockingFailureException ex) {
+        ApiError error = new ApiError(
+                "Concurrent modification",
+                "The resource was modified by another request, please try again",
+                LocalDateTime.now(),
+                null
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     /**
      * Trata exceções de pagamento necessário
      */
@@ -131,6 +148,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Trata exceções que já carregam o status HTTP (ex.: 503 por limite de conexões)
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiError> handleResponseStatus(
+            ResponseStatusException ex) {
+        ApiError error = new ApiError(
+                ex.getStatusCode().toString(),
+                ex.getReason(),
+                LocalDateTime.now(),
+                null
+        );
+        return new ResponseEntity<>(error, ex.getStatusCode());
+    }
+
     /**
      * Trata outras exceções não especificadas
      */
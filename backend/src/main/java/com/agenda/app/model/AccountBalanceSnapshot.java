@@ -0,0 +1,42 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Saldo da conta após o lançamento de sequência {@code ledgerSequence} (somente leitura).
+ * Gravado em SQL pelo job de snapshots do ledger; a sequência 0 é o saldo anterior ao ledger.
+ */
+@Entity
+@Immutable
+@Table(name = "account_balance_snapshots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_balance_snapshots_sequence",
+                columnNames = {"client_account_id", "ledger_sequence"}))
+@Getter
+@NoArgsConstructor
+public class AccountBalanceSnapshot {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "client_account_id", nullable = false)
+    private UUID clientAccountId;
+
+    @Column(name = "ledger_sequence", nullable = false)
+    private long ledgerSequence;
+
+    @Column(name = "free_balance", nullable = false, precision = 10, scale = 2)
+    private BigDecimal freeBalance;
+
+    @Column(name = "held_balance", nullable = false, precision = 10, scale = 2)
+    private BigDecimal heldBalance;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -30,6 +30,14 @@ public class AccountHold extends BaseEntity {
     @Column(name = "description", length = 500)
     private String description;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AccountHoldStatus status = AccountHoldStatus.ACTIVE;
+
+    /** Depois disso, se ainda ACTIVE, o job de expiração devolve o valor ao saldo livre */
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     @Column(name = "release_date")
     private LocalDateTime releaseDate;
 
@@ -8,9 +8,12 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Entity
-@Table(name = "account_transactions")
+@Table(name = "account_transactions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_account_transactions_sequence",
+                columnNames = {"client_account_id", "ledger_sequence"}))
 @Getter @Setter @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class AccountTransaction extends BaseEntity {
@@ -29,8 +32,9 @@ public class AccountTransaction extends BaseEntity {
     @Column(name = "description", length = 500)
     private String description;
 
-    @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "created_by_user_id", nullable = false)
+    /** Nulo em lançamentos do sistema (reservas automáticas, expiração) */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by_user_id")
     private User createdBy;
 
     @Column(name = "ip_address", length = 50)
@@ -55,4 +59,12 @@ public class AccountTransaction extends BaseEntity {
 
     @Column(name = "new_held_balance", precision = 10, scale = 2)
     private BigDecimal newHeldBalance;
+
+    /** Subsidiária em cujo caixa o lançamento entrou ({@code CashRegisterService}) */
+    @Column(name = "subsidiary_id")
+    private UUID subsidiaryId;
+
+    /** Posição do lançamento no ledger da conta ({@link ClientAccount#getLedgerSequence()}) */
+    @Column(name = "ledger_sequence", nullable = false, updatable = false)
+    private Long ledgerSequence;
 }
\ No newline at end of file
@@ -6,5 +6,12 @@ public enum AccountTransactionType {
     HOLD,            // Move money from free to held balance
     RELEASE_HOLD,    // Move money from held to free balance
     CONFIRM_HOLD,    // Debit held balance (for completed service)
-    ADJUSTMENT       // Manual adjustment by admin
+    ADJUSTMENT;      // Manual adjustment by admin
+
+    /**
+     * Movimentos de retenção só trocam o dinheiro de saldo dentro da conta: não entram no caixa
+     */
+    public boolean isHoldMovement() {
+        return this == HOLD || this == RELEASE_HOLD || this == CONFIRM_HOLD;
+    }
 }
\ No newline at end of file
@@ -5,7 +5,9 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,12 +16,21 @@ import java.util.List;
 @Table(name = "appointments",
         indexes = {
                 @Index(name = "idx_appointment_professional", columnList = "professional_id"),
-                @Index(name = "idx_appointment_start", columnList = "start_time")
+                @Index(name = "idx_appointment_start", columnList = "start_time"),
+                @Index(name = "idx_appointment_start_id", columnList = "start_time, id"),
+                @Index(name = "idx_appointment_status_start_id", columnList = "status, start_time, id")
         })
 @Getter @Setter @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class Appointment extends BaseEntity {
 
+    /**
+     * Duração máxima de um agendamento. A tabela é particionada por start_time, então as
+     * checagens de sobreposição usam {@code startTime >= inicio - MAX_DURATION} como limite
+     * inferior para que o PostgreSQL descarte as partições antigas.
+     */
+    public static final Duration MAX_DURATION = Duration.ofDays(1);
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subsidiary_id")
     private Subsidiary subsidiary;
@@ -47,6 +58,11 @@ public class Appointment extends BaseEntity {
     @Column(nullable = false)
     private LocalDate date;
 
+    /**
+     * Chave de partição: entra no WHERE dos UPDATEs/DELETEs da entidade (com o valor
+     * carregado), então eles tocam só a partição do agendamento
+     */
+    @PartitionKey
     @Column(name = "start_time", nullable = false)
     private LocalDateTime startTime;
 
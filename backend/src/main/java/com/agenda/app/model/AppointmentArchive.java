@@ -0,0 +1,65 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Agendamento movido para o arquivo frio (somente leitura).
+ * As linhas são gravadas em SQL pelo job de arquivamento; os relacionamentos ficam como ids
+ * simples porque o arquivo não tem chaves estrangeiras.
+ */
+@Entity
+@Immutable
+@Table(name = "appointments_archive",
+        indexes = {
+                @Index(name = "idx_appointment_archive_customer_start", columnList = "customer_id, start_time"),
+                @Index(name = "idx_appointment_archive_professional_start", columnList = "professional_id, start_time"),
+                @Index(name = "idx_appointment_archive_subsidiary_start", columnList = "subsidiary_id, start_time")
+        })
+@Getter
+@NoArgsConstructor
+public class AppointmentArchive {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "subsidiary_id")
+    private UUID subsidiaryId;
+
+    @Column(name = "professional_id", nullable = false)
+    private UUID professionalId;
+
+    @Column(name = "chair_room_id")
+    private UUID chairRoomId;
+
+    @Column(name = "customer_id", nullable = false)
+    private UUID customerId;
+
+    @Column(name = "service_id", nullable = false)
+    private UUID itemId;
+
+    @Column(name = "company_id")
+    private UUID companyId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentStatus status;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
@@ -0,0 +1,54 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Registro de alteração de um agendamento (change feed).
+ * O token de sincronização é o par ({@code txId}, {@code id}): {@code txId} é a transação que
+ * gravou a alteração (preenchido pelo banco) e o feed só entrega as de transações já encerradas,
+ * então nenhuma alteração aparece depois com token menor que o já entregue.
+ * Entradas DELETED são tombstones: o agendamento saiu do escopo (profissional/subsidiária).
+ */
+@Entity
+@Table(name = "appointment_changes",
+        indexes = {
+                @Index(name = "idx_appointment_change_subsidiary_tx", columnList = "subsidiary_id, tx_id, id"),
+                @Index(name = "idx_appointment_change_professional_tx", columnList = "professional_id, tx_id, id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Transação que gravou a alteração (default do banco: pg_current_xact_id) */
+    @ColumnDefault("0")
+    @Column(name = "tx_id", nullable = false, insertable = false, updatable = false)
+    private Long txId;
+
+    @Column(name = "appointment_id", nullable = false)
+    private UUID appointmentId;
+
+    @Column(name = "subsidiary_id")
+    private UUID subsidiaryId;
+
+    @Column(name = "professional_id", nullable = false)
+    private UUID professionalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private AppointmentChangeType changeType;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
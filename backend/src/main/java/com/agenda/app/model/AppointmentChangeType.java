@@ -0,0 +1,8 @@
+package com.agenda.app.model;
+
+public enum AppointmentChangeType {
+    CREATED,
+    UPDATED,
+    CANCELLED,
+    DELETED
+}
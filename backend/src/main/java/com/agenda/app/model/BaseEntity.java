@@ -1,15 +1,15 @@
 package com.agenda.app.model;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.Version;
 import jakarta.persistence.EntityListeners;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.UuidGenerator;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import com.agenda.app.util.UuidV7Generator;
 import java.time.Instant;
 import java.util.UUID;
 import lombok.Getter;
@@ -20,9 +20,8 @@ import lombok.Setter;
 @Getter @Setter
 public abstract class BaseEntity {
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @Column(updatable = false, nullable = false, length = 36)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    @Column(updatable = false, nullable = false)
     private UUID id;
 
     @CreatedDate
@@ -0,0 +1,40 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Caixa de uma subsidiária em um dia. A linha é criada no primeiro movimento do dia;
+ * fechada, congela os totais ({@link CashRegisterRollup}) até ser reaberta.
+ */
+@Entity
+@Table(name = "cash_register_days",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cash_register_days",
+                columnNames = {"subsidiary_id", "business_date"}))
+@Getter @Setter @NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class CashRegisterDay extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "subsidiary_id", nullable = false)
+    private Subsidiary subsidiary;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private CashRegisterStatus status = CashRegisterStatus.OPEN;
+
+    @Column(name = "closed_at")
+    private Instant closedAt;
+
+    @Column(name = "reopened_at")
+    private Instant reopenedAt;
+}
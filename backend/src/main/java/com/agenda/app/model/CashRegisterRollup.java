@@ -0,0 +1,59 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Total do caixa por subsidiária, dia e tipo de movimento (somente leitura).
+ * Gravado em SQL pelo {@code CashRegisterService} a cada pagamento ou lançamento de conta.
+ * <p>
+ * {@code source} = PAYMENT: {@code kind} é a {@link PaymentMethod}; {@code orderTotal} soma o
+ * total das comandas pagas. {@code source} = ACCOUNT: {@code kind} é o
+ * {@link AccountTransactionType} (ADJUSTMENT com sinal).
+ */
+@Entity
+@Immutable
+@Table(name = "cash_register_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cash_register_rollups",
+                columnNames = {"subsidiary_id", "business_date", "source", "kind"}))
+@Getter
+@NoArgsConstructor
+public class CashRegisterRollup {
+
+    public static final String SOURCE_PAYMENT = "PAYMENT";
+    public static final String SOURCE_ACCOUNT = "ACCOUNT";
+
+    @Id
+    private UUID id;
+
+    @Column(name = "subsidiary_id", nullable = false)
+    private UUID subsidiaryId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "source", nullable = false, length = 20)
+    private String source;
+
+    @Column(name = "kind", nullable = false, length = 20)
+    private String kind;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "order_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal orderTotal;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
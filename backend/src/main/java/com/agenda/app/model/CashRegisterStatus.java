@@ -0,0 +1,6 @@
+package com.agenda.app.model;
+
+public enum CashRegisterStatus {
+    OPEN,
+    CLOSED
+}
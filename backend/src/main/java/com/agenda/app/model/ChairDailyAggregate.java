@@ -0,0 +1,49 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Agregado diário de ocupação por sala/cadeira (somente leitura): minutos agendados (não
+ * cancelados) e minutos de abertura da agenda da sala no dia.
+ * Recalculado em SQL ({@code refresh_analytics_daily}) pelo {@code AnalyticsService}.
+ */
+@Entity
+@Immutable
+@Table(name = "analytics_chair_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_analytics_chair_daily",
+                columnNames = {"subsidiary_id", "business_date", "chair_room_id"}))
+@Getter
+@NoArgsConstructor
+public class ChairDailyAggregate {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "subsidiary_id", nullable = false)
+    private UUID subsidiaryId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "chair_room_id", nullable = false)
+    private UUID chairRoomId;
+
+    @Column(name = "booked_count", nullable = false)
+    private long bookedCount;
+
+    @Column(name = "booked_minutes", nullable = false)
+    private long bookedMinutes;
+
+    @Column(name = "open_minutes", nullable = false)
+    private long openMinutes;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+}
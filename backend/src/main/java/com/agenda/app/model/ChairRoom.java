@@ -6,10 +6,17 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
 @Entity
-@Table(name = "chair_rooms",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"name", "subsidiary_id"}))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SQLDelete(sql = "UPDATE chair_rooms SET is_deleted = true, is_active = false, updated_at = now() WHERE id = ? AND version = ?")
+@SQLRestriction("is_deleted = false")
+// Nome único por subsidiária entre as não excluídas: índice parcial uk_chair_rooms_name_subsidiary_live (V6)
+@Table(name = "chair_rooms")
 @Getter @Setter @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class ChairRoom extends BaseEntity {
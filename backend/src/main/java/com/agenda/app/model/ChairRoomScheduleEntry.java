@@ -1,6 +1,6 @@
 package com.agenda.app.model;
 
-
+import com.agenda.app.event.ScheduleChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -11,6 +11,7 @@ import java.time.LocalTime;
 @Entity
 @Table(name = "chair_room_schedule_entry",
         uniqueConstraints = @UniqueConstraint(columnNames = {"chair_room_id", "date"}))
+@EntityListeners(ScheduleChangeListener.class)
 @Getter @Setter @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class ChairRoomScheduleEntry extends BaseEntity {
@@ -34,6 +34,13 @@ public class ClientAccount extends BaseEntity {
     @Column(name = "last_transaction_date")
     private Instant lastTransactionDate;
 
+    /**
+     * Quantidade de lançamentos aplicados; incrementada pelo UPDATE atômico do ledger
+     * ({@code ClientAccountRepository.applyDelta}), nunca pela entidade
+     */
+    @Column(name = "ledger_sequence", nullable = false, updatable = false)
+    private long ledgerSequence;
+
     @OneToMany(mappedBy = "clientAccount", cascade = CascadeType.ALL)
     private List<AccountTransaction> transactions = new ArrayList<>();
 
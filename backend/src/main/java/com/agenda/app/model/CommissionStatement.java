@@ -0,0 +1,55 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extrato de comissão de um profissional em um período, com uma linha por serviço
+ */
+@Entity
+@Table(name = "commission_statements",
+        uniqueConstraints = @UniqueConstraint(name = "uk_commission_statements_period",
+                columnNames = {"professional_id", "period_start", "period_end"}))
+@Getter @Setter @NoArgsConstructor
+@EqualsAndHashCode(callSuper = true, exclude = "lines")
+public class CommissionStatement extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "professional_id", nullable = false)
+    private Professional professional;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "appointment_count", nullable = false)
+    private int appointmentCount;
+
+    /** Concluídos com comanda ainda não paga: ficam fora da base até o pagamento */
+    @Column(name = "unpaid_count", nullable = false)
+    private int unpaidCount;
+
+    @Column(name = "base_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal baseAmount;
+
+    @Column(name = "commission_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal commissionAmount;
+
+    @OneToMany(mappedBy = "statement", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<CommissionStatementLine> lines = new ArrayList<>();
+
+    public void addLine(CommissionStatementLine line) {
+        lines.add(line);
+        line.setStatement(this);
+    }
+}
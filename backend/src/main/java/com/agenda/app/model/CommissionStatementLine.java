@@ -0,0 +1,33 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "commission_statement_lines")
+@Getter @Setter @NoArgsConstructor
+@EqualsAndHashCode(callSuper = true, exclude = "statement")
+public class CommissionStatementLine extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "statement_id", nullable = false)
+    private CommissionStatement statement;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "service_id", nullable = false)
+    private Item service;
+
+    @Column(name = "appointment_count", nullable = false)
+    private int appointmentCount;
+
+    @Column(name = "base_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal baseAmount;
+
+    @Column(name = "commission_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal commissionAmount;
+}
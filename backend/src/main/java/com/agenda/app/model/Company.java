@@ -6,6 +6,10 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 import java.util.List;
 
 /**
@@ -19,6 +23,9 @@ import java.util.List;
  */
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SQLDelete(sql = "UPDATE companies SET is_deleted = true, is_active = false, updated_at = now() WHERE id = ? AND version = ?")
+@SQLRestriction("is_deleted = false")
 @Table(name = "companies")
 @Getter @Setter @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
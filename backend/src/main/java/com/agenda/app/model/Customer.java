@@ -6,10 +6,14 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDate;
 
 @Entity
+@SQLDelete(sql = "UPDATE customers SET is_deleted = true, is_active = false, updated_at = now() WHERE id = ? AND version = ?")
+@SQLRestriction("is_deleted = false")
 @Table(name = "customers",
         indexes = {
                 @Index(name = "idx_customer_fullname", columnList = "full_name"),
@@ -6,6 +6,10 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalTime;
@@ -13,6 +17,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SQLDelete(sql = "UPDATE professionals SET is_deleted = true, is_active = false, updated_at = now() WHERE id = ? AND version = ?")
+@SQLRestriction("is_deleted = false")
 @Table(name = "professionals", indexes = {
                 @Index(name = "idx_professional_fullname", columnList = "full_name")
 })
@@ -58,10 +65,11 @@ public class Professional extends BaseEntity {
         private Set<ProfessionalServiceCfg> serviceConfigs = new HashSet<>();
 
         @ManyToMany
+        @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
         @JoinTable(name = "professional_services", joinColumns = @JoinColumn(name = "professional_id"), inverseJoinColumns = @JoinColumn(name = "service_id"))
         private Set<Item> services = new HashSet<>();
 
-        @ManyToOne
+        @ManyToOne(fetch = FetchType.LAZY)
         @JoinColumn(name = "subsidiary_id")
         private Subsidiary subsidiary;
 
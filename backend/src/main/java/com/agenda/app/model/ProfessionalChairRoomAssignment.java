@@ -1,5 +1,6 @@
 package com.agenda.app.model;
 
+import com.agenda.app.event.ScheduleChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -17,6 +18,7 @@ import java.time.LocalTime;
                 @Index(name = "idx_assignment_prof_date", columnList = "professional_id, date"),
                 @Index(name = "idx_assignment_chair_date", columnList = "chair_room_id, date")
         })
+@EntityListeners(ScheduleChangeListener.class)
 @Getter @Setter @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class ProfessionalChairRoomAssignment extends BaseEntity {
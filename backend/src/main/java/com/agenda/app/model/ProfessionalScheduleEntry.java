@@ -1,7 +1,10 @@
 package com.agenda.app.model;
 
+import com.agenda.app.event.ScheduleChangeListener;
+import com.agenda.app.util.UuidV7Generator;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -14,11 +17,12 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@EntityListeners(ScheduleChangeListener.class)
 @Builder
 public class ProfessionalScheduleEntry {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
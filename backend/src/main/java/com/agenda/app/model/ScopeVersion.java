@@ -0,0 +1,30 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Contador de versão por escopo de leitura (ex.: catálogo de uma subsidiária).
+ * É incrementado na mesma transação de qualquer escrita do escopo e serve de base
+ * para ETag / Last-Modified sem precisar consultar os dados do escopo.
+ */
+@Entity
+@Table(name = "scope_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScopeVersion {
+
+    @Id
+    @Column(name = "scope_key", length = 80)
+    private String scopeKey;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,61 @@
+package com.agenda.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Agregado diário de agendamentos por subsidiária, profissional e serviço (somente leitura).
+ * Recalculado em SQL ({@code refresh_analytics_daily}) pelo {@code AnalyticsService}.
+ * <p>
+ * {@code bookedCount}/{@code bookedMinutes} contam os não cancelados; {@code revenue} soma o
+ * preço (do profissional ou do serviço) dos concluídos.
+ */
+@Entity
+@Immutable
+@Table(name = "analytics_service_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_analytics_service_daily",
+                columnNames = {"subsidiary_id", "business_date", "professional_id", "service_id"}))
+@Getter
+@NoArgsConstructor
+public class ServiceDailyAggregate {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "subsidiary_id", nullable = false)
+    private UUID subsidiaryId;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    @Column(name = "professional_id", nullable = false)
+    private UUID professionalId;
+
+    @Column(name = "service_id", nullable = false)
+    private UUID itemId;
+
+    @Column(name = "booked_count", nullable = false)
+    private long bookedCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "booked_minutes", nullable = false)
+    private long bookedMinutes;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+}
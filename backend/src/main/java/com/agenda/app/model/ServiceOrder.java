@@ -39,6 +39,13 @@ public class ServiceOrder extends BaseEntity {
     @Column(name = "discount", nullable = false)
     private BigDecimal discount = BigDecimal.ZERO;
 
+    /**
+     * sha256 (hex) de cliente, profissional e serviços ordenados; único entre as comandas OPEN
+     * (índice parcial uk_service_order_open_fingerprint, V11)
+     */
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
     @OneToOne(mappedBy = "serviceOrder", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Payment payment;
 }
\ No newline at end of file
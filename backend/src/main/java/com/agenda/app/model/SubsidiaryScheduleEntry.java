@@ -1,5 +1,6 @@
 package com.agenda.app.model;
 
+import com.agenda.app.event.ScheduleChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -9,7 +10,9 @@ import java.time.LocalTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "subsidiary_schedule_entry")
+@Table(name = "subsidiary_schedule_entry",
+        indexes = @Index(name = "idx_subsidiary_schedule_sub_date", columnList = "subsidiary_id, date"))
+@EntityListeners(ScheduleChangeListener.class)
 @Getter @Setter @NoArgsConstructor @EqualsAndHashCode(callSuper = true)
 public class SubsidiaryScheduleEntry extends BaseEntity {
 
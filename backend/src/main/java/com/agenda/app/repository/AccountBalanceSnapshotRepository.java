@@ -0,0 +1,44 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.model.AccountBalanceSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, UUID> {
+
+    /**
+     * Snapshot mais recente até a sequência informada: ponto de partida da reconstrução
+     */
+    Optional<AccountBalanceSnapshot> findFirstByClientAccountIdAndLedgerSequenceLessThanEqualOrderByLedgerSequenceDesc(
+            UUID clientAccountId, long ledgerSequence);
+
+    /**
+     * Grava, em um único comando, o saldo atual das contas com pelo menos {@code every}
+     * lançamentos desde o último snapshot. Saldo e sequência vêm da mesma linha, então o
+     * snapshot é consistente mesmo com lançamentos concorrentes.
+     *
+     * @return Quantidade de snapshots gravados
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "account_balance_snapshots"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO account_balance_snapshots
+               (id, client_account_id, ledger_sequence, free_balance, held_balance, created_at)
+        SELECT uuid_generate_v7(), ca.id, ca.ledger_sequence, ca.free_balance, ca.held_balance, now()
+          FROM client_account ca
+         WHERE ca.ledger_sequence >= :every + COALESCE(
+                   (SELECT max(s.ledger_sequence)
+                      FROM account_balance_snapshots s
+                     WHERE s.client_account_id = ca.id), 0)
+        ON CONFLICT (client_account_id, ledger_sequence) DO NOTHING
+    """, nativeQuery = true)
+    int snapshotAccounts(@Param("every") long every);
+}
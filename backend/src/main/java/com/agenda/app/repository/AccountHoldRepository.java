@@ -13,4 +13,22 @@ import java.util.UUID;
 
 public interface AccountHoldRepository extends JpaRepository<AccountHold, UUID> {
 
-}
\ No newline at end of file
+    Optional<AccountHold> findByAppointmentId(UUID appointmentId);
+
+    Optional<AccountHold> findByAppointmentIdAndStatus(UUID appointmentId, AccountHoldStatus status);
+
+    /**
+     * Trava e devolve um lote de retenções ativas vencidas. O {@code SKIP LOCKED} faz cada nó
+     * (ou execução concorrente) pegar um lote diferente, sem esperar pelas linhas dos outros.
+     */
+    @Query(value = """
+        SELECT *
+          FROM account_holds h
+         WHERE h.status = 'ACTIVE'
+           AND h.expires_at < :now
+         ORDER BY h.expires_at
+         LIMIT :limit
+           FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<AccountHold> lockExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -1,16 +1,24 @@
 package com.agenda.app.repository;
 
+import com.agenda.app.dto.AccountStatementLine;
+import com.agenda.app.dto.AccountTransactionExportRow;
+import com.agenda.app.dto.BalanceDeltaRow;
 import com.agenda.app.model.AccountTransaction;
 import com.agenda.app.model.AccountTransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface AccountTransactionRepository extends JpaRepository<AccountTransaction, UUID> {
 
@@ -29,4 +37,71 @@ public interface AccountTransactionRepository extends JpaRepository<AccountTrans
             @Param("accountId") UUID accountId,
             @Param("startDate") Instant startDate,
             @Param("endDate") Instant endDate);
+
+    /**
+     * Soma das variações de saldo dos lançamentos com sequência em (fromSequence, toSequence]
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.BalanceDeltaRow(
+                   COALESCE(SUM(t.newFreeBalance - t.previousFreeBalance), 0),
+                   COALESCE(SUM(t.newHeldBalance - t.previousHeldBalance), 0),
+                   COUNT(t))
+          FROM AccountTransaction t
+         WHERE t.clientAccount.id = :accountId
+           AND t.ledgerSequence > :fromSequence
+           AND t.ledgerSequence <= :toSequence
+    """)
+    BalanceDeltaRow sumDeltas(
+            @Param("accountId") UUID accountId,
+            @Param("fromSequence") long fromSequence,
+            @Param("toSequence") long toSequence);
+
+    /**
+     * Página do extrato (mais recentes primeiro) com os lançamentos de sequência menor que
+     * {@code beforeSequence}, pelo índice único (client_account_id, ledger_sequence). A
+     * sequência é a ordem em que os saldos foram aplicados, e cada linha já guarda os saldos
+     * logo após o lançamento.
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.AccountStatementLine(
+                   t.id, t.createdAt, t.transactionType, t.amount, t.description, t.ledgerSequence,
+                   t.appointment.id, t.payment.id, t.newFreeBalance, t.newHeldBalance)
+          FROM AccountTransaction t
+         WHERE t.clientAccount.id = :accountId
+           AND t.ledgerSequence < :beforeSequence
+         ORDER BY t.ledgerSequence DESC
+    """)
+    List<AccountStatementLine> findStatementPage(
+            @Param("accountId") UUID accountId,
+            @Param("beforeSequence") long beforeSequence,
+            Limit limit);
+
+    /**
+     * Exportação em streaming das movimentações, projetadas direto em DTO e lidas em lotes
+     * (fetch size). A subsidiária é a do agendamento vinculado à movimentação.
+     * Deve ser consumida dentro de uma transação e fechada ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.agenda.app.dto.AccountTransactionExportRow(
+                   t.id, t.createdAt, ca.id, cu.id, cu.fullName, t.transactionType, t.amount,
+                   t.description, a.id, t.payment.id, t.newFreeBalance, t.newHeldBalance)
+          FROM AccountTransaction t
+          JOIN t.clientAccount ca
+          JOIN ca.customer cu
+          LEFT JOIN t.appointment a
+         WHERE t.createdAt >= :from
+           AND t.createdAt <  :to
+           AND (:companyId IS NULL OR cu.company.id = :companyId)
+           AND (:subsidiaryId IS NULL OR a.subsidiary.id = :subsidiaryId)
+         ORDER BY t.createdAt ASC, t.id ASC
+    """)
+    Stream<AccountTransactionExportRow> streamForExport(
+            @Param("companyId") UUID companyId,
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") Instant from,
+            @Param("to") Instant to);
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.dto.AppointmentHistoryRow;
+import com.agenda.app.model.AppointmentArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface AppointmentArchiveRepository extends JpaRepository<AppointmentArchive, UUID> {
+
+    /**
+     * Move um lote de agendamentos COMPLETED/CANCELLED anteriores ao corte (e seus assistentes)
+     * para o arquivo, em um único comando. O {@code FOR UPDATE SKIP LOCKED} faz o lote ignorar
+     * linhas travadas por outras transações, então o job não disputa com a agenda nem com outra
+     * instância do próprio job.
+     * <p>
+     * Agendamentos ainda referenciados por prontuário, bloqueio ou lançamento de conta ficam na
+     * tabela quente, pois essas entidades carregam o agendamento pelo JPA.
+     *
+     * @return Quantidade de agendamentos arquivados no lote
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments_archive"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_assistants"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointment_assistants_archive")
+    })
+    @Modifying
+    @Query(value = """
+        WITH batch AS (
+            SELECT a.id, a.start_time
+              FROM appointments a
+             WHERE a.status IN ('COMPLETED', 'CANCELLED')
+               AND a.start_time < :cutoff
+               AND NOT EXISTS (SELECT 1 FROM medical_record mr WHERE mr.appointment_id = a.id)
+               AND NOT EXISTS (SELECT 1 FROM account_holds h WHERE h.appointment_id = a.id)
+               AND NOT EXISTS (SELECT 1 FROM account_transactions t WHERE t.appointment_id = a.id)
+             ORDER BY a.start_time
+             LIMIT :batchSize
+               FOR UPDATE OF a SKIP LOCKED
+        ), moved_assistants AS (
+            DELETE FROM appointment_assistants aa
+             USING batch b
+             WHERE aa.appointment_id = b.id
+         RETURNING aa.appointment_id, aa.professional_id
+        ), archived_assistants AS (
+            INSERT INTO appointment_assistants_archive (appointment_id, professional_id)
+            SELECT appointment_id, professional_id FROM moved_assistants
+        ), moved AS (
+            DELETE FROM appointments a
+             USING batch b
+             WHERE a.id = b.id
+               AND a.start_time = b.start_time
+         RETURNING a.*
+        )
+        INSERT INTO appointments_archive
+               (id, created_at, updated_at, updated_by, is_active, is_deleted, version,
+                subsidiary_id, professional_id, chair_room_id, customer_id, service_id, company_id,
+                date, start_time, end_time, notes, status, service_order_id, main_doctor_id, archived_at)
+        SELECT id, created_at, updated_at, updated_by, is_active, is_deleted, version,
+               subsidiary_id, professional_id, chair_room_id, customer_id, service_id, company_id,
+               date, start_time, end_time, notes, status, service_order_id, main_doctor_id, now()
+          FROM moved
+        """, nativeQuery = true)
+    int archiveBatch(@Param("cutoff") LocalDateTime cutoff,
+                     @Param("batchSize") int batchSize);
+
+    /**
+     * Histórico arquivado de um cliente no intervalo, projetado direto em DTO.
+     * LEFT JOIN: profissional/serviço excluído (ou já expurgado) não esconde o registro.
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.AppointmentHistoryRow(
+                   a.id, a.subsidiaryId, a.professionalId, p.fullName, a.itemId, i.name,
+                   a.startTime, a.endTime, a.status, true)
+          FROM AppointmentArchive a
+          LEFT JOIN Professional p ON p.id = a.professionalId
+          LEFT JOIN Item i ON i.id = a.itemId
+         WHERE a.customerId = :customerId
+           AND a.startTime >= :from
+           AND a.startTime <  :to
+         ORDER BY a.startTime DESC
+    """)
+    List<AppointmentHistoryRow> findCustomerHistory(@Param("customerId") UUID customerId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,52 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.model.AppointmentChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AppointmentChangeRepository extends JpaRepository<AppointmentChange, Long> {
+
+    /**
+     * Alterações da subsidiária depois do token (sinceTx, sinceId), só de transações anteriores
+     * a {@code horizon}
+     */
+    @Query("""
+        SELECT c FROM AppointmentChange c
+         WHERE c.subsidiaryId = :subsidiaryId
+           AND c.txId < :horizon
+           AND (c.txId > :sinceTx OR (c.txId = :sinceTx AND c.id > :sinceId))
+         ORDER BY c.txId ASC, c.id ASC
+    """)
+    List<AppointmentChange> findSubsidiaryPage(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("sinceTx") long sinceTx,
+            @Param("sinceId") long sinceId,
+            @Param("horizon") long horizon,
+            Limit limit);
+
+    @Query("""
+        SELECT c FROM AppointmentChange c
+         WHERE c.professionalId = :professionalId
+           AND c.txId < :horizon
+           AND (c.txId > :sinceTx OR (c.txId = :sinceTx AND c.id > :sinceId))
+         ORDER BY c.txId ASC, c.id ASC
+    """)
+    List<AppointmentChange> findProfessionalPage(
+            @Param("professionalId") UUID professionalId,
+            @Param("sinceTx") long sinceTx,
+            @Param("sinceId") long sinceId,
+            @Param("horizon") long horizon,
+            Limit limit);
+
+    /**
+     * Transação aberta mais antiga do snapshot atual: toda transação com id menor já terminou
+     */
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)",
+            nativeQuery = true)
+    long currentVisibilityHorizon();
+}
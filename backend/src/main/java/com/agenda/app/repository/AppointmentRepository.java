@@ -1,18 +1,33 @@
 package com.agenda.app.repository;
 
+import com.agenda.app.dto.AgendaAppointmentRow;
+import com.agenda.app.dto.AppointmentExportRow;
+import com.agenda.app.dto.AppointmentHistoryRow;
+import com.agenda.app.dto.AppointmentOrphanView;
 import com.agenda.app.dto.AppointmentResponse;
+import com.agenda.app.dto.PendingPrePaymentView;
 import com.agenda.app.model.AppointmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import com.agenda.app.model.Appointment;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import org.springframework.data.domain.Pageable;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repositorio naturalmente ja traz a seguinte lista
@@ -24,9 +39,138 @@ import java.util.UUID;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
 
+    /**
+     * Busca por id com o start_time lido do appointment_locator (V15): a partição é
+     * escolhida na execução e só ela é lida, enquanto o findById sonda todas. Só PostgreSQL.
+     */
+    @Query(value = """
+        SELECT a.*
+          FROM appointments a
+         WHERE a.id = :id
+           AND a.start_time = (SELECT l.start_time FROM appointment_locator l WHERE l.id = :id)
+    """, nativeQuery = true)
+    Optional<Appointment> findLocatedById(@Param("id") UUID id);
+
     @EntityGraph(attributePaths = {"customer", "professional", "item", "subsidiary"})
     Page<Appointment> findAll(Pageable pageable);
 
+    /**
+     * Primeira página (keyset) ordenada por (startTime, id), sem count(*)
+     */
+    @Query("SELECT a FROM Appointment a ORDER BY a.startTime ASC, a.id ASC")
+    List<Appointment> findFirstPage(Limit limit);
+
+    /**
+     * Página seguinte (keyset) a partir do último (startTime, id) retornado.
+     * Usa o índice idx_appointment_start_id.
+     */
+    @Query("SELECT a FROM Appointment a " +
+            "WHERE a.startTime > :startTime " +
+            "OR (a.startTime = :startTime AND a.id > :id) " +
+            "ORDER BY a.startTime ASC, a.id ASC")
+    List<Appointment> findPageAfter(
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") UUID id,
+            Limit limit);
+
+    /**
+     * Primeira página (keyset) da agenda filtrada por status
+     */
+    @Query("SELECT a FROM Appointment a " +
+            "WHERE a.status IN :statuses " +
+            "ORDER BY a.startTime ASC, a.id ASC")
+    List<Appointment> findFirstPageByStatusIn(
+            @Param("statuses") List<AppointmentStatus> statuses,
+            Limit limit);
+
+    /**
+     * Página seguinte (keyset) da agenda filtrada por status.
+     * Usa o índice idx_appointment_status_start_id.
+     */
+    @Query("SELECT a FROM Appointment a " +
+            "WHERE a.status IN :statuses " +
+            "AND (a.startTime > :startTime OR (a.startTime = :startTime AND a.id > :id)) " +
+            "ORDER BY a.startTime ASC, a.id ASC")
+    List<Appointment> findPageAfterByStatusIn(
+            @Param("statuses") List<AppointmentStatus> statuses,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("id") UUID id,
+            Limit limit);
+
+    /**
+     * Agendamentos (não cancelados) de uma subsidiária no intervalo, projetados direto em DTO
+     * para a grade da agenda. Uma única consulta com joins, sem carregar entidades.
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.AgendaAppointmentRow(
+                   a.id, p.id, p.fullName, c.id, c.name, cu.fullName, i.name,
+                   a.startTime, a.endTime, a.status)
+          FROM Appointment a
+          JOIN a.professional p
+          LEFT JOIN a.chairRoom c
+          JOIN a.customer cu
+          JOIN a.item i
+         WHERE a.subsidiary.id = :subsidiaryId
+           AND a.startTime >= :from
+           AND a.startTime <  :to
+           AND a.status <> com.agenda.app.model.AppointmentStatus.CANCELLED
+         ORDER BY a.startTime ASC
+    """)
+    List<AgendaAppointmentRow> findAgendaGridRows(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Exportação em streaming: projeção direta em DTO, lida do cursor do banco em lotes
+     * (fetch size), sem passar pelo contexto de persistência. Deve ser consumida dentro
+     * de uma transação e fechada ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT new com.agenda.app.dto.AppointmentExportRow(
+                   a.id, a.company.id, a.subsidiary.id, p.id, p.fullName, cu.id, cu.fullName,
+                   i.id, i.name, a.startTime, a.endTime, a.status)
+          FROM Appointment a
+          JOIN a.professional p
+          JOIN a.customer cu
+          JOIN a.item i
+         WHERE a.startTime >= :from
+           AND a.startTime <  :to
+           AND (:companyId IS NULL OR a.company.id = :companyId)
+           AND (:subsidiaryId IS NULL OR a.subsidiary.id = :subsidiaryId)
+         ORDER BY a.startTime ASC, a.id ASC
+    """)
+    Stream<AppointmentExportRow> streamForExport(
+            @Param("companyId") UUID companyId,
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Histórico (tabela quente) de um cliente no intervalo, projetado direto em DTO.
+     * Complementado pelo arquivo em {@link AppointmentArchiveRepository#findCustomerHistory}.
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.AppointmentHistoryRow(
+                   a.id, a.subsidiary.id, a.professional.id, p.fullName, a.item.id, i.name,
+                   a.startTime, a.endTime, a.status, false)
+          FROM Appointment a
+          LEFT JOIN a.professional p
+          LEFT JOIN a.item i
+         WHERE a.customer.id = :customerId
+           AND a.startTime >= :from
+           AND a.startTime <  :to
+         ORDER BY a.startTime DESC
+    """)
+    List<AppointmentHistoryRow> findCustomerHistory(
+            @Param("customerId") UUID customerId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
     List<Appointment> findByProfessionalIdAndStartTimeAfterAndEndTimeBefore(
             UUID professionalId,
             LocalDateTime startTime,
@@ -85,19 +229,55 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
 
 
 
+    /**
+     * Existe agendamento do profissional em outra subsidiária que se sobreponha ao intervalo?
+     * O limite inferior em startTime permite o descarte de partições (ver {@link Appointment#MAX_DURATION}).
+     */
+    default boolean existsOverlapInOtherSubsidiary(UUID professionalId,
+                                                   UUID subsidiaryId,
+                                                   LocalDateTime start,
+                                                   LocalDateTime end) {
+        return existsOverlapInOtherSubsidiary(
+                professionalId, subsidiaryId, start.minus(Appointment.MAX_DURATION), start, end);
+    }
+
     @Query("""
     SELECT COUNT(a) > 0
       FROM Appointment a
      WHERE a.professional.id = :professionalId
        AND a.subsidiary.id  <> :subsidiaryId
+       AND a.startTime      >= :earliestStart
        AND a.startTime      <  :end
        AND a.endTime        >  :start
 """)
-    boolean existsOverlapInOtherSubsidiary(UUID professionalId,
-                                           UUID subsidiaryId,
-                                           LocalDateTime start,
-                                           LocalDateTime end);
+    boolean existsOverlapInOtherSubsidiary(@Param("professionalId") UUID professionalId,
+                                           @Param("subsidiaryId") UUID subsidiaryId,
+                                           @Param("earliestStart") LocalDateTime earliestStart,
+                                           @Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end);
+
 
+    /**
+     * Existe agendamento (não cancelado) da sala/cadeira que se sobreponha ao intervalo?
+     * Usa o índice parcial idx_appointment_chair_time_active.
+     */
+    default boolean existsChairRoomOverlap(UUID chairRoomId, LocalDateTime start, LocalDateTime end) {
+        return existsChairRoomOverlap(chairRoomId, start.minus(Appointment.MAX_DURATION), start, end);
+    }
+
+    @Query("""
+    SELECT COUNT(a) > 0
+      FROM Appointment a
+     WHERE a.chairRoom.id = :chairRoomId
+       AND a.status <> com.agenda.app.model.AppointmentStatus.CANCELLED
+       AND a.startTime >= :earliestStart
+       AND a.startTime <  :end
+       AND a.endTime   >  :start
+""")
+    boolean existsChairRoomOverlap(@Param("chairRoomId") UUID chairRoomId,
+                                   @Param("earliestStart") LocalDateTime earliestStart,
+                                   @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end);
 
     @Query("""
         SELECT a
@@ -108,7 +288,97 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
     """)
     List<Appointment> findPendingAppointmentsWithin2Days(@Param("now")      LocalDateTime now,
                                                          @Param("deadline") LocalDateTime deadline);
-}
 
+    /* ========= PRAZO DE PRÉ-PAGAMENTO ========= */
 
+    /**
+     * Trava e devolve a próxima página (keyset por startTime, id) de agendamentos PENDING de
+     * serviços com pré-pagamento que começam antes de {@code deadline} e foram criados antes de
+     * {@code createdBefore}. O {@code SKIP LOCKED} deixa as linhas travadas por outro nó (ou
+     * por uma edição em andamento) para a próxima execução.
+     */
+    @Query(value = """
+        SELECT a.id              AS id,
+               a.start_time      AS startTime,
+               a.subsidiary_id   AS subsidiaryId,
+               a.professional_id AS professionalId
+          FROM appointments a
+          JOIN services s ON s.id = a.service_id
+         WHERE a.status = 'PENDING'
+           AND s.requires_pre_payment = true
+           AND a.start_time >= :now
+           AND a.start_time <  :deadline
+           AND a.created_at <  :createdBefore
+           AND (a.start_time, a.id) > (:afterStart, :afterId)
+         ORDER BY a.start_time, a.id
+         LIMIT :limit
+           FOR UPDATE OF a SKIP LOCKED
+    """, nativeQuery = true)
+    List<PendingPrePaymentView> lockPendingPrePaymentPage(
+            @Param("now") LocalDateTime now,
+            @Param("deadline") LocalDateTime deadline,
+            @Param("createdBefore") Instant createdBefore,
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
 
+    /**
+     * Dentre os ids, os que já têm pagamento concluído na comanda (uma consulta por lote)
+     */
+    @Query("""
+        SELECT a.id
+          FROM Appointment a
+          JOIN a.serviceOrder so
+          JOIN so.payment p
+         WHERE a.id IN :ids
+           AND p.status = com.agenda.app.model.PaymentStatus.COMPLETED
+    """)
+    List<UUID> findIdsWithCompletedPayment(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Troca o status de um lote de agendamentos ainda PENDING (incrementa a versão).
+     * O intervalo [startFrom, startTo] cobre o lote e restringe as partições tocadas.
+     *
+     * @return Quantidade de agendamentos alterados
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "appointments"))
+    @Modifying
+    @Query(value = """
+        UPDATE appointments
+           SET status     = :status,
+               version    = COALESCE(version, 0) + 1,
+               updated_at = now()
+         WHERE id IN (:ids)
+           AND start_time BETWEEN :startFrom AND :startTo
+           AND status = 'PENDING'
+    """, nativeQuery = true)
+    int updatePendingStatus(@Param("ids") Collection<UUID> ids,
+                            @Param("startFrom") LocalDateTime startFrom,
+                            @Param("startTo") LocalDateTime startTo,
+                            @Param("status") String status);
+
+    /* ========= PARTIÇÕES (PostgreSQL) ========= */
+
+    /**
+     * Garante as partições mensais do mês corrente até {@code monthsAhead} meses à frente
+     *
+     * @return Quantidade de partições criadas
+     */
+    @Query(value = "SELECT ensure_appointment_partitions(:monthsAhead)", nativeQuery = true)
+    int ensurePartitions(@Param("monthsAhead") int monthsAhead);
+
+    /**
+     * Desanexa as partições mensais que terminam antes da data de corte
+     *
+     * @return Quantidade de partições desanexadas
+     */
+    @Query(value = "SELECT detach_appointment_partitions_before(:cutoff)", nativeQuery = true)
+    int detachPartitionsBefore(@Param("cutoff") LocalDate cutoff);
+
+    /**
+     * Referências a agendamentos inexistentes, por tabela (as FKs não existem desde a V4)
+     */
+    @Query(value = "SELECT o.table_name AS tableName, o.orphans AS orphans FROM find_appointment_orphans() o",
+            nativeQuery = true)
+    List<AppointmentOrphanView> findOrphanReferences();
+}
@@ -0,0 +1,57 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.model.CashRegisterDay;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CashRegisterDayRepository extends JpaRepository<CashRegisterDay, UUID> {
+
+    Optional<CashRegisterDay> findBySubsidiaryIdAndBusinessDate(UUID subsidiaryId, LocalDate businessDate);
+
+    /**
+     * Dia travado para fechar/reabrir: espera os movimentos em andamento (que seguram a trava
+     * compartilhada de {@link #lockStatusForWrite}) terminarem
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM CashRegisterDay d WHERE d.subsidiary.id = :subsidiaryId AND d.businessDate = :businessDate")
+    Optional<CashRegisterDay> findForUpdate(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("businessDate") LocalDate businessDate);
+
+    /**
+     * Cria o dia (aberto) se ainda não existe
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cash_register_days"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO cash_register_days
+               (id, created_at, updated_at, is_active, is_deleted, version, subsidiary_id, business_date, status)
+        VALUES (uuid_generate_v7(), now(), now(), true, false, 0, :subsidiaryId, :businessDate, 'OPEN')
+        ON CONFLICT (subsidiary_id, business_date) DO NOTHING
+    """, nativeQuery = true)
+    int ensureDay(@Param("subsidiaryId") UUID subsidiaryId, @Param("businessDate") LocalDate businessDate);
+
+    /**
+     * Situação do dia com trava compartilhada até o fim da transação: movimentos concorrentes
+     * não se bloqueiam, mas o fechamento espera por eles e quem chega depois vê o dia fechado
+     */
+    @Query(value = """
+        SELECT d.status
+          FROM cash_register_days d
+         WHERE d.subsidiary_id = :subsidiaryId
+           AND d.business_date = :businessDate
+           FOR SHARE
+    """, nativeQuery = true)
+    String lockStatusForWrite(@Param("subsidiaryId") UUID subsidiaryId, @Param("businessDate") LocalDate businessDate);
+}
@@ -0,0 +1,147 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.dto.CashRegisterDriftView;
+import com.agenda.app.model.CashRegisterRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface CashRegisterRollupRepository extends JpaRepository<CashRegisterRollup, UUID> {
+
+    List<CashRegisterRollup> findBySubsidiaryIdAndBusinessDateOrderBySourceAscKindAsc(
+            UUID subsidiaryId, LocalDate businessDate);
+
+    /**
+     * Soma o movimento ao total (cria a linha no primeiro movimento). Valores negativos
+     * desfazem um movimento (estorno).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cash_register_rollups"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO cash_register_rollups AS r
+               (id, subsidiary_id, business_date, source, kind, entry_count, amount, order_total, updated_at)
+        VALUES (uuid_generate_v7(), :subsidiaryId, :businessDate, :source, :kind,
+                :entryCount, :amount, :orderTotal, now())
+        ON CONFLICT (subsidiary_id, business_date, source, kind) DO UPDATE
+           SET entry_count = r.entry_count + EXCLUDED.entry_count,
+               amount      = r.amount + EXCLUDED.amount,
+               order_total = r.order_total + EXCLUDED.order_total,
+               updated_at  = now()
+    """, nativeQuery = true)
+    int addToRollup(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("businessDate") LocalDate businessDate,
+            @Param("source") String source,
+            @Param("kind") String kind,
+            @Param("entryCount") long entryCount,
+            @Param("amount") BigDecimal amount,
+            @Param("orderTotal") BigDecimal orderTotal);
+
+    /**
+     * Substitui o total pelo valor recalculado (correção da reconciliação)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cash_register_rollups"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO cash_register_rollups AS r
+               (id, subsidiary_id, business_date, source, kind, entry_count, amount, order_total, updated_at)
+        VALUES (uuid_generate_v7(), :subsidiaryId, :businessDate, :source, :kind,
+                :entryCount, :amount, :orderTotal, now())
+        ON CONFLICT (subsidiary_id, business_date, source, kind) DO UPDATE
+           SET entry_count = EXCLUDED.entry_count,
+               amount      = EXCLUDED.amount,
+               order_total = EXCLUDED.order_total,
+               updated_at  = now()
+    """, nativeQuery = true)
+    int replaceRollup(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("businessDate") LocalDate businessDate,
+            @Param("source") String source,
+            @Param("kind") String kind,
+            @Param("entryCount") long entryCount,
+            @Param("amount") BigDecimal amount,
+            @Param("orderTotal") BigDecimal orderTotal);
+
+    /**
+     * Recalcula os totais de [{@code fromDate}, {@code toDate}] (de uma subsidiária ou de todas)
+     * direto dos pagamentos (COMPLETED) e lançamentos, e devolve os que divergem dos rollups
+     * gravados. Linhas de rollup sem movimento na origem aparecem com os valores esperados
+     * zerados. O dia de cada instante é o do fuso {@code zone}, o mesmo usado no lançamento.
+     */
+    @Query(value = """
+        WITH expected AS (
+            SELECT pr.subsidiary_id,
+                   CAST(COALESCE(p.payment_date, p.created_at AT TIME ZONE :zone) AS date) AS business_date,
+                   'PAYMENT'                                            AS source,
+                   p.payment_method                                     AS kind,
+                   count(*)                                             AS entry_count,
+                   sum(p.amount)                                        AS amount,
+                   sum(so.total_price)                                  AS order_total
+              FROM payment p
+              JOIN service_order so ON so.id = p.service_order_id
+              JOIN professionals pr ON pr.id = so.professional_id
+             WHERE p.status = 'COMPLETED'
+               AND pr.subsidiary_id IS NOT NULL
+               AND (CAST(:subsidiaryId AS uuid) IS NULL OR pr.subsidiary_id = CAST(:subsidiaryId AS uuid))
+               AND COALESCE(p.payment_date, p.created_at AT TIME ZONE :zone) >= :fromDate
+               AND COALESCE(p.payment_date, p.created_at AT TIME ZONE :zone) < CAST(:toDate AS date) + 1
+             GROUP BY 1, 2, 4
+            UNION ALL
+            SELECT t.subsidiary_id,
+                   CAST(t.created_at AT TIME ZONE :zone AS date),
+                   'ACCOUNT',
+                   t.transaction_type,
+                   count(*),
+                   sum(CASE WHEN t.transaction_type = 'ADJUSTMENT'
+                            THEN t.new_free_balance - t.previous_free_balance
+                            ELSE t.amount END),
+                   0
+              FROM account_transactions t
+             WHERE t.subsidiary_id IS NOT NULL
+               AND t.transaction_type NOT IN ('HOLD', 'RELEASE_HOLD', 'CONFIRM_HOLD')
+               AND (CAST(:subsidiaryId AS uuid) IS NULL OR t.subsidiary_id = CAST(:subsidiaryId AS uuid))
+               AND t.created_at >= CAST(:fromDate AS timestamp) AT TIME ZONE :zone
+               AND t.created_at <  (CAST(:toDate AS timestamp) + interval '1 day') AT TIME ZONE :zone
+             GROUP BY 1, 2, 4
+        ), stored AS (
+            SELECT r.subsidiary_id, r.business_date, r.source, r.kind, r.entry_count, r.amount
+              FROM cash_register_rollups r
+             WHERE r.business_date BETWEEN :fromDate AND :toDate
+               AND (CAST(:subsidiaryId AS uuid) IS NULL OR r.subsidiary_id = CAST(:subsidiaryId AS uuid))
+        )
+        SELECT COALESCE(e.subsidiary_id, s.subsidiary_id) AS subsidiaryId,
+               COALESCE(e.business_date, s.business_date) AS businessDate,
+               COALESCE(e.source, s.source)               AS source,
+               COALESCE(e.kind, s.kind)                   AS kind,
+               COALESCE(e.entry_count, 0)                 AS expectedCount,
+               COALESCE(e.amount, 0)                      AS expectedAmount,
+               COALESCE(e.order_total, 0)                 AS expectedOrderTotal,
+               s.entry_count                              AS storedCount,
+               s.amount                                   AS storedAmount,
+               d.status                                   AS dayStatus
+          FROM expected e
+          FULL JOIN stored s
+            ON s.subsidiary_id = e.subsidiary_id
+           AND s.business_date = e.business_date
+           AND s.source = e.source
+           AND s.kind = e.kind
+          LEFT JOIN cash_register_days d
+            ON d.subsidiary_id = COALESCE(e.subsidiary_id, s.subsidiary_id)
+           AND d.business_date = COALESCE(e.business_date, s.business_date)
+         WHERE s.entry_count IS DISTINCT FROM COALESCE(e.entry_count, 0)
+            OR s.amount IS DISTINCT FROM COALESCE(e.amount, 0)
+    """, nativeQuery = true)
+    List<CashRegisterDriftView> findDrift(@Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          @Param("subsidiaryId") UUID subsidiaryId,
+                                          @Param("zone") String zone);
+}
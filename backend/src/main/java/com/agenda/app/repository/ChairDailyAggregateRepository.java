@@ -0,0 +1,31 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.dto.ChairUtilizationRow;
+import com.agenda.app.model.ChairDailyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface ChairDailyAggregateRepository extends JpaRepository<ChairDailyAggregate, UUID> {
+
+    /**
+     * Minutos agendados e de abertura por sala/cadeira da subsidiária no período
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.ChairUtilizationRow(
+                   r.chairRoomId, SUM(r.bookedCount), SUM(r.bookedMinutes), SUM(r.openMinutes))
+          FROM ChairDailyAggregate r
+         WHERE r.subsidiaryId = :subsidiaryId
+           AND r.businessDate BETWEEN :from AND :to
+         GROUP BY r.chairRoomId
+         ORDER BY r.chairRoomId
+    """)
+    List<ChairUtilizationRow> sumByChair(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
@@ -1,6 +1,9 @@
 package com.agenda.app.repository;
 
 import com.agenda.app.model.ChairRoom;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,9 +14,15 @@ import java.util.UUID;
 
 public interface ChairRoomRepository extends JpaRepository<ChairRoom, UUID> {
 
+    /* O mapper expõe subsidiary.name: carregada no mesmo select das listagens */
+    @EntityGraph(attributePaths = {"subsidiary"})
+    Page<ChairRoom> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"subsidiary"})
     List<ChairRoom> findBySubsidiaryId(UUID subsidiaryId);
 
 
+    @EntityGraph(attributePaths = {"subsidiary"})
     @Query("SELECT cr FROM ChairRoom cr WHERE cr.subsidiary.id = :subsidiaryId " +
             "AND cr.isAvailable = true " +
             "AND cr.id NOT IN (" +
@@ -29,5 +38,16 @@ public interface ChairRoomRepository extends JpaRepository<ChairRoom, UUID> {
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * Verifica se a sala ainda é referenciada por registros vivos (agendamentos,
+     * disponibilidades, alocações de profissionais, escala da sala)
+     */
+    @Query("SELECT CASE WHEN COUNT(cr) > 0 THEN true ELSE false END FROM ChairRoom cr WHERE cr.id = :id AND (" +
+            "EXISTS (SELECT 1 FROM Appointment a WHERE a.chairRoom = cr) " +
+            "OR EXISTS (SELECT 1 FROM Availability av WHERE av.chairRoom = cr) " +
+            "OR EXISTS (SELECT 1 FROM ProfessionalChairRoomAssignment pa WHERE pa.chairRoom = cr) " +
+            "OR EXISTS (SELECT 1 FROM ChairRoomScheduleEntry e WHERE e.chairRoom = cr))")
+    boolean isReferenced(@Param("id") UUID id);
+
 
 }
\ No newline at end of file
@@ -1,7 +1,15 @@
 package com.agenda.app.repository;
 
+import com.agenda.app.dto.ScheduleWindowRow;
 import com.agenda.app.model.ChairRoomScheduleEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,4 +23,111 @@ public interface ChairRoomScheduleEntryRepository extends JpaRepository<ChairRoo
     Optional<ChairRoomScheduleEntry> findByChairRoomIdAndDate(UUID chairRoomId, LocalDate date);
 
     boolean existsByChairRoomIdAndDate(UUID chairRoomId, LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Busca os horários de uma sala/cadeira dentro de um intervalo de datas (inclusivo).
+     * Usa o índice único (chair_room_id, date).
+     */
+    @Query("SELECT e FROM ChairRoomScheduleEntry e " +
+            "WHERE e.chairRoom.id = :chairRoomId " +
+            "AND e.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.date ASC")
+    List<ChairRoomScheduleEntry> findByChairRoomIdAndDateRange(
+            @Param("chairRoomId") UUID chairRoomId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Página seguinte (keyset) dos horários de uma sala/cadeira a partir de uma data
+     */
+    @Query("SELECT e FROM ChairRoomScheduleEntry e " +
+            "WHERE e.chairRoom.id = :chairRoomId " +
+            "AND e.date > :afterDate " +
+            "AND e.date <= :endDate " +
+            "ORDER BY e.date ASC")
+    List<ChairRoomScheduleEntry> findPageAfter(
+            @Param("chairRoomId") UUID chairRoomId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("endDate") LocalDate endDate,
+            Limit limit);
+
+    /**
+     * Busca os horários de todas as salas/cadeiras de uma subsidiária em um intervalo de datas
+     */
+    @Query("SELECT e FROM ChairRoomScheduleEntry e " +
+            "JOIN e.chairRoom c " +
+            "WHERE c.subsidiary.id = :subsidiaryId " +
+            "AND e.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.date ASC, c.name ASC")
+    List<ChairRoomScheduleEntry> findBySubsidiaryIdAndDateRange(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Janelas de funcionamento (não fechadas) das salas/cadeiras de uma subsidiária,
+     * projetadas para a grade da agenda
+     */
+    @Query("SELECT new com.agenda.app.dto.ScheduleWindowRow(c.id, c.name, e.date, e.openTime, e.closeTime) " +
+            "FROM ChairRoomScheduleEntry e " +
+            "JOIN e.chairRoom c " +
+            "WHERE c.subsidiary.id = :subsidiaryId " +
+            "AND e.closed = false " +
+            "AND e.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY c.name ASC, e.date ASC")
+    List<ScheduleWindowRow> findWindowsBySubsidiaryIdAndDateRange(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /* ========= CÓPIA DE HORÁRIOS (set-based) ========= */
+
+    /**
+     * Copia os horários de todas as salas/cadeiras da subsidiária do intervalo de origem para
+     * as datas deslocadas em {@code offsetDays}, ignorando datas de destino que já possuem horário
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chair_room_schedule_entry"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO chair_room_schedule_entry
+               (id, chair_room_id, date, open_time, close_time, closed, customized,
+                created_at, updated_at, is_active, is_deleted, version)
+        SELECT uuid_generate_v7(), s.chair_room_id, s.date + CAST(:offsetDays AS integer),
+               s.open_time, s.close_time, s.closed, s.customized,
+               now(), now(), true, false, 0
+          FROM chair_room_schedule_entry s
+          JOIN chair_rooms c ON c.id = s.chair_room_id
+         WHERE c.subsidiary_id = :subsidiaryId
+           AND c.is_deleted = false
+           AND s.date BETWEEN :sourceStart AND :sourceEnd
+           AND NOT EXISTS (SELECT 1
+                             FROM chair_room_schedule_entry t
+                            WHERE t.chair_room_id = s.chair_room_id
+                              AND t.date = s.date + CAST(:offsetDays AS integer))
+        """, nativeQuery = true)
+    int cloneRangeForSubsidiary(@Param("subsidiaryId") UUID subsidiaryId,
+                                @Param("sourceStart") LocalDate sourceStart,
+                                @Param("sourceEnd") LocalDate sourceEnd,
+                                @Param("offsetDays") int offsetDays);
+
+    /**
+     * Remove os horários de destino que colidem com alguma data de origem (estratégia REPLACE)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "chair_room_schedule_entry"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        DELETE FROM chair_room_schedule_entry t
+         USING chair_rooms c
+         WHERE c.id = t.chair_room_id
+           AND c.subsidiary_id = :subsidiaryId
+           AND t.date BETWEEN :targetStart AND :targetEnd
+           AND EXISTS (SELECT 1
+                         FROM chair_room_schedule_entry s
+                        WHERE s.chair_room_id = t.chair_room_id
+                          AND s.date = t.date - CAST(:offsetDays AS integer))
+        """, nativeQuery = true)
+    int deleteCloneTargetsForSubsidiary(@Param("subsidiaryId") UUID subsidiaryId,
+                                        @Param("targetStart") LocalDate targetStart,
+                                        @Param("targetEnd") LocalDate targetEnd,
+                                        @Param("offsetDays") int offsetDays);
+}
@@ -0,0 +1,46 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.dto.AccountBalanceView;
+import com.agenda.app.model.ClientAccount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ClientAccountRepository extends JpaRepository<ClientAccount, UUID> {
+
+    Optional<ClientAccount> findByCustomerId(UUID customerId);
+
+    /**
+     * Aplica as variações de saldo (em centavos) em um único comando, sob a trava da linha:
+     * sem leitura-modificação-escrita, lançamentos concorrentes na mesma conta são
+     * serializados pelo banco. Incrementa a sequência do ledger e a versão (entidades
+     * carregadas antes passam a falhar no lock otimista em vez de sobrescrever o saldo).
+     * <p>
+     * Não altera nada se o saldo livre ficar negativo por um débito ou o saldo retido ficar
+     * negativo.
+     *
+     * @return Saldos e sequência após o lançamento; vazio se a conta não existe ou o saldo
+     * é insuficiente
+     */
+    @Query(value = """
+        UPDATE client_account
+           SET free_balance          = free_balance + CAST(:freeDeltaCents AS numeric) / 100,
+               held_balance          = held_balance + CAST(:heldDeltaCents AS numeric) / 100,
+               total_balance         = total_balance + CAST(:freeDeltaCents + :heldDeltaCents AS numeric) / 100,
+               ledger_sequence       = ledger_sequence + 1,
+               last_transaction_date = now(),
+               updated_at            = now(),
+               version               = COALESCE(version, 0) + 1
+         WHERE id = :accountId
+           AND (:freeDeltaCents >= 0 OR free_balance + CAST(:freeDeltaCents AS numeric) / 100 >= 0)
+           AND held_balance + CAST(:heldDeltaCents AS numeric) / 100 >= 0
+     RETURNING free_balance AS freeBalance, held_balance AS heldBalance, ledger_sequence AS ledgerSequence
+    """, nativeQuery = true)
+    Optional<AccountBalanceView> applyDelta(
+            @Param("accountId") UUID accountId,
+            @Param("freeDeltaCents") long freeDeltaCents,
+            @Param("heldDeltaCents") long heldDeltaCents);
+}
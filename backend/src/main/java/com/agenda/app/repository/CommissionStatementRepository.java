@@ -0,0 +1,31 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.model.CommissionStatement;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface CommissionStatementRepository extends JpaRepository<CommissionStatement, UUID> {
+
+    @EntityGraph(attributePaths = {"professional", "lines", "lines.service"})
+    List<CommissionStatement> findByPeriodStartAndPeriodEndOrderByProfessionalFullNameAsc(
+            LocalDate periodStart, LocalDate periodEnd);
+
+    @EntityGraph(attributePaths = {"professional", "lines", "lines.service"})
+    List<CommissionStatement> findByProfessionalIdOrderByPeriodStartDesc(UUID professionalId);
+
+    @Modifying
+    @Query("DELETE FROM CommissionStatementLine l WHERE l.statement.id IN " +
+            "(SELECT s.id FROM CommissionStatement s WHERE s.periodStart = :periodStart AND s.periodEnd = :periodEnd)")
+    int deleteLinesByPeriod(@Param("periodStart") LocalDate periodStart, @Param("periodEnd") LocalDate periodEnd);
+
+    @Modifying
+    @Query("DELETE FROM CommissionStatement s WHERE s.periodStart = :periodStart AND s.periodEnd = :periodEnd")
+    int deleteByPeriod(@Param("periodStart") LocalDate periodStart, @Param("periodEnd") LocalDate periodEnd);
+}
@@ -33,4 +33,17 @@ public interface CompanyRepository extends JpaRepository<Company, UUID>{
             "SUBSTRING(REPLACE(REPLACE(REPLACE(:cnpj, '.', ''), '/', ''), '-', ''), 1, 8) " +
             "AND (c.id <> :excludeId OR :excludeId IS NULL)")
     boolean existsByDocumentNumberPrefix(@Param("cnpj") String cnpj, @Param("excludeId") UUID excludeId);
+
+    /**
+     * Verifica se a empresa ainda é referenciada por registros vivos (subsidiárias, clientes,
+     * serviços, usuários, agendamentos). Excluída com referências, a empresa deixaria de carregar
+     * nas associações desses registros.
+     */
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Company c WHERE c.id = :id AND (" +
+            "EXISTS (SELECT 1 FROM Subsidiary s WHERE s.company = c) " +
+            "OR EXISTS (SELECT 1 FROM Customer cu WHERE cu.company = c) " +
+            "OR EXISTS (SELECT 1 FROM Item i WHERE i.company = c) " +
+            "OR EXISTS (SELECT 1 FROM User u WHERE u.company = c) " +
+            "OR EXISTS (SELECT 1 FROM Appointment a WHERE a.company = c))")
+    boolean isReferenced(@Param("id") UUID id);
 }
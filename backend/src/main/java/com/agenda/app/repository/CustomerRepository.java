@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,4 +18,15 @@ import java.util.UUID;
 public interface CustomerRepository extends JpaRepository<Customer, UUID>, JpaSpecificationExecutor<Customer> {
     List<Customer> findByCompanyId(UUID companyId);
     Page<Customer> findByCompanyId(UUID companyId, Pageable pageable);
+
+    /**
+     * Verifica se o cliente ainda é referenciado por registros vivos (agendamentos, conta,
+     * prontuários, ordens de serviço)
+     */
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Customer c WHERE c.id = :id AND (" +
+            "EXISTS (SELECT 1 FROM Appointment a WHERE a.customer = c) " +
+            "OR EXISTS (SELECT 1 FROM ClientAccount ca WHERE ca.customer = c) " +
+            "OR EXISTS (SELECT 1 FROM MedicalRecord m WHERE m.customer = c) " +
+            "OR EXISTS (SELECT 1 FROM ServiceOrder o WHERE o.customer = c))")
+    boolean isReferenced(@Param("id") UUID id);
 }
@@ -1,7 +1,12 @@
 package com.agenda.app.repository;
 
 import com.agenda.app.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,8 +18,35 @@ public interface ItemRepository extends JpaRepository<Item, UUID> {
             UUID companyId
     );
 
+    /**
+     * Catálogo da subsidiária. Resultado no cache de consultas (ids) e entidades no cache de
+     * segundo nível; invalidado a cada escrita em services feita neste nó (nos demais, ao expirar,
+     * ver hibernate-cache.conf).
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Item> findBySubsidiaryId(UUID subsidiaryId);
-    
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Item> findByCompanyId(UUID companyId);
 
+    /**
+     * Serviços atendidos pelo profissional, lidos pela tabela de junção sem inicializar
+     * {@code Professional.services} (cujo hashCode percorre as coleções das entidades)
+     */
+    @Query("select i from Professional p join p.services i where p.id = :professionalId")
+    List<Item> findByProfessionalId(@Param("professionalId") UUID professionalId);
+
+    /**
+     * Verifica se o serviço ainda é referenciado por registros vivos (agendamentos, prontuários,
+     * comissões, ordens de serviço, profissionais que o atendem)
+     */
+    @Query("SELECT CASE WHEN COUNT(i) > 0 THEN true ELSE false END FROM Item i WHERE i.id = :id AND (" +
+            "EXISTS (SELECT 1 FROM Appointment a WHERE a.item = i) " +
+            "OR EXISTS (SELECT 1 FROM MedicalRecord m WHERE m.item = i) " +
+            "OR EXISTS (SELECT 1 FROM CommissionStatementLine l WHERE l.service = i) " +
+            "OR EXISTS (SELECT 1 FROM ServiceOrder o JOIN o.items oi WHERE oi = i) " +
+            "OR EXISTS (SELECT 1 FROM ProfessionalServiceCfg cfg WHERE cfg.service = i) " +
+            "OR EXISTS (SELECT 1 FROM Professional p JOIN p.services ps WHERE ps = i))")
+    boolean isReferenced(@Param("id") UUID id);
+
 }
@@ -1,8 +1,13 @@
 package com.agenda.app.repository;
 
 import com.agenda.app.model.ProfessionalChairRoomAssignment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
@@ -16,22 +21,26 @@ public interface ProfessionalChairRoomAssignmentRepository
         /**
          * Busca todas as atribuições de um profissional para uma data específica
          */
+        @EntityGraph(attributePaths = {"professional", "chairRoom"})
         List<ProfessionalChairRoomAssignment> findByProfessional_IdAndDate(UUID professionalId, LocalDate date);
 
         /**
          * Busca todas as atribuições de uma cadeira/sala para uma data específica
          */
+        @EntityGraph(attributePaths = {"professional", "chairRoom"})
         List<ProfessionalChairRoomAssignment> findByChairRoom_IdAndDate(UUID chairRoomId, LocalDate date);
 
         /**
          * Busca atribuições recorrentes de um profissional para um dia da semana
          */
+        @EntityGraph(attributePaths = {"professional", "chairRoom"})
         List<ProfessionalChairRoomAssignment> findByProfessional_IdAndRecurringTrueAndDayOfWeek(UUID professionalId,
                         Integer dayOfWeek);
 
         /**
          * Busca atribuições recorrentes de uma cadeira/sala para um dia da semana
          */
+        @EntityGraph(attributePaths = {"professional", "chairRoom"})
         List<ProfessionalChairRoomAssignment> findByChairRoom_IdAndRecurringTrueAndDayOfWeek(UUID chairRoomId,
                         Integer dayOfWeek);
 
@@ -55,6 +64,7 @@ public interface ProfessionalChairRoomAssignmentRepository
          * Inclui atribuições recorrentes para o dia da semana correspondente à data
          */
 
+        @EntityGraph(attributePaths = {"professional", "chairRoom"})
         @Query("SELECT a FROM ProfessionalChairRoomAssignment a " +
                         "WHERE a.professional.id = :professionalId " +
                         "AND (a.date = :date OR (a.recurring = true AND a.dayOfWeek = FUNCTION('DAYOFWEEK', :date)))")
@@ -73,4 +83,61 @@ public interface ProfessionalChairRoomAssignmentRepository
          * específica
          */
         boolean existsByChairRoom_IdAndDate(UUID chairRoomId, LocalDate date);
-}
\ No newline at end of file
+
+        /* ========= CÓPIA DE ATRIBUIÇÕES (set-based) ========= */
+
+        /**
+         * Copia as atribuições não recorrentes das salas/cadeiras da subsidiária do intervalo de
+         * origem para as datas deslocadas em {@code offsetDays}, ignorando (profissional, sala, data)
+         * que já possuem atribuição
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "professional_chair_room_assignments"))
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query(value = """
+            INSERT INTO professional_chair_room_assignments
+                   (id, professional_id, chair_room_id, date, start_time, end_time,
+                    day_of_week, is_recurring, created_at, updated_at, is_active, is_deleted, version)
+            SELECT uuid_generate_v7(), s.professional_id, s.chair_room_id,
+                   s.date + CAST(:offsetDays AS integer), s.start_time, s.end_time,
+                   NULL, false, now(), now(), true, false, 0
+              FROM professional_chair_room_assignments s
+              JOIN chair_rooms c ON c.id = s.chair_room_id
+             WHERE c.subsidiary_id = :subsidiaryId
+               AND c.is_deleted = false
+               AND s.is_recurring = false
+               AND s.date BETWEEN :sourceStart AND :sourceEnd
+               AND NOT EXISTS (SELECT 1
+                                 FROM professional_chair_room_assignments t
+                                WHERE t.professional_id = s.professional_id
+                                  AND t.chair_room_id = s.chair_room_id
+                                  AND t.date = s.date + CAST(:offsetDays AS integer))
+            """, nativeQuery = true)
+        int cloneRangeForSubsidiary(@Param("subsidiaryId") UUID subsidiaryId,
+                                    @Param("sourceStart") LocalDate sourceStart,
+                                    @Param("sourceEnd") LocalDate sourceEnd,
+                                    @Param("offsetDays") int offsetDays);
+
+        /**
+         * Remove as atribuições de destino que colidem com alguma atribuição de origem (estratégia REPLACE)
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "professional_chair_room_assignments"))
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query(value = """
+            DELETE FROM professional_chair_room_assignments t
+             USING chair_rooms c
+             WHERE c.id = t.chair_room_id
+               AND c.subsidiary_id = :subsidiaryId
+               AND t.is_recurring = false
+               AND t.date BETWEEN :targetStart AND :targetEnd
+               AND EXISTS (SELECT 1
+                             FROM professional_chair_room_assignments s
+                            WHERE s.professional_id = t.professional_id
+                              AND s.chair_room_id = t.chair_room_id
+                              AND s.is_recurring = false
+                              AND s.date = t.date - CAST(:offsetDays AS integer))
+            """, nativeQuery = true)
+        int deleteCloneTargetsForSubsidiary(@Param("subsidiaryId") UUID subsidiaryId,
+                                            @Param("targetStart") LocalDate targetStart,
+                                            @Param("targetEnd") LocalDate targetEnd,
+                                            @Param("offsetDays") int offsetDays);
+}
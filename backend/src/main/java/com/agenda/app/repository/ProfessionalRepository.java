@@ -2,6 +2,8 @@ package com.agenda.app.repository;
 
 import com.agenda.app.model.Professional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +25,21 @@ public interface ProfessionalRepository extends JpaRepository<Professional, UUID
 
     List<Professional> findBySubsidiaryId(UUID id);
 
+    /**
+     * Verifica se o profissional ainda é referenciado por registros vivos (agendamentos, inclusive
+     * como responsável ou assistente, notas de prontuário, comissões, ordens de serviço, alocações
+     * de sala, disponibilidades)
+     */
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Professional p WHERE p.id = :id AND (" +
+            "EXISTS (SELECT 1 FROM Appointment a WHERE a.professional = p OR a.mainDoctor = p) " +
+            "OR EXISTS (SELECT 1 FROM Appointment a JOIN a.assistantDoctors d WHERE d = p) " +
+            "OR EXISTS (SELECT 1 FROM MedicalRecordNote n WHERE n.professional = p) " +
+            "OR EXISTS (SELECT 1 FROM CommissionStatement cs WHERE cs.professional = p) " +
+            "OR EXISTS (SELECT 1 FROM ServiceOrder o WHERE o.professional = p) " +
+            "OR EXISTS (SELECT 1 FROM ProfessionalChairRoomAssignment pa WHERE pa.professional = p) " +
+            "OR EXISTS (SELECT 1 FROM Availability av WHERE av.professional = p))")
+    boolean isReferenced(@Param("id") UUID id);
+
     
 
 }
@@ -1,8 +1,16 @@
 package com.agenda.app.repository;
 
+import com.agenda.app.dto.ScheduleWindowRow;
 import com.agenda.app.model.ProfessionalScheduleEntry;
 import com.agenda.app.model.Professional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,4 +26,108 @@ public interface ProfessionalScheduleEntryRepository extends JpaRepository<Profe
     Optional<ProfessionalScheduleEntry> findFirstByProfessionalIdAndDate(UUID professionalId, LocalDate date);
 
     boolean existsByProfessionalIdAndDate(UUID professionalId, LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Busca os horários de um profissional dentro de um intervalo de datas (inclusivo).
+     * Usa o índice único (professional_id, date).
+     */
+    @Query("SELECT e FROM ProfessionalScheduleEntry e " +
+            "WHERE e.professional.id = :professionalId " +
+            "AND e.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.date ASC")
+    List<ProfessionalScheduleEntry> findByProfessionalIdAndDateRange(
+            @Param("professionalId") UUID professionalId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Página seguinte (keyset) dos horários de um profissional a partir de uma data.
+     * Como (professional_id, date) é único, a própria data serve de cursor.
+     */
+    @Query("SELECT e FROM ProfessionalScheduleEntry e " +
+            "WHERE e.professional.id = :professionalId " +
+            "AND e.date > :afterDate " +
+            "AND e.date <= :endDate " +
+            "ORDER BY e.date ASC")
+    List<ProfessionalScheduleEntry> findPageAfter(
+            @Param("professionalId") UUID professionalId,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("endDate") LocalDate endDate,
+            Limit limit);
+
+    /**
+     * Busca os horários de todos os profissionais de uma subsidiária em um intervalo de datas
+     */
+    @Query("SELECT e FROM ProfessionalScheduleEntry e " +
+            "JOIN e.professional p " +
+            "WHERE p.subsidiary.id = :subsidiaryId " +
+            "AND e.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.date ASC, p.fullName ASC")
+    List<ProfessionalScheduleEntry> findBySubsidiaryIdAndDateRange(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Janelas de trabalho dos profissionais de uma subsidiária, projetadas para a grade da agenda
+     */
+    @Query("SELECT new com.agenda.app.dto.ScheduleWindowRow(p.id, p.fullName, e.date, e.startTime, e.endTime) " +
+            "FROM ProfessionalScheduleEntry e " +
+            "JOIN e.professional p " +
+            "WHERE p.subsidiary.id = :subsidiaryId " +
+            "AND e.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY p.fullName ASC, e.date ASC")
+    List<ScheduleWindowRow> findWindowsBySubsidiaryIdAndDateRange(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /* ========= CÓPIA DE HORÁRIOS (set-based) ========= */
+
+    /**
+     * Copia os horários de todos os profissionais da subsidiária do intervalo de origem para
+     * as datas deslocadas em {@code offsetDays}, ignorando datas de destino que já possuem horário
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "professional_schedule_entries"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO professional_schedule_entries
+               (id, professional_id, date, start_time, end_time)
+        SELECT uuid_generate_v7(), s.professional_id, s.date + CAST(:offsetDays AS integer),
+               s.start_time, s.end_time
+          FROM professional_schedule_entries s
+          JOIN professionals p ON p.id = s.professional_id
+         WHERE p.subsidiary_id = :subsidiaryId
+           AND p.is_deleted = false
+           AND s.date BETWEEN :sourceStart AND :sourceEnd
+           AND NOT EXISTS (SELECT 1
+                             FROM professional_schedule_entries t
+                            WHERE t.professional_id = s.professional_id
+                              AND t.date = s.date + CAST(:offsetDays AS integer))
+        """, nativeQuery = true)
+    int cloneRangeForSubsidiary(@Param("subsidiaryId") UUID subsidiaryId,
+                                @Param("sourceStart") LocalDate sourceStart,
+                                @Param("sourceEnd") LocalDate sourceEnd,
+                                @Param("offsetDays") int offsetDays);
+
+    /**
+     * Remove os horários de destino que colidem com alguma data de origem (estratégia REPLACE)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "professional_schedule_entries"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        DELETE FROM professional_schedule_entries t
+         USING professionals p
+         WHERE p.id = t.professional_id
+           AND p.subsidiary_id = :subsidiaryId
+           AND t.date BETWEEN :targetStart AND :targetEnd
+           AND EXISTS (SELECT 1
+                         FROM professional_schedule_entries s
+                        WHERE s.professional_id = t.professional_id
+                          AND s.date = t.date - CAST(:offsetDays AS integer))
+        """, nativeQuery = true)
+    int deleteCloneTargetsForSubsidiary(@Param("subsidiaryId") UUID subsidiaryId,
+                                        @Param("targetStart") LocalDate targetStart,
+                                        @Param("targetEnd") LocalDate targetEnd,
+                                        @Param("offsetDays") int offsetDays);
+}
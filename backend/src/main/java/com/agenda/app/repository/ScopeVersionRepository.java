@@ -0,0 +1,46 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.model.ScopeVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface ScopeVersionRepository extends JpaRepository<ScopeVersion, String> {
+
+    /**
+     * Incrementa (ou cria) o contador do escopo em um único comando
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scope_versions"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO scope_versions (scope_key, version, updated_at)
+        VALUES (:scopeKey, 1, CURRENT_TIMESTAMP)
+        ON CONFLICT (scope_key) DO UPDATE
+           SET version = scope_versions.version + 1,
+               updated_at = EXCLUDED.updated_at
+        """, nativeQuery = true)
+    int bump(@Param("scopeKey") String scopeKey);
+
+    /**
+     * Incrementa o contador de agenda de todas as salas/cadeiras de uma subsidiária
+     * (usado pelas operações de horário em lote)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scope_versions"))
+    @Modifying
+    @Query(value = """
+        INSERT INTO scope_versions (scope_key, version, updated_at)
+        SELECT :prefix || CAST(c.id AS varchar), 1, CURRENT_TIMESTAMP
+          FROM chair_rooms c
+         WHERE c.subsidiary_id = :subsidiaryId
+        ON CONFLICT (scope_key) DO UPDATE
+           SET version = scope_versions.version + 1,
+               updated_at = EXCLUDED.updated_at
+        """, nativeQuery = true)
+    int bumpChairRoomsOfSubsidiary(@Param("prefix") String prefix, @Param("subsidiaryId") UUID subsidiaryId);
+}
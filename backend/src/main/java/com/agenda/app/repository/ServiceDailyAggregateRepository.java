@@ -0,0 +1,98 @@
+package com.agenda.app.repository;
+
+import com.agenda.app.dto.RevenueSummaryRow;
+import com.agenda.app.model.ServiceDailyAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface ServiceDailyAggregateRepository extends JpaRepository<ServiceDailyAggregate, UUID> {
+
+    /**
+     * Faturamento por subsidiária no período (filtros de empresa e subsidiária opcionais)
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.RevenueSummaryRow(
+                   CAST(r.subsidiaryId AS String), SUM(r.bookedCount), SUM(r.completedCount),
+                   SUM(r.cancelledCount), SUM(r.revenue), SUM(r.bookedMinutes))
+          FROM ServiceDailyAggregate r
+         WHERE r.businessDate BETWEEN :from AND :to
+           AND (:subsidiaryId IS NULL OR r.subsidiaryId = :subsidiaryId)
+           AND (:companyId IS NULL OR r.subsidiaryId IN (
+                   SELECT s.id FROM Subsidiary s WHERE s.company.id = :companyId))
+         GROUP BY r.subsidiaryId
+         ORDER BY SUM(r.revenue) DESC
+    """)
+    List<RevenueSummaryRow> sumBySubsidiary(
+            @Param("companyId") UUID companyId,
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Faturamento por profissional no período (filtros de empresa e subsidiária opcionais)
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.RevenueSummaryRow(
+                   CAST(r.professionalId AS String), SUM(r.bookedCount), SUM(r.completedCount),
+                   SUM(r.cancelledCount), SUM(r.revenue), SUM(r.bookedMinutes))
+          FROM ServiceDailyAggregate r
+         WHERE r.businessDate BETWEEN :from AND :to
+           AND (:subsidiaryId IS NULL OR r.subsidiaryId = :subsidiaryId)
+           AND (:companyId IS NULL OR r.subsidiaryId IN (
+                   SELECT s.id FROM Subsidiary s WHERE s.company.id = :companyId))
+         GROUP BY r.professionalId
+         ORDER BY SUM(r.revenue) DESC
+    """)
+    List<RevenueSummaryRow> sumByProfessional(
+            @Param("companyId") UUID companyId,
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Faturamento por serviço no período (filtros de empresa e subsidiária opcionais)
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.RevenueSummaryRow(
+                   CAST(r.itemId AS String), SUM(r.bookedCount), SUM(r.completedCount),
+                   SUM(r.cancelledCount), SUM(r.revenue), SUM(r.bookedMinutes))
+          FROM ServiceDailyAggregate r
+         WHERE r.businessDate BETWEEN :from AND :to
+           AND (:subsidiaryId IS NULL OR r.subsidiaryId = :subsidiaryId)
+           AND (:companyId IS NULL OR r.subsidiaryId IN (
+                   SELECT s.id FROM Subsidiary s WHERE s.company.id = :companyId))
+         GROUP BY r.itemId
+         ORDER BY SUM(r.revenue) DESC
+    """)
+    List<RevenueSummaryRow> sumByItem(
+            @Param("companyId") UUID companyId,
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /**
+     * Faturamento por dia no período (filtros de empresa e subsidiária opcionais)
+     */
+    @Query("""
+        SELECT new com.agenda.app.dto.RevenueSummaryRow(
+                   CAST(r.businessDate AS String), SUM(r.bookedCount), SUM(r.completedCount),
+                   SUM(r.cancelledCount), SUM(r.revenue), SUM(r.bookedMinutes))
+          FROM ServiceDailyAggregate r
+         WHERE r.businessDate BETWEEN :from AND :to
+           AND (:subsidiaryId IS NULL OR r.subsidiaryId = :subsidiaryId)
+           AND (:companyId IS NULL OR r.subsidiaryId IN (
+                   SELECT s.id FROM Subsidiary s WHERE s.company.id = :companyId))
+         GROUP BY r.businessDate
+         ORDER BY r.businessDate
+    """)
+    List<RevenueSummaryRow> sumByDay(
+            @Param("companyId") UUID companyId,
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
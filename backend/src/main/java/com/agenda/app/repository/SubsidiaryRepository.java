@@ -3,6 +3,8 @@ package com.agenda.app.repository;
 
 import com.agenda.app.model.Subsidiary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,4 +15,17 @@ public interface SubsidiaryRepository extends JpaRepository<Subsidiary, UUID> {
     
     List<Subsidiary> findByCompanyId(UUID companyId);
 
+    /**
+     * Verifica se a subsidiária ainda é referenciada por registros vivos (salas, profissionais,
+     * serviços, agendamentos, disponibilidades, dias de caixa)
+     */
+    @Query("SELECT CASE WHEN COUNT(s) > 0 THEN true ELSE false END FROM Subsidiary s WHERE s.id = :id AND (" +
+            "EXISTS (SELECT 1 FROM ChairRoom cr WHERE cr.subsidiary = s) " +
+            "OR EXISTS (SELECT 1 FROM Professional p WHERE p.subsidiary = s) " +
+            "OR EXISTS (SELECT 1 FROM Item i WHERE i.subsidiary = s) " +
+            "OR EXISTS (SELECT 1 FROM Appointment a WHERE a.subsidiary = s) " +
+            "OR EXISTS (SELECT 1 FROM Availability av WHERE av.subsidiary = s) " +
+            "OR EXISTS (SELECT 1 FROM CashRegisterDay d WHERE d.subsidiary = s))")
+    boolean isReferenced(@Param("id") UUID id);
+
 }
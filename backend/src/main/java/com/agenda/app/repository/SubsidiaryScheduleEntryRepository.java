@@ -2,7 +2,13 @@ package com.agenda.app.repository;
 
 import com.agenda.app.model.SubsidiaryScheduleEntry;
 import com.agenda.app.model.Subsidiary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,4 +21,64 @@ public interface SubsidiaryScheduleEntryRepository extends JpaRepository<Subsidi
     List<SubsidiaryScheduleEntry> findBySubsidiaryIdAndDate(UUID subsidiaryId, LocalDate date);
 
     boolean existsBySubsidiaryIdAndDate(UUID subsidiaryId, LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Busca os horários de uma subsidiária dentro de um intervalo de datas (inclusivo).
+     * Usa o índice idx_subsidiary_schedule_sub_date.
+     */
+    @Query("SELECT e FROM SubsidiaryScheduleEntry e " +
+            "WHERE e.subsidiary.id = :subsidiaryId " +
+            "AND e.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY e.date ASC, e.id ASC")
+    List<SubsidiaryScheduleEntry> findBySubsidiaryIdAndDateRange(
+            @Param("subsidiaryId") UUID subsidiaryId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /* ========= CÓPIA DE HORÁRIOS (set-based) ========= */
+
+    /**
+     * Copia os horários da subsidiária do intervalo de origem para as datas deslocadas em
+     * {@code offsetDays}, ignorando datas de destino que já possuem horário
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "subsidiary_schedule_entry"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        INSERT INTO subsidiary_schedule_entry
+               (id, subsidiary_id, date, open_time, close_time, closed, customized,
+                created_at, updated_at, is_active, is_deleted, version)
+        SELECT uuid_generate_v7(), s.subsidiary_id, s.date + CAST(:offsetDays AS integer),
+               s.open_time, s.close_time, s.closed, s.customized,
+               now(), now(), true, false, 0
+          FROM subsidiary_schedule_entry s
+         WHERE s.subsidiary_id = :subsidiaryId
+           AND s.date BETWEEN :sourceStart AND :sourceEnd
+           AND NOT EXISTS (SELECT 1
+                             FROM subsidiary_schedule_entry t
+                            WHERE t.subsidiary_id = s.subsidiary_id
+                              AND t.date = s.date + CAST(:offsetDays AS integer))
+        """, nativeQuery = true)
+    int cloneRange(@Param("subsidiaryId") UUID subsidiaryId,
+                   @Param("sourceStart") LocalDate sourceStart,
+                   @Param("sourceEnd") LocalDate sourceEnd,
+                   @Param("offsetDays") int offsetDays);
+
+    /**
+     * Remove os horários de destino que colidem com alguma data de origem (estratégia REPLACE)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "subsidiary_schedule_entry"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        DELETE FROM subsidiary_schedule_entry t
+         WHERE t.subsidiary_id = :subsidiaryId
+           AND t.date BETWEEN :targetStart AND :targetEnd
+           AND EXISTS (SELECT 1
+                         FROM subsidiary_schedule_entry s
+                        WHERE s.subsidiary_id = t.subsidiary_id
+                          AND s.date = t.date - CAST(:offsetDays AS integer))
+        """, nativeQuery = true)
+    int deleteCloneTargets(@Param("subsidiaryId") UUID subsidiaryId,
+                           @Param("targetStart") LocalDate targetStart,
+                           @Param("targetEnd") LocalDate targetEnd,
+                           @Param("offsetDays") int offsetDays);
+}
@@ -0,0 +1,214 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.LedgerBalance;
+import com.agenda.app.dto.LedgerPosting;
+import com.agenda.app.model.AccountHold;
+import com.agenda.app.model.AccountHoldStatus;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.model.Appointment;
+import com.agenda.app.model.ClientAccount;
+import com.agenda.app.model.Item;
+import com.agenda.app.repository.AccountHoldRepository;
+import com.agenda.app.util.MoneyUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Retenções de saldo para serviços com pré-pagamento.
+ * <p>
+ * Ao agendar, o preço do serviço é retido do saldo livre do cliente (quando há saldo); ao
+ * concluir o atendimento a retenção é consumida, ao cancelar é devolvida. Toda movimentação
+ * passa pelo {@link AccountLedgerService}, na mesma transação que altera a retenção.
+ * <p>
+ * Retenções que continuam ativas {@code agenda.holds.grace-hours} depois do fim do
+ * agendamento são devolvidas por um job, em lotes travados com {@code SKIP LOCKED}, o que
+ * permite rodar o job em vários nós ao mesmo tempo. Se o saldo retido da conta não cobre a
+ * devolução, a retenção continua ativa e o vencimento é adiado em
+ * {@code agenda.holds.retry-minutes}, até a conferência manual da conta.
+ */
+@Slf4j
+@Service
+public class AccountHoldService {
+
+    private final AccountHoldRepository holdRepository;
+    private final AccountLedgerService ledgerService;
+    private final TransactionTemplate batchTx;
+
+    /** Desligado, nenhuma retenção nova é criada (o ledger usa SQL do PostgreSQL) */
+    @Value("${agenda.holds.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agenda.holds.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${agenda.holds.sweep-enabled:true}")
+    private boolean sweepEnabled;
+
+    @Value("${agenda.holds.batch-size:200}")
+    private int batchSize;
+
+    /** Limite de lotes por execução */
+    @Value("${agenda.holds.max-batches:50}")
+    private int maxBatches;
+
+    /** Adiamento da retenção vencida cuja devolução falhou */
+    @Value("${agenda.holds.retry-minutes:60}")
+    private long retryMinutes;
+
+    public AccountHoldService(AccountHoldRepository holdRepository,
+                              AccountLedgerService ledgerService,
+                              PlatformTransactionManager transactionManager) {
+        this.holdRepository = holdRepository;
+        this.ledgerService = ledgerService;
+        this.batchTx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Retém o preço do serviço para o agendamento, se o serviço exige pré-pagamento. Se a
+     * retenção já existe, apenas atualiza o vencimento.
+     *
+     * @return true se o agendamento fica com retenção ativa; false se o serviço não exige
+     * pré-pagamento ou o saldo livre do cliente não cobre o valor
+     */
+    @Transactional
+    public boolean placeHold(Appointment appt) {
+        Item item = appt.getItem();
+        if (!enabled || !item.isRequiresPrePayment() || item.getPrice() == null || item.getPrice().signum() <= 0) {
+            return false;
+        }
+
+        AccountHold hold = holdRepository.findByAppointmentId(appt.getId()).orElse(null);
+        if (hold != null && hold.getStatus() == AccountHoldStatus.ACTIVE) {
+            hold.setExpiresAt(expiry(appt));
+            return true;
+        }
+
+        ClientAccount account = ledgerService.openAccount(appt.getCustomer().getId());
+        long amount = MoneyUtils.toCents(item.getPrice());
+        Optional<LedgerBalance> posted = ledgerService.tryPost(new LedgerPosting(
+                account.getId(), AccountTransactionType.HOLD, amount,
+                "Hold for appointment " + appt.getId(), null, appt.getId(), null,
+                appt.getSubsidiary() != null ? appt.getSubsidiary().getId() : null));
+        if (posted.isEmpty()) {
+            return false;
+        }
+
+        // Uma linha por agendamento (appointment_id é único): reaproveita a retenção encerrada
+        if (hold == null) {
+            hold = new AccountHold();
+            hold.setAppointment(appt);
+        }
+        hold.setClientAccount(account);
+        hold.setAmount(MoneyUtils.fromCents(amount));
+        hold.setDescription(item.getName());
+        hold.setStatus(AccountHoldStatus.ACTIVE);
+        hold.setExpiresAt(expiry(appt));
+        hold.setReleaseDate(null);
+        hold.setReleasedBy(null);
+        hold.setReleaseReason(null);
+        holdRepository.save(hold);
+        return true;
+    }
+
+    /**
+     * Atendimento concluído: o valor retido é debitado
+     */
+    @Transactional
+    public void consumeHold(UUID appointmentId) {
+        holdRepository.findByAppointmentIdAndStatus(appointmentId, AccountHoldStatus.ACTIVE)
+                .ifPresent(hold -> settle(hold, AccountTransactionType.CONFIRM_HOLD,
+                        AccountHoldStatus.CONSUMED, "Appointment completed"));
+    }
+
+    /**
+     * Agendamento cancelado ou alterado: o valor retido volta ao saldo livre
+     */
+    @Transactional
+    public void releaseHold(UUID appointmentId, String reason) {
+        holdRepository.findByAppointmentIdAndStatus(appointmentId, AccountHoldStatus.ACTIVE)
+                .ifPresent(hold -> settle(hold, AccountTransactionType.RELEASE_HOLD,
+                        AccountHoldStatus.RELEASED, reason));
+    }
+
+    /**
+     * Devolve as retenções vencidas. Cada lote é commitado em separado, junto com os
+     * lançamentos do ledger correspondentes.
+     */
+    @Scheduled(cron = "${agenda.holds.sweep-cron:0 */5 * * * *}")
+    public void expireHolds() {
+        if (!sweepEnabled) {
+            return;
+        }
+        long expired = 0;
+        long deferred = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Sweep sweep = batchTx.execute(status -> expireBatch());
+            if (sweep == null || sweep.locked() == 0) {
+                break;
+            }
+            expired += sweep.expired();
+            deferred += sweep.locked() - sweep.expired();
+            if (sweep.locked() < batchSize) {
+                break;
+            }
+        }
+        if (expired > 0 || deferred > 0) {
+            log.info("Expired {} account hold(s), deferred {}", expired, deferred);
+        }
+    }
+
+    private Sweep expireBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AccountHold> batch = holdRepository.lockExpiredBatch(now, batchSize);
+        int expired = 0;
+        for (AccountHold hold : batch) {
+            Optional<LedgerBalance> posted = ledgerService.tryPost(posting(
+                    hold, AccountTransactionType.RELEASE_HOLD, "Hold expired"));
+            if (posted.isPresent()) {
+                close(hold, AccountHoldStatus.EXPIRED, "Hold expired");
+                expired++;
+            } else {
+                // Saldo retido menor que a retenção: nada foi devolvido, a retenção segue ativa para
+                // conferência e sai da fila até o novo vencimento (os próximos lotes não a travam de novo)
+                hold.setExpiresAt(now.plusMinutes(retryMinutes));
+                log.error("Held balance of account {} does not cover expired hold {}; retrying at {}",
+                        hold.getClientAccount().getId(), hold.getId(), hold.getExpiresAt());
+            }
+        }
+        return new Sweep(batch.size(), expired);
+    }
+
+    private record Sweep(int locked, int expired) {}
+
+    private void settle(AccountHold hold, AccountTransactionType type, AccountHoldStatus status, String reason) {
+        ledgerService.post(posting(hold, type, reason));
+        close(hold, status, reason);
+    }
+
+    private static LedgerPosting posting(AccountHold hold, AccountTransactionType type, String reason) {
+        Appointment appt = hold.getAppointment();
+        return new LedgerPosting(hold.getClientAccount().getId(), type, MoneyUtils.toCents(hold.getAmount()),
+                reason, null, appt.getId(), null,
+                appt.getSubsidiary() != null ? appt.getSubsidiary().getId() : null);
+    }
+
+    private static void close(AccountHold hold, AccountHoldStatus status, String reason) {
+        hold.setStatus(status);
+        hold.setReleaseDate(LocalDateTime.now());
+        hold.setReleaseReason(reason);
+    }
+
+    private LocalDateTime expiry(Appointment appt) {
+        return appt.getEndTime().plusHours(graceHours);
+    }
+}
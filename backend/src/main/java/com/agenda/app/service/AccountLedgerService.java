@@ -0,0 +1,253 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.AccountBalanceView;
+import com.agenda.app.dto.AccountStatementLine;
+import com.agenda.app.dto.BalanceDeltaRow;
+import com.agenda.app.dto.CursorPage;
+import com.agenda.app.dto.LedgerBalance;
+import com.agenda.app.dto.LedgerPosting;
+import com.agenda.app.exception.ConflictException;
+import com.agenda.app.exception.PaymentRequiredException;
+import com.agenda.app.model.AccountBalanceSnapshot;
+import com.agenda.app.model.AccountTransaction;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.model.ClientAccount;
+import com.agenda.app.repository.AccountBalanceSnapshotRepository;
+import com.agenda.app.repository.AccountTransactionRepository;
+import com.agenda.app.repository.AppointmentRepository;
+import com.agenda.app.repository.ClientAccountRepository;
+import com.agenda.app.repository.CustomerRepository;
+import com.agenda.app.repository.PaymentRepository;
+import com.agenda.app.repository.UserRepository;
+import com.agenda.app.util.CursorUtils;
+import com.agenda.app.util.MoneyUtils;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Ledger da conta do cliente: único caminho de escrita dos saldos.
+ * <p>
+ * Cada lançamento altera os saldos com um UPDATE atômico ({@link ClientAccountRepository#applyDelta})
+ * e grava um {@link AccountTransaction} somente de inclusão, com os saldos anterior e novo e a
+ * sequência do lançamento na conta. Os valores trafegam em centavos ({@code long}); as colunas
+ * {@code numeric(10, 2)} guardam o mesmo valor exato.
+ * <p>
+ * Um job grava snapshots periódicos do saldo ({@code agenda.ledger.snapshot-every} lançamentos),
+ * então reconstruir o saldo em uma sequência soma apenas os lançamentos desde o snapshot anterior.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountLedgerService {
+
+    private static final int MAX_STATEMENT_PAGE_SIZE = 200;
+
+
+    private final ClientAccountRepository clientAccountRepository;
+    private final AccountTransactionRepository transactionRepository;
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+    private final CustomerRepository customerRepository;
+    private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final CashRegisterService cashRegisterService;
+
+    @Value("${agenda.ledger.snapshots-enabled:true}")
+    private boolean snapshotsEnabled;
+
+    @Value("${agenda.ledger.snapshot-every:100}")
+    private long snapshotEvery;
+
+    /**
+     * Conta do cliente, criada com saldo zero se ainda não existir
+     */
+    @Transactional
+    public ClientAccount openAccount(UUID customerId) {
+        return clientAccountRepository.findByCustomerId(customerId).orElseGet(() -> {
+            ClientAccount account = new ClientAccount();
+            account.setCustomer(customerRepository.findById(customerId)
+                    .orElseThrow(() -> new EntityNotFoundException("Customer not found")));
+            return clientAccountRepository.save(account);
+        });
+    }
+
+    /**
+     * Aplica o lançamento e registra a movimentação
+     *
+     * @throws PaymentRequiredException Se o saldo livre não cobre o débito/retenção
+     * @throws ConflictException        Se o saldo retido não cobre a liberação/confirmação
+     */
+    @Transactional
+    public LedgerBalance post(LedgerPosting posting) {
+        Deltas deltas = deltas(posting);
+        return apply(posting, deltas)
+                .orElseThrow(() -> rejection(posting.clientAccountId(), deltas.free()));
+    }
+
+    /**
+     * Como {@link #post}, mas devolve vazio quando o saldo é insuficiente: quem chama decide o
+     * que fazer sem que a exceção marque a transação corrente para rollback
+     */
+    @Transactional
+    public Optional<LedgerBalance> tryPost(LedgerPosting posting) {
+        Optional<LedgerBalance> balance = apply(posting, deltas(posting));
+        if (balance.isEmpty() && !clientAccountRepository.existsById(posting.clientAccountId())) {
+            throw new EntityNotFoundException("Client account not found");
+        }
+        return balance;
+    }
+
+    private Optional<LedgerBalance> apply(LedgerPosting posting, Deltas deltas) {
+        Optional<AccountBalanceView> result = clientAccountRepository
+                .applyDelta(posting.clientAccountId(), deltas.free(), deltas.held());
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+        AccountBalanceView applied = result.get();
+        long newFree = MoneyUtils.toCents(applied.getFreeBalance());
+        long newHeld = MoneyUtils.toCents(applied.getHeldBalance());
+
+        AccountTransaction tx = new AccountTransaction();
+        tx.setClientAccount(clientAccountRepository.getReferenceById(posting.clientAccountId()));
+        tx.setTransactionType(posting.type());
+        tx.setAmount(MoneyUtils.fromCents(Math.abs(posting.amountCents())));
+        tx.setDescription(posting.description());
+        // Sem usuário: lançamento do sistema (jobs, reservas automáticas)
+        if (posting.createdByUserId() != null) {
+            tx.setCreatedBy(userRepository.getReferenceById(posting.createdByUserId()));
+        }
+        if (posting.appointmentId() != null) {
+            tx.setAppointment(appointmentRepository.getReferenceById(posting.appointmentId()));
+        }
+        if (posting.paymentId() != null) {
+            tx.setPayment(paymentRepository.getReferenceById(posting.paymentId()));
+        }
+        tx.setPreviousFreeBalance(MoneyUtils.fromCents(newFree - deltas.free()));
+        tx.setPreviousHeldBalance(MoneyUtils.fromCents(newHeld - deltas.held()));
+        tx.setNewFreeBalance(MoneyUtils.fromCents(newFree));
+        tx.setNewHeldBalance(MoneyUtils.fromCents(newHeld));
+        tx.setLedgerSequence(applied.getLedgerSequence());
+        tx.setSubsidiaryId(posting.subsidiaryId());
+        tx = transactionRepository.save(tx);
+
+        // Retenções ficam fora do caixa (e do bloqueio do dia fechado)
+        if (posting.subsidiaryId() != null && !posting.type().isHoldMovement()) {
+            cashRegisterService.recordAccountTransaction(
+                    posting.subsidiaryId(), posting.type(), posting.amountCents(), tx.getCreatedAt());
+        }
+
+        return Optional.of(new LedgerBalance(
+                posting.clientAccountId(), applied.getLedgerSequence(), newFree, newHeld, tx.getId()));
+    }
+
+    /**
+     * Variações dos saldos livre e retido (em centavos) para o tipo de lançamento
+     */
+    private static Deltas deltas(LedgerPosting posting) {
+        long amount = posting.amountCents();
+        if (posting.type() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        if (amount == 0 || (amount < 0 && posting.type() != AccountTransactionType.ADJUSTMENT)) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        return switch (posting.type()) {
+            case CREDIT, ADJUSTMENT -> new Deltas(amount, 0);
+            case DEBIT -> new Deltas(-amount, 0);
+            case HOLD -> new Deltas(-amount, amount);
+            case RELEASE_HOLD -> new Deltas(amount, -amount);
+            case CONFIRM_HOLD -> new Deltas(0, -amount);
+        };
+    }
+
+    private record Deltas(long free, long held) {}
+
+    /**
+     * Saldo da conta logo após o lançamento de sequência {@code ledgerSequence}: snapshot
+     * anterior mais recente somado às variações dos lançamentos seguintes
+     */
+    @Transactional(readOnly = true)
+    public LedgerBalance balanceAt(UUID clientAccountId, long ledgerSequence) {
+        AccountBalanceSnapshot snapshot = snapshotRepository
+                .findFirstByClientAccountIdAndLedgerSequenceLessThanEqualOrderByLedgerSequenceDesc(
+                        clientAccountId, ledgerSequence)
+                .orElse(null);
+
+        long fromSequence = snapshot != null ? snapshot.getLedgerSequence() : 0L;
+        long free = snapshot != null ? MoneyUtils.toCents(snapshot.getFreeBalance()) : 0L;
+        long held = snapshot != null ? MoneyUtils.toCents(snapshot.getHeldBalance()) : 0L;
+
+        BalanceDeltaRow delta = transactionRepository.sumDeltas(clientAccountId, fromSequence, ledgerSequence);
+        if (delta.transactionCount() != ledgerSequence - fromSequence) {
+            throw new IllegalArgumentException("Ledger sequence " + ledgerSequence
+                    + " is not available for account " + clientAccountId);
+        }
+        return new LedgerBalance(clientAccountId, ledgerSequence,
+                free + MoneyUtils.toCents(delta.freeDelta()), held + MoneyUtils.toCents(delta.heldDelta()), null);
+    }
+
+    /**
+     * Extrato da conta, dos lançamentos mais recentes para os mais antigos, paginado por
+     * cursor (keyset) na sequência do ledger, com os saldos logo após cada lançamento.
+     *
+     * @param cursor Cursor opaco da página anterior (null para a primeira página)
+     * @param size   Tamanho da página (limitado a {@value #MAX_STATEMENT_PAGE_SIZE})
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AccountStatementLine> getStatement(UUID clientAccountId, String cursor, int size) {
+        if (!clientAccountRepository.existsById(clientAccountId)) {
+            throw new EntityNotFoundException("Client account not found");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_STATEMENT_PAGE_SIZE));
+
+        long beforeSequence = cursor != null && !cursor.isBlank()
+                ? CursorUtils.decodeLong(cursor)
+                : Long.MAX_VALUE;
+
+        // Um registro a mais indica se há próxima página
+        List<AccountStatementLine> rows = transactionRepository
+                .findStatementPage(clientAccountId, beforeSequence, Limit.of(pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        List<AccountStatementLine> lines = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = CursorUtils.encode(lines.get(lines.size() - 1).ledgerSequence());
+        }
+        return new CursorPage<>(lines, nextCursor, hasNext);
+    }
+
+    @Scheduled(cron = "${agenda.ledger.snapshot-cron:0 15 * * * *}")
+    @Transactional
+    public void snapshotBalances() {
+        if (!snapshotsEnabled) {
+            return;
+        }
+        int taken = snapshotRepository.snapshotAccounts(snapshotEvery);
+        if (taken > 0) {
+            log.info("Took {} account balance snapshot(s)", taken);
+        }
+    }
+
+    private RuntimeException rejection(UUID clientAccountId, long freeDelta) {
+        ClientAccount account = clientAccountRepository.findById(clientAccountId)
+                .orElse(null);
+        if (account == null) {
+            return new EntityNotFoundException("Client account not found");
+        }
+        if (freeDelta < 0 && account.getFreeBalance().add(MoneyUtils.fromCents(freeDelta)).signum() < 0) {
+            return new PaymentRequiredException("Insufficient free balance");
+        }
+        return new ConflictException("Insufficient held balance");
+    }
+}
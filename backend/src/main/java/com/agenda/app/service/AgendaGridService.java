@@ -0,0 +1,129 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.AgendaAppointmentRow;
+import com.agenda.app.dto.AgendaGridResponse;
+import com.agenda.app.dto.AgendaGridResponse.Block;
+import com.agenda.app.dto.AgendaGridResponse.Column;
+import com.agenda.app.dto.ScheduleWindowRow;
+import com.agenda.app.repository.AppointmentRepository;
+import com.agenda.app.repository.ChairRoomScheduleEntryRepository;
+import com.agenda.app.repository.ProfessionalScheduleEntryRepository;
+import com.agenda.app.repository.SubsidiaryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Serviço que monta a grade da agenda (dia/semana) de uma subsidiária.
+ * Os agendamentos vêm de uma única consulta de projeção; as janelas de horário
+ * dos profissionais e salas/cadeiras são usadas para calcular os blocos livres.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgendaGridService {
+
+    private static final int MAX_RANGE_DAYS = 7;
+
+    private final SubsidiaryRepository subsidiaryRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final ProfessionalScheduleEntryRepository professionalScheduleRepository;
+    private final ChairRoomScheduleEntryRepository chairRoomScheduleRepository;
+
+    @Transactional(readOnly = true)
+    public AgendaGridResponse getGrid(UUID subsidiaryId, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        if (!subsidiaryRepository.existsById(subsidiaryId)) {
+            throw new EntityNotFoundException("Subsidiary not found: " + subsidiaryId);
+        }
+
+        List<AgendaAppointmentRow> appointments = appointmentRepository.findAgendaGridRows(
+                subsidiaryId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+
+        List<Column> professionals = buildColumns(
+                professionalScheduleRepository.findWindowsBySubsidiaryIdAndDateRange(subsidiaryId, startDate, endDate),
+                appointments,
+                AgendaAppointmentRow::professionalId,
+                AgendaAppointmentRow::professionalName);
+
+        List<Column> chairRooms = buildColumns(
+                chairRoomScheduleRepository.findWindowsBySubsidiaryIdAndDateRange(subsidiaryId, startDate, endDate),
+                appointments,
+                AgendaAppointmentRow::chairRoomId,
+                AgendaAppointmentRow::chairRoomName);
+
+        return new AgendaGridResponse(subsidiaryId, startDate, endDate, professionals, chairRooms);
+    }
+
+    /**
+     * Agrupa janelas e agendamentos por recurso e gera, para cada coluna, os blocos
+     * ocupados e os blocos livres (janela menos agendamentos) em ordem cronológica
+     */
+    private List<Column> buildColumns(List<ScheduleWindowRow> windows,
+                                      List<AgendaAppointmentRow> appointments,
+                                      Function<AgendaAppointmentRow, UUID> resourceId,
+                                      Function<AgendaAppointmentRow, String> resourceName) {
+        Map<UUID, String> names = new LinkedHashMap<>();
+        Map<UUID, List<ScheduleWindowRow>> windowsByResource = new HashMap<>();
+        Map<UUID, List<AgendaAppointmentRow>> appointmentsByResource = new HashMap<>();
+
+        for (ScheduleWindowRow window : windows) {
+            names.putIfAbsent(window.resourceId(), window.resourceName());
+            windowsByResource.computeIfAbsent(window.resourceId(), k -> new ArrayList<>()).add(window);
+        }
+        for (AgendaAppointmentRow row : appointments) {
+            UUID id = resourceId.apply(row);
+            if (id == null) {
+                continue;
+            }
+            names.putIfAbsent(id, resourceName.apply(row));
+            appointmentsByResource.computeIfAbsent(id, k -> new ArrayList<>()).add(row);
+        }
+
+        List<Column> columns = new ArrayList<>(names.size());
+        names.forEach((id, name) -> columns.add(new Column(id, name, buildBlocks(
+                windowsByResource.getOrDefault(id, List.of()),
+                appointmentsByResource.getOrDefault(id, List.of())))));
+        return columns;
+    }
+
+    private List<Block> buildBlocks(List<ScheduleWindowRow> windows, List<AgendaAppointmentRow> appointments) {
+        List<Block> blocks = new ArrayList<>();
+        appointments.forEach(row -> blocks.add(Block.appointment(row)));
+
+        // appointments já vêm ordenados por início
+        for (ScheduleWindowRow window : windows) {
+            LocalDateTime cursor = window.date().atTime(window.startTime());
+            LocalDateTime windowEnd = window.date().atTime(window.endTime());
+            for (AgendaAppointmentRow row : appointments) {
+                if (!row.endTime().isAfter(cursor) || !row.startTime().isBefore(windowEnd)) {
+                    continue;
+                }
+                if (row.startTime().isAfter(cursor)) {
+                    blocks.add(Block.free(cursor, row.startTime()));
+                }
+                cursor = row.endTime();
+                if (!cursor.isBefore(windowEnd)) {
+                    break;
+                }
+            }
+            if (cursor.isBefore(windowEnd)) {
+                blocks.add(Block.free(cursor, windowEnd));
+            }
+        }
+
+        blocks.sort(Comparator.comparing(Block::start));
+        return blocks;
+    }
+}
@@ -0,0 +1,191 @@
+package com.agenda.app.service;
+
+import com.agenda.app.event.AgendaEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal de push (Server-Sent Events) da agenda, por subsidiária.
+ * <p>
+ * Os eventos chegam depois do commit e são apenas enfileirados: cada assinante tem uma fila
+ * limitada, esvaziada por uma virtual thread própria. Quem não acompanha (fila cheia) é
+ * desconectado, então um cliente lento nunca bloqueia quem escreveu nem os demais assinantes.
+ * Ao reconectar, o cliente usa o feed de alterações para recuperar o que perdeu.
+ */
+@Slf4j
+@Service
+public class AgendaStreamService {
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper;
+
+    @Value("${agenda.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${agenda.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${agenda.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public AgendaStreamService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra um novo assinante para os eventos da subsidiária
+     */
+    public SseEmitter subscribe(UUID subsidiaryId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many agenda stream subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(subsidiaryId, emitter, new ArrayBlockingQueue<>(queueCapacity));
+        // Inclusão e remoção do conjunto vazio no mesmo compute: o assinante nunca cai num conjunto órfão
+        subscribers.compute(subsidiaryId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    /**
+     * Distribui o evento aos assinantes da subsidiária depois do commit.
+     * Sem transação ativa o evento é distribuído na hora.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAgendaEvent(AgendaEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.subsidiaryId());
+        if (targets == null) {
+            return;
+        }
+        // Serializado uma única vez: o JSON pronto vai como String (sem passar de novo pelo Jackson)
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event.data());
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize agenda event {} for subsidiary {}", event.name(), event.subsidiaryId(), e);
+            return;
+        }
+        Set<DataWithMediaType> message = SseEmitter.event()
+                .name(event.name())
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : targets) {
+            if (subscriber.queue().offer(message)) {
+                schedule(subscriber);
+            } else {
+                log.debug("Dropping slow agenda stream subscriber for subsidiary {}", subscriber.subsidiaryId());
+                drop(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Heartbeat periódico: mantém proxies abertos e detecta conexões mortas
+     */
+    @Scheduled(fixedDelayString = "${agenda.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.queue().offer(ping)) {
+                schedule(subscriber);
+            } else {
+                drop(subscriber);
+            }
+        }));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter().complete()));
+        senders.shutdownNow();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> message;
+            while ((message = subscriber.queue().poll()) != null) {
+                subscriber.emitter().send(message);
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(subscriber);
+            return;
+        } finally {
+            subscriber.sending().set(false);
+        }
+        // Um evento pode ter chegado entre o último poll e a liberação da flag
+        if (!subscriber.queue().isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.emitter().complete();
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.subsidiaryId(), (id, set) -> {
+            removed.set(set.remove(subscriber));
+            return set.isEmpty() ? null : set;
+        });
+        if (removed.get()) {
+            subscriberCount.decrementAndGet();
+            subscriber.queue().clear();
+        }
+        return removed.get();
+    }
+
+    private record Subscriber(
+            UUID subsidiaryId,
+            SseEmitter emitter,
+            BlockingQueue<Set<DataWithMediaType>> queue,
+            AtomicBoolean sending
+    ) {
+        Subscriber(UUID subsidiaryId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this(subsidiaryId, emitter, queue, new AtomicBoolean());
+        }
+    }
+}
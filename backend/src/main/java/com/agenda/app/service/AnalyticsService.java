@@ -0,0 +1,241 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.ChairUtilizationResponse;
+import com.agenda.app.dto.RevenueGrouping;
+import com.agenda.app.dto.RevenueSummaryRow;
+import com.agenda.app.repository.ChairDailyAggregateRepository;
+import com.agenda.app.repository.ServiceDailyAggregateRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Indicadores gerenciais (faturamento e ocupação) lidos de agregados diários.
+ * <p>
+ * Os painéis consultam só {@code analytics_service_daily} e {@code analytics_chair_daily}, com
+ * poucas linhas por dia, então o custo não cresce com o histórico de agendamentos. Os agregados
+ * são mantidos pela função {@code refresh_analytics_daily} (V13):
+ * <ul>
+ *   <li>na escrita: cada alteração de agendamento até o dia de hoje enfileira o dia da
+ *       subsidiária em {@code analytics_dirty_days} (V19), na mesma transação; um job frequente
+ *       esvazia a fila, recalculando um dia por transação;</li>
+ *   <li>um job noturno recalcula os últimos {@code agenda.analytics.refresh-days} dias e o dia
+ *       corrente, um dia por transação, corrigindo o que não passa pelo serviço (ex.: agendas
+ *       das salas).</li>
+ * </ul>
+ * Dias mais antigos que a janela do job ficam congelados e sobrevivem ao arquivamento dos
+ * agendamentos.
+ */
+@Slf4j
+@Service
+public class AnalyticsService {
+
+    /** Intervalo máximo de uma consulta */
+    private static final long MAX_RANGE_DAYS = 731;
+
+    /** Entradas mais antigas da fila lidas a cada tentativa de tomar um dia */
+    private static final int CLAIM_CANDIDATES = 32;
+
+    private final EntityManager entityManager;
+    private final ServiceDailyAggregateRepository serviceDailyRepository;
+    private final ChairDailyAggregateRepository chairDailyRepository;
+    private final TransactionTemplate batchTx;
+
+    /** Desligado, os agregados não são recalculados (a função usa SQL do PostgreSQL) */
+    @Value("${agenda.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agenda.analytics.refresh-days:7}")
+    private int refreshDays;
+
+    /** Máximo de dias da fila recalculados por execução do job */
+    @Value("${agenda.analytics.queue-batch-size:500}")
+    private int queueBatchSize;
+
+    public AnalyticsService(EntityManager entityManager,
+                            ServiceDailyAggregateRepository serviceDailyRepository,
+                            ChairDailyAggregateRepository chairDailyRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.serviceDailyRepository = serviceDailyRepository;
+        this.chairDailyRepository = chairDailyRepository;
+        this.batchTx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Enfileira o dia da subsidiária depois de uma alteração de agendamento; o recálculo fica
+     * para {@link #refreshQueued()}. Dias futuros ficam para o job noturno (entram nos agregados
+     * quando chegam à janela).
+     */
+    @Transactional
+    public void queueRefresh(UUID subsidiaryId, LocalDate date) {
+        if (!enabled || subsidiaryId == null || date.isAfter(LocalDate.now())) {
+            return;
+        }
+        entityManager
+                .createNativeQuery("INSERT INTO analytics_dirty_days (subsidiary_id, business_date)"
+                        + " VALUES (:subsidiaryId, :date)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("analytics_dirty_days")
+                .setParameter("subsidiaryId", subsidiaryId)
+                .setParameter("date", date)
+                .executeUpdate();
+    }
+
+    /**
+     * Esvazia a fila de dias alterados, um dia por transação. Vários nós podem rodar ao mesmo
+     * tempo: cada um pula os dias já tomados por outro (ver {@link #refreshNextQueued()}).
+     */
+    @Scheduled(fixedDelayString = "${agenda.analytics.queue-delay-ms:5000}")
+    public void refreshQueued() {
+        if (!enabled) {
+            return;
+        }
+        int days = 0;
+        while (days < queueBatchSize && Boolean.TRUE.equals(batchTx.execute(status -> refreshNextQueued()))) {
+            days++;
+        }
+        if (days > 0) {
+            log.debug("Refreshed {} queued analytics day(s)", days);
+        }
+    }
+
+    @Scheduled(cron = "${agenda.analytics.cron:0 20 0 * * *}")
+    public void refreshRecent() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        long total = 0;
+        for (LocalDate day = today.minusDays(refreshDays); !day.isAfter(today); day = day.plusDays(1)) {
+            LocalDate current = day;
+            Integer rows = batchTx.execute(status -> refresh(current, current, null));
+            total += rows != null ? rows : 0;
+        }
+        log.info("Refreshed analytics aggregates for the last {} day(s): {} row(s)", refreshDays, total);
+    }
+
+    /**
+     * Faturamento no período agrupado pela dimensão pedida
+     */
+    @Transactional(readOnly = true)
+    public List<RevenueSummaryRow> getRevenue(UUID companyId, UUID subsidiaryId,
+                                              LocalDate from, LocalDate to, RevenueGrouping grouping) {
+        validateRange(from, to);
+        return switch (grouping) {
+            case SUBSIDIARY -> serviceDailyRepository.sumBySubsidiary(companyId, subsidiaryId, from, to);
+            case PROFESSIONAL -> serviceDailyRepository.sumByProfessional(companyId, subsidiaryId, from, to);
+            case ITEM -> serviceDailyRepository.sumByItem(companyId, subsidiaryId, from, to);
+            case DAY -> serviceDailyRepository.sumByDay(companyId, subsidiaryId, from, to);
+        };
+    }
+
+    /**
+     * Ocupação das salas/cadeiras da subsidiária no período
+     */
+    @Transactional(readOnly = true)
+    public List<ChairUtilizationResponse> getChairUtilization(UUID subsidiaryId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return chairDailyRepository.sumByChair(subsidiaryId, from, to).stream()
+                .map(r -> new ChairUtilizationResponse(
+                        r.chairRoomId(),
+                        r.bookedCount(),
+                        r.bookedMinutes(),
+                        r.openMinutes(),
+                        r.openMinutes() > 0
+                                ? BigDecimal.valueOf(r.bookedMinutes() * 100)
+                                        .divide(BigDecimal.valueOf(r.openMinutes()), 2, RoundingMode.HALF_UP)
+                                : null))
+                .toList();
+    }
+
+    /**
+     * Toma o dia mais antigo da fila ainda livre, remove todas as suas entradas e o recalcula.
+     * <p>
+     * O dia é tomado inteiro por um advisory lock de transação com a chave (subsidiária, dia),
+     * e só quem tem esse lock remove as entradas do dia. Travar uma linha da fila não bastaria:
+     * o mesmo dia costuma ter várias entradas, e dois nós que tomassem entradas diferentes do
+     * mesmo dia se bloqueariam mutuamente ao remover as do outro. Uma escrita que enfileire o
+     * dia durante o recálculo deixa uma entrada nova, que a remoção (feita antes) não enxerga: o
+     * dia volta a ser recalculado na próxima passada.
+     */
+    private boolean refreshNextQueued() {
+        List<?> oldest = entityManager
+                .createNativeQuery("SELECT subsidiary_id, business_date FROM analytics_dirty_days"
+                        + " ORDER BY id LIMIT :limit")
+                .unwrap(NativeQuery.class)
+                .addScalar("subsidiary_id", UUID.class)
+                .addScalar("business_date", LocalDate.class)
+                .addSynchronizedQuerySpace("analytics_dirty_days")
+                .setParameter("limit", CLAIM_CANDIDATES)
+                .getResultList();
+        Set<DayKey> candidates = new LinkedHashSet<>();
+        for (Object row : oldest) {
+            Object[] day = (Object[]) row;
+            candidates.add(new DayKey((UUID) day[0], (LocalDate) day[1]));
+        }
+        for (DayKey day : candidates) {
+            // Dia vazio: outro nó já o esvaziou depois da leitura acima
+            if (claim(day) && dequeue(day) > 0) {
+                refresh(day.date(), day.date(), day.subsidiaryId());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Tenta o lock do dia sem esperar; fica com ele até o fim da transação */
+    private boolean claim(DayKey day) {
+        return (Boolean) entityManager
+                .createNativeQuery("SELECT pg_try_advisory_xact_lock(hashtext('analytics_dirty_days'), hashtext(:day))")
+                .setParameter("day", day.subsidiaryId() + "/" + day.date())
+                .getSingleResult();
+    }
+
+    private int dequeue(DayKey day) {
+        return entityManager
+                .createNativeQuery("DELETE FROM analytics_dirty_days"
+                        + " WHERE subsidiary_id = :subsidiaryId AND business_date = :date")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("analytics_dirty_days")
+                .setParameter("subsidiaryId", day.subsidiaryId())
+                .setParameter("date", day.date())
+                .executeUpdate();
+    }
+
+    private int refresh(LocalDate from, LocalDate to, UUID subsidiaryId) {
+        Number rows = (Number) entityManager
+                .createNativeQuery("SELECT refresh_analytics_daily(:from, :to, CAST(:subsidiaryId AS uuid))")
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("subsidiaryId", subsidiaryId)
+                .getSingleResult();
+        return rows.intValue();
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Period must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private record DayKey(UUID subsidiaryId, LocalDate date) {}
+}
@@ -0,0 +1,110 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.AppointmentHistoryRow;
+import com.agenda.app.repository.AppointmentArchiveRepository;
+import com.agenda.app.repository.AppointmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Arquivo frio dos agendamentos finalizados (COMPLETED/CANCELLED).
+ * <p>
+ * Um job agendado move, em lotes com transação própria, os agendamentos mais antigos que
+ * {@code agenda.archive.after-days} para {@code appointments_archive}, mantendo a tabela
+ * quente pequena. O histórico consulta as duas tabelas e só vai ao arquivo quando o
+ * intervalo pedido alcança o período arquivável.
+ */
+@Slf4j
+@Service
+public class AppointmentArchiveService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentArchiveRepository archiveRepository;
+    private final TransactionTemplate batchTx;
+
+    @Value("${agenda.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agenda.archive.after-days:730}")
+    private int afterDays;
+
+    @Value("${agenda.archive.batch-size:1000}")
+    private int batchSize;
+
+    /** Limite de lotes por execução, para o job não ocupar a janela inteira */
+    @Value("${agenda.archive.max-batches:500}")
+    private int maxBatches;
+
+    public AppointmentArchiveService(AppointmentRepository appointmentRepository,
+                                     AppointmentArchiveRepository archiveRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.archiveRepository = archiveRepository;
+        this.batchTx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Executa diariamente (madrugada). Cada lote é commitado em separado, então as travas
+     * duram apenas o lote e uma interrupção não desfaz o que já foi arquivado.
+     */
+    @Scheduled(cron = "${agenda.archive.cron:0 0 4 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = archiveCutoff().atStartOfDay();
+        long total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer moved = batchTx.execute(status -> archiveRepository.archiveBatch(cutoff, batchSize));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} appointment(s) older than {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Histórico de agendamentos do cliente entre startDate e endDate (inclusive), mais recentes
+     * primeiro, reunindo a tabela quente e o arquivo
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentHistoryRow> getCustomerHistory(UUID customerId, LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+
+        List<AppointmentHistoryRow> rows = new ArrayList<>(
+                appointmentRepository.findCustomerHistory(customerId, from, to));
+
+        // Nada mais recente que o corte atual foi arquivado
+        if (startDate.isBefore(archiveCutoff())) {
+            rows.addAll(archiveRepository.findCustomerHistory(customerId, from, to));
+            rows.sort(Comparator.comparing(AppointmentHistoryRow::startTime).reversed());
+        }
+        return rows;
+    }
+
+    private LocalDate archiveCutoff() {
+        return LocalDate.now().minusDays(afterDays);
+    }
+}
@@ -0,0 +1,156 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.AppointmentChangeFeedResponse;
+import com.agenda.app.dto.AppointmentChangeResponse;
+import com.agenda.app.dto.AppointmentResponse;
+import com.agenda.app.event.AgendaEvent;
+import com.agenda.app.mapper.AppointmentMapper;
+import com.agenda.app.model.Appointment;
+import com.agenda.app.model.AppointmentChange;
+import com.agenda.app.model.AppointmentChangeType;
+import com.agenda.app.repository.AppointmentChangeRepository;
+import com.agenda.app.repository.AppointmentRepository;
+import com.agenda.app.util.CursorUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço do feed de alterações de agendamentos ("o que mudou desde o token X").
+ * As alterações são registradas na mesma transação da escrita do agendamento,
+ * então o token só fica visível depois do commit. Cada alteração também é publicada
+ * como {@link AgendaEvent} para o canal de push da subsidiária.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentChangeService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final AppointmentChangeRepository changeRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Horizonte de visibilidade por transação (PostgreSQL); desligado, o feed segue só o id */
+    @Value("${agenda.change-feed.visibility-horizon:true}")
+    private boolean visibilityHorizon;
+
+    /**
+     * Registra uma alteração no escopo atual do agendamento
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Appointment appt, AppointmentChangeType changeType) {
+        UUID subsidiaryId = appt.getSubsidiary() != null ? appt.getSubsidiary().getId() : null;
+        AppointmentChange change = save(appt.getId(), subsidiaryId, appt.getProfessional().getId(), changeType);
+        publish(change, mapper.toResponse(appt));
+    }
+
+    /**
+     * Registra uma alteração para um escopo explícito (ex.: tombstone no profissional anterior)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(UUID appointmentId, UUID subsidiaryId, UUID professionalId, AppointmentChangeType changeType) {
+        publish(save(appointmentId, subsidiaryId, professionalId, changeType), null);
+    }
+
+    private AppointmentChange save(UUID appointmentId, UUID subsidiaryId, UUID professionalId,
+                                   AppointmentChangeType changeType) {
+        return changeRepository.save(AppointmentChange.builder()
+                .appointmentId(appointmentId)
+                .subsidiaryId(subsidiaryId)
+                .professionalId(professionalId)
+                .changeType(changeType)
+                .changedAt(Instant.now())
+                .build());
+    }
+
+    private void publish(AppointmentChange change, AppointmentResponse appointment) {
+        if (change.getSubsidiaryId() == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new AgendaEvent(change.getSubsidiaryId(), AgendaEvent.APPOINTMENT,
+                new AppointmentChangeResponse(change.getId(), change.getChangeType(), change.getAppointmentId(),
+                        change.getChangedAt(), appointment)));
+    }
+
+    /**
+     * Busca as alterações posteriores ao token, por subsidiária ou por profissional.
+     * <p>
+     * Só entram alterações de transações anteriores ao horizonte de visibilidade (a transação
+     * aberta mais antiga): uma alteração que ainda vai ser commitada nunca fica atrás do token
+     * devolvido, mesmo que o seu id seja menor.
+     *
+     * @param since Último token recebido (nulo ou 0 para sincronização completa)
+     * @param size  Tamanho da página (limitado a {@value #MAX_PAGE_SIZE})
+     */
+    @Transactional(readOnly = true)
+    public AppointmentChangeFeedResponse getChangesSince(UUID subsidiaryId, UUID professionalId, String since, int size) {
+        if ((subsidiaryId == null) == (professionalId == null)) {
+            throw new IllegalArgumentException("Exactly one of subsidiaryId or professionalId must be informed");
+        }
+        long sinceTx = 0;
+        long sinceId = 0;
+        if (since != null && !since.isBlank() && !"0".equals(since)) {
+            String[] key = CursorUtils.decode(since, 2);
+            try {
+                sinceTx = Long.parseLong(key[0]);
+                sinceId = Long.parseLong(key[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid token", e);
+            }
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        long horizon = visibilityHorizon ? changeRepository.currentVisibilityHorizon() : Long.MAX_VALUE;
+
+        List<AppointmentChange> rows = subsidiaryId != null
+                ? changeRepository.findSubsidiaryPage(subsidiaryId, sinceTx, sinceId, horizon, limit)
+                : changeRepository.findProfessionalPage(professionalId, sinceTx, sinceId, horizon, limit);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextToken = since != null && !since.isBlank() ? since : "0";
+        if (!rows.isEmpty()) {
+            AppointmentChange last = rows.get(rows.size() - 1);
+            nextToken = CursorUtils.encode(last.getTxId(), last.getId());
+        }
+
+        // Várias alterações do mesmo agendamento na página: só a última importa
+        Map<UUID, AppointmentChange> latest = new LinkedHashMap<>();
+        for (AppointmentChange change : rows) {
+            latest.remove(change.getAppointmentId());
+            latest.put(change.getAppointmentId(), change);
+        }
+
+        Set<UUID> liveIds = latest.values().stream()
+                .filter(c -> c.getChangeType() != AppointmentChangeType.DELETED)
+                .map(AppointmentChange::getAppointmentId)
+                .collect(Collectors.toSet());
+        Map<UUID, AppointmentResponse> current = liveIds.isEmpty()
+                ? Map.of()
+                : appointmentRepository.findAllById(liveIds).stream()
+                        .collect(Collectors.toMap(Appointment::getId, mapper::toResponse, (a, b) -> a));
+
+        List<AppointmentChangeResponse> changes = latest.values().stream()
+                .map(c -> new AppointmentChangeResponse(
+                        c.getId(),
+                        c.getChangeType(),
+                        c.getAppointmentId(),
+                        c.getChangedAt(),
+                        c.getChangeType() == AppointmentChangeType.DELETED ? null : current.get(c.getAppointmentId())))
+                .toList();
+
+        return new AppointmentChangeFeedResponse(changes, nextToken, hasMore);
+    }
+}
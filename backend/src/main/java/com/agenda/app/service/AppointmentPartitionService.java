@@ -0,0 +1,91 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.AppointmentOrphanView;
+import com.agenda.app.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Manutenção das partições mensais da tabela appointments (PostgreSQL).
+ * <p>
+ * Mantém sempre criadas as partições dos próximos meses, para que novos agendamentos não
+ * caiam na partição default, e desanexa as partições mais antigas que o período de retenção.
+ * As tabelas desanexadas continuam no banco, fora do caminho das consultas da agenda.
+ * <p>
+ * Sem FKs para appointments (ver V4/V15), a mesma rotina conta as referências órfãs e
+ * registra um aviso quando encontra alguma.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentPartitionService {
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${agenda.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agenda.partitions.months-ahead:12}")
+    private int monthsAhead;
+
+    /** Meses de histórico mantidos anexados; 0 desativa a desanexação */
+    @Value("${agenda.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${agenda.partitions.orphan-check-enabled:true}")
+    private boolean orphanCheckEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void onStartup() {
+        maintain();
+    }
+
+    /**
+     * Executa diariamente (madrugada); as funções SQL são idempotentes
+     */
+    @Scheduled(cron = "${agenda.partitions.cron:0 30 3 * * *}")
+    @Transactional
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        int created = appointmentRepository.ensurePartitions(monthsAhead);
+        if (created > 0) {
+            log.info("Created {} appointment partition(s)", created);
+        }
+
+        if (retentionMonths > 0) {
+            LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+            int detached = appointmentRepository.detachPartitionsBefore(cutoff);
+            if (detached > 0) {
+                log.info("Detached {} appointment partition(s) older than {}", detached, cutoff);
+            }
+        }
+    }
+
+    /**
+     * Conta as referências órfãs (varre as tabelas filhas; fora da subida da aplicação)
+     */
+    @Scheduled(cron = "${agenda.partitions.orphan-check-cron:0 45 3 * * *}")
+    @Transactional(readOnly = true)
+    public void checkOrphanReferences() {
+        if (!enabled || !orphanCheckEnabled) {
+            return;
+        }
+        for (AppointmentOrphanView orphans : appointmentRepository.findOrphanReferences()) {
+            if (orphans.getOrphans() > 0) {
+                log.warn("{} row(s) in {} reference missing appointments",
+                        orphans.getOrphans(), orphans.getTableName());
+            }
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.AppointmentRequest;
 import com.agenda.app.dto.AppointmentResponse;
+import com.agenda.app.dto.CursorPage;
 import com.agenda.app.exception.ConflictException;
 import com.agenda.app.exception.PaymentRequiredException;
 import com.agenda.app.mapper.AppointmentMapper;
 import com.agenda.app.model.*;
 import com.agenda.app.repository.*;
+import com.agenda.app.util.CursorUtils;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,7 +22,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,8 +39,24 @@ public class AppointmentService {
     private final ChairRoomRepository chairRoomRepository;
     private final ItemRepository itemRepository;
     private final PaymentService paymentService;
+    private final AppointmentChangeService changeService;
+    private final AccountHoldService holdService;
+    private final AnalyticsService analyticsService;
     private final AppointmentMapper mapper;
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /** Status exibidos na agenda da recepção */
+    private static final List<AppointmentStatus> AGENDA_STATUSES = List.of(
+            AppointmentStatus.CONFIRMED,
+            AppointmentStatus.NOT_CONFIRMED,
+            AppointmentStatus.PENDING
+    );
+
+    /** Tabela particionada (PostgreSQL): a busca por id passa pelo appointment_locator */
+    @Value("${agenda.partitions.enabled:true}")
+    private boolean partitioned;
+
     private final SubsidiaryScheduleEntryRepository subsidiaryScheduleRepository;
     private final ProfessionalScheduleEntryRepository professionalScheduleRepository;
     private final ChairRoomScheduleEntryRepository chairRoomScheduleRepository;
@@ -61,6 +84,7 @@ public class AppointmentService {
         }
 
         LocalDateTime end = dto.getEndTime();
+        validateDuration(start, end);
         LocalDate appointmentDate = start.toLocalDate();
         LocalTime startTime = start.toLocalTime();
         LocalTime endTime = end.toLocalTime();
@@ -106,9 +130,25 @@ public class AppointmentService {
         appt.setStatus(determineStatus(appt, dto.getPaymentId()));
 
         appointmentRepository.save(appt);
+        holdPrePayment(appt, dto.getPaymentId());
+        changeService.record(appt, AppointmentChangeType.CREATED);
+        refreshAnalytics(appt);
         return mapper.toResponse(appt);
     }
 
+    /**
+     * Garante que o fim é posterior ao início e respeita {@link Appointment#MAX_DURATION},
+     * premissa das consultas de sobreposição na tabela particionada
+     */
+    private void validateDuration(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("End time must be after start time");
+        }
+        if (end.isAfter(start.plus(Appointment.MAX_DURATION))) {
+            throw new IllegalArgumentException("Appointment cannot last longer than " + Appointment.MAX_DURATION.toHours() + " hours");
+        }
+    }
+
     /**
      * Verifica se a subsidiária está disponível na data e horário especificados
      */
@@ -278,15 +318,7 @@ public class AppointmentService {
         LocalDateTime start = LocalDateTime.of(date, startTime);
         LocalDateTime end = LocalDateTime.of(date, endTime);
 
-        boolean hasConflict = appointmentRepository.findAll().stream()
-                .filter(a -> a.getChairRoom() != null && a.getChairRoom().getId().equals(chairRoomId))
-                .filter(a -> a.getStatus() != AppointmentStatus.CANCELLED)
-                .anyMatch(a -> {
-                    // Verificar se há sobreposição de horários
-                    return (a.getStartTime().isBefore(end) && a.getEndTime().isAfter(start));
-                });
-
-        if (hasConflict) {
+        if (appointmentRepository.existsChairRoomOverlap(chairRoomId, start, end)) {
             throw new ConflictException("Chair/Room is already booked for this time");
         }
     }
@@ -299,15 +331,17 @@ public class AppointmentService {
 
     @Transactional(readOnly = true)
     public AppointmentResponse getAppointmentById(UUID id) {
-        return appointmentRepository.findById(id)
-                .map(mapper::toResponse)
-                .orElseThrow(() -> new EntityNotFoundException("Appointment not found: " + id));
+        return mapper.toResponse(findAppointment(id));
     }
 
+    @RetryOnConflict
     @Transactional
     public AppointmentResponse updateAppointment(UUID id, AppointmentRequest dto) {
-        Appointment appt = appointmentRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Appointment not found: " + id));
+        Appointment appt = findAppointment(id);
+        UUID previousProfessionalId = appt.getProfessional().getId();
+        UUID previousSubsidiaryId = appt.getSubsidiary() != null ? appt.getSubsidiary().getId() : null;
+        UUID previousItemId = appt.getItem().getId();
+        LocalDate previousDate = appt.getStartTime().toLocalDate();
 
         // Validar e buscar entidades relacionadas
         Professional prof = professionalRepository.findById(dto.getProfessionalId())
@@ -329,6 +363,7 @@ public class AppointmentService {
         }
 
         LocalDateTime end = dto.getEndTime();
+        validateDuration(start, end);
         LocalDate appointmentDate = start.toLocalDate();
         LocalTime startTime = start.toLocalTime();
         LocalTime endTime = end.toLocalTime();
@@ -363,9 +398,52 @@ public class AppointmentService {
         appt.setStatus(determineStatus(appt, dto.getPaymentId()));
 
         appointmentRepository.save(appt);
+
+        // Serviço trocado: a retenção do preço anterior é devolvida antes de reter o novo
+        if (!previousItemId.equals(svc.getId())) {
+            holdService.releaseHold(appt.getId(), "Service changed");
+        }
+        holdPrePayment(appt, dto.getPaymentId());
+
+        // Se mudou de profissional/subsidiária, o escopo anterior recebe um tombstone
+        if (!previousProfessionalId.equals(prof.getId()) || !Objects.equals(previousSubsidiaryId, sub.getId())) {
+            changeService.record(appt.getId(), previousSubsidiaryId, previousProfessionalId, AppointmentChangeType.DELETED);
+        }
+        changeService.record(appt, AppointmentChangeType.UPDATED);
+        if (!previousDate.equals(appointmentDate) || !Objects.equals(previousSubsidiaryId, sub.getId())) {
+            analyticsService.queueRefresh(previousSubsidiaryId, previousDate);
+        }
+        refreshAnalytics(appt);
         return mapper.toResponse(appt);
     }
 
+    private Appointment findAppointment(UUID id) {
+        Optional<Appointment> appt = partitioned
+                ? appointmentRepository.findLocatedById(id)
+                : appointmentRepository.findById(id);
+        return appt.orElseThrow(() -> new EntityNotFoundException("Appointment not found: " + id));
+    }
+
+    /**
+     * Sem pagamento informado, tenta reter o preço do serviço no saldo do cliente; com a
+     * retenção o pré-pagamento está garantido e o agendamento deixa de ficar PENDING
+     */
+    private void holdPrePayment(Appointment appt, UUID paymentId) {
+        if (paymentId == null && holdService.placeHold(appt)
+                && appt.getStatus() == AppointmentStatus.PENDING) {
+            appt.setStatus(AppointmentStatus.NOT_CONFIRMED);
+        }
+    }
+
+    /**
+     * Enfileira o recálculo dos indicadores do dia do agendamento (faturamento e ocupação)
+     */
+    private void refreshAnalytics(Appointment appt) {
+        if (appt.getSubsidiary() != null) {
+            analyticsService.queueRefresh(appt.getSubsidiary().getId(), appt.getStartTime().toLocalDate());
+        }
+    }
+
     private AppointmentStatus determineStatus(Appointment appt, UUID paymentId) {
         Item bs = appt.getItem();
 
@@ -389,22 +467,111 @@ public class AppointmentService {
         }
     }
 
+    @RetryOnConflict
     @Transactional
     public void cancelAppointment(UUID id) {
-        Appointment appt = appointmentRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Appointment not found: " + id));
+        Appointment appt = findAppointment(id);
         appt.setStatus(AppointmentStatus.CANCELLED);
         appointmentRepository.save(appt);
+        holdService.releaseHold(appt.getId(), "Appointment cancelled");
+        changeService.record(appt, AppointmentChangeType.CANCELLED);
+        refreshAnalytics(appt);
     }
 
-    public Page<AppointmentResponse> getAgendaAppointments(Pageable pageable) {
-        List<AppointmentStatus> visibleStatuses = List.of(
-                AppointmentStatus.CONFIRMED,
-                AppointmentStatus.NOT_CONFIRMED,
-                AppointmentStatus.PENDING
-        );
+    /**
+     * Conclui o atendimento, consumindo a retenção de pré-pagamento se houver
+     */
+    @RetryOnConflict
+    @Transactional
+    public AppointmentResponse completeAppointment(UUID id) {
+        Appointment appt = findAppointment(id);
+        if (appt.getStatus() == AppointmentStatus.CANCELLED || appt.getStatus() == AppointmentStatus.COMPLETED) {
+            throw new ConflictException("Appointment is already " + appt.getStatus());
+        }
+        appt.setStatus(AppointmentStatus.COMPLETED);
+        appointmentRepository.save(appt);
+        holdService.consumeHold(appt.getId());
+        changeService.record(appt, AppointmentChangeType.UPDATED);
+        refreshAnalytics(appt);
+        return mapper.toResponse(appt);
+    }
 
-        return appointmentRepository.findByStatusIn(visibleStatuses, pageable)
+    @Transactional(readOnly = true)
+    public Page<AppointmentResponse> getAgendaAppointments(Pageable pageable) {
+        return appointmentRepository.findByStatusIn(AGENDA_STATUSES, pageable)
                 .map(mapper::toResponse);
     }
-}
\ No newline at end of file
+
+    /**
+     * Lista agendamentos com paginação por cursor (keyset) em (startTime, id).
+     * Não executa count(*) e o custo por página não cresce com a profundidade.
+     *
+     * @param cursor Cursor opaco da página anterior (null para a primeira página)
+     * @param size   Tamanho da página (limitado a {@value #MAX_PAGE_SIZE})
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> listAppointmentsByCursor(String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Appointment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findFirstPage(limit);
+        } else {
+            String[] key = CursorUtils.decode(cursor, 2);
+            rows = appointmentRepository.findPageAfter(parseCursorTime(key[0]), parseCursorId(key[1]), limit);
+        }
+        return toCursorPage(rows, pageSize);
+    }
+
+    /**
+     * Agenda (CONFIRMED, NOT_CONFIRMED, PENDING) com paginação por cursor (keyset)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentResponse> getAgendaAppointmentsByCursor(String cursor, int size) {
+        int pageSize = normalizePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Appointment> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = appointmentRepository.findFirstPageByStatusIn(AGENDA_STATUSES, limit);
+        } else {
+            String[] key = CursorUtils.decode(cursor, 2);
+            rows = appointmentRepository.findPageAfterByStatusIn(
+                    AGENDA_STATUSES, parseCursorTime(key[0]), parseCursorId(key[1]), limit);
+        }
+        return toCursorPage(rows, pageSize);
+    }
+
+    private int normalizePageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou um registro a mais que o tamanho da página
+     */
+    private CursorPage<AppointmentResponse> toCursorPage(List<Appointment> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<Appointment> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Appointment last = page.get(page.size() - 1);
+            nextCursor = CursorUtils.encode(last.getStartTime(), last.getId());
+        }
+
+        return new CursorPage<>(page.stream().map(mapper::toResponse).toList(), nextCursor, hasNext);
+    }
+
+    private LocalDateTime parseCursorTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private UUID parseCursorId(String value) {
+        return UUID.fromString(value);
+    }
+}
@@ -64,10 +64,7 @@ public class AvailabilityService {
         LocalDateTime start = LocalDateTime.of(date, startTime);
         LocalDateTime end = LocalDateTime.of(date, endTime);
         
-        return appointmentRepo.findAll().stream()
-                .filter(a -> a.getChairRoom() != null && a.getChairRoom().getId().equals(chairRoomId))
-                .filter(a -> !a.getStatus().equals(AppointmentStatus.CANCELLED))
-                .noneMatch(a -> !(a.getEndTime().isBefore(start) || a.getStartTime().isAfter(end)));
+        return !appointmentRepo.existsChairRoomOverlap(chairRoomId, start, end);
     }
     
     /**
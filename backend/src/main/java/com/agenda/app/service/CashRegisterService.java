@@ -0,0 +1,224 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.CashRegisterDayResponse;
+import com.agenda.app.dto.CashRegisterDriftView;
+import com.agenda.app.exception.ConflictException;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.model.CashRegisterDay;
+import com.agenda.app.model.CashRegisterRollup;
+import com.agenda.app.model.CashRegisterStatus;
+import com.agenda.app.repository.CashRegisterDayRepository;
+import com.agenda.app.repository.CashRegisterRollupRepository;
+import com.agenda.app.util.MoneyUtils;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fechamento de caixa por subsidiária e dia.
+ * <p>
+ * Cada lançamento de conta soma o seu valor ao rollup do dia ({@code cash_register_rollups})
+ * na mesma transação em que é gravado, então consultar o caixa lê poucas linhas em vez de
+ * varrer os movimentos do dia. O dia fechado recusa novos lançamentos ({@link ConflictException})
+ * até ser reaberto. Retenções de pré-pagamento
+ * ({@link AccountTransactionType#isHoldMovement()}) não movimentam o caixa: ficam fora dos
+ * totais e do bloqueio, então reservar, liberar ou consumir uma retenção funciona com o dia
+ * fechado.
+ * <p>
+ * Os pagamentos não são gravados pela aplicação (chegam da integração de pagamentos), então os
+ * totais de PAYMENT vêm do job de reconciliação: a cada
+ * {@code agenda.cash-register.reconcile-cron} ele recalcula os últimos
+ * {@code agenda.cash-register.reconcile-days} dias a partir dos pagamentos e lançamentos;
+ * nos dias abertos o rollup é corrigido, nos fechados a divergência só é reportada. O
+ * fechamento faz o mesmo recálculo do dia sob a trava, antes de marcá-lo fechado, para não
+ * congelar totais de pagamento anteriores à última reconciliação.
+ */
+@Slf4j
+@Service
+public class CashRegisterService {
+
+    /**
+     * Fuso do dia de caixa. O mesmo no lançamento (Java) e na reconciliação (SQL, via
+     * {@code AT TIME ZONE}), então os dois atribuem cada movimento ao mesmo dia.
+     */
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final CashRegisterDayRepository dayRepository;
+    private final CashRegisterRollupRepository rollupRepository;
+    private final TransactionTemplate batchTx;
+
+    @Value("${agenda.cash-register.reconcile-enabled:true}")
+    private boolean reconcileEnabled;
+
+    @Value("${agenda.cash-register.reconcile-days:3}")
+    private int reconcileDays;
+
+    public CashRegisterService(CashRegisterDayRepository dayRepository,
+                               CashRegisterRollupRepository rollupRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.dayRepository = dayRepository;
+        this.rollupRepository = rollupRepository;
+        this.batchTx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Soma um lançamento de conta ao caixa do dia em que foi gravado ({@code createdAt}, o
+     * mesmo instante que a reconciliação usa). ADJUSTMENT entra com sinal.
+     */
+    @Transactional
+    public void recordAccountTransaction(UUID subsidiaryId, AccountTransactionType type,
+                                         long signedAmountCents, Instant createdAt) {
+        long amount = type == AccountTransactionType.ADJUSTMENT ? signedAmountCents : Math.abs(signedAmountCents);
+        addToDay(subsidiaryId, createdAt.atZone(zone).toLocalDate(), CashRegisterRollup.SOURCE_ACCOUNT,
+                type.name(), 1, MoneyUtils.fromCents(amount), BigDecimal.ZERO);
+    }
+
+    @Transactional(readOnly = true)
+    public CashRegisterDayResponse getDay(UUID subsidiaryId, LocalDate businessDate) {
+        CashRegisterDay day = dayRepository.findBySubsidiaryIdAndBusinessDate(subsidiaryId, businessDate)
+                .orElse(null);
+        return toResponse(subsidiaryId, businessDate, day);
+    }
+
+    /**
+     * Fecha o caixa do dia. Espera os movimentos em andamento; os posteriores são recusados.
+     * Sob a mesma trava, o rollup do dia é recalculado a partir dos pagamentos e lançamentos.
+     */
+    @Transactional
+    public CashRegisterDayResponse close(UUID subsidiaryId, LocalDate businessDate) {
+        if (businessDate.isAfter(LocalDate.now(zone))) {
+            throw new IllegalArgumentException("Cannot close a future date");
+        }
+        dayRepository.ensureDay(subsidiaryId, businessDate);
+        CashRegisterDay day = lockDay(subsidiaryId, businessDate);
+        if (day.getStatus() == CashRegisterStatus.CLOSED) {
+            throw new ConflictException("Cash register is already closed for " + businessDate);
+        }
+        correctDrifts(day, subsidiaryId, businessDate);
+        day.setStatus(CashRegisterStatus.CLOSED);
+        day.setClosedAt(Instant.now());
+        log.info("Cash register of subsidiary {} closed for {}", subsidiaryId, businessDate);
+        return toResponse(subsidiaryId, businessDate, day);
+    }
+
+    @Transactional
+    public CashRegisterDayResponse reopen(UUID subsidiaryId, LocalDate businessDate) {
+        CashRegisterDay day = lockDay(subsidiaryId, businessDate);
+        if (day.getStatus() != CashRegisterStatus.CLOSED) {
+            throw new ConflictException("Cash register is not closed for " + businessDate);
+        }
+        day.setStatus(CashRegisterStatus.OPEN);
+        day.setReopenedAt(Instant.now());
+        log.info("Cash register of subsidiary {} reopened for {}", subsidiaryId, businessDate);
+        return toResponse(subsidiaryId, businessDate, day);
+    }
+
+    /**
+     * Uma passada sem trava acha os dias divergentes; cada dia é então travado
+     * ({@link CashRegisterDayRepository#findForUpdate}, que espera os lançamentos em andamento e
+     * segura os novos) e recalculado sob a trava antes de o rollup ser substituído.
+     */
+    @Scheduled(cron = "${agenda.cash-register.reconcile-cron:0 */15 * * * *}")
+    public void reconcile() {
+        if (!reconcileEnabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now(zone);
+        List<DayKey> days = rollupRepository.findDrift(today.minusDays(reconcileDays), today, null, zone.getId())
+                .stream()
+                .map(d -> new DayKey(d.getSubsidiaryId(), d.getBusinessDate()))
+                .distinct()
+                .toList();
+        int drifts = 0;
+        int corrected = 0;
+        for (DayKey day : days) {
+            Outcome outcome = batchTx.execute(status -> reconcileDay(day));
+            if (outcome != null) {
+                drifts += outcome.drifts();
+                corrected += outcome.corrected();
+            }
+        }
+        if (drifts > 0) {
+            log.info("Cash register reconciliation found {} drift(s) in {} day(s), corrected {}",
+                    drifts, days.size(), corrected);
+        }
+    }
+
+    private Outcome reconcileDay(DayKey key) {
+        dayRepository.ensureDay(key.subsidiaryId(), key.businessDate());
+        CashRegisterDay day = lockDay(key.subsidiaryId(), key.businessDate());
+        return correctDrifts(day, key.subsidiaryId(), key.businessDate());
+    }
+
+    /**
+     * Recalcula o dia já travado e substitui os rollups divergentes; dia fechado só é reportado
+     */
+    private Outcome correctDrifts(CashRegisterDay day, UUID subsidiaryId, LocalDate businessDate) {
+        List<CashRegisterDriftView> drifts = rollupRepository.findDrift(
+                businessDate, businessDate, subsidiaryId, zone.getId());
+        int corrected = 0;
+        for (CashRegisterDriftView d : drifts) {
+            // Sem gravação na aplicação, todo pagamento novo chega por aqui: só lançamentos de conta são anomalia
+            if (CashRegisterRollup.SOURCE_ACCOUNT.equals(d.getSource()) || day.getStatus() == CashRegisterStatus.CLOSED) {
+                log.warn("Cash register drift for subsidiary {} on {} {}/{}: stored {} x{}, expected {} x{} (day {})",
+                        d.getSubsidiaryId(), d.getBusinessDate(), d.getSource(), d.getKind(),
+                        d.getStoredAmount(), d.getStoredCount(), d.getExpectedAmount(), d.getExpectedCount(),
+                        day.getStatus());
+            }
+            if (day.getStatus() == CashRegisterStatus.CLOSED) {
+                continue;
+            }
+            rollupRepository.replaceRollup(d.getSubsidiaryId(), d.getBusinessDate(), d.getSource(), d.getKind(),
+                    d.getExpectedCount(), d.getExpectedAmount(), d.getExpectedOrderTotal());
+            corrected++;
+        }
+        return new Outcome(drifts.size(), corrected);
+    }
+
+    private void addToDay(UUID subsidiaryId, LocalDate businessDate, String source, String kind,
+                          long count, BigDecimal amount, BigDecimal orderTotal) {
+        dayRepository.ensureDay(subsidiaryId, businessDate);
+        String status = dayRepository.lockStatusForWrite(subsidiaryId, businessDate);
+        if (CashRegisterStatus.CLOSED.name().equals(status)) {
+            throw new ConflictException("Cash register is closed for " + businessDate);
+        }
+        rollupRepository.addToRollup(subsidiaryId, businessDate, source, kind, count, amount, orderTotal);
+    }
+
+    private CashRegisterDay lockDay(UUID subsidiaryId, LocalDate businessDate) {
+        return dayRepository.findForUpdate(subsidiaryId, businessDate)
+                .orElseThrow(() -> new EntityNotFoundException("Cash register day not found: " + businessDate));
+    }
+
+    private record DayKey(UUID subsidiaryId, LocalDate businessDate) {}
+
+    private record Outcome(int drifts, int corrected) {}
+
+    private CashRegisterDayResponse toResponse(UUID subsidiaryId, LocalDate businessDate, CashRegisterDay day) {
+        List<CashRegisterDayResponse.Total> totals = rollupRepository
+                .findBySubsidiaryIdAndBusinessDateOrderBySourceAscKindAsc(subsidiaryId, businessDate)
+                .stream()
+                .map(r -> new CashRegisterDayResponse.Total(
+                        r.getSource(), r.getKind(), r.getEntryCount(), r.getAmount(), r.getOrderTotal()))
+                .toList();
+        return new CashRegisterDayResponse(
+                subsidiaryId,
+                businessDate,
+                day != null ? day.getStatus() : CashRegisterStatus.OPEN,
+                day != null ? day.getClosedAt() : null,
+                day != null ? day.getReopenedAt() : null,
+                totals);
+    }
+}
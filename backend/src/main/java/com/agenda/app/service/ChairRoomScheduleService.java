@@ -1,8 +1,10 @@
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.ChairRoomResponse;
 import com.agenda.app.dto.ChairRoomScheduleEntryRequest;
 import com.agenda.app.dto.ChairRoomScheduleEntryResponse;
+import com.agenda.app.dto.CursorPage;
 import com.agenda.app.exception.ScheduleConflictException;
 import com.agenda.app.mapper.ChairRoomMapper;
 import com.agenda.app.mapper.ChairRoomScheduleEntryMapper;
@@ -12,10 +14,12 @@ import com.agenda.app.model.Subsidiary;
 import com.agenda.app.repository.ChairRoomRepository;
 import com.agenda.app.repository.ChairRoomScheduleEntryRepository;
 import com.agenda.app.repository.SubsidiaryScheduleEntryRepository;
+import com.agenda.app.util.CursorUtils;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Page;
 
@@ -38,6 +42,9 @@ public class ChairRoomScheduleService {
     private final SubsidiaryScheduleEntryRepository subsidiaryScheduleRepository;
     private final ChairRoomScheduleEntryMapper mapper;
     private final ChairRoomMapper chairRoomMapper;
+    private final ScopeVersionService scopeVersionService;
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     /**
      * Cria um novo agendamento para uma sala/cadeira
@@ -60,6 +67,7 @@ public class ChairRoomScheduleService {
         ChairRoomScheduleEntry entity = mapper.toEntity(request, chairRoom);
         entity.setCustomized(true);  // Marcamos como customizado pois é um agendamento específico
         scheduleRepository.save(entity);
+        scopeVersionService.bump(ScopeVersionService.chairRoomSchedule(chairRoom.getId()));
 
         return mapper.toResponse(entity);
     }
@@ -75,6 +83,7 @@ public class ChairRoomScheduleService {
      * @param replaceExisting  Se deve substituir um agendamento existente
      * @return O agendamento criado/atualizado
      */
+    @RetryOnConflict
     @Transactional
     public ChairRoomScheduleEntryResponse createOrUpdateSchedule(
             UUID chairRoomId,
@@ -112,6 +121,7 @@ public class ChairRoomScheduleService {
             existing.setClosed(closed);
             existing.setCustomized(true);
             scheduleRepository.save(existing);
+            scopeVersionService.bump(ScopeVersionService.chairRoomSchedule(chairRoomId));
             return mapper.toResponse(existing);
         } else {
             // Criar um novo agendamento
@@ -123,6 +133,7 @@ public class ChairRoomScheduleService {
             entry.setClosed(closed);
             entry.setCustomized(true);
             scheduleRepository.save(entry);
+            scopeVersionService.bump(ScopeVersionService.chairRoomSchedule(chairRoomId));
             return mapper.toResponse(entry);
         }
     }
@@ -185,6 +196,52 @@ public class ChairRoomScheduleService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca os agendamentos de uma sala/cadeira dentro de um intervalo de datas
+     */
+    @Transactional(readOnly = true)
+    public List<ChairRoomScheduleEntryResponse> getByChairRoomAndDateRange(
+            UUID chairRoomId, LocalDate startDate, LocalDate endDate) {
+        validateRange(startDate, endDate);
+        return scheduleRepository.findByChairRoomIdAndDateRange(chairRoomId, startDate, endDate)
+                .stream()
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Busca os agendamentos de uma sala/cadeira em páginas navegadas por cursor (keyset).
+     * O cursor (opaco) carrega a última data retornada na página anterior.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ChairRoomScheduleEntryResponse> getPageByChairRoom(
+            UUID chairRoomId, String after, LocalDate startDate, LocalDate endDate, int size) {
+        validateRange(startDate, endDate);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDate afterDate = after != null && !after.isBlank()
+                ? CursorUtils.decodeDate(after)
+                : startDate.minusDays(1);
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<ChairRoomScheduleEntry> rows = scheduleRepository.findPageAfter(
+                chairRoomId, afterDate, endDate, Limit.of(pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ChairRoomScheduleEntry> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? CursorUtils.encode(page.get(page.size() - 1).getDate()) : null;
+
+        return new CursorPage<>(page.stream().map(mapper::toResponse).toList(), nextCursor, hasNext);
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must be on or after start date");
+        }
+    }
+
     /**
      * Busca agendamento para uma sala/cadeira em uma data específica
      */
@@ -198,6 +255,7 @@ public class ChairRoomScheduleService {
     /**
      * Atualiza um agendamento existente
      */
+    @RetryOnConflict
     @Transactional
     public ChairRoomScheduleEntryResponse update(UUID id, ChairRoomScheduleEntryRequest request) {
         ChairRoomScheduleEntry entry = scheduleRepository.findById(id)
@@ -215,6 +273,7 @@ public class ChairRoomScheduleService {
         mapper.updateFromRequest(request, entry);
         entry.setCustomized(true);
         scheduleRepository.save(entry);
+        scopeVersionService.bump(ScopeVersionService.chairRoomSchedule(entry.getChairRoom().getId()));
 
         return mapper.toResponse(entry);
     }
@@ -224,6 +283,8 @@ public class ChairRoomScheduleService {
      */
     @Transactional
     public void delete(UUID id) {
+        scheduleRepository.findById(id)
+                .ifPresent(e -> scopeVersionService.bump(ScopeVersionService.chairRoomSchedule(e.getChairRoom().getId())));
         scheduleRepository.deleteById(id);
     }
 
@@ -1,8 +1,10 @@
 package com.agenda.app.service;
 
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.ChairRoomRequest;
 import com.agenda.app.dto.ChairRoomResponse;
+import com.agenda.app.exception.ConflictException;
 import com.agenda.app.mapper.ChairRoomMapper;
 import com.agenda.app.model.ChairRoom;
 import com.agenda.app.model.Subsidiary;
@@ -64,6 +66,7 @@ public class ChairRoomService {
         return mapper.toResponse(chairRoom);
     }
 
+    @RetryOnConflict
     @Transactional
     public ChairRoomResponse updateChairRoom(UUID id, ChairRoomRequest request) {
         ChairRoom chairRoom = chairRoomRepository.findById(id)
@@ -84,6 +87,9 @@ public class ChairRoomService {
 
     @Transactional
     public void deleteChairRoom(UUID id) {
+        if (chairRoomRepository.isReferenced(id)) {
+            throw new ConflictException("Chair room is still referenced by appointments, availabilities or schedules");
+        }
         chairRoomRepository.deleteById(id);
     }
 
@@ -0,0 +1,303 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.CommissionStatementResponse;
+import com.agenda.app.model.CommissionStatement;
+import com.agenda.app.model.CommissionStatementLine;
+import com.agenda.app.repository.CommissionStatementRepository;
+import com.agenda.app.repository.ItemRepository;
+import com.agenda.app.repository.ProfessionalRepository;
+import com.agenda.app.util.MoneyUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cálculo das comissões dos profissionais por período (folha).
+ * <p>
+ * Os profissionais com atendimentos concluídos no período são divididos em lotes processados
+ * em paralelo ({@code agenda.commission.parallelism} threads, cada uma com a sua conexão e
+ * transação somente leitura). Cada lote lê em streaming (cursor do banco) os agendamentos
+ * concluídos com a configuração profissional/serviço, a comanda e o pagamento, já convertidos
+ * em centavos, e acumula em {@code long} por profissional e serviço, sem criar entidades.
+ * Por fim os extratos do período são substituídos em uma única transação.
+ * <p>
+ * Regras, por agendamento:
+ * <ul>
+ *   <li>preço = preço personalizado do profissional ou preço do serviço;</li>
+ *   <li>com comanda: base = preço × pago / total bruto da comanda (o desconto é rateado);
+ *       comanda sem pagamento concluído não entra na base ({@code unpaidCount});</li>
+ *   <li>sem comanda: base = preço;</li>
+ *   <li>comissão = base × percentual (arredondado ao centavo) + valor fixo.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class CommissionService {
+
+    /** Intervalo máximo de um período */
+    private static final long MAX_RANGE_DAYS = 366;
+
+    private static final String PROFESSIONALS_SQL = """
+        SELECT DISTINCT a.professional_id
+          FROM appointments a
+         WHERE a.status = 'COMPLETED'
+           AND a.start_time >= :from
+           AND a.start_time <  :to
+        """;
+
+    private static final String SOURCE_SQL = """
+        SELECT a.professional_id,
+               a.service_id,
+               CAST(round(COALESCE(c.custom_price, s.price) * 100) AS bigint)  AS price_cents,
+               CAST(round(COALESCE(c.commission_pct, 0) * 100) AS bigint)      AS pct_bp,
+               CAST(round(COALESCE(c.commission_fixed, 0) * 100) AS bigint)    AS fixed_cents,
+               a.service_order_id IS NOT NULL                                  AS has_order,
+               CAST(round((so.total_price + so.discount) * 100) AS bigint)     AS order_gross_cents,
+               CAST(round(p.amount * 100) AS bigint)                           AS paid_cents
+          FROM appointments a
+          JOIN services s ON s.id = a.service_id
+          LEFT JOIN professional_service_cfg c
+                 ON c.professional_id = a.professional_id
+                AND c.service_id = a.service_id
+          LEFT JOIN service_order so ON so.id = a.service_order_id
+          LEFT JOIN payment p ON p.service_order_id = so.id AND p.status = 'COMPLETED'
+         WHERE a.status = 'COMPLETED'
+           AND a.start_time >= :from
+           AND a.start_time <  :to
+           AND a.professional_id IN (:professionalIds)
+        """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final CommissionStatementRepository statementRepository;
+    private final ProfessionalRepository professionalRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final TransactionTemplate writeTx;
+    private final ExecutorService executor;
+
+    /** Profissionais por lote paralelo */
+    @Value("${agenda.commission.partition-size:25}")
+    private int partitionSize;
+
+    public CommissionService(DataSource dataSource,
+                             CommissionStatementRepository statementRepository,
+                             ProfessionalRepository professionalRepository,
+                             ItemRepository itemRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${agenda.commission.parallelism:4}") int parallelism,
+                             @Value("${agenda.commission.fetch-size:2000}") int fetchSize) {
+        // Template próprio: o fetch size faz o driver ler o resultado em lotes (cursor)
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.jdbc = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.statementRepository = statementRepository;
+        this.professionalRepository = professionalRepository;
+        this.itemRepository = itemRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(transactionManager);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "commission-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Calcula e grava os extratos do período startDate..endDate (inclusive), substituindo
+     * os de um processamento anterior do mesmo período
+     */
+    public List<CommissionStatementResponse> generateStatements(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Commission period must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        long started = System.nanoTime();
+        MapSqlParameterSource period = new MapSqlParameterSource()
+                .addValue("from", startDate.atStartOfDay())
+                .addValue("to", endDate.plusDays(1).atStartOfDay());
+
+        List<UUID> professionalIds = readOnlyTx.execute(status ->
+                jdbc.queryForList(PROFESSIONALS_SQL, period, UUID.class));
+
+        List<CompletableFuture<Map<UUID, ProfessionalTotals>>> partitions = new ArrayList<>();
+        int step = Math.max(1, partitionSize);
+        for (int i = 0; i < professionalIds.size(); i += step) {
+            List<UUID> ids = professionalIds.subList(i, Math.min(i + step, professionalIds.size()));
+            MapSqlParameterSource params = new MapSqlParameterSource(period.getValues())
+                    .addValue("professionalIds", ids);
+            partitions.add(CompletableFuture.supplyAsync(() -> readOnlyTx.execute(status -> compute(params)), executor));
+        }
+
+        Map<UUID, ProfessionalTotals> totals = new HashMap<>();
+        for (CompletableFuture<Map<UUID, ProfessionalTotals>> partition : partitions) {
+            totals.putAll(partition.join());
+        }
+
+        List<CommissionStatementResponse> statements = replaceStatements(startDate, endDate, totals);
+        log.info("Commission statements for {}..{}: {} professional(s) in {} partition(s), {} ms",
+                startDate, endDate, totals.size(), partitions.size(), (System.nanoTime() - started) / 1_000_000);
+        return statements;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CommissionStatementResponse> getStatements(LocalDate startDate, LocalDate endDate) {
+        return statementRepository.findByPeriodStartAndPeriodEndOrderByProfessionalFullNameAsc(startDate, endDate)
+                .stream().map(this::toResponse).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<CommissionStatementResponse> getStatementsByProfessional(UUID professionalId) {
+        return statementRepository.findByProfessionalIdOrderByPeriodStartDesc(professionalId)
+                .stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Lê em streaming os agendamentos do lote e acumula por profissional e serviço
+     */
+    private Map<UUID, ProfessionalTotals> compute(MapSqlParameterSource params) {
+        Map<UUID, ProfessionalTotals> totals = new HashMap<>();
+        jdbc.query(SOURCE_SQL, params, (ResultSet rs) -> {
+            while (rs.next()) {
+                accumulate(rs, totals);
+            }
+            return null;
+        });
+        return totals;
+    }
+
+    private static void accumulate(ResultSet rs, Map<UUID, ProfessionalTotals> totals) throws SQLException {
+        UUID professionalId = rs.getObject(1, UUID.class);
+        UUID serviceId = rs.getObject(2, UUID.class);
+        long priceCents = rs.getLong(3);
+        long pctBasisPoints = rs.getLong(4);
+        long fixedCents = rs.getLong(5);
+        boolean hasOrder = rs.getBoolean(6);
+        long orderGrossCents = rs.getLong(7);
+        long paidCents = rs.getLong(8);
+        boolean paid = !rs.wasNull();
+
+        ProfessionalTotals professional = totals.computeIfAbsent(professionalId, id -> new ProfessionalTotals());
+        professional.appointments++;
+
+        long base;
+        if (!hasOrder) {
+            base = priceCents;
+        } else if (!paid) {
+            professional.unpaid++;
+            return;
+        } else if (orderGrossCents <= 0) {
+            base = 0;
+        } else {
+            base = divideRounded(Math.multiplyExact(priceCents, paidCents), orderGrossCents);
+        }
+        long commission = divideRounded(Math.multiplyExact(base, pctBasisPoints), 10_000) + fixedCents;
+
+        long[] line = professional.byService.computeIfAbsent(serviceId, id -> new long[3]);
+        line[0]++;
+        line[1] += base;
+        line[2] += commission;
+    }
+
+    /** Divisão arredondando meio centavo para cima (valores não negativos) */
+    private static long divideRounded(long dividend, long divisor) {
+        return (dividend + divisor / 2) / divisor;
+    }
+
+    private List<CommissionStatementResponse> replaceStatements(
+            LocalDate startDate, LocalDate endDate, Map<UUID, ProfessionalTotals> totals) {
+        return writeTx.execute(status -> {
+            statementRepository.deleteLinesByPeriod(startDate, endDate);
+            statementRepository.deleteByPeriod(startDate, endDate);
+
+            List<CommissionStatement> statements = new ArrayList<>(totals.size());
+            totals.forEach((professionalId, t) -> {
+                CommissionStatement statement = new CommissionStatement();
+                statement.setProfessional(professionalRepository.getReferenceById(professionalId));
+                statement.setPeriodStart(startDate);
+                statement.setPeriodEnd(endDate);
+                statement.setAppointmentCount(t.appointments);
+                statement.setUnpaidCount(t.unpaid);
+                long base = 0;
+                long commission = 0;
+                for (Map.Entry<UUID, long[]> e : t.byService.entrySet()) {
+                    long[] values = e.getValue();
+                    CommissionStatementLine line = new CommissionStatementLine();
+                    line.setService(itemRepository.getReferenceById(e.getKey()));
+                    line.setAppointmentCount((int) values[0]);
+                    line.setBaseAmount(MoneyUtils.fromCents(values[1]));
+                    line.setCommissionAmount(MoneyUtils.fromCents(values[2]));
+                    statement.addLine(line);
+                    base += values[1];
+                    commission += values[2];
+                }
+                statement.setBaseAmount(MoneyUtils.fromCents(base));
+                statement.setCommissionAmount(MoneyUtils.fromCents(commission));
+                statements.add(statement);
+            });
+            statementRepository.saveAll(statements);
+            statementRepository.flush();
+            return statementRepository.findByPeriodStartAndPeriodEndOrderByProfessionalFullNameAsc(startDate, endDate)
+                    .stream().map(this::toResponse).toList();
+        });
+    }
+
+    private CommissionStatementResponse toResponse(CommissionStatement s) {
+        return new CommissionStatementResponse(
+                s.getId(),
+                s.getProfessional().getId(),
+                s.getProfessional().getFullName(),
+                s.getPeriodStart(),
+                s.getPeriodEnd(),
+                s.getAppointmentCount(),
+                s.getUnpaidCount(),
+                s.getBaseAmount(),
+                s.getCommissionAmount(),
+                s.getLines().stream()
+                        .map(l -> new CommissionStatementResponse.Line(
+                                l.getService().getId(),
+                                l.getService().getName(),
+                                l.getAppointmentCount(),
+                                l.getBaseAmount(),
+                                l.getCommissionAmount()))
+                        .toList());
+    }
+
+    /** Acumulador de um profissional; usado por uma única thread */
+    private static final class ProfessionalTotals {
+        private int appointments;
+        private int unpaid;
+        /** serviço → {quantidade, base em centavos, comissão em centavos} */
+        private final Map<UUID, long[]> byService = new HashMap<>();
+    }
+}
@@ -1,6 +1,8 @@
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.*;
+import com.agenda.app.exception.ConflictException;
 import com.agenda.app.exception.DuplicateEntityException;
 import com.agenda.app.mapper.CompanyMapper;
 import com.agenda.app.model.Company;
@@ -83,6 +85,7 @@ public class CompanyService {
     }
 
     /* UPDATE (PUT) */
+    @RetryOnConflict
     @Transactional
     public CompanyResponse update(UUID id, CompanyRequest dto) {
         Company entity = repo.findById(id)
@@ -137,6 +140,9 @@ public class CompanyService {
         if (!repo.existsById(id)) {
             throw new EntityNotFoundException("Company not found with id: " + id);
         }
+        if (repo.isReferenced(id)) {
+            throw new ConflictException("Company still has subsidiaries, customers, services, users or appointments");
+        }
         repo.deleteById(id);
     }
 
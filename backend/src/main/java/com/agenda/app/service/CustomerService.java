@@ -1,7 +1,9 @@
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.CustomerRequest;
 import com.agenda.app.dto.CustomerResponse;
+import com.agenda.app.exception.ConflictException;
 import com.agenda.app.mapper.CustomerMapper;
 import com.agenda.app.model.Company;
 import com.agenda.app.model.Customer;
@@ -49,6 +51,7 @@ public class CustomerService {
         return mapper.toResponse(cust);
     }
 
+    @RetryOnConflict
     @Transactional
     public CustomerResponse update(UUID companyId, UUID customerId, CustomerRequest req) {
         Customer cust = repo.findById(customerId)
@@ -65,6 +68,9 @@ public class CustomerService {
         Customer cust = repo.findById(customerId)
                 .filter(c -> c.getCompany().getId().equals(companyId))
                 .orElseThrow(() -> new EntityNotFoundException("Customer not found in this company"));
+        if (repo.isReferenced(customerId)) {
+            throw new ConflictException("Customer is still referenced by appointments, account or records");
+        }
         repo.delete(cust);
     }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.AccountTransactionExportRow;
+import com.agenda.app.dto.AppointmentExportRow;
+import com.agenda.app.dto.ExportFormat;
+import com.agenda.app.repository.AccountTransactionRepository;
+import com.agenda.app.repository.AppointmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Serviço de exportação em streaming (CSV / NDJSON) de agendamentos e movimentações de conta.
+ * <p>
+ * As linhas vêm de consultas de projeção lidas pelo cursor do banco em lotes e são escritas
+ * direto no OutputStream da resposta, uma a uma: a memória usada não depende do volume exportado
+ * e nenhuma entidade entra no contexto de persistência. Como a escrita acontece fora da thread
+ * da requisição, a transação (somente leitura) é aberta aqui mesmo.
+ */
+@Service
+public class ExportService {
+
+    /** Intervalo máximo de uma exportação */
+    private static final long MAX_RANGE_DAYS = 366;
+
+    /** A cada quantas linhas o buffer é enviado ao cliente */
+    private static final int FLUSH_EVERY = 1000;
+
+    private final AppointmentRepository appointmentRepository;
+    private final AccountTransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectWriter jsonWriter;
+
+    public ExportService(AppointmentRepository appointmentRepository,
+                         AccountTransactionRepository transactionRepository,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    public void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be before or equal to end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Export range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    /**
+     * Exporta os agendamentos com início entre startDate e endDate (inclusive)
+     */
+    public void exportAppointments(UUID companyId, UUID subsidiaryId, LocalDate startDate, LocalDate endDate,
+                                   ExportFormat format, OutputStream out) {
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<AppointmentExportRow> rows = appointmentRepository.streamForExport(
+                    companyId, subsidiaryId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay())) {
+                write(rows, AppointmentExportRow.class, format, out);
+            }
+        });
+    }
+
+    /**
+     * Exporta as movimentações de conta criadas entre startDate e endDate (inclusive)
+     */
+    public void exportAccountTransactions(UUID companyId, UUID subsidiaryId, LocalDate startDate, LocalDate endDate,
+                                          ExportFormat format, OutputStream out) {
+        ZoneId zone = ZoneId.systemDefault();
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<AccountTransactionExportRow> rows = transactionRepository.streamForExport(
+                    companyId, subsidiaryId,
+                    startDate.atStartOfDay(zone).toInstant(),
+                    endDate.plusDays(1).atStartOfDay(zone).toInstant())) {
+                write(rows, AccountTransactionExportRow.class, format, out);
+            }
+        });
+    }
+
+    private <T extends Record> void write(Stream<T> rows, Class<T> type, ExportFormat format, OutputStream out) {
+        RecordComponent[] columns = type.getRecordComponents();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, columns, null);
+            }
+            int count = 0;
+            for (T row : (Iterable<T>) rows::iterator) {
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, columns, row);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                if (++count % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escreve uma linha CSV (RFC 4180). Com row nulo escreve o cabeçalho.
+     */
+    private void writeCsvLine(Writer writer, RecordComponent[] columns, Record row) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value;
+            if (row == null) {
+                value = columns[i].getName();
+            } else {
+                try {
+                    value = columns[i].getAccessor().invoke(row);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot read export column " + columns[i].getName(), e);
+                }
+            }
+            writer.write(escapeCsv(value));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
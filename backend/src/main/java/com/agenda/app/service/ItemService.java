@@ -1,8 +1,10 @@
 package com.agenda.app.service;
 
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.ItemRequest;
 import com.agenda.app.dto.ItemResponse;
+import com.agenda.app.exception.ConflictException;
 import com.agenda.app.mapper.ItemMapper;
 import com.agenda.app.model.Item;
 import com.agenda.app.model.Company;
@@ -26,6 +28,7 @@ public class ItemService {
     private final CompanyRepository companyRepository;
     private final SubsidiaryRepository subsidiaryRepository;
     private final ItemMapper mapper;
+    private final ScopeVersionService scopeVersionService;
 
     // --- AQUI CRIA O SERVIÇO - AS REGRA PRA CRIAR E VALIDAR O SERVIÇO
     @Transactional
@@ -46,6 +49,7 @@ public class ItemService {
         entity.setSubsidiary(subsidiary);
 
         itemRepository.save(entity);
+        scopeVersionService.bump(ScopeVersionService.catalog(subsidiary.getId()));
         return mapper.toResponse(entity);
     }
 
@@ -82,10 +86,12 @@ public class ItemService {
     }
 
     // - UPDATE
+    @RetryOnConflict
     @Transactional
     public ItemResponse update(UUID id, ItemRequest dto) {
         Item entity = itemRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Service not found"));
+        UUID previousSubsidiaryId = entity.getSubsidiary().getId();
 
         // Verificar se a empresa mudou
         if (!entity.getCompany().getId().equals(dto.companyId())) {
@@ -110,6 +116,10 @@ public class ItemService {
         entity.setRequiresPrePayment(dto.requiresPrePayment());
 
         itemRepository.save(entity);
+        scopeVersionService.bump(ScopeVersionService.catalog(entity.getSubsidiary().getId()));
+        if (!previousSubsidiaryId.equals(entity.getSubsidiary().getId())) {
+            scopeVersionService.bump(ScopeVersionService.catalog(previousSubsidiaryId));
+        }
         return mapper.toResponse(entity);
     }
 
@@ -118,7 +128,11 @@ public class ItemService {
     public void delete(UUID id) {
         Item entity = itemRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Service not found"));
+        if (itemRepository.isReferenced(id)) {
+            throw new ConflictException("Service is still referenced by appointments, records or professionals");
+        }
         itemRepository.delete(entity);
+        scopeVersionService.bump(ScopeVersionService.catalog(entity.getSubsidiary().getId()));
     }
 
 }
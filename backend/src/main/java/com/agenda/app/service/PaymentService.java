@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -17,6 +18,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PaymentService {
 
+    /**
+     * Antecedência a partir da qual o serviço com pré-pagamento só é mantido se estiver pago
+     */
+    public static final Duration PRE_PAYMENT_WINDOW = Duration.ofDays(2);
+
     private final PaymentRepository paymentRepository;
 
     /**
@@ -34,7 +40,7 @@ public class PaymentService {
         }
 
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime deadline = startTime.minusDays(2);
+        LocalDateTime deadline = startTime.minus(PRE_PAYMENT_WINDOW);
         if (now.isBefore(deadline)) {
             return null;
         }
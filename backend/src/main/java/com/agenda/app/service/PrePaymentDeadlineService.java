@@ -0,0 +1,181 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.PendingPrePaymentView;
+import com.agenda.app.model.AppointmentChangeType;
+import com.agenda.app.model.AppointmentStatus;
+import com.agenda.app.repository.AppointmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prazo de pré-pagamento dos agendamentos PENDING.
+ * <p>
+ * Dentro da janela {@link PaymentService#PRE_PAYMENT_WINDOW} antes do início, o agendamento de
+ * serviço com pré-pagamento precisa estar pago. Um job percorre esses agendamentos por keyset
+ * (startTime, id), em lotes travados com {@code SKIP LOCKED} (pode rodar em vários nós), e
+ * verifica os pagamentos do lote com uma única consulta: os pagos passam a NOT_CONFIRMED e os
+ * demais são cancelados em um único UPDATE, liberando o horário.
+ * <p>
+ * Agendamentos criados há menos de {@code agenda.prepayment.grace-hours} ficam de fora, para
+ * dar tempo ao cliente de pagar. Com {@code agenda.prepayment.cancel-overdue=false} o job só
+ * conta e registra os atrasados, sem alterá-los; por isso {@code agenda.prepayment.overdue} é um
+ * gauge com os atrasados encontrados na última execução, e não um contador (o mesmo agendamento
+ * seria somado de novo a cada execução).
+ */
+@Slf4j
+@Service
+public class PrePaymentDeadlineService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentChangeService changeService;
+    private final AnalyticsService analyticsService;
+    private final TransactionTemplate batchTx;
+    private final Counter slotsReclaimed;
+    private final AtomicLong overdue = new AtomicLong();
+    private final Counter confirmed;
+
+    @Value("${agenda.prepayment.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agenda.prepayment.cancel-overdue:true}")
+    private boolean cancelOverdue;
+
+    @Value("${agenda.prepayment.grace-hours:2}")
+    private long graceHours;
+
+    @Value("${agenda.prepayment.batch-size:200}")
+    private int batchSize;
+
+    /** Limite de lotes por execução */
+    @Value("${agenda.prepayment.max-batches:50}")
+    private int maxBatches;
+
+    public PrePaymentDeadlineService(AppointmentRepository appointmentRepository,
+                                     AppointmentChangeService changeService,
+                                     AnalyticsService analyticsService,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.appointmentRepository = appointmentRepository;
+        this.changeService = changeService;
+        this.analyticsService = analyticsService;
+        this.batchTx = new TransactionTemplate(transactionManager);
+        this.slotsReclaimed = Counter.builder("agenda.prepayment.slots.reclaimed")
+                .description("Appointments cancelled for missing pre-payment")
+                .register(meterRegistry);
+        Gauge.builder("agenda.prepayment.overdue", overdue, AtomicLong::get)
+                .description("Pending appointments past the pre-payment deadline in the last run")
+                .register(meterRegistry);
+        this.confirmed = Counter.builder("agenda.prepayment.confirmed")
+                .description("Pending appointments moved to NOT_CONFIRMED after payment")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${agenda.prepayment.cron:0 */10 * * * *}")
+    public void enforceDeadlines() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Cursor cursor = new Cursor(now, MIN_UUID);
+        Outcome total = new Outcome(0, 0, 0);
+        for (int i = 0; i < maxBatches; i++) {
+            Cursor from = cursor;
+            Batch batch = batchTx.execute(status -> processBatch(now, from));
+            if (batch == null || batch.size() == 0) {
+                break;
+            }
+            total = total.plus(batch.outcome());
+            cursor = batch.next();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        overdue.set(total.overdue());
+        if (total.overdue() > 0 || total.confirmed() > 0) {
+            log.info("Pre-payment deadline: {} overdue ({} cancelled), {} confirmed",
+                    total.overdue(), total.cancelled(), total.confirmed());
+        }
+    }
+
+    private Batch processBatch(LocalDateTime now, Cursor from) {
+        List<PendingPrePaymentView> page = appointmentRepository.lockPendingPrePaymentPage(
+                now, now.plus(PaymentService.PRE_PAYMENT_WINDOW),
+                Instant.now().minus(Duration.ofHours(graceHours)),
+                from.startTime(), from.id(), batchSize);
+        if (page.isEmpty()) {
+            return new Batch(0, from, new Outcome(0, 0, 0));
+        }
+
+        List<UUID> ids = page.stream().map(PendingPrePaymentView::getId).toList();
+        // Página ordenada por startTime: primeiro e último limitam as partições dos UPDATEs
+        LocalDateTime firstStart = page.get(0).getStartTime();
+        LocalDateTime lastStart = page.get(page.size() - 1).getStartTime();
+        Set<UUID> paid = new HashSet<>(appointmentRepository.findIdsWithCompletedPayment(ids));
+        List<PendingPrePaymentView> unpaid = page.stream().filter(a -> !paid.contains(a.getId())).toList();
+
+        int confirmedCount = 0;
+        if (!paid.isEmpty()) {
+            confirmedCount = appointmentRepository.updatePendingStatus(
+                    paid, firstStart, lastStart, AppointmentStatus.NOT_CONFIRMED.name());
+            page.stream().filter(a -> paid.contains(a.getId()))
+                    .forEach(a -> record(a, AppointmentChangeType.UPDATED));
+        }
+
+        int cancelledCount = 0;
+        if (cancelOverdue && !unpaid.isEmpty()) {
+            cancelledCount = appointmentRepository.updatePendingStatus(
+                    unpaid.stream().map(PendingPrePaymentView::getId).toList(),
+                    firstStart, lastStart, AppointmentStatus.CANCELLED.name());
+            unpaid.forEach(a -> record(a, AppointmentChangeType.CANCELLED));
+            unpaid.stream()
+                    .map(a -> new DayKey(a.getSubsidiaryId(), a.getStartTime().toLocalDate()))
+                    .distinct()
+                    .forEach(d -> analyticsService.queueRefresh(d.subsidiaryId(), d.date()));
+        } else if (!unpaid.isEmpty()) {
+            unpaid.forEach(a -> log.warn("Appointment {} at {} is past its pre-payment deadline",
+                    a.getId(), a.getStartTime()));
+        }
+
+        confirmed.increment(confirmedCount);
+        slotsReclaimed.increment(cancelledCount);
+
+        PendingPrePaymentView last = page.get(page.size() - 1);
+        return new Batch(page.size(), new Cursor(last.getStartTime(), last.getId()),
+                new Outcome(unpaid.size(), cancelledCount, confirmedCount));
+    }
+
+    private void record(PendingPrePaymentView appt, AppointmentChangeType type) {
+        changeService.record(appt.getId(), appt.getSubsidiaryId(), appt.getProfessionalId(), type);
+    }
+
+    private record Cursor(LocalDateTime startTime, UUID id) {}
+
+    private record DayKey(UUID subsidiaryId, LocalDate date) {}
+
+    private record Outcome(long overdue, long cancelled, long confirmed) {
+        Outcome plus(Outcome other) {
+            return new Outcome(overdue + other.overdue, cancelled + other.cancelled, confirmed + other.confirmed);
+        }
+    }
+
+    private record Batch(int size, Cursor next, Outcome outcome) {}
+}
@@ -1,5 +1,7 @@
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
+import com.agenda.app.dto.CursorPage;
 import com.agenda.app.dto.ProfessionalScheduleEntryRequest;
 import com.agenda.app.dto.ProfessionalScheduleEntryResponse;
 import com.agenda.app.mapper.ProfessionalScheduleEntryMapper;
@@ -10,9 +12,11 @@ import com.agenda.app.repository.ProfessionalRepository;
 import com.agenda.app.repository.ProfessionalScheduleEntryRepository;
 import com.agenda.app.repository.SubsidiaryScheduleEntryRepository;
 import com.agenda.app.repository.ChairRoomScheduleEntryRepository;
+import com.agenda.app.util.CursorUtils;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -31,6 +35,8 @@ public class ProfessionalScheduleService {
     private final ProfessionalScheduleEntryMapper mapper;
     private final SubsidiaryScheduleEntryRepository subsidiaryScheduleRepo;
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Transactional
     public ProfessionalScheduleEntryResponse create(ProfessionalScheduleEntryRequest dto) {
         Professional professional = professionalRepo.findById(dto.getProfessionalId())
@@ -82,6 +88,7 @@ public class ProfessionalScheduleService {
      * @param replaceExisting  Se deve substituir um agendamento existente
      * @return O agendamento criado/atualizado
      */
+    @RetryOnConflict
     @Transactional
     public ProfessionalScheduleEntryResponse createOrUpdateSchedule(
             UUID professionalId,
@@ -161,15 +168,52 @@ public class ProfessionalScheduleService {
     @Transactional
     public List<ProfessionalScheduleEntryResponse> listByProfessionalAndDateRange(
             UUID professionalId, LocalDate startDate, LocalDate endDate) {
-        // Aqui precisaria de um método personalizado no repository
-        // Mas podemos filtrar manualmente por enquanto
-        return scheduleRepo.findByProfessionalId(professionalId)
+        validateRange(startDate, endDate);
+        return scheduleRepo.findByProfessionalIdAndDateRange(professionalId, startDate, endDate)
                 .stream()
-                .filter(entry -> !entry.getDate().isBefore(startDate) && !entry.getDate().isAfter(endDate))
                 .map(mapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lista os horários de um profissional em páginas navegadas por cursor (keyset).
+     * O cursor (opaco) carrega a última data retornada na página anterior.
+     *
+     * @param professionalId ID do profissional
+     * @param after          Cursor da página anterior (null para a primeira página)
+     * @param startDate      Data inicial do intervalo
+     * @param endDate        Data final do intervalo
+     * @param size           Tamanho da página (limitado a {@value #MAX_PAGE_SIZE})
+     */
+    @Transactional
+    public CursorPage<ProfessionalScheduleEntryResponse> listPageByProfessional(
+            UUID professionalId, String after, LocalDate startDate, LocalDate endDate, int size) {
+        validateRange(startDate, endDate);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDate afterDate = after != null && !after.isBlank()
+                ? CursorUtils.decodeDate(after)
+                : startDate.minusDays(1);
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<ProfessionalScheduleEntry> rows = scheduleRepo.findPageAfter(
+                professionalId, afterDate, endDate, Limit.of(pageSize + 1));
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ProfessionalScheduleEntry> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? CursorUtils.encode(page.get(page.size() - 1).getDate()) : null;
+
+        return new CursorPage<>(page.stream().map(mapper::toResponse).toList(), nextCursor, hasNext);
+    }
+
+    private void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date are required");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must be on or after start date");
+        }
+    }
+
     @Transactional
     public ProfessionalScheduleEntryResponse getByProfessionalAndDate(UUID professionalId, LocalDate date) {
         return scheduleRepo.findByProfessionalIdAndDate(professionalId, date)
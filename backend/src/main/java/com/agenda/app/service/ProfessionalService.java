@@ -1,7 +1,9 @@
 // src/main/java/com/agenda/app/service/ProfessionalService.java
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.*;
+import com.agenda.app.exception.ConflictException;
 import com.agenda.app.mapper.ItemMapper;
 import com.agenda.app.mapper.ProfessionalMapper;
 import com.agenda.app.mapper.ProfessionalServiceCfgMapper;
@@ -14,6 +16,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.HashSet;
 import java.util.Set;
@@ -28,6 +31,7 @@ public class ProfessionalService {
     private final UserRepository userRepository; // se for usar userId
     private final ProfessionalMapper mapper;
     private final ItemRepository itemRepository;
+    private final ScopeVersionService scopeVersionService;
     private final ProfessionalServiceCfgMapper cfgMapper;
     private final ItemMapper itemMapper;
 
@@ -65,6 +69,7 @@ public class ProfessionalService {
 
         /* cascade = ALL garante que serviceConfigs também serão salvos */
         professionalRepository.save(entity);
+        scopeVersionService.bump(ScopeVersionService.professionals(subsidiary.getId()));
 
         return mapper.toResponse(entity);
     }
@@ -77,16 +82,19 @@ public class ProfessionalService {
                 .orElseThrow(() -> new IllegalArgumentException("Professional not found"));
     }
 
+    @Transactional(readOnly = true)
     public List<ItemResponse> getServicesByProfessional(UUID professionalId) {
-        Professional professional = professionalRepository.findById(professionalId)
-                .orElseThrow(() -> new IllegalArgumentException("Profissional não encontrado"));
+        if (!professionalRepository.existsById(professionalId)) {
+            throw new IllegalArgumentException("Profissional não encontrado");
+        }
 
-        return professional.getServices().stream()
+        return itemRepository.findByProfessionalId(professionalId).stream()
                 .map(itemMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     /* =========== UPDATE =========== */
+    @RetryOnConflict
     @Transactional
     public ProfessionalResponse update(UUID id, ProfessionalRequest dto) {
         
@@ -97,6 +105,7 @@ public class ProfessionalService {
 
         Professional entity = professionalRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Professional not found"));
+        UUID previousSubsidiaryId = entity.getSubsidiary() != null ? entity.getSubsidiary().getId() : null;
 
         mapper.copyNonNullToEntity(dto, entity);
 
@@ -154,6 +163,10 @@ public class ProfessionalService {
         }
 
         professionalRepository.save(entity);
+        bumpProfessionals(entity.getSubsidiary() != null ? entity.getSubsidiary().getId() : null);
+        if (!Objects.equals(previousSubsidiaryId, entity.getSubsidiary() != null ? entity.getSubsidiary().getId() : null)) {
+            bumpProfessionals(previousSubsidiaryId);
+        }
         return mapper.toResponse(entity);
     }
 
@@ -175,6 +188,17 @@ public class ProfessionalService {
     /* =========== DELETE =========== */
     @Transactional
     public void delete(UUID id) {
+        if (professionalRepository.isReferenced(id)) {
+            throw new ConflictException("Professional is still referenced by appointments, records or schedules");
+        }
+        professionalRepository.findById(id)
+                .ifPresent(p -> bumpProfessionals(p.getSubsidiary() != null ? p.getSubsidiary().getId() : null));
         professionalRepository.deleteById(id);
     }
+
+    private void bumpProfessionals(UUID subsidiaryId) {
+        if (subsidiaryId != null) {
+            scopeVersionService.bump(ScopeVersionService.professionals(subsidiaryId));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.ScheduleCalendarResponse;
+import com.agenda.app.dto.ScheduleCalendarResponse.CalendarView;
+import com.agenda.app.mapper.ChairRoomScheduleEntryMapper;
+import com.agenda.app.mapper.ProfessionalScheduleEntryMapper;
+import com.agenda.app.mapper.SubsidiaryScheduleEntryMapper;
+import com.agenda.app.repository.ChairRoomScheduleEntryRepository;
+import com.agenda.app.repository.ProfessionalScheduleEntryRepository;
+import com.agenda.app.repository.SubsidiaryRepository;
+import com.agenda.app.repository.SubsidiaryScheduleEntryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.UUID;
+
+/**
+ * Serviço que monta a visão de calendário (semana/mês) dos horários de uma subsidiária.
+ * Cada tipo de horário é buscado com uma única consulta limitada pelo intervalo de datas.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleCalendarService {
+
+    private final SubsidiaryRepository subsidiaryRepository;
+    private final SubsidiaryScheduleEntryRepository subsidiaryScheduleRepository;
+    private final ChairRoomScheduleEntryRepository chairRoomScheduleRepository;
+    private final ProfessionalScheduleEntryRepository professionalScheduleRepository;
+    private final SubsidiaryScheduleEntryMapper subsidiaryScheduleMapper;
+    private final ChairRoomScheduleEntryMapper chairRoomScheduleMapper;
+    private final ProfessionalScheduleEntryMapper professionalScheduleMapper;
+
+    /**
+     * Busca o calendário da subsidiária para a semana (segunda a domingo) ou o mês
+     * que contém a data de referência
+     */
+    @Transactional(readOnly = true)
+    public ScheduleCalendarResponse getCalendar(UUID subsidiaryId, CalendarView view, LocalDate referenceDate) {
+        if (!subsidiaryRepository.existsById(subsidiaryId)) {
+            throw new EntityNotFoundException("Subsidiary not found: " + subsidiaryId);
+        }
+
+        LocalDate startDate;
+        LocalDate endDate;
+        if (view == CalendarView.MONTH) {
+            startDate = referenceDate.with(TemporalAdjusters.firstDayOfMonth());
+            endDate = referenceDate.with(TemporalAdjusters.lastDayOfMonth());
+        } else {
+            startDate = referenceDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            endDate = startDate.plusDays(6);
+        }
+
+        return new ScheduleCalendarResponse(
+                subsidiaryId,
+                view,
+                startDate,
+                endDate,
+                subsidiaryScheduleRepository.findBySubsidiaryIdAndDateRange(subsidiaryId, startDate, endDate)
+                        .stream()
+                        .map(subsidiaryScheduleMapper::toResponse)
+                        .toList(),
+                chairRoomScheduleRepository.findBySubsidiaryIdAndDateRange(subsidiaryId, startDate, endDate)
+                        .stream()
+                        .map(chairRoomScheduleMapper::toResponse)
+                        .toList(),
+                professionalScheduleRepository.findBySubsidiaryIdAndDateRange(subsidiaryId, startDate, endDate)
+                        .stream()
+                        .map(professionalScheduleMapper::toResponse)
+                        .toList()
+        );
+    }
+}
@@ -0,0 +1,118 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.ScheduleCloneRequest;
+import com.agenda.app.dto.ScheduleCloneRequest.ConflictStrategy;
+import com.agenda.app.dto.ScheduleCloneResponse;
+import com.agenda.app.dto.ScheduleChangeNotice;
+import com.agenda.app.dto.ScheduleChangeNotice.ResourceType;
+import com.agenda.app.event.AgendaEvent;
+import com.agenda.app.repository.ChairRoomScheduleEntryRepository;
+import com.agenda.app.repository.ProfessionalChairRoomAssignmentRepository;
+import com.agenda.app.repository.ProfessionalScheduleEntryRepository;
+import com.agenda.app.repository.SubsidiaryRepository;
+import com.agenda.app.repository.SubsidiaryScheduleEntryRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Serviço para copiar ("copiar semana / copiar mês") os horários de uma subsidiária.
+ * Cada tipo de horário é copiado com um único INSERT ... SELECT no banco, em vez de
+ * recriar o padrão data a data como em {@link RecurringScheduleService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleCloneService {
+
+    /** Limite de dias da origem (um pouco mais que um trimestre) */
+    private static final long MAX_RANGE_DAYS = 93;
+
+    private final SubsidiaryRepository subsidiaryRepository;
+    private final SubsidiaryScheduleEntryRepository subsidiaryScheduleRepository;
+    private final ChairRoomScheduleEntryRepository chairRoomScheduleRepository;
+    private final ProfessionalScheduleEntryRepository professionalScheduleRepository;
+    private final ProfessionalChairRoomAssignmentRepository assignmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScopeVersionService scopeVersionService;
+
+    /**
+     * Copia os horários da subsidiária, de suas salas/cadeiras e de seus profissionais
+     * (e opcionalmente as atribuições profissional-sala) do intervalo de origem para o destino
+     *
+     * @param subsidiaryId ID da subsidiária
+     * @param request      Intervalos de origem/destino e estratégia de conflito
+     * @return Quantidade de registros criados e substituídos
+     */
+    @Transactional
+    public ScheduleCloneResponse cloneSubsidiarySchedules(UUID subsidiaryId, ScheduleCloneRequest request) {
+        if (!subsidiaryRepository.existsById(subsidiaryId)) {
+            throw new EntityNotFoundException("Subsidiary not found: " + subsidiaryId);
+        }
+
+        LocalDate sourceStart = request.getSourceStartDate();
+        LocalDate sourceEnd = request.getSourceEndDate();
+        if (sourceEnd.isBefore(sourceStart)) {
+            throw new IllegalArgumentException("Source end date must be on or after source start date");
+        }
+
+        long rangeDays = ChronoUnit.DAYS.between(sourceStart, sourceEnd);
+        if (rangeDays >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Source range must be shorter than " + MAX_RANGE_DAYS + " days");
+        }
+
+        LocalDate targetStart = request.getTargetStartDate();
+        LocalDate targetEnd = targetStart.plusDays(rangeDays);
+        if (!targetEnd.isBefore(sourceStart) && !targetStart.isAfter(sourceEnd)) {
+            throw new IllegalArgumentException("Source and target ranges must not overlap");
+        }
+
+        int offsetDays = (int) ChronoUnit.DAYS.between(sourceStart, targetStart);
+
+        // Na estratégia REPLACE os registros de destino que colidem são removidos antes da cópia
+        int replaced = 0;
+        if (request.getConflictStrategy() == ConflictStrategy.REPLACE) {
+            replaced += subsidiaryScheduleRepository.deleteCloneTargets(
+                    subsidiaryId, targetStart, targetEnd, offsetDays);
+            replaced += chairRoomScheduleRepository.deleteCloneTargetsForSubsidiary(
+                    subsidiaryId, targetStart, targetEnd, offsetDays);
+            replaced += professionalScheduleRepository.deleteCloneTargetsForSubsidiary(
+                    subsidiaryId, targetStart, targetEnd, offsetDays);
+            if (request.isIncludeAssignments()) {
+                replaced += assignmentRepository.deleteCloneTargetsForSubsidiary(
+                        subsidiaryId, targetStart, targetEnd, offsetDays);
+            }
+        }
+
+        int subsidiaryCreated = subsidiaryScheduleRepository.cloneRange(
+                subsidiaryId, sourceStart, sourceEnd, offsetDays);
+        int chairRoomCreated = chairRoomScheduleRepository.cloneRangeForSubsidiary(
+                subsidiaryId, sourceStart, sourceEnd, offsetDays);
+        int professionalCreated = professionalScheduleRepository.cloneRangeForSubsidiary(
+                subsidiaryId, sourceStart, sourceEnd, offsetDays);
+        int assignmentsCreated = request.isIncludeAssignments()
+                ? assignmentRepository.cloneRangeForSubsidiary(subsidiaryId, sourceStart, sourceEnd, offsetDays)
+                : 0;
+
+        scopeVersionService.bumpChairRoomSchedulesOfSubsidiary(subsidiaryId);
+
+        // SQL nativo não dispara os listeners JPA: um único aviso cobre todo o intervalo copiado
+        eventPublisher.publishEvent(new AgendaEvent(subsidiaryId, AgendaEvent.SCHEDULE,
+                new ScheduleChangeNotice(ResourceType.SUBSIDIARY, subsidiaryId, targetStart, targetEnd)));
+
+        return new ScheduleCloneResponse(
+                subsidiaryId,
+                targetStart,
+                targetEnd,
+                subsidiaryCreated,
+                chairRoomCreated,
+                professionalCreated,
+                assignmentsCreated,
+                replaced);
+    }
+}
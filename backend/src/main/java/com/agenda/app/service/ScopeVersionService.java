@@ -0,0 +1,71 @@
+package com.agenda.app.service;
+
+import com.agenda.app.repository.ScopeVersionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Serviço dos contadores de versão por escopo, usados no GET condicional (ETag / Last-Modified).
+ * As escritas chamam {@link #bump(String)} dentro da própria transação; as leituras consultam
+ * apenas a linha do contador (busca por chave primária) antes de decidir entre 304 e a consulta real.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScopeVersionService {
+
+    private static final String CHAIR_ROOM_SCHEDULE_PREFIX = "chair-room-schedule:";
+
+    private final ScopeVersionRepository repository;
+
+    /** Versão atual de um escopo: ETag forte e Last-Modified (-1 se o escopo nunca foi alterado) */
+    public record Tag(String etag, long lastModified) {}
+
+    /* ========= CHAVES DE ESCOPO ========= */
+
+    public static String subsidiaries() {
+        return "subsidiaries";
+    }
+
+    public static String catalog(UUID subsidiaryId) {
+        return "catalog:" + subsidiaryId;
+    }
+
+    public static String professionals(UUID subsidiaryId) {
+        return "professionals:" + subsidiaryId;
+    }
+
+    public static String chairRoomSchedule(UUID chairRoomId) {
+        return CHAIR_ROOM_SCHEDULE_PREFIX + chairRoomId;
+    }
+
+    /* ========= ESCRITA ========= */
+
+    @Transactional
+    public void bump(String scopeKey) {
+        repository.bump(scopeKey);
+    }
+
+    /**
+     * Incrementa a versão dos horários de todas as salas/cadeiras da subsidiária
+     */
+    @Transactional
+    public void bumpChairRoomSchedulesOfSubsidiary(UUID subsidiaryId) {
+        repository.bumpChairRoomsOfSubsidiary(CHAIR_ROOM_SCHEDULE_PREFIX, subsidiaryId);
+    }
+
+    /* ========= LEITURA ========= */
+
+    @Transactional(readOnly = true)
+    public Tag current(String scopeKey) {
+        return repository.findById(scopeKey)
+                .map(v -> new Tag(etag(scopeKey, v.getVersion()), v.getUpdatedAt().toEpochMilli()))
+                .orElseGet(() -> new Tag(etag(scopeKey, 0), -1));
+    }
+
+    private static String etag(String scopeKey, long version) {
+        return "\"" + Integer.toHexString(scopeKey.hashCode()) + "-" + version + "\"";
+    }
+}
@@ -1,20 +1,30 @@
 package com.agenda.app.service;
 
+import com.agenda.app.exception.DuplicateEntityException;
 import com.agenda.app.model.Item;
 import lombok.RequiredArgsConstructor;
 import com.agenda.app.model.ServiceOrder;
 import com.agenda.app.model.ServiceOrderStatus;
 import com.agenda.app.repository.ServiceOrderRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 
 import java.math.BigDecimal;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ServiceOrderService {
 
+    /** Índice único parcial das comandas abertas (V11) */
+    private static final String OPEN_FINGERPRINT_CONSTRAINT = "uk_service_order_open_fingerprint";
+
     private final ServiceOrderRepository serviceOrderRepository;
 
     public ServiceOrder createServiceOrder(ServiceOrder serviceOrder){
@@ -34,19 +44,48 @@ public class ServiceOrderService {
         serviceOrder.setTotalPrice(total.subtract(discount));
 
 
-
-        boolean alreadyExists = serviceOrderRepository.existsByCustomerAndItemsInAndProfessional(
-                serviceOrder.getCustomer(), serviceOrder.getItems(), serviceOrder.getProfessional()
-        );
-
-        if(alreadyExists){
-            throw new IllegalArgumentException("Service order already exists");
+        // Mesma comanda aberta (cliente, profissional e serviços): uma consulta no índice do fingerprint
+        serviceOrder.setFingerprint(fingerprint(serviceOrder));
+        if (serviceOrderRepository.existsByFingerprintAndStatus(serviceOrder.getFingerprint(), ServiceOrderStatus.OPEN)) {
+            throw new DuplicateEntityException("Service order already exists");
         }
 
         // Define status inicial
         serviceOrder.setStatus(ServiceOrderStatus.OPEN);
 
-        return serviceOrderRepository.save(serviceOrder);
+        // Duas criações simultâneas passam pela consulta: o índice único parcial barra a segunda
+        try {
+            return serviceOrderRepository.saveAndFlush(serviceOrder);
+        } catch (DataIntegrityViolationException e) {
+            // Só a violação do fingerprint é comanda duplicada; FK, NOT NULL etc. seguem adiante
+            if (isConstraint(e, OPEN_FINGERPRINT_CONSTRAINT)) {
+                throw new DuplicateEntityException("Service order already exists");
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isConstraint(DataIntegrityViolationException e, String constraintName) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && constraintName.equalsIgnoreCase(violation.getConstraintName());
+    }
+
+    /**
+     * sha256 (hex) de "cliente|profissional|serviços ordenados separados por vírgula",
+     * no mesmo formato da carga da V11
+     */
+    static String fingerprint(ServiceOrder serviceOrder) {
+        String items = serviceOrder.getItems().stream()
+                .map(item -> item.getId().toString())
+                .sorted()
+                .collect(Collectors.joining(","));
+        String content = serviceOrder.getCustomer().getId() + "|" + serviceOrder.getProfessional().getId() + "|" + items;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private void require(Object value, String message){
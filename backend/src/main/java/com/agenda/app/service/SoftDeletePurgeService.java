@@ -0,0 +1,130 @@
+package com.agenda.app.service;
+
+import com.agenda.app.model.ChairRoom;
+import com.agenda.app.model.Company;
+import com.agenda.app.model.Customer;
+import com.agenda.app.model.Item;
+import com.agenda.app.model.Professional;
+import com.agenda.app.model.Subsidiary;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expurgo físico dos cadastros excluídos logicamente ({@code is_deleted = true}) há mais de
+ * {@code agenda.soft-delete.retention-days}.
+ * <p>
+ * Usa a função {@code purge_soft_deleted} (V16), em lotes com transação própria, percorrendo
+ * os candidatos por keyset (updated_at, id). Linhas ainda referenciadas por histórico
+ * (agendamentos, comandas, prontuários) são mantidas excluídas logicamente e puladas, sem
+ * impedir o expurgo das seguintes. As tabelas filhas vêm antes das mães para liberar as
+ * referências no mesmo ciclo.
+ */
+@Slf4j
+@Service
+public class SoftDeletePurgeService {
+
+    private static final List<PurgeTarget> TARGETS = List.of(
+            new PurgeTarget("chair_rooms", ChairRoom.class),
+            new PurgeTarget("professionals", Professional.class),
+            new PurgeTarget("services", Item.class),
+            new PurgeTarget("customers", Customer.class),
+            new PurgeTarget("subsidiaries", Subsidiary.class),
+            new PurgeTarget("companies", Company.class));
+
+    /** Início do keyset: anterior a qualquer exclusão lógica */
+    private static final OffsetDateTime START = OffsetDateTime.parse("1970-01-01T00:00:00Z");
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate batchTx;
+
+    @Value("${agenda.soft-delete.purge-enabled:true}")
+    private boolean enabled;
+
+    @Value("${agenda.soft-delete.retention-days:365}")
+    private int retentionDays;
+
+    @Value("${agenda.soft-delete.batch-size:500}")
+    private int batchSize;
+
+    /** Limite de lotes por tabela em cada execução */
+    @Value("${agenda.soft-delete.max-batches:100}")
+    private int maxBatches;
+
+    public SoftDeletePurgeService(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.batchTx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${agenda.soft-delete.cron:0 30 4 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(retentionDays);
+        for (PurgeTarget target : TARGETS) {
+            String table = target.table();
+            long total = 0;
+            Cursor cursor = new Cursor(START, MIN_UUID);
+            for (int i = 0; i < maxBatches; i++) {
+                Cursor from = cursor;
+                Batch batch = batchTx.execute(status -> purgeBatch(table, cutoff, from));
+                if (batch == null || batch.scanned() == 0) {
+                    break;
+                }
+                total += batch.purged();
+                cursor = batch.next();
+                // Lote incompleto: não há mais candidatos depois do cursor (ou estão travados)
+                if (batch.scanned() < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                // A função apaga por SQL: só a região de cache da entidade expurgada fica desatualizada
+                entityManager.getEntityManagerFactory().getCache().evict(target.entity());
+                log.info("Purged {} soft-deleted row(s) from {} older than {}", total, table, cutoff);
+            }
+        }
+    }
+
+    /**
+     * Um lote a partir do cursor (updated_at, id). Linhas ainda referenciadas ficam para trás:
+     * o próximo lote segue do último candidato lido, removido ou não.
+     */
+    private Batch purgeBatch(String table, OffsetDateTime cutoff, Cursor from) {
+        Object[] row = (Object[]) entityManager
+                .createNativeQuery("SELECT scanned, purged, last_updated_at, last_id"
+                        + " FROM purge_soft_deleted(CAST(:table AS regclass), :cutoff, :batchSize,"
+                        + " :afterUpdatedAt, :afterId)")
+                .unwrap(NativeQuery.class)
+                .addScalar("scanned", Integer.class)
+                .addScalar("purged", Integer.class)
+                .addScalar("last_updated_at", OffsetDateTime.class)
+                .addScalar("last_id", UUID.class)
+                .setParameter("table", table)
+                .setParameter("cutoff", cutoff)
+                .setParameter("batchSize", batchSize)
+                .setParameter("afterUpdatedAt", from.updatedAt())
+                .setParameter("afterId", from.id())
+                .getSingleResult();
+        int scanned = (Integer) row[0];
+        Cursor next = scanned > 0 ? new Cursor((OffsetDateTime) row[2], (UUID) row[3]) : from;
+        return new Batch(scanned, (Integer) row[1], next);
+    }
+
+    private record PurgeTarget(String table, Class<?> entity) {}
+
+    private record Cursor(OffsetDateTime updatedAt, UUID id) {}
+
+    private record Batch(int scanned, int purged, Cursor next) {}
+}
@@ -1,5 +1,6 @@
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.SubsidiaryScheduleEntryRequest;
 import com.agenda.app.dto.SubsidiaryScheduleEntryResponse;
 import com.agenda.app.mapper.SubsidiaryScheduleEntryMapper;
@@ -52,6 +53,7 @@ public class SubsidiaryScheduleEntryService {
      * @param replaceExisting  Se deve substituir um agendamento existente
      * @return O agendamento criado/atualizado
      */
+    @RetryOnConflict
     @Transactional
     public SubsidiaryScheduleEntryResponse createOrUpdateSchedule(
             UUID subsidiaryId,
@@ -96,6 +98,7 @@ public class SubsidiaryScheduleEntryService {
         }
     }
 
+    @RetryOnConflict
     @Transactional
     public SubsidiaryScheduleEntryResponse update(UUID id, SubsidiaryScheduleEntryRequest dto) {
         SubsidiaryScheduleEntry entry = entryRepo.findById(id)
@@ -118,6 +121,18 @@ public class SubsidiaryScheduleEntryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<SubsidiaryScheduleEntryResponse> listBySubsidiaryAndDateRange(
+            UUID subsidiaryId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        return entryRepo.findBySubsidiaryIdAndDateRange(subsidiaryId, startDate, endDate)
+                .stream()
+                .map(mapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
     public SubsidiaryScheduleEntryResponse getByDate(UUID subsidiaryId, LocalDate date) {
         return entryRepo.findBySubsidiaryIdAndDate(subsidiaryId, date).stream()
                 .findFirst()
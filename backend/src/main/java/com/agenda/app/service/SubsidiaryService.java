@@ -1,8 +1,10 @@
 package com.agenda.app.service;
 
+import com.agenda.app.config.RetryOnConflict;
 import com.agenda.app.dto.ItemResponse;
 import com.agenda.app.dto.SubsidiaryRequest;
 import com.agenda.app.dto.SubsidiaryResponse;
+import com.agenda.app.exception.ConflictException;
 import com.agenda.app.mapper.SubsidiaryMapper;
 import com.agenda.app.mapper.ItemMapper;
 import com.agenda.app.model.Company;
@@ -28,6 +30,7 @@ public class SubsidiaryService {
     private final CompanyRepository companyRepository;
     private final SubsidiaryMapper mapper;
     private final ItemMapper itemMapper;
+    private final ScopeVersionService scopeVersionService;
 
     /* ======================= CREATE ======================= */
     @Transactional
@@ -66,6 +69,7 @@ public class SubsidiaryService {
 
         Subsidiary entity = mapper.toEntity(formattedRequest, company);
         subsidiaryRepository.save(entity);
+        scopeVersionService.bump(ScopeVersionService.subsidiaries());
 
         return mapper.toResponse(entity);
     }
@@ -103,6 +107,7 @@ public class SubsidiaryService {
     }
 
     /* ======================= UPDATE ======================= */
+    @RetryOnConflict
     @Transactional
     public SubsidiaryResponse update(UUID id, SubsidiaryRequest dto) {
         Subsidiary entity = subsidiaryRepository.findById(id)
@@ -134,6 +139,7 @@ public class SubsidiaryService {
         // Se quiser impedir troca de empresa, não mexa em company aqui
         mapper.copyNonNullToEntity(formattedRequest, entity);
         subsidiaryRepository.save(entity);
+        scopeVersionService.bump(ScopeVersionService.subsidiaries());
 
         return mapper.toResponse(entity);
     }
@@ -143,6 +149,10 @@ public class SubsidiaryService {
     public void delete(UUID id) {
         Subsidiary entity = subsidiaryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Subsidiary not found"));
+        if (subsidiaryRepository.isReferenced(id)) {
+            throw new ConflictException("Subsidiary still has rooms, professionals, services or appointments");
+        }
         subsidiaryRepository.delete(entity);
+        scopeVersionService.bump(ScopeVersionService.subsidiaries());
     }
 }
\ No newline at end of file
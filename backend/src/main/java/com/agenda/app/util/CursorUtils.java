@@ -0,0 +1,87 @@
+package com.agenda.app.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitário para cursores opacos de paginação keyset.
+ * O cursor carrega os valores da chave de ordenação do último item da página,
+ * codificados em Base64 (URL-safe) para que o cliente não dependa do formato interno.
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+    private static final Pattern SEPARATOR_PATTERN = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    private CursorUtils() {
+    }
+
+    /**
+     * Gera um cursor opaco a partir dos valores da chave de ordenação
+     *
+     * @param parts Valores da chave (ex.: startTime e id)
+     * @return Cursor codificado
+     */
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor gerado por {@link #encode(Object...)}
+     *
+     * @param cursor        Cursor recebido do cliente
+     * @param expectedParts Quantidade de valores esperada
+     * @return Valores da chave, na mesma ordem em que foram codificados
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = SEPARATOR_PATTERN.split(raw, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Decodifica um cursor de uma única data (ex.: paginação de horários por dia)
+     *
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static LocalDate decodeDate(String cursor) {
+        try {
+            return LocalDate.parse(decode(cursor, 1)[0]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Decodifica um cursor de um único número (ex.: sequência do ledger no extrato)
+     *
+     * @throws IllegalArgumentException se o cursor for inválido
+     */
+    public static long decodeLong(String cursor) {
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.agenda.app.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversão entre valores monetários em centavos ({@code long}) e as colunas
+ * {@code numeric(10, 2)}. O ledger calcula sempre em centavos, sem arredondamento.
+ */
+public final class MoneyUtils {
+
+    private MoneyUtils() {
+    }
+
+    /**
+     * @throws IllegalArgumentException Se o valor tiver mais de duas casas decimais
+     */
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid monetary amount: " + amount);
+        }
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
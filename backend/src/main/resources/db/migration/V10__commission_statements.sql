@@ -0,0 +1,45 @@
+-- =====================================================================
+-- V10: extratos de comissão por profissional e período (folha).
+-- Gerados pelo CommissionService a partir dos agendamentos concluídos;
+-- reprocessar o período substitui os extratos existentes.
+-- =====================================================================
+
+CREATE TABLE commission_statements (
+    id                uuid           NOT NULL PRIMARY KEY,
+    created_at        timestamp(6) with time zone NOT NULL,
+    updated_at        timestamp(6) with time zone,
+    updated_by        varchar(255),
+    is_active         boolean        NOT NULL,
+    is_deleted        boolean        NOT NULL,
+    version           bigint,
+    professional_id   uuid           NOT NULL REFERENCES professionals (id),
+    period_start      date           NOT NULL,
+    period_end        date           NOT NULL,
+    appointment_count integer        NOT NULL,
+    unpaid_count      integer        NOT NULL,
+    base_amount       numeric(14, 2) NOT NULL,
+    commission_amount numeric(14, 2) NOT NULL,
+    CONSTRAINT uk_commission_statements_period UNIQUE (professional_id, period_start, period_end)
+);
+
+CREATE TABLE commission_statement_lines (
+    id                uuid           NOT NULL PRIMARY KEY,
+    created_at        timestamp(6) with time zone NOT NULL,
+    updated_at        timestamp(6) with time zone,
+    updated_by        varchar(255),
+    is_active         boolean        NOT NULL,
+    is_deleted        boolean        NOT NULL,
+    version           bigint,
+    statement_id      uuid           NOT NULL REFERENCES commission_statements (id),
+    service_id        uuid           NOT NULL REFERENCES services (id),
+    appointment_count integer        NOT NULL,
+    base_amount       numeric(14, 2) NOT NULL,
+    commission_amount numeric(14, 2) NOT NULL
+);
+
+CREATE INDEX idx_commission_statement_lines_statement ON commission_statement_lines (statement_id);
+CREATE INDEX idx_commission_statements_period ON commission_statements (period_start, period_end);
+
+-- Fonte do cálculo: concluídos do período por profissional
+CREATE INDEX idx_appointment_completed_professional_start
+    ON appointments (professional_id, start_time) WHERE status = 'COMPLETED';
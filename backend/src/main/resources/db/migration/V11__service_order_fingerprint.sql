@@ -0,0 +1,33 @@
+-- =====================================================================
+-- V11: impressão digital (fingerprint) da comanda para detectar duplicadas.
+-- fingerprint = sha256 hex de "<customer_id>|<professional_id>|<service_ids ordenados, separados por vírgula>",
+-- calculado pelo ServiceOrderService. Único entre as comandas OPEN
+-- (status é o ordinal de ServiceOrderStatus: OPEN = 0).
+-- =====================================================================
+
+ALTER TABLE service_order ADD COLUMN fingerprint varchar(64);
+
+UPDATE service_order so
+   SET fingerprint = f.fingerprint
+  FROM (SELECT o.id,
+               encode(sha256(convert_to(
+                   o.customer_id::text || '|' || o.professional_id::text || '|' ||
+                   COALESCE(string_agg(sos.service_id::text, ',' ORDER BY sos.service_id), ''),
+                   'UTF8')), 'hex') AS fingerprint
+          FROM service_order o
+          LEFT JOIN service_order_services sos ON sos.service_order_id = o.id
+         GROUP BY o.id, o.customer_id, o.professional_id) f
+ WHERE f.id = so.id;
+
+-- Duplicadas já existentes entre as abertas: só a mais antiga fica com o fingerprint
+UPDATE service_order so
+   SET fingerprint = NULL
+  FROM (SELECT id,
+               row_number() OVER (PARTITION BY fingerprint ORDER BY created_at, id) AS rn
+          FROM service_order
+         WHERE status = 0) d
+ WHERE d.id = so.id
+   AND d.rn > 1;
+
+CREATE UNIQUE INDEX uk_service_order_open_fingerprint
+    ON service_order (fingerprint) WHERE status = 0;
@@ -0,0 +1,10 @@
+-- =====================================================================
+-- V12: extrato da conta do cliente paginado por keyset (created_at, id).
+-- O índice cobre a chave inteira da ordenação, então cada página é uma
+-- leitura de intervalo do índice, independente da profundidade.
+-- =====================================================================
+
+DROP INDEX IF EXISTS idx_account_tx_account_created;
+
+CREATE INDEX idx_account_tx_account_created_id
+    ON account_transactions (client_account_id, created_at, id);
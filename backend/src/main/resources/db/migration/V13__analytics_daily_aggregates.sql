@@ -0,0 +1,165 @@
+-- =====================================================================
+-- V13: agregados diários para os painéis gerenciais.
+-- analytics_service_daily: por subsidiária, dia, profissional e serviço
+-- (agendados, concluídos, cancelados, faturamento e minutos agendados).
+-- analytics_chair_daily: por subsidiária, dia e sala/cadeira (minutos
+-- agendados e minutos de abertura), base da ocupação.
+-- As consultas dos painéis leem só essas tabelas; refresh_analytics_daily
+-- recalcula um intervalo de dias (todas as subsidiárias ou uma só).
+-- =====================================================================
+
+CREATE TABLE analytics_service_daily (
+    id              uuid           NOT NULL PRIMARY KEY,
+    subsidiary_id   uuid           NOT NULL,
+    business_date   date           NOT NULL,
+    professional_id uuid           NOT NULL,
+    service_id      uuid           NOT NULL,
+    booked_count    bigint         NOT NULL,
+    completed_count bigint         NOT NULL,
+    cancelled_count bigint         NOT NULL,
+    revenue         numeric(14, 2) NOT NULL,
+    booked_minutes  bigint         NOT NULL,
+    refreshed_at    timestamp(6) with time zone NOT NULL,
+    CONSTRAINT uk_analytics_service_daily
+        UNIQUE (subsidiary_id, business_date, professional_id, service_id)
+);
+
+-- Painéis sem filtro de subsidiária (visão da empresa)
+CREATE INDEX idx_analytics_service_daily_date ON analytics_service_daily (business_date);
+
+CREATE TABLE analytics_chair_daily (
+    id             uuid   NOT NULL PRIMARY KEY,
+    subsidiary_id  uuid   NOT NULL,
+    business_date  date   NOT NULL,
+    chair_room_id  uuid   NOT NULL,
+    booked_count   bigint NOT NULL,
+    booked_minutes bigint NOT NULL,
+    open_minutes   bigint NOT NULL,
+    refreshed_at   timestamp(6) with time zone NOT NULL,
+    CONSTRAINT uk_analytics_chair_daily UNIQUE (subsidiary_id, business_date, chair_room_id)
+);
+
+-- ---------- recálculo ----------
+
+-- Agendamentos que entram nos agregados de [p_from, p_to]. Função SQL simples: o planejador a
+-- expande na consulta que a usa (mantém a poda de partições por start_time).
+-- p_include_archive soma também appointments_archive (carga inicial); o dia a dia lê só a tabela viva.
+CREATE OR REPLACE FUNCTION analytics_source(p_from date, p_to date, p_subsidiary uuid, p_include_archive boolean)
+    RETURNS TABLE (subsidiary_id uuid, professional_id uuid, service_id uuid, chair_room_id uuid,
+                   status varchar, business_date date, minutes bigint)
+    LANGUAGE sql
+    STABLE
+AS $$
+    SELECT a.subsidiary_id, a.professional_id, a.service_id, a.chair_room_id, a.status,
+           CAST(a.start_time AS date), CAST(EXTRACT(EPOCH FROM a.end_time - a.start_time) / 60 AS bigint)
+      FROM appointments a
+     WHERE a.start_time >= p_from
+       AND a.start_time <  p_to + 1
+       AND a.subsidiary_id IS NOT NULL
+       AND (p_subsidiary IS NULL OR a.subsidiary_id = p_subsidiary)
+    UNION ALL
+    SELECT h.subsidiary_id, h.professional_id, h.service_id, h.chair_room_id, h.status,
+           CAST(h.start_time AS date), CAST(EXTRACT(EPOCH FROM h.end_time - h.start_time) / 60 AS bigint)
+      FROM appointments_archive h
+     WHERE p_include_archive
+       AND h.start_time >= p_from
+       AND h.start_time <  p_to + 1
+       AND h.subsidiary_id IS NOT NULL
+       AND (p_subsidiary IS NULL OR h.subsidiary_id = p_subsidiary)
+$$;
+
+-- Recalcula os agregados de [p_from, p_to]. Com p_subsidiary nulo (job noturno) trava o
+-- recálculo de forma exclusiva; com subsidiária (recálculo de um dia na escrita) trava o par
+-- subsidiária/dia e só compartilha a trava global. As travas valem até o fim da transação,
+-- então o próximo recálculo do mesmo dia já enxerga o commit do anterior.
+CREATE OR REPLACE FUNCTION refresh_analytics_daily(p_from date, p_to date, p_subsidiary uuid,
+                                                   p_include_archive boolean DEFAULT false)
+    RETURNS integer
+    LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_services integer;
+    v_chairs   integer;
+BEGIN
+    IF p_subsidiary IS NULL THEN
+        PERFORM pg_advisory_xact_lock(hashtext('analytics_daily'), 0);
+    ELSE
+        PERFORM pg_advisory_xact_lock_shared(hashtext('analytics_daily'), 0);
+        PERFORM pg_advisory_xact_lock(hashtext('analytics_daily'),
+                                      hashtext(p_subsidiary::text || p_from::text || p_to::text));
+    END IF;
+
+    DELETE FROM analytics_service_daily
+     WHERE business_date BETWEEN p_from AND p_to
+       AND (p_subsidiary IS NULL OR subsidiary_id = p_subsidiary);
+
+    DELETE FROM analytics_chair_daily
+     WHERE business_date BETWEEN p_from AND p_to
+       AND (p_subsidiary IS NULL OR subsidiary_id = p_subsidiary);
+
+    INSERT INTO analytics_service_daily (id, subsidiary_id, business_date, professional_id, service_id,
+                                         booked_count, completed_count, cancelled_count,
+                                         revenue, booked_minutes, refreshed_at)
+    SELECT uuid_generate_v7(),
+           x.subsidiary_id,
+           x.business_date,
+           x.professional_id,
+           x.service_id,
+           count(*) FILTER (WHERE x.status <> 'CANCELLED'),
+           count(*) FILTER (WHERE x.status = 'COMPLETED'),
+           count(*) FILTER (WHERE x.status = 'CANCELLED'),
+           COALESCE(sum(COALESCE(c.custom_price, s.price)) FILTER (WHERE x.status = 'COMPLETED'), 0),
+           COALESCE(sum(x.minutes) FILTER (WHERE x.status <> 'CANCELLED'), 0),
+           now()
+      FROM analytics_source(p_from, p_to, p_subsidiary, p_include_archive) x
+      JOIN services s ON s.id = x.service_id
+      LEFT JOIN professional_service_cfg c
+             ON c.professional_id = x.professional_id
+            AND c.service_id = x.service_id
+     GROUP BY x.subsidiary_id, x.business_date, x.professional_id, x.service_id;
+    GET DIAGNOSTICS v_services = ROW_COUNT;
+
+    INSERT INTO analytics_chair_daily (id, subsidiary_id, business_date, chair_room_id,
+                                       booked_count, booked_minutes, open_minutes, refreshed_at)
+    SELECT uuid_generate_v7(),
+           COALESCE(b.subsidiary_id, o.subsidiary_id),
+           COALESCE(b.business_date, o.business_date),
+           COALESCE(b.chair_room_id, o.chair_room_id),
+           COALESCE(b.booked_count, 0),
+           COALESCE(b.booked_minutes, 0),
+           COALESCE(o.open_minutes, 0),
+           now()
+      FROM (SELECT x.subsidiary_id, x.chair_room_id, x.business_date,
+                   count(*)       AS booked_count,
+                   sum(x.minutes) AS booked_minutes
+              FROM analytics_source(p_from, p_to, p_subsidiary, p_include_archive) x
+             WHERE x.chair_room_id IS NOT NULL
+               AND x.status <> 'CANCELLED'
+             GROUP BY x.subsidiary_id, x.chair_room_id, x.business_date) b
+      FULL JOIN (SELECT r.subsidiary_id, e.chair_room_id, e.date AS business_date,
+                        CAST(EXTRACT(EPOCH FROM e.close_time - e.open_time) / 60 AS bigint) AS open_minutes
+                   FROM chair_room_schedule_entry e
+                   JOIN chair_rooms r ON r.id = e.chair_room_id
+                  WHERE e.date BETWEEN p_from AND p_to
+                    AND e.closed = false
+                    AND e.is_deleted = false
+                    AND (p_subsidiary IS NULL OR r.subsidiary_id = p_subsidiary)) o
+             ON o.subsidiary_id = b.subsidiary_id
+            AND o.chair_room_id = b.chair_room_id
+            AND o.business_date = b.business_date;
+    GET DIAGNOSTICS v_chairs = ROW_COUNT;
+
+    RETURN v_services + v_chairs;
+END;
+$$;
+
+-- ---------- carga inicial a partir do histórico (inclui os arquivados) ----------
+
+SELECT refresh_analytics_daily(CAST(min(d) AS date), CAST(max(d) AS date), NULL, true)
+  FROM (SELECT min(start_time) AS d FROM appointments
+        UNION ALL SELECT max(start_time) FROM appointments
+        UNION ALL SELECT min(start_time) FROM appointments_archive
+        UNION ALL SELECT max(start_time) FROM appointments_archive
+        UNION ALL SELECT min(date) FROM chair_room_schedule_entry
+        UNION ALL SELECT max(date) FROM chair_room_schedule_entry) bounds
+HAVING min(d) IS NOT NULL;
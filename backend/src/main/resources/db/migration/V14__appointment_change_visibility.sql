@@ -0,0 +1,18 @@
+-- =====================================================================
+-- V14: horizonte de visibilidade do feed de alterações.
+-- O id IDENTITY é atribuído no INSERT, não no commit: uma transação com
+-- id maior pode ficar visível antes de outra com id menor ainda aberta.
+-- Cada alteração guarda o id da transação que a gravou (tx_id) e o feed só
+-- entrega as de transações anteriores ao xmin do snapshot (todas já
+-- encerradas), em ordem (tx_id, id). Transações ainda abertas ou futuras
+-- sempre terão tx_id >= esse xmin, então nada aparece atrás do token.
+-- =====================================================================
+
+ALTER TABLE appointment_changes
+    ADD COLUMN tx_id bigint NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint);
+
+DROP INDEX IF EXISTS idx_appointment_change_subsidiary_seq;
+DROP INDEX IF EXISTS idx_appointment_change_professional_seq;
+
+CREATE INDEX idx_appointment_change_subsidiary_tx ON appointment_changes (subsidiary_id, tx_id, id);
+CREATE INDEX idx_appointment_change_professional_tx ON appointment_changes (professional_id, tx_id, id);
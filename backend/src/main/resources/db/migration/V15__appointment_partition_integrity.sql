@@ -0,0 +1,164 @@
+-- =====================================================================
+-- V15: integridade e poda de partições de appointments.
+-- appointment_locator guarda o start_time de cada id (mantido por
+-- triggers): a busca por id lê o start_time ali e toca só a partição do
+-- agendamento, em vez de sondar todas.
+-- As FKs para appointments(id) removidas na V4 não voltam: exigiriam
+-- (id, start_time) nas tabelas filhas e impediriam desanexar partições.
+-- No lugar, find_appointment_orphans() conta as referências sem
+-- agendamento, verificada diariamente pelo AppointmentPartitionService.
+-- A criação/desanexação de partições passa a ser serializada por trava
+-- consultiva (vários nós rodam a manutenção na subida).
+-- =====================================================================
+
+CREATE TABLE appointment_locator (
+    id         uuid         NOT NULL PRIMARY KEY,
+    start_time timestamp(6) NOT NULL
+);
+
+-- Uma atualização que troca o start_time de mês vira DELETE + INSERT entre partições e só
+-- dispara os triggers AFTER DELETE/INSERT, em qualquer ordem: o DELETE só remove a linha do
+-- start_time antigo e o INSERT sobrescreve.
+CREATE OR REPLACE FUNCTION appointment_locator_upsert() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    INSERT INTO appointment_locator (id, start_time)
+    VALUES (NEW.id, NEW.start_time)
+        ON CONFLICT (id) DO UPDATE SET start_time = EXCLUDED.start_time;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION appointment_locator_delete() RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    DELETE FROM appointment_locator
+     WHERE id = OLD.id
+       AND start_time = OLD.start_time;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_appointment_locator_insert
+    AFTER INSERT ON appointments
+    FOR EACH ROW EXECUTE FUNCTION appointment_locator_upsert();
+
+CREATE TRIGGER trg_appointment_locator_update
+    AFTER UPDATE OF start_time ON appointments
+    FOR EACH ROW
+    WHEN (OLD.start_time IS DISTINCT FROM NEW.start_time)
+    EXECUTE FUNCTION appointment_locator_upsert();
+
+CREATE TRIGGER trg_appointment_locator_delete
+    AFTER DELETE ON appointments
+    FOR EACH ROW EXECUTE FUNCTION appointment_locator_delete();
+
+INSERT INTO appointment_locator (id, start_time)
+SELECT id, start_time FROM appointments
+    ON CONFLICT (id) DO NOTHING;
+
+-- ---------- Referências órfãs ----------
+
+-- Conta, por tabela, as referências a agendamentos que não existem mais. Partições
+-- desanexadas continuam no appointment_locator (o DETACH não dispara triggers) e o arquivo
+-- só recebe agendamentos sem prontuário, retenção ou lançamento, então toda referência
+-- válida está no appointment_locator.
+CREATE OR REPLACE FUNCTION find_appointment_orphans()
+    RETURNS TABLE (table_name text, orphans bigint)
+    LANGUAGE sql
+    STABLE
+AS $$
+    SELECT 'appointment_assistants', count(*)
+      FROM appointment_assistants x
+     WHERE NOT EXISTS (SELECT 1 FROM appointment_locator l WHERE l.id = x.appointment_id)
+    UNION ALL
+    SELECT 'medical_record', count(*)
+      FROM medical_record x
+     WHERE NOT EXISTS (SELECT 1 FROM appointment_locator l WHERE l.id = x.appointment_id)
+    UNION ALL
+    SELECT 'account_holds', count(*)
+      FROM account_holds x
+     WHERE NOT EXISTS (SELECT 1 FROM appointment_locator l WHERE l.id = x.appointment_id)
+    UNION ALL
+    SELECT 'account_transactions', count(*)
+      FROM account_transactions x
+     WHERE x.appointment_id IS NOT NULL
+       AND NOT EXISTS (SELECT 1 FROM appointment_locator l WHERE l.id = x.appointment_id)
+$$;
+
+-- ---------- Gestão de partições serializada ----------
+
+-- Mover as linhas da partição default dispara o trigger de DELETE; depois do ATTACH elas
+-- voltam ao appointment_locator.
+CREATE OR REPLACE FUNCTION create_appointment_partition(p_month date) RETURNS boolean
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_from date := date_trunc('month', p_month)::date;
+    v_to   date := (date_trunc('month', p_month) + interval '1 month')::date;
+    v_name text := 'appointments_p' || to_char(v_from, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('WITH moved AS (DELETE FROM appointments_default'
+                   '                WHERE start_time >= %L AND start_time < %L RETURNING *)'
+                   ' INSERT INTO %I SELECT * FROM moved', v_from, v_to, v_name);
+    EXECUTE format('ALTER TABLE appointments ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, v_to);
+    EXECUTE format('INSERT INTO appointment_locator (id, start_time) SELECT id, start_time FROM %I'
+                   ' ON CONFLICT (id) DO UPDATE SET start_time = EXCLUDED.start_time', v_name);
+    RETURN true;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION ensure_appointment_partitions(p_months_ahead integer) RETURNS integer
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_month   date := date_trunc('month', current_date)::date;
+    v_created integer := 0;
+BEGIN
+    -- Dois nós criando a mesma partição falhariam no CREATE TABLE/ATTACH
+    PERFORM pg_advisory_xact_lock(hashtext('appointment_partitions'));
+    FOR i IN 0..p_months_ahead LOOP
+        IF create_appointment_partition((v_month + make_interval(months => i))::date) THEN
+            v_created := v_created + 1;
+        END IF;
+    END LOOP;
+    RETURN v_created;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION detach_appointment_partitions_before(p_cutoff date) RETURNS integer
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    part       record;
+    v_detached integer := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('appointment_partitions'));
+    FOR part IN
+        SELECT c.relname
+          FROM pg_inherits i
+          JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = 'appointments'::regclass
+           AND c.relname ~ '^appointments_p[0-9]{6}$'
+           AND to_date(substr(c.relname, 15), 'YYYYMM') + interval '1 month' <= p_cutoff
+         ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE appointments DETACH PARTITION %I', part.relname);
+        v_detached := v_detached + 1;
+    END LOOP;
+    RETURN v_detached;
+END
+$$;
@@ -0,0 +1,62 @@
+-- =====================================================================
+-- V16: expurgo lógico por keyset.
+-- A V6 sempre relia os excluídos mais antigos: linhas referenciadas para
+-- sempre (ex.: profissional com agendamentos) ocupavam o lote inteiro e
+-- nada mais era expurgado. A função passa a receber a posição
+-- (updated_at, id) do lote anterior e devolve a do último lido, então
+-- cada execução percorre os candidatos uma única vez.
+-- =====================================================================
+
+DROP FUNCTION IF EXISTS purge_soft_deleted(regclass, timestamptz, integer);
+
+-- Percorre até p_batch linhas excluídas logicamente antes de p_cutoff, depois de
+-- (p_after_updated_at, p_after_id) (nulo = início), e remove cada uma em um subbloco: a que
+-- ainda for referenciada é mantida e fica para a próxima execução. SKIP LOCKED evita disputar
+-- linhas com outras transações. Retorna quantas foram lidas e removidas e a última posição.
+CREATE OR REPLACE FUNCTION purge_soft_deleted(p_table regclass, p_cutoff timestamptz, p_batch integer,
+                                              p_after_updated_at timestamptz, p_after_id uuid)
+    RETURNS TABLE (scanned integer, purged integer, last_updated_at timestamptz, last_id uuid)
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_row record;
+BEGIN
+    scanned := 0;
+    purged := 0;
+    FOR v_row IN EXECUTE format(
+            'SELECT id, updated_at FROM %s'
+            ' WHERE is_deleted = true AND updated_at < $1'
+            '   AND ($3 IS NULL OR (updated_at, id) > ($3, $4))'
+            ' ORDER BY updated_at, id LIMIT $2 FOR UPDATE SKIP LOCKED', p_table)
+        USING p_cutoff, p_batch, p_after_updated_at, p_after_id
+    LOOP
+        scanned := scanned + 1;
+        last_updated_at := v_row.updated_at;
+        last_id := v_row.id;
+        BEGIN
+            EXECUTE format('DELETE FROM %s WHERE id = $1', p_table) USING v_row.id;
+            purged := purged + 1;
+        EXCEPTION
+            WHEN foreign_key_violation THEN
+                NULL;
+        END;
+    END LOOP;
+    RETURN NEXT;
+END
+$$;
+
+-- Keyset (updated_at, id) dos candidatos ao expurgo (substituem os índices da V6)
+DROP INDEX IF EXISTS idx_customer_deleted;
+DROP INDEX IF EXISTS idx_professional_deleted;
+DROP INDEX IF EXISTS idx_chair_room_deleted;
+DROP INDEX IF EXISTS idx_service_deleted;
+DROP INDEX IF EXISTS idx_subsidiary_deleted;
+DROP INDEX IF EXISTS idx_company_deleted;
+
+CREATE INDEX idx_customer_deleted ON customers (updated_at, id) WHERE is_deleted = true;
+CREATE INDEX idx_professional_deleted ON professionals (updated_at, id) WHERE is_deleted = true;
+CREATE INDEX idx_chair_room_deleted ON chair_rooms (updated_at, id) WHERE is_deleted = true;
+CREATE INDEX idx_service_deleted ON services (updated_at, id) WHERE is_deleted = true;
+CREATE INDEX idx_subsidiary_deleted ON subsidiaries (updated_at, id) WHERE is_deleted = true;
+CREATE INDEX idx_company_deleted ON companies (updated_at, id) WHERE is_deleted = true;
@@ -0,0 +1,10 @@
+-- =====================================================================
+-- V17: retenções fora do caixa.
+-- HOLD, RELEASE_HOLD e CONFIRM_HOLD só trocam o saldo de lugar dentro da
+-- conta do cliente; deixam de ser somados ao caixa e de passar pelo
+-- bloqueio do dia fechado. Os totais já gravados desses tipos são removidos.
+-- =====================================================================
+
+DELETE FROM cash_register_rollups
+ WHERE source = 'ACCOUNT'
+   AND kind IN ('HOLD', 'RELEASE_HOLD', 'CONFIRM_HOLD');
@@ -0,0 +1,19 @@
+-- =====================================================================
+-- V18: extrato paginado pela sequência do ledger.
+-- Lançamentos anteriores à V7 não têm ledger_sequence. Eles recebem
+-- sequências <= 0 por conta, na ordem em que foram gravados: o mais
+-- recente fica com 0, a mesma posição do snapshot inicial da V7, então
+-- balanceAt e o extrato continuam coerentes. Com a coluna NOT NULL, o
+-- índice único (client_account_id, ledger_sequence) atende o extrato.
+-- =====================================================================
+
+UPDATE account_transactions t
+   SET ledger_sequence = legacy.sequence
+  FROM (SELECT id,
+               1 - row_number() OVER (PARTITION BY client_account_id
+                                          ORDER BY created_at DESC, id DESC) AS sequence
+          FROM account_transactions
+         WHERE ledger_sequence IS NULL) legacy
+ WHERE t.id = legacy.id;
+
+ALTER TABLE account_transactions ALTER COLUMN ledger_sequence SET NOT NULL;
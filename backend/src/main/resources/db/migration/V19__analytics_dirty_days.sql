@@ -0,0 +1,18 @@
+-- =====================================================================
+-- V19: fila de dias a recalcular nos agregados gerenciais.
+-- A escrita de agendamentos só registra o par subsidiária/dia aqui, na
+-- própria transação; o AnalyticsService esvazia a fila em segundo plano,
+-- um dia por transação, com refresh_analytics_daily. A tabela só recebe
+-- INSERTs (sem chave única), então escritas concorrentes no mesmo dia
+-- não esperam umas pelas outras nem pelo recálculo.
+-- =====================================================================
+
+CREATE TABLE analytics_dirty_days (
+    id            bigint GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    subsidiary_id uuid   NOT NULL,
+    business_date date   NOT NULL,
+    queued_at     timestamp(6) with time zone NOT NULL DEFAULT now()
+);
+
+-- Remoção de todas as entradas do dia escolhido
+CREATE INDEX idx_analytics_dirty_days_day ON analytics_dirty_days (subsidiary_id, business_date);
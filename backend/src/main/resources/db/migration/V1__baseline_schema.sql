@@ -0,0 +1,472 @@
+-- =====================================================================
+-- V1: esquema base (equivalente ao gerado pelo ddl-auto=update até aqui).
+-- Bancos já existentes são marcados nesta versão pelo baseline-on-migrate
+-- e seguem a partir da V2.
+-- =====================================================================
+
+-- ---------- Empresa / subsidiária ----------
+
+CREATE TABLE companies (
+    id              uuid         NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean      NOT NULL,
+    is_deleted      boolean      NOT NULL,
+    version         bigint,
+    name            varchar(100) NOT NULL,
+    trading_name    varchar(100) NOT NULL,
+    street          varchar(120) NOT NULL,
+    number          varchar(10)  NOT NULL,
+    complement      varchar(255),
+    neighbourhood   varchar(255),
+    city            varchar(60)  NOT NULL,
+    state           varchar(2)   NOT NULL,
+    zip_code        varchar(10)  NOT NULL,
+    phone           varchar(20),
+    document_number varchar(20)
+);
+
+CREATE TABLE subsidiaries (
+    id              uuid         NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean      NOT NULL,
+    is_deleted      boolean      NOT NULL,
+    version         bigint,
+    name            varchar(100) NOT NULL,
+    street          varchar(120) NOT NULL,
+    number          varchar(10)  NOT NULL,
+    complement      varchar(255),
+    neighbourhood   varchar(255),
+    city            varchar(60)  NOT NULL,
+    state           varchar(2)   NOT NULL,
+    zip_code        varchar(10)  NOT NULL,
+    open_time       time(6),
+    close_time      time(6),
+    document_number varchar(20),
+    company_id      uuid         NOT NULL REFERENCES companies (id)
+);
+
+CREATE TABLE users (
+    id            uuid         NOT NULL PRIMARY KEY,
+    created_at    timestamp(6) with time zone NOT NULL,
+    updated_at    timestamp(6) with time zone,
+    updated_by    varchar(255),
+    is_active     boolean      NOT NULL,
+    is_deleted    boolean      NOT NULL,
+    version       bigint,
+    username      varchar(50)  NOT NULL UNIQUE,
+    password_hash varchar(255) NOT NULL,
+    email         varchar(100) NOT NULL UNIQUE,
+    role          varchar(20)  NOT NULL,
+    first_name    varchar(50)  NOT NULL,
+    last_name     varchar(50)  NOT NULL,
+    phone         varchar(20),
+    document      varchar(20),
+    company_id    uuid         NOT NULL REFERENCES companies (id)
+);
+
+CREATE TABLE chair_rooms (
+    id            uuid         NOT NULL PRIMARY KEY,
+    created_at    timestamp(6) with time zone NOT NULL,
+    updated_at    timestamp(6) with time zone,
+    updated_by    varchar(255),
+    is_active     boolean      NOT NULL,
+    is_deleted    boolean      NOT NULL,
+    version       bigint,
+    name          varchar(100) NOT NULL,
+    description   varchar(255),
+    subsidiary_id uuid         NOT NULL REFERENCES subsidiaries (id),
+    is_available  boolean      NOT NULL,
+    room_number   varchar(20),
+    floor         integer,
+    capacity      integer,
+    CONSTRAINT uk_chair_rooms_name_subsidiary UNIQUE (name, subsidiary_id)
+);
+
+-- ---------- Cadastros ----------
+
+CREATE TABLE customers (
+    id              uuid         NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean      NOT NULL,
+    is_deleted      boolean      NOT NULL,
+    version         bigint,
+    first_name      varchar(50)  NOT NULL,
+    last_name       varchar(50)  NOT NULL,
+    full_name       varchar(100) NOT NULL,
+    email           varchar(100) NOT NULL,
+    phone           varchar(20),
+    document_number varchar(20),
+    street          varchar(120) NOT NULL,
+    number          varchar(10)  NOT NULL,
+    complement      varchar(255),
+    neighbourhood   varchar(255),
+    city            varchar(60)  NOT NULL,
+    state           varchar(2)   NOT NULL,
+    zip_code        varchar(10)  NOT NULL,
+    date_of_birth   date,
+    company_id      uuid         REFERENCES companies (id)
+);
+CREATE INDEX idx_customer_fullname ON customers (full_name);
+CREATE INDEX idx_customer_email ON customers (email);
+
+CREATE TABLE professionals (
+    id              uuid         NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean      NOT NULL,
+    is_deleted      boolean      NOT NULL,
+    version         bigint,
+    user_id         uuid         REFERENCES users (id),
+    first_name      varchar(50)  NOT NULL,
+    last_name       varchar(50)  NOT NULL,
+    full_name       varchar(100) NOT NULL,
+    document_number varchar(20),
+    street          varchar(120) NOT NULL,
+    number          varchar(10)  NOT NULL,
+    complement      varchar(255),
+    neighbourhood   varchar(255),
+    city            varchar(60)  NOT NULL,
+    state           varchar(2)   NOT NULL,
+    zip_code        varchar(10)  NOT NULL,
+    phone           varchar(20),
+    email           varchar(100) NOT NULL,
+    subsidiary_id   uuid         REFERENCES subsidiaries (id)
+);
+CREATE INDEX idx_professional_fullname ON professionals (full_name);
+
+CREATE TABLE services (
+    id                   uuid           NOT NULL PRIMARY KEY,
+    created_at           timestamp(6) with time zone NOT NULL,
+    updated_at           timestamp(6) with time zone,
+    updated_by           varchar(255),
+    is_active            boolean        NOT NULL,
+    is_deleted           boolean        NOT NULL,
+    version              bigint,
+    name                 varchar(100)   NOT NULL,
+    description          varchar(255),
+    price                numeric(10, 2) NOT NULL,
+    requires_pre_payment boolean        NOT NULL,
+    duration_minutes     integer        NOT NULL,
+    company_id           uuid           NOT NULL REFERENCES companies (id),
+    subsidiary_id        uuid           NOT NULL REFERENCES subsidiaries (id)
+);
+
+CREATE TABLE professional_services (
+    professional_id uuid NOT NULL REFERENCES professionals (id),
+    service_id      uuid NOT NULL REFERENCES services (id),
+    PRIMARY KEY (professional_id, service_id)
+);
+
+CREATE TABLE professional_service_cfg (
+    id                      uuid           NOT NULL PRIMARY KEY,
+    created_at              timestamp(6) with time zone NOT NULL,
+    updated_at              timestamp(6) with time zone,
+    updated_by              varchar(255),
+    is_active               boolean        NOT NULL,
+    is_deleted              boolean        NOT NULL,
+    version                 bigint,
+    professional_id         uuid           NOT NULL REFERENCES professionals (id),
+    service_id              uuid           NOT NULL REFERENCES services (id),
+    custom_price            numeric(10, 2),
+    custom_duration_minutes integer,
+    commission_pct          numeric(5, 2),
+    commission_fixed        numeric(10, 2),
+    CONSTRAINT uk_professional_service_cfg UNIQUE (professional_id, service_id)
+);
+
+-- ---------- Horários ----------
+
+CREATE TABLE subsidiary_schedule_entry (
+    id            uuid    NOT NULL PRIMARY KEY,
+    created_at    timestamp(6) with time zone NOT NULL,
+    updated_at    timestamp(6) with time zone,
+    updated_by    varchar(255),
+    is_active     boolean NOT NULL,
+    is_deleted    boolean NOT NULL,
+    version       bigint,
+    subsidiary_id uuid    NOT NULL REFERENCES subsidiaries (id),
+    date          date    NOT NULL,
+    open_time     time(6) NOT NULL,
+    close_time    time(6) NOT NULL,
+    closed        boolean NOT NULL,
+    customized    boolean NOT NULL
+);
+CREATE INDEX idx_subsidiary_schedule_sub_date ON subsidiary_schedule_entry (subsidiary_id, date);
+
+CREATE TABLE chair_room_schedule_entry (
+    id            uuid    NOT NULL PRIMARY KEY,
+    created_at    timestamp(6) with time zone NOT NULL,
+    updated_at    timestamp(6) with time zone,
+    updated_by    varchar(255),
+    is_active     boolean NOT NULL,
+    is_deleted    boolean NOT NULL,
+    version       bigint,
+    chair_room_id uuid    NOT NULL REFERENCES chair_rooms (id),
+    date          date    NOT NULL,
+    open_time     time(6) NOT NULL,
+    close_time    time(6) NOT NULL,
+    closed        boolean NOT NULL,
+    customized    boolean NOT NULL,
+    CONSTRAINT uk_chair_room_schedule_chair_date UNIQUE (chair_room_id, date)
+);
+
+CREATE TABLE professional_schedule_entries (
+    id              uuid    NOT NULL PRIMARY KEY,
+    professional_id uuid    NOT NULL REFERENCES professionals (id),
+    date            date    NOT NULL,
+    start_time      time(6) NOT NULL,
+    end_time        time(6) NOT NULL,
+    CONSTRAINT uk_professional_schedule_prof_date UNIQUE (professional_id, date)
+);
+
+CREATE TABLE professional_chair_room_assignments (
+    id              uuid    NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean NOT NULL,
+    is_deleted      boolean NOT NULL,
+    version         bigint,
+    professional_id uuid    NOT NULL REFERENCES professionals (id),
+    chair_room_id   uuid    NOT NULL REFERENCES chair_rooms (id),
+    date            date    NOT NULL,
+    start_time      time(6) NOT NULL,
+    end_time        time(6) NOT NULL,
+    day_of_week     integer,
+    is_recurring    boolean
+);
+CREATE INDEX idx_assignment_prof_date ON professional_chair_room_assignments (professional_id, date);
+CREATE INDEX idx_assignment_chair_date ON professional_chair_room_assignments (chair_room_id, date);
+
+CREATE TABLE availabilities (
+    id              uuid        NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean     NOT NULL,
+    is_deleted      boolean     NOT NULL,
+    version         bigint,
+    professional_id uuid        REFERENCES professionals (id),
+    subsidiary_id   uuid        REFERENCES subsidiaries (id),
+    chair_room_id   uuid        REFERENCES chair_rooms (id),
+    day_of_week     varchar(10) NOT NULL,
+    start_time      time(6)     NOT NULL,
+    end_time        time(6)     NOT NULL,
+    active          boolean     NOT NULL
+);
+
+-- ---------- Ordem de serviço / pagamento ----------
+
+CREATE TABLE service_order (
+    id              uuid           NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean        NOT NULL,
+    is_deleted      boolean        NOT NULL,
+    version         bigint,
+    customer_id     uuid           NOT NULL REFERENCES customers (id),
+    professional_id uuid           NOT NULL REFERENCES professionals (id),
+    status          smallint       NOT NULL,
+    total_price     numeric(38, 2) NOT NULL,
+    discount        numeric(38, 2) NOT NULL
+);
+
+CREATE TABLE service_order_services (
+    service_order_id uuid NOT NULL REFERENCES service_order (id),
+    service_id       uuid NOT NULL REFERENCES services (id)
+);
+
+CREATE TABLE payment (
+    id               uuid           NOT NULL PRIMARY KEY,
+    created_at       timestamp(6) with time zone NOT NULL,
+    updated_at       timestamp(6) with time zone,
+    updated_by       varchar(255),
+    is_active        boolean        NOT NULL,
+    is_deleted       boolean        NOT NULL,
+    version          bigint,
+    service_order_id uuid           NOT NULL UNIQUE REFERENCES service_order (id),
+    payment_method   varchar(20)    NOT NULL,
+    status           varchar(20)    NOT NULL,
+    amount           numeric(10, 2) NOT NULL,
+    installments     integer        NOT NULL,
+    card_type        varchar(36),
+    card_nsu         varchar(36),
+    card_brand       varchar(36),
+    acquirer         varchar(36),
+    payment_date     timestamp(6),
+    received_by      uuid           REFERENCES users (id)
+);
+
+-- ---------- Agendamentos ----------
+
+CREATE TABLE appointments (
+    id               uuid         NOT NULL PRIMARY KEY,
+    created_at       timestamp(6) with time zone NOT NULL,
+    updated_at       timestamp(6) with time zone,
+    updated_by       varchar(255),
+    is_active        boolean      NOT NULL,
+    is_deleted       boolean      NOT NULL,
+    version          bigint,
+    subsidiary_id    uuid         REFERENCES subsidiaries (id),
+    professional_id  uuid         NOT NULL REFERENCES professionals (id),
+    chair_room_id    uuid         REFERENCES chair_rooms (id),
+    customer_id      uuid         NOT NULL REFERENCES customers (id),
+    service_id       uuid         NOT NULL REFERENCES services (id),
+    company_id       uuid         REFERENCES companies (id),
+    date             date         NOT NULL,
+    start_time       timestamp(6) NOT NULL,
+    end_time         timestamp(6) NOT NULL,
+    notes            varchar(500),
+    status           varchar(255) NOT NULL,
+    service_order_id uuid         UNIQUE REFERENCES service_order (id),
+    main_doctor_id   uuid         REFERENCES professionals (id)
+);
+CREATE INDEX idx_appointment_professional ON appointments (professional_id);
+CREATE INDEX idx_appointment_start ON appointments (start_time);
+CREATE INDEX idx_appointment_start_id ON appointments (start_time, id);
+CREATE INDEX idx_appointment_status_start_id ON appointments (status, start_time, id);
+
+CREATE TABLE appointment_assistants (
+    appointment_id  uuid NOT NULL REFERENCES appointments (id),
+    professional_id uuid NOT NULL REFERENCES professionals (id)
+);
+
+CREATE TABLE appointment_changes (
+    id              bigint      GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    appointment_id  uuid        NOT NULL,
+    subsidiary_id   uuid,
+    professional_id uuid        NOT NULL,
+    change_type     varchar(20) NOT NULL,
+    changed_at      timestamp(6) with time zone NOT NULL
+);
+CREATE INDEX idx_appointment_change_subsidiary_seq ON appointment_changes (subsidiary_id, id);
+CREATE INDEX idx_appointment_change_professional_seq ON appointment_changes (professional_id, id);
+
+CREATE TABLE scope_versions (
+    scope_key  varchar(80) NOT NULL PRIMARY KEY,
+    version    bigint      NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL
+);
+
+-- ---------- Prontuário ----------
+
+CREATE TABLE medical_record (
+    id                 uuid    NOT NULL PRIMARY KEY,
+    created_at         timestamp(6) with time zone NOT NULL,
+    updated_at         timestamp(6) with time zone,
+    updated_by         varchar(255),
+    is_active          boolean NOT NULL,
+    is_deleted         boolean NOT NULL,
+    version            bigint,
+    main_doctor_id     uuid    NOT NULL REFERENCES users (id),
+    appointment_id     uuid    NOT NULL UNIQUE REFERENCES appointments (id),
+    created_by_user_id uuid    NOT NULL REFERENCES users (id),
+    customer_id        uuid    NOT NULL REFERENCES customers (id),
+    service_id         uuid    NOT NULL REFERENCES services (id),
+    description        varchar(1000),
+    finalized          boolean NOT NULL
+);
+
+CREATE TABLE medical_record_photos_before (
+    record_id uuid NOT NULL REFERENCES medical_record (id),
+    photo_url varchar(255)
+);
+
+CREATE TABLE medical_record_photos_after (
+    record_id uuid NOT NULL REFERENCES medical_record (id),
+    photo_url varchar(255)
+);
+
+CREATE TABLE medical_record_notes (
+    id              uuid          NOT NULL PRIMARY KEY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone,
+    updated_by      varchar(255),
+    is_active       boolean       NOT NULL,
+    is_deleted      boolean       NOT NULL,
+    version         bigint,
+    record_id       uuid          NOT NULL REFERENCES medical_record (id),
+    professional_id uuid          NOT NULL REFERENCES professionals (id),
+    content         varchar(1000) NOT NULL
+);
+
+-- ---------- Conta do cliente ----------
+
+CREATE TABLE client_account (
+    id                    uuid           NOT NULL PRIMARY KEY,
+    created_at            timestamp(6) with time zone NOT NULL,
+    updated_at            timestamp(6) with time zone,
+    updated_by            varchar(255),
+    is_active             boolean        NOT NULL,
+    is_deleted            boolean        NOT NULL,
+    version               bigint,
+    customer_id           uuid           NOT NULL UNIQUE REFERENCES customers (id),
+    free_balance          numeric(10, 2) NOT NULL,
+    held_balance          numeric(10, 2) NOT NULL,
+    total_balance         numeric(10, 2) NOT NULL,
+    last_transaction_date timestamp(6) with time zone
+);
+
+CREATE TABLE account_transactions (
+    id                    uuid           NOT NULL PRIMARY KEY,
+    created_at            timestamp(6) with time zone NOT NULL,
+    updated_at            timestamp(6) with time zone,
+    updated_by            varchar(255),
+    is_active             boolean        NOT NULL,
+    is_deleted            boolean        NOT NULL,
+    version               bigint,
+    client_account_id     uuid           NOT NULL REFERENCES client_account (id),
+    transaction_type      varchar(20)    NOT NULL,
+    amount                numeric(10, 2) NOT NULL,
+    description           varchar(500),
+    created_by_user_id    uuid           NOT NULL REFERENCES users (id),
+    ip_address            varchar(50),
+    appointment_id        uuid           REFERENCES appointments (id),
+    payment_id            uuid           REFERENCES payment (id),
+    previous_free_balance numeric(10, 2),
+    previous_held_balance numeric(10, 2),
+    new_free_balance      numeric(10, 2),
+    new_held_balance      numeric(10, 2)
+);
+
+CREATE TABLE account_holds (
+    id                  uuid           NOT NULL PRIMARY KEY,
+    created_at          timestamp(6) with time zone NOT NULL,
+    updated_at          timestamp(6) with time zone,
+    updated_by          varchar(255),
+    is_active           boolean        NOT NULL,
+    is_deleted          boolean        NOT NULL,
+    version             bigint,
+    client_account_id   uuid           NOT NULL REFERENCES client_account (id),
+    appointment_id      uuid           NOT NULL UNIQUE REFERENCES appointments (id),
+    amount              numeric(10, 2) NOT NULL,
+    description         varchar(500),
+    release_date        timestamp(6),
+    released_by_user_id uuid           REFERENCES users (id),
+    release_reason      varchar(500)
+);
+
+CREATE TABLE account_adjustments (
+    id                  uuid           NOT NULL PRIMARY KEY,
+    created_at          timestamp(6) with time zone NOT NULL,
+    updated_at          timestamp(6) with time zone,
+    updated_by          varchar(255),
+    is_active           boolean        NOT NULL,
+    is_deleted          boolean        NOT NULL,
+    version             bigint,
+    transaction_id      uuid           NOT NULL UNIQUE REFERENCES account_transactions (id),
+    amount              numeric(10, 2) NOT NULL,
+    reason              varchar(500)   NOT NULL,
+    approved_by_user_id uuid           NOT NULL REFERENCES users (id),
+    notes               varchar(1000),
+    receipt_number      varchar(100),
+    is_refund           boolean        NOT NULL
+);
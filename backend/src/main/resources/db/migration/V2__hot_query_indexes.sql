@@ -0,0 +1,83 @@
+-- =====================================================================
+-- V2: índices para os predicados quentes dos repositórios.
+-- Índices parciais em "status <> 'CANCELLED'" cobrem as checagens de
+-- conflito e a agenda, que nunca consideram agendamentos cancelados.
+-- =====================================================================
+
+-- ---------- appointments ----------
+
+-- Conflitos do profissional (existsOverlapInOtherSubsidiary e
+-- findByProfessionalIdAndStartTimeAfterAndEndTimeBefore não filtram status)
+CREATE INDEX idx_appointment_prof_start_end
+    ON appointments (professional_id, start_time, end_time);
+
+-- Conflitos de sala/cadeira (existsChairRoomOverlap)
+CREATE INDEX idx_appointment_chair_time_active
+    ON appointments (chair_room_id, start_time, end_time)
+    WHERE status <> 'CANCELLED' AND chair_room_id IS NOT NULL;
+
+-- Grade da agenda por subsidiária (findAgendaGridRows)
+CREATE INDEX idx_appointment_sub_start_active
+    ON appointments (subsidiary_id, start_time)
+    WHERE status <> 'CANCELLED';
+
+-- findByStatusAndSubsidiaryId, findAvailableRoomsForTimeSlot e exportação por subsidiária
+CREATE INDEX idx_appointment_sub_status_start
+    ON appointments (subsidiary_id, status, start_time);
+
+-- Exportação filtrada por empresa (streamForExport)
+CREATE INDEX idx_appointment_company_start_id
+    ON appointments (company_id, start_time, id);
+
+-- Histórico do cliente (findByCustomerIdAndStartTimeBetween)
+CREATE INDEX idx_appointment_customer_start
+    ON appointments (customer_id, start_time);
+
+-- Pendentes de pré-pagamento (findPendingAppointmentsWithin2days / Within2Days)
+CREATE INDEX idx_appointment_pending_start
+    ON appointments (start_time)
+    WHERE status = 'PENDING';
+
+-- ---------- horários ----------
+
+-- Atribuições recorrentes por dia da semana
+CREATE INDEX idx_assignment_prof_dow_recurring
+    ON professional_chair_room_assignments (professional_id, day_of_week)
+    WHERE is_recurring = true;
+
+CREATE INDEX idx_assignment_chair_dow_recurring
+    ON professional_chair_room_assignments (chair_room_id, day_of_week)
+    WHERE is_recurring = true;
+
+-- ---------- cadastros por empresa / subsidiária ----------
+
+CREATE INDEX idx_customer_company ON customers (company_id);
+CREATE INDEX idx_professional_subsidiary ON professionals (subsidiary_id);
+CREATE INDEX idx_chair_room_subsidiary ON chair_rooms (subsidiary_id);
+CREATE INDEX idx_service_subsidiary ON services (subsidiary_id);
+CREATE INDEX idx_service_company ON services (company_id);
+CREATE INDEX idx_subsidiary_company ON subsidiaries (company_id);
+CREATE INDEX idx_user_company ON users (company_id);
+
+-- Buscas case-insensitive do Spring Data (IgnoreCase gera upper(...) = upper(?))
+CREATE INDEX idx_professional_email_upper ON professionals (upper(email));
+CREATE INDEX idx_professional_document_upper ON professionals (upper(document_number));
+CREATE INDEX idx_service_company_name_upper ON services (company_id, upper(name));
+CREATE INDEX idx_subsidiary_company_name_upper ON subsidiaries (company_id, upper(name));
+
+-- ---------- conta do cliente ----------
+
+-- Extrato por conta e período (findTransactionsInPeriod, findByClientAccountId)
+CREATE INDEX idx_account_tx_account_created ON account_transactions (client_account_id, created_at);
+
+-- Exportação por período (streamForExport)
+CREATE INDEX idx_account_tx_created_id ON account_transactions (created_at, id);
+
+CREATE INDEX idx_account_tx_appointment ON account_transactions (appointment_id);
+
+-- ---------- prontuário ----------
+
+CREATE INDEX idx_medical_record_customer ON medical_record (customer_id);
+CREATE INDEX idx_medical_record_doctor_open
+    ON medical_record (main_doctor_id)
+    WHERE finalized = false;
@@ -0,0 +1,22 @@
+-- =====================================================================
+-- V3: UUID versão 7 (RFC 9562) gerado no banco, com o mesmo layout de
+-- com.agenda.app.util.UuidV7Generator (epoch em ms + bits aleatórios).
+-- Usado pelas cópias set-based de horários, para que as chaves geradas
+-- em SQL também sejam ordenadas no tempo.
+-- =====================================================================
+
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid
+    LANGUAGE plpgsql
+    VOLATILE
+AS
+$$
+DECLARE
+    ts_millis bigint := floor(extract(epoch FROM clock_timestamp()) * 1000);
+    bytes     bytea  := decode(lpad(to_hex(ts_millis), 12, '0'), 'hex')
+                        || substring(uuid_send(gen_random_uuid()) FROM 7);
+BEGIN
+    bytes := set_byte(bytes, 6, (get_byte(bytes, 6) & 15) | 112);
+    bytes := set_byte(bytes, 8, (get_byte(bytes, 8) & 63) | 128);
+    RETURN encode(bytes, 'hex')::uuid;
+END
+$$;
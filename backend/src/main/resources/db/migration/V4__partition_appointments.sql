@@ -0,0 +1,196 @@
+-- =====================================================================
+-- V4: particionamento mensal de appointments por start_time.
+-- A tabela é recriada como particionada (RANGE) e os dados existentes
+-- são copiados para as partições mensais correspondentes.
+--
+-- Restrições do PostgreSQL para tabelas particionadas:
+--  * a chave primária passa a ser (id, start_time); o id (UUIDv7) continua
+--    único na prática e é o que o Hibernate usa;
+--  * UNIQUE(service_order_id) não pode ser global e vira índice simples;
+--  * chaves estrangeiras que apontam para appointments(id) são removidas,
+--    pois exigiriam unicidade de id sozinho.
+-- =====================================================================
+
+-- ---------- FKs que referenciam appointments ----------
+-- Os nomes variam entre bancos criados pelo ddl-auto e pela V1, então são
+-- localizados pelo catálogo.
+DO
+$$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT conrelid::regclass AS table_name, conname
+          FROM pg_constraint
+         WHERE contype = 'f'
+           AND confrelid = 'appointments'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+END
+$$;
+
+ALTER TABLE appointments RENAME TO appointments_legacy;
+
+CREATE TABLE appointments (
+    id               uuid         NOT NULL,
+    created_at       timestamp(6) with time zone NOT NULL,
+    updated_at       timestamp(6) with time zone,
+    updated_by       varchar(255),
+    is_active        boolean      NOT NULL,
+    is_deleted       boolean      NOT NULL,
+    version          bigint,
+    subsidiary_id    uuid         REFERENCES subsidiaries (id),
+    professional_id  uuid         NOT NULL REFERENCES professionals (id),
+    chair_room_id    uuid         REFERENCES chair_rooms (id),
+    customer_id      uuid         NOT NULL REFERENCES customers (id),
+    service_id       uuid         NOT NULL REFERENCES services (id),
+    company_id       uuid         REFERENCES companies (id),
+    date             date         NOT NULL,
+    start_time       timestamp(6) NOT NULL,
+    end_time         timestamp(6) NOT NULL,
+    notes            varchar(500),
+    status           varchar(255) NOT NULL,
+    service_order_id uuid         REFERENCES service_order (id),
+    main_doctor_id   uuid         REFERENCES professionals (id)
+) PARTITION BY RANGE (start_time);
+
+-- Rede de segurança para linhas fora das partições mensais já criadas
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+-- ---------- Gestão de partições ----------
+
+-- Cria (se ainda não existir) a partição do mês de p_month, chamada
+-- appointments_pYYYYMM. Linhas do mês que tenham caído na partição default
+-- são movidas para a nova partição antes de anexá-la.
+CREATE OR REPLACE FUNCTION create_appointment_partition(p_month date) RETURNS boolean
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_from date := date_trunc('month', p_month)::date;
+    v_to   date := (date_trunc('month', p_month) + interval '1 month')::date;
+    v_name text := 'appointments_p' || to_char(v_from, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE appointments INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('WITH moved AS (DELETE FROM appointments_default'
+                   '                WHERE start_time >= %L AND start_time < %L RETURNING *)'
+                   ' INSERT INTO %I SELECT * FROM moved', v_from, v_to, v_name);
+    EXECUTE format('ALTER TABLE appointments ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_from, v_to);
+    RETURN true;
+END
+$$;
+
+-- Garante as partições do mês corrente até p_months_ahead meses à frente.
+-- Retorna quantas foram criadas.
+CREATE OR REPLACE FUNCTION ensure_appointment_partitions(p_months_ahead integer) RETURNS integer
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_month   date := date_trunc('month', current_date)::date;
+    v_created integer := 0;
+BEGIN
+    FOR i IN 0..p_months_ahead LOOP
+        IF create_appointment_partition((v_month + make_interval(months => i))::date) THEN
+            v_created := v_created + 1;
+        END IF;
+    END LOOP;
+    RETURN v_created;
+END
+$$;
+
+-- Desanexa as partições mensais que terminam antes de p_cutoff. As tabelas
+-- desanexadas continuam no banco (histórico consultável ou arquivável) mas
+-- deixam de ser vistas pelas consultas de appointments. Retorna a quantidade.
+CREATE OR REPLACE FUNCTION detach_appointment_partitions_before(p_cutoff date) RETURNS integer
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    part       record;
+    v_detached integer := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+          FROM pg_inherits i
+          JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = 'appointments'::regclass
+           AND c.relname ~ '^appointments_p[0-9]{6}$'
+           AND to_date(substr(c.relname, 15), 'YYYYMM') + interval '1 month' <= p_cutoff
+         ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE appointments DETACH PARTITION %I', part.relname);
+        v_detached := v_detached + 1;
+    END LOOP;
+    RETURN v_detached;
+END
+$$;
+
+-- ---------- Migração dos dados existentes ----------
+
+DO
+$$
+DECLARE
+    v_month date;
+BEGIN
+    SELECT date_trunc('month', min(start_time))::date INTO v_month FROM appointments_legacy;
+    WHILE v_month IS NOT NULL AND v_month < date_trunc('month', current_date)::date LOOP
+        PERFORM create_appointment_partition(v_month);
+        v_month := (v_month + interval '1 month')::date;
+    END LOOP;
+END
+$$;
+
+SELECT ensure_appointment_partitions(12);
+
+-- Lista explícita: a ordem das colunas de bancos criados pelo ddl-auto difere da V1
+INSERT INTO appointments
+       (id, created_at, updated_at, updated_by, is_active, is_deleted, version,
+        subsidiary_id, professional_id, chair_room_id, customer_id, service_id, company_id,
+        date, start_time, end_time, notes, status, service_order_id, main_doctor_id)
+SELECT id, created_at, updated_at, updated_by, is_active, is_deleted, version,
+       subsidiary_id, professional_id, chair_room_id, customer_id, service_id, company_id,
+       date, start_time, end_time, notes, status, service_order_id, main_doctor_id
+  FROM appointments_legacy;
+
+DROP TABLE appointments_legacy;
+
+-- ---------- Chaves e índices (criados em todas as partições) ----------
+
+ALTER TABLE appointments ADD PRIMARY KEY (id, start_time);
+
+CREATE INDEX idx_appointment_service_order ON appointments (service_order_id);
+CREATE INDEX idx_appointment_professional ON appointments (professional_id);
+CREATE INDEX idx_appointment_start ON appointments (start_time);
+CREATE INDEX idx_appointment_start_id ON appointments (start_time, id);
+CREATE INDEX idx_appointment_status_start_id ON appointments (status, start_time, id);
+
+CREATE INDEX idx_appointment_prof_start_end
+    ON appointments (professional_id, start_time, end_time);
+
+CREATE INDEX idx_appointment_chair_time_active
+    ON appointments (chair_room_id, start_time, end_time)
+    WHERE status <> 'CANCELLED' AND chair_room_id IS NOT NULL;
+
+CREATE INDEX idx_appointment_sub_start_active
+    ON appointments (subsidiary_id, start_time)
+    WHERE status <> 'CANCELLED';
+
+CREATE INDEX idx_appointment_sub_status_start
+    ON appointments (subsidiary_id, status, start_time);
+
+CREATE INDEX idx_appointment_company_start_id
+    ON appointments (company_id, start_time, id);
+
+CREATE INDEX idx_appointment_customer_start
+    ON appointments (customer_id, start_time);
+
+CREATE INDEX idx_appointment_pending_start
+    ON appointments (start_time)
+    WHERE status = 'PENDING';
@@ -0,0 +1,46 @@
+-- =====================================================================
+-- V5: arquivo frio de agendamentos COMPLETED/CANCELLED antigos.
+-- As linhas são movidas em lotes pelo AppointmentArchiveService; a tabela
+-- não é particionada nem tem FKs, pois só recebe inserções e consultas de
+-- histórico.
+-- =====================================================================
+
+CREATE TABLE appointments_archive (
+    id               uuid         NOT NULL PRIMARY KEY,
+    created_at       timestamp(6) with time zone NOT NULL,
+    updated_at       timestamp(6) with time zone,
+    updated_by       varchar(255),
+    is_active        boolean      NOT NULL,
+    is_deleted       boolean      NOT NULL,
+    version          bigint,
+    subsidiary_id    uuid,
+    professional_id  uuid         NOT NULL,
+    chair_room_id    uuid,
+    customer_id      uuid         NOT NULL,
+    service_id       uuid         NOT NULL,
+    company_id       uuid,
+    date             date,
+    start_time       timestamp(6) NOT NULL,
+    end_time         timestamp(6) NOT NULL,
+    notes            varchar(500),
+    status           varchar(255) NOT NULL,
+    service_order_id uuid,
+    main_doctor_id   uuid,
+    archived_at      timestamp(6) with time zone NOT NULL
+);
+
+CREATE INDEX idx_appointment_archive_customer_start ON appointments_archive (customer_id, start_time);
+CREATE INDEX idx_appointment_archive_professional_start ON appointments_archive (professional_id, start_time);
+CREATE INDEX idx_appointment_archive_subsidiary_start ON appointments_archive (subsidiary_id, start_time);
+
+CREATE TABLE appointment_assistants_archive (
+    appointment_id  uuid NOT NULL,
+    professional_id uuid NOT NULL
+);
+
+CREATE INDEX idx_appointment_assistants_archive_appt ON appointment_assistants_archive (appointment_id);
+
+-- Seleção dos candidatos: status finais ordenados por start_time
+CREATE INDEX idx_appointment_final_start
+    ON appointments (start_time)
+    WHERE status IN ('COMPLETED', 'CANCELLED');
@@ -0,0 +1,95 @@
+-- =====================================================================
+-- V6: exclusão lógica (is_deleted) dos cadastros: empresas, subsidiárias,
+-- clientes, serviços, profissionais e salas/cadeiras.
+-- As entidades filtram "is_deleted = false" (@SQLRestriction), então os
+-- índices dessas tabelas passam a ser parciais e só contêm linhas vivas.
+-- =====================================================================
+
+-- ---------- índices parciais (substituem os da V2) ----------
+
+DROP INDEX IF EXISTS idx_customer_company;
+DROP INDEX IF EXISTS idx_professional_subsidiary;
+DROP INDEX IF EXISTS idx_chair_room_subsidiary;
+DROP INDEX IF EXISTS idx_service_subsidiary;
+DROP INDEX IF EXISTS idx_service_company;
+DROP INDEX IF EXISTS idx_subsidiary_company;
+DROP INDEX IF EXISTS idx_professional_email_upper;
+DROP INDEX IF EXISTS idx_professional_document_upper;
+DROP INDEX IF EXISTS idx_service_company_name_upper;
+DROP INDEX IF EXISTS idx_subsidiary_company_name_upper;
+
+CREATE INDEX idx_customer_company_live ON customers (company_id) WHERE is_deleted = false;
+CREATE INDEX idx_professional_subsidiary_live ON professionals (subsidiary_id) WHERE is_deleted = false;
+CREATE INDEX idx_chair_room_subsidiary_live ON chair_rooms (subsidiary_id) WHERE is_deleted = false;
+CREATE INDEX idx_service_subsidiary_live ON services (subsidiary_id) WHERE is_deleted = false;
+CREATE INDEX idx_service_company_live ON services (company_id) WHERE is_deleted = false;
+CREATE INDEX idx_subsidiary_company_live ON subsidiaries (company_id) WHERE is_deleted = false;
+
+CREATE INDEX idx_professional_email_upper_live
+    ON professionals (upper(email)) WHERE is_deleted = false;
+CREATE INDEX idx_professional_document_upper_live
+    ON professionals (upper(document_number)) WHERE is_deleted = false;
+CREATE INDEX idx_service_company_name_upper_live
+    ON services (company_id, upper(name)) WHERE is_deleted = false;
+CREATE INDEX idx_subsidiary_company_name_upper_live
+    ON subsidiaries (company_id, upper(name)) WHERE is_deleted = false;
+
+-- Expurgo: excluídos mais antigos primeiro
+CREATE INDEX idx_customer_deleted ON customers (updated_at) WHERE is_deleted = true;
+CREATE INDEX idx_professional_deleted ON professionals (updated_at) WHERE is_deleted = true;
+CREATE INDEX idx_chair_room_deleted ON chair_rooms (updated_at) WHERE is_deleted = true;
+CREATE INDEX idx_service_deleted ON services (updated_at) WHERE is_deleted = true;
+CREATE INDEX idx_subsidiary_deleted ON subsidiaries (updated_at) WHERE is_deleted = true;
+CREATE INDEX idx_company_deleted ON companies (updated_at) WHERE is_deleted = true;
+
+-- ---------- nome único de sala/cadeira apenas entre as não excluídas ----------
+-- O nome da constraint difere entre bancos criados pelo ddl-auto e pela V1.
+DO
+$$
+DECLARE
+    uk record;
+BEGIN
+    FOR uk IN
+        SELECT conname FROM pg_constraint
+         WHERE contype = 'u' AND conrelid = 'chair_rooms'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE chair_rooms DROP CONSTRAINT %I', uk.conname);
+    END LOOP;
+END
+$$;
+
+CREATE UNIQUE INDEX uk_chair_rooms_name_subsidiary_live
+    ON chair_rooms (name, subsidiary_id) WHERE is_deleted = false;
+
+-- ---------- expurgo físico ----------
+
+-- Remove fisicamente até p_batch linhas excluídas logicamente antes de p_cutoff.
+-- Cada linha é removida em um subbloco: a que ainda for referenciada (FK de
+-- agendamentos, comandas, prontuários...) é mantida e só a próxima execução
+-- tenta de novo. SKIP LOCKED evita disputar linhas com outras transações.
+-- Retorna quantas linhas foram removidas.
+CREATE OR REPLACE FUNCTION purge_soft_deleted(p_table regclass, p_cutoff timestamptz, p_batch integer)
+    RETURNS integer
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    v_id     uuid;
+    v_purged integer := 0;
+BEGIN
+    FOR v_id IN EXECUTE format(
+            'SELECT id FROM %s WHERE is_deleted = true AND updated_at < $1'
+            ' ORDER BY updated_at LIMIT $2 FOR UPDATE SKIP LOCKED', p_table)
+        USING p_cutoff, p_batch
+    LOOP
+        BEGIN
+            EXECUTE format('DELETE FROM %s WHERE id = $1', p_table) USING v_id;
+            v_purged := v_purged + 1;
+        EXCEPTION
+            WHEN foreign_key_violation THEN
+                NULL;
+        END;
+    END LOOP;
+    RETURN v_purged;
+END
+$$;
@@ -0,0 +1,35 @@
+-- =====================================================================
+-- V7: razão (ledger) da conta do cliente.
+-- Cada lançamento incrementa client_account.ledger_sequence no mesmo UPDATE
+-- atômico que altera os saldos; o lançamento guarda essa sequência, que dá
+-- a ordem exata de aplicação por conta. Os snapshots de saldo permitem
+-- reconstruir o saldo em qualquer ponto sem reprocessar o histórico.
+-- =====================================================================
+
+ALTER TABLE client_account ADD COLUMN ledger_sequence bigint NOT NULL DEFAULT 0;
+
+ALTER TABLE account_transactions ADD COLUMN ledger_sequence bigint;
+
+CREATE UNIQUE INDEX uk_account_transactions_sequence
+    ON account_transactions (client_account_id, ledger_sequence);
+
+-- Valida só as linhas novas: contas antigas podem ter sido gravadas sem a regra
+ALTER TABLE client_account
+    ADD CONSTRAINT ck_client_account_balances
+        CHECK (held_balance >= 0 AND total_balance = free_balance + held_balance) NOT VALID;
+
+CREATE TABLE account_balance_snapshots (
+    id                uuid           NOT NULL PRIMARY KEY,
+    client_account_id uuid           NOT NULL REFERENCES client_account (id),
+    ledger_sequence   bigint         NOT NULL,
+    free_balance      numeric(10, 2) NOT NULL,
+    held_balance      numeric(10, 2) NOT NULL,
+    created_at        timestamp(6) with time zone NOT NULL DEFAULT now(),
+    CONSTRAINT uk_account_balance_snapshots_sequence UNIQUE (client_account_id, ledger_sequence)
+);
+
+-- Ponto de partida: lançamentos anteriores ao ledger não têm sequência, então o
+-- saldo atual de cada conta vira o snapshot da sequência 0
+INSERT INTO account_balance_snapshots (id, client_account_id, ledger_sequence, free_balance, held_balance)
+SELECT uuid_generate_v7(), id, 0, free_balance, held_balance
+  FROM client_account;
@@ -0,0 +1,16 @@
+-- =====================================================================
+-- V8: ciclo de vida das retenções (account_holds).
+-- Uma retenção nasce ACTIVE ao agendar serviço com pré-pagamento e termina
+-- CONSUMED (atendimento concluído), RELEASED (cancelado) ou EXPIRED (o job
+-- devolve o valor depois de expires_at). Lançamentos do sistema não têm usuário.
+-- =====================================================================
+
+ALTER TABLE account_holds ADD COLUMN status varchar(20) NOT NULL DEFAULT 'ACTIVE';
+ALTER TABLE account_holds ADD COLUMN expires_at timestamp(6);
+
+UPDATE account_holds SET status = 'RELEASED' WHERE release_date IS NOT NULL;
+
+-- Fila do job de expiração: só as retenções ativas
+CREATE INDEX idx_account_holds_active_expiry ON account_holds (expires_at) WHERE status = 'ACTIVE';
+
+ALTER TABLE account_transactions ALTER COLUMN created_by_user_id DROP NOT NULL;
@@ -0,0 +1,92 @@
+-- =====================================================================
+-- V9: fechamento de caixa.
+-- cash_register_rollups guarda os totais por subsidiária, dia e forma de
+-- pagamento (PAYMENT) ou tipo de lançamento da conta do cliente (ACCOUNT),
+-- atualizados na mesma transação de cada pagamento/lançamento. O dia fechado
+-- (cash_register_days.status = 'CLOSED') não aceita novos movimentos.
+-- =====================================================================
+
+-- Subsidiária do lançamento (a do agendamento, quando houver)
+ALTER TABLE account_transactions ADD COLUMN subsidiary_id uuid;
+
+UPDATE account_transactions t
+   SET subsidiary_id = a.subsidiary_id
+  FROM appointments a
+ WHERE a.id = t.appointment_id;
+
+CREATE INDEX idx_account_transactions_subsidiary_created
+    ON account_transactions (subsidiary_id, created_at) WHERE subsidiary_id IS NOT NULL;
+CREATE INDEX idx_payment_date ON payment (payment_date);
+
+CREATE TABLE cash_register_days (
+    id            uuid        NOT NULL PRIMARY KEY,
+    created_at    timestamp(6) with time zone NOT NULL,
+    updated_at    timestamp(6) with time zone,
+    updated_by    varchar(255),
+    is_active     boolean     NOT NULL,
+    is_deleted    boolean     NOT NULL,
+    version       bigint,
+    subsidiary_id uuid        NOT NULL REFERENCES subsidiaries (id),
+    business_date date        NOT NULL,
+    status        varchar(20) NOT NULL,
+    closed_at     timestamp(6) with time zone,
+    reopened_at   timestamp(6) with time zone,
+    CONSTRAINT uk_cash_register_days UNIQUE (subsidiary_id, business_date)
+);
+
+CREATE TABLE cash_register_rollups (
+    id            uuid           NOT NULL PRIMARY KEY,
+    subsidiary_id uuid           NOT NULL,
+    business_date date           NOT NULL,
+    source        varchar(20)    NOT NULL,
+    kind          varchar(20)    NOT NULL,
+    entry_count   bigint         NOT NULL,
+    amount        numeric(14, 2) NOT NULL,
+    order_total   numeric(14, 2) NOT NULL,
+    updated_at    timestamp(6) with time zone NOT NULL,
+    CONSTRAINT uk_cash_register_rollups UNIQUE (subsidiary_id, business_date, source, kind),
+    CONSTRAINT fk_cash_register_rollups_day
+        FOREIGN KEY (subsidiary_id, business_date) REFERENCES cash_register_days (subsidiary_id, business_date)
+);
+
+-- ---------- carga inicial a partir do histórico ----------
+
+CREATE TEMPORARY TABLE cash_register_source ON COMMIT DROP AS
+SELECT pr.subsidiary_id,
+       CAST(COALESCE(p.payment_date, p.created_at) AS date) AS business_date,
+       'PAYMENT'                                            AS source,
+       p.payment_method                                     AS kind,
+       count(*)                                             AS entry_count,
+       sum(p.amount)                                        AS amount,
+       sum(so.total_price)                                  AS order_total
+  FROM payment p
+  JOIN service_order so ON so.id = p.service_order_id
+  JOIN professionals pr ON pr.id = so.professional_id
+ WHERE p.status = 'COMPLETED'
+   AND pr.subsidiary_id IS NOT NULL
+ GROUP BY 1, 2, 4
+UNION ALL
+SELECT t.subsidiary_id,
+       CAST(t.created_at AS date),
+       'ACCOUNT',
+       t.transaction_type,
+       count(*),
+       sum(CASE WHEN t.transaction_type = 'ADJUSTMENT'
+                THEN t.new_free_balance - t.previous_free_balance
+                ELSE t.amount END),
+       0
+  FROM account_transactions t
+ WHERE t.subsidiary_id IS NOT NULL
+ GROUP BY 1, 2, 4;
+
+INSERT INTO cash_register_days (id, created_at, updated_at, is_active, is_deleted, version,
+                                subsidiary_id, business_date, status)
+SELECT DISTINCT ON (subsidiary_id, business_date)
+       uuid_generate_v7(), now(), now(), true, false, 0, subsidiary_id, business_date, 'OPEN'
+  FROM cash_register_source;
+
+INSERT INTO cash_register_rollups (id, subsidiary_id, business_date, source, kind,
+                                   entry_count, amount, order_total, updated_at)
+SELECT uuid_generate_v7(), subsidiary_id, business_date, source, kind,
+       entry_count, COALESCE(amount, 0), COALESCE(order_total, 0), now()
+  FROM cash_register_source;
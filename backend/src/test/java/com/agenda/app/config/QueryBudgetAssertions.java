@@ -0,0 +1,34 @@
+package com.agenda.app.config;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verificação MockMvc do orçamento de comandos SQL ({@link QueryBudget}): falha o teste, e o
+ * build, quando o endpoint executa mais comandos do que declara.
+ * <pre>
+ * mockMvc.perform(get("/appointments")).andExpect(status().isOk()).andExpect(withinQueryBudget());
+ * </pre>
+ */
+public final class QueryBudgetAssertions {
+
+    private QueryBudgetAssertions() {
+    }
+
+    public static ResultMatcher withinQueryBudget() {
+        return result -> {
+            assertThat(result.getHandler()).isInstanceOf(HandlerMethod.class);
+            HandlerMethod handler = (HandlerMethod) result.getHandler();
+            QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+            assertThat(budget).as("@QueryBudget on %s", handler.getShortLogMessage()).isNotNull();
+
+            Object count = result.getRequest().getAttribute(QueryBudgetInterceptor.STATEMENT_COUNT);
+            assertThat(count).as("SQL statement count of %s", handler.getShortLogMessage()).isInstanceOf(Integer.class);
+            assertThat((Integer) count)
+                    .as("SQL statements of %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                    .isLessThanOrEqualTo(budget.value());
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.agenda.app.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCounterTest {
+
+    private final QueryCounter counter = new QueryCounter();
+    private final QueryBudgetInterceptor interceptor = new QueryBudgetInterceptor();
+
+    @AfterEach
+    void tearDown() {
+        QueryCounter.stop();
+    }
+
+    @Test
+    void countsOnlyWhileStarted() {
+        counter.inspect("select 1");
+        assertThat(QueryCounter.stop()).isEqualTo(-1);
+
+        QueryCounter.start();
+        counter.inspect("select 1");
+        counter.inspect("select 2");
+        assertThat(QueryCounter.stop()).isEqualTo(2);
+    }
+
+    @Test
+    void overrunIsRecordedButNeverFailsTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/budgeted");
+        HandlerMethod handler = handler("budgeted");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        for (int i = 0; i < 5; i++) {
+            assertThat(counter.inspect("select " + i)).isEqualTo("select " + i);
+        }
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+
+        assertThat(request.getAttribute(QueryBudgetInterceptor.STATEMENT_COUNT)).isEqualTo(5);
+    }
+
+    @Test
+    void endpointsWithoutBudgetAreNotCounted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/unbudgeted");
+        HandlerMethod handler = handler("unbudgeted");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        counter.inspect("insert into t values (1)");
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+
+        assertThat(request.getAttribute(QueryBudgetInterceptor.STATEMENT_COUNT)).isNull();
+        assertThat(QueryCounter.stop()).isEqualTo(-1);
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getDeclaredMethod(name));
+    }
+
+    static class Endpoints {
+
+        @QueryBudget(2)
+        void budgeted() {
+        }
+
+        void unbudgeted() {
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.agenda.app.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.servlet.http.Cookie;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteamento entre primário e réplica sobre dois H2 em memória, cada um com uma linha que
+ * identifica o banco. A montagem é a do {@link ReadReplicaConfig}: roteador atrás de um
+ * {@link LazyConnectionDataSourceProxy}. Na réplica, as funções do PostgreSQL lidas pelo
+ * {@link ReplicaLagMonitor} são simuladas por aliases (ver {@link ReplicaStatus}).
+ */
+class ReplicaRoutingTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        for (String function : List.of("pg_is_in_recovery", "pg_last_wal_receive_lsn",
+                "pg_last_wal_replay_lsn", "pg_last_xact_replay_timestamp")) {
+            replicaJdbc.execute("CREATE ALIAS " + function + " FOR '" + ReplicaStatus.class.getName() + "."
+                    + function.replace("_", "") + "'");
+        }
+        ReplicaStatus.lagMs = 0;
+
+        routing = new ReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.Target.PRIMARY, primary,
+                ReplicaRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesContext.clear();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(read()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeTransactionsGoToThePrimary() {
+        String node = writeTx.execute(status -> {
+            jdbc.update("UPDATE node SET writes = writes + 1");
+            return currentNode();
+        });
+
+        assertThat(node).isEqualTo("primary");
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT writes FROM node", Integer.class)).isEqualTo(1);
+        assertThat(new JdbcTemplate(replica).queryForObject("SELECT writes FROM node", Integer.class)).isZero();
+    }
+
+    @Test
+    void recentWriteCookieKeepsReadsOnThePrimary() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesContext.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + WINDOW.toMillis())));
+
+        assertThat(readThroughFilter(request, new MockHttpServletResponse())).containsExactly("primary");
+    }
+
+    @Test
+    void expiredOrMalformedCookieReadsFromTheReplica() throws Exception {
+        MockHttpServletRequest expired = new MockHttpServletRequest();
+        expired.setCookies(new Cookie(ReadYourWritesContext.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() - 1)));
+        MockHttpServletRequest malformed = new MockHttpServletRequest();
+        malformed.setCookies(new Cookie(ReadYourWritesContext.COOKIE_NAME, "soon"));
+
+        assertThat(readThroughFilter(expired, new MockHttpServletResponse())).containsExactly("replica");
+        assertThat(readThroughFilter(malformed, new MockHttpServletResponse())).containsExactly("replica");
+    }
+
+    @Test
+    void commitInTheRequestMovesLaterReadsToThePrimaryAndSetsTheCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> nodes = new ArrayList<>();
+
+        new ReadYourWritesFilter(WINDOW).doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            nodes.add(read());
+            writeTx.executeWithoutResult(status -> jdbc.update("UPDATE node SET writes = writes + 1"));
+            nodes.add(read());
+        });
+
+        assertThat(nodes).containsExactly("replica", "primary");
+        Cookie cookie = response.getCookie(ReadYourWritesContext.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinTheRequest() throws Exception {
+        List<String> nodes = new ArrayList<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ReadYourWritesFilter(WINDOW).doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            writeTx.executeWithoutResult(status -> {
+                jdbc.update("UPDATE node SET writes = writes + 1");
+                status.setRollbackOnly();
+            });
+            nodes.add(read());
+        });
+
+        assertThat(nodes).containsExactly("replica");
+        assertThat(response.getCookie(ReadYourWritesContext.COOKIE_NAME)).isNull();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimaryUntilItCatchesUp() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, routing, 2_000);
+
+        ReplicaStatus.lagMs = 10_000;
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        assertThat(read()).isEqualTo("primary");
+
+        ReplicaStatus.lagMs = 0;
+        monitor.check();
+        assertThat(routing.isReplicaAvailable()).isTrue();
+        assertThat(read()).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, routing, 2_000);
+        replica.shutdown();
+
+        monitor.check();
+
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        assertThat(read()).isEqualTo("primary");
+    }
+
+    private String read() {
+        return readOnlyTx.execute(status -> currentNode());
+    }
+
+    private String currentNode() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private List<String> readThroughFilter(MockHttpServletRequest request, MockHttpServletResponse response)
+            throws Exception {
+        List<String> nodes = new ArrayList<>();
+        new ReadYourWritesFilter(WINDOW).doFilter(request, response, (req, res) -> nodes.add(read()));
+        return nodes;
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE node (name varchar(20) NOT NULL, writes int NOT NULL)");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return database;
+    }
+
+    /** Estado de replicação simulado, lido pelos aliases H2 das funções do PostgreSQL */
+    public static class ReplicaStatus {
+
+        static volatile long lagMs;
+
+        public static boolean pgisinrecovery() {
+            return true;
+        }
+
+        public static String pglastwalreceivelsn() {
+            return "0/2";
+        }
+
+        public static String pglastwalreplaylsn() {
+            return lagMs > 0 ? "0/1" : "0/2";
+        }
+
+        public static Timestamp pglastxactreplaytimestamp() {
+            return new Timestamp(System.currentTimeMillis() - lagMs);
+        }
+    }
+}
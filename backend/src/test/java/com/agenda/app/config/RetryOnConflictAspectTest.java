@@ -0,0 +1,99 @@
+package com.agenda.app.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryOnConflictAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConflictingWriter target;
+    private ConflictingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = new ConflictingWriter();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new RetryOnConflictAspect(meterRegistry));
+        writer = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void retriesUntilTheWriteSucceeds() {
+        target.conflicts.set(2);
+
+        assertThat(writer.write()).isEqualTo("written");
+        assertThat(target.calls.get()).isEqualTo(3);
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(count("recovered")).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        target.conflicts.set(10);
+
+        assertThatThrownBy(writer::write).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(target.calls.get()).isEqualTo(3);
+        assertThat(count("exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void runsOnceInsideAnActiveTransaction() {
+        target.conflicts.set(1);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThatThrownBy(writer::write).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(target.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        assertThatThrownBy(writer::fail).isInstanceOf(IllegalStateException.class);
+        assertThat(target.calls.get()).isEqualTo(1);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("agenda.retry.conflicts")
+                .tag("method", "ConflictingWriter.write")
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+
+    /** Falha com conflito de versão nas primeiras {@code conflicts} chamadas */
+    static class ConflictingWriter {
+
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @RetryOnConflict(maxAttempts = 3, backoffMs = 1, maxBackoffMs = 2)
+        public String write() {
+            calls.incrementAndGet();
+            if (conflicts.getAndDecrement() > 0) {
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            return "written";
+        }
+
+        @RetryOnConflict(maxAttempts = 3, backoffMs = 1, maxBackoffMs = 2)
+        public String fail() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Not a conflict");
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.model.AccountTransaction;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.model.Address;
+import com.agenda.app.model.Appointment;
+import com.agenda.app.model.AppointmentStatus;
+import com.agenda.app.model.ChairRoom;
+import com.agenda.app.model.ClientAccount;
+import com.agenda.app.model.Company;
+import com.agenda.app.model.Customer;
+import com.agenda.app.model.Item;
+import com.agenda.app.model.Professional;
+import com.agenda.app.model.ProfessionalChairRoomAssignment;
+import com.agenda.app.model.Subsidiary;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.agenda.app.config.QueryBudgetAssertions.withinQueryBudget;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de comandos SQL ({@code @QueryBudget}) de cada endpoint de listagem, sobre uma base
+ * H2 com vários registros por relação: um N+1 novo aparece como estouro e quebra o build.
+ */
+@SpringBootTest(properties = "api.version=/v1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetEndpointsTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Company company;
+    private Subsidiary subsidiary;
+    private final List<Professional> professionals = new ArrayList<>();
+    private final List<ChairRoom> chairRooms = new ArrayList<>();
+    private final List<Customer> customers = new ArrayList<>();
+    private ClientAccount account;
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            company = persist(company());
+            subsidiary = persist(subsidiary("Centro"));
+            persist(subsidiary("Norte"));
+
+            List<Item> items = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                items.add(persist(item("Serviço " + i, 30 + i * 15)));
+            }
+            for (int i = 0; i < 4; i++) {
+                ChairRoom room = new ChairRoom();
+                room.setName("Sala " + i);
+                room.setSubsidiary(subsidiary);
+                chairRooms.add(persist(room));
+            }
+            for (int i = 0; i < 5; i++) {
+                Professional professional = new Professional();
+                professional.setFirstName("Profissional");
+                professional.setLastName(String.valueOf(i));
+                professional.setEmail("pro" + i + "@agenda.test");
+                professional.setAddress(address());
+                professional.setSubsidiary(subsidiary);
+                professional.getServices().addAll(items);
+                professionals.add(persist(professional));
+
+                Customer customer = new Customer();
+                customer.setFirstName("Cliente");
+                customer.setLastName(String.valueOf(i));
+                customer.setEmail("cliente" + i + "@agenda.test");
+                customer.setDocumentNumber("0000000000" + i);
+                customer.setAddress(address());
+                customer.setCompany(company);
+                customers.add(persist(customer));
+            }
+
+            for (int i = 0; i < 30; i++) {
+                Appointment appointment = new Appointment();
+                appointment.setCompany(company);
+                appointment.setSubsidiary(subsidiary);
+                appointment.setProfessional(professionals.get(i % professionals.size()));
+                appointment.setCustomer(customers.get(i % customers.size()));
+                appointment.setChairRoom(chairRooms.get(i % chairRooms.size()));
+                appointment.setItem(items.get(i % items.size()));
+                appointment.setDate(DAY);
+                appointment.setStartTime(DAY.atTime(8, 0).plusMinutes(20L * i));
+                appointment.setEndTime(DAY.atTime(8, 15).plusMinutes(20L * i));
+                appointment.setStatus(i % 3 == 0 ? AppointmentStatus.CONFIRMED : AppointmentStatus.PENDING);
+                persist(appointment);
+            }
+
+            for (int i = 0; i < professionals.size(); i++) {
+                persist(ProfessionalChairRoomAssignment.createSingleDay(professionals.get(i),
+                        chairRooms.get(i % chairRooms.size()), DAY, LocalTime.of(8, 0), LocalTime.of(18, 0)));
+            }
+
+            account = new ClientAccount();
+            account.setCustomer(customers.get(0));
+            account.setLedgerSequence(10);
+            persist(account);
+            for (int i = 1; i <= 10; i++) {
+                AccountTransaction transaction = new AccountTransaction();
+                transaction.setClientAccount(account);
+                transaction.setTransactionType(AccountTransactionType.CREDIT);
+                transaction.setAmount(BigDecimal.TEN);
+                transaction.setSubsidiaryId(subsidiary.getId());
+                transaction.setLedgerSequence((long) i);
+                persist(transaction);
+            }
+        });
+
+        for (int i = 0; i < professionals.size(); i++) {
+            jdbcTemplate.update("INSERT INTO analytics_service_daily (id, subsidiary_id, business_date, professional_id,"
+                            + " service_id, booked_count, completed_count, cancelled_count, revenue, booked_minutes,"
+                            + " refreshed_at) SELECT ?, ?, ?, ?, id, 3, 2, 1, 150.00, 90, CURRENT_TIMESTAMP"
+                            + " FROM services WHERE name = 'Serviço 0'",
+                    UUID.randomUUID(), subsidiary.getId(), DAY, professionals.get(i).getId());
+        }
+        for (ChairRoom room : chairRooms) {
+            jdbcTemplate.update("INSERT INTO analytics_chair_daily (id, subsidiary_id, business_date, chair_room_id,"
+                            + " booked_count, booked_minutes, open_minutes, refreshed_at)"
+                            + " VALUES (?, ?, ?, ?, 6, 120, 600, CURRENT_TIMESTAMP)",
+                    UUID.randomUUID(), subsidiary.getId(), DAY, room.getId());
+        }
+    }
+
+    @Test
+    void appointmentListsStayWithinBudget() throws Exception {
+        expectWithinBudget("/appointments?size=20");
+        expectWithinBudget("/appointments/agenda?size=20");
+        expectWithinBudget("/appointments/scroll?size=20");
+        expectWithinBudget("/appointments/agenda/scroll?size=20");
+        expectWithinBudget("/appointments/grid?subsidiaryId={s}&startDate={d}", subsidiary.getId(), DAY);
+        expectWithinBudget("/appointments/history?customerId={c}&startDate={d}&endDate={d}",
+                customers.get(0).getId(), DAY, DAY);
+    }
+
+    @Test
+    void catalogListsStayWithinBudget() throws Exception {
+        expectWithinBudget("/v1/services");
+        expectWithinBudget("/v1/services/by-subsidiary/{s}", subsidiary.getId());
+        expectWithinBudget("/v1/services/by-company/{c}", company.getId());
+        expectWithinBudget("/v1/professionals");
+        expectWithinBudget("/v1/professionals/by-subsidiary/{s}", subsidiary.getId());
+        expectWithinBudget("/v1/professionals/{p}/services", professionals.get(0).getId());
+        expectWithinBudget("/v1/subsidiaries");
+        expectWithinBudget("/v1/subsidiaries/by-company/{c}", company.getId());
+        expectWithinBudget("/v1/subsidiaries/services/by-subsidiary/{s}", subsidiary.getId());
+    }
+
+    @Test
+    void chairRoomListsStayWithinBudget() throws Exception {
+        expectWithinBudget("/api/chair-rooms?size=20");
+        expectWithinBudget("/api/chair-rooms/subsidiary/{s}", subsidiary.getId());
+        expectWithinBudget("/api/chair-rooms/available?subsidiaryId={s}&startTime={from}&endTime={to}",
+                subsidiary.getId(), DAY.atTime(7, 0), DAY.atTime(7, 30));
+        expectWithinBudget("/api/professional-chair-assignments/professional/{p}/date/{d}",
+                professionals.get(0).getId(), DAY);
+        expectWithinBudget("/api/professional-chair-assignments/chair-room/{r}/date/{d}",
+                chairRooms.get(0).getId(), DAY);
+    }
+
+    @Test
+    void accountAndAnalyticsListsStayWithinBudget() throws Exception {
+        expectWithinBudget("/accounts/{a}/statement", account.getId());
+        expectWithinBudget("/analytics/revenue?companyId={c}&startDate={d}&endDate={d}", company.getId(), DAY, DAY);
+        expectWithinBudget("/analytics/chair-utilization?subsidiaryId={s}&startDate={d}&endDate={d}",
+                subsidiary.getId(), DAY, DAY);
+    }
+
+    private void expectWithinBudget(String uri, Object... variables) throws Exception {
+        mockMvc.perform(get(uri, variables))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private Company company() {
+        Company company = new Company();
+        company.setName("Clínica Budget");
+        company.setTradingName("Budget");
+        company.setAddress(address());
+        return company;
+    }
+
+    private Subsidiary subsidiary(String name) {
+        Subsidiary subsidiary = new Subsidiary();
+        subsidiary.setName(name);
+        subsidiary.setAddress(address());
+        subsidiary.setCompany(company);
+        return subsidiary;
+    }
+
+    private Item item(String name, int minutes) {
+        Item item = new Item();
+        item.setName(name);
+        item.setPrice(new BigDecimal("50.00"));
+        item.setDurationMinutes(minutes);
+        item.setCompany(company);
+        item.setSubsidiary(subsidiary);
+        return item;
+    }
+
+    private static Address address() {
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setZipCode("01000-000");
+        return address;
+    }
+}
@@ -0,0 +1,258 @@
+package com.agenda.app.controller;
+
+import com.agenda.app.model.Address;
+import com.agenda.app.model.Appointment;
+import com.agenda.app.model.AppointmentStatus;
+import com.agenda.app.model.Availability;
+import com.agenda.app.model.ChairRoom;
+import com.agenda.app.model.Company;
+import com.agenda.app.model.Customer;
+import com.agenda.app.model.Item;
+import com.agenda.app.model.Professional;
+import com.agenda.app.model.Subsidiary;
+import com.agenda.app.service.ScopeVersionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exclusão lógica de cadastros: com registros vivos apontando para o cadastro a exclusão é
+ * recusada com 409 (a linha escondida quebraria as associações EAGER e os proxies de quem a
+ * referencia); sem referências o cadastro é marcado como excluído.
+ */
+@SpringBootTest(properties = "api.version=/v1")
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class SoftDeleteReferencesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** O incremento de versão usa INSERT ... ON CONFLICT, que o H2 não aceita */
+    @MockitoBean
+    private ScopeVersionService scopeVersionService;
+
+    @Test
+    void companyWithCustomersIsNotDeleted() throws Exception {
+        Company company = inTransaction(() -> {
+            Company c = persist(company());
+            persist(customer(c));
+            return c;
+        });
+        Company unused = inTransaction(() -> persist(company()));
+
+        mockMvc.perform(delete("/v1/companies/{id}", company.getId())).andExpect(status().isConflict());
+        mockMvc.perform(delete("/v1/companies/{id}", unused.getId())).andExpect(status().isNoContent());
+
+        assertThat(isDeleted("companies", company.getId())).isFalse();
+        assertThat(isDeleted("companies", unused.getId())).isTrue();
+    }
+
+    @Test
+    void subsidiaryWithChairRoomsIsNotDeleted() throws Exception {
+        Subsidiary[] subsidiaries = inTransaction(() -> {
+            Company company = persist(company());
+            Subsidiary used = persist(subsidiary(company));
+            persist(chairRoom(used));
+            return new Subsidiary[]{used, persist(subsidiary(company))};
+        });
+
+        mockMvc.perform(delete("/v1/subsidiaries/{id}", subsidiaries[0].getId())).andExpect(status().isConflict());
+        mockMvc.perform(delete("/v1/subsidiaries/{id}", subsidiaries[1].getId())).andExpect(status().isNoContent());
+
+        assertThat(isDeleted("subsidiaries", subsidiaries[0].getId())).isFalse();
+        assertThat(isDeleted("subsidiaries", subsidiaries[1].getId())).isTrue();
+    }
+
+    @Test
+    void customerWithAppointmentsIsNotDeleted() throws Exception {
+        Appointment appointment = inTransaction(this::appointment);
+        Customer unused = inTransaction(() -> persist(customer(appointment.getCompany())));
+        UUID companyId = appointment.getCompany().getId();
+
+        mockMvc.perform(delete("/api/companies/{companyId}/customers/{id}", companyId, appointment.getCustomer().getId()))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/companies/{companyId}/customers/{id}", companyId, unused.getId()))
+                .andExpect(status().isNoContent());
+
+        assertThat(isDeleted("customers", appointment.getCustomer().getId())).isFalse();
+        assertThat(isDeleted("customers", unused.getId())).isTrue();
+    }
+
+    @Test
+    void serviceWithAppointmentsIsNotDeleted() throws Exception {
+        Appointment appointment = inTransaction(this::appointment);
+        Item unused = inTransaction(() -> persist(item(appointment.getSubsidiary())));
+
+        mockMvc.perform(delete("/v1/services/{id}", appointment.getItem().getId())).andExpect(status().isConflict());
+        mockMvc.perform(delete("/v1/services/{id}", unused.getId())).andExpect(status().isNoContent());
+
+        assertThat(isDeleted("services", appointment.getItem().getId())).isFalse();
+        assertThat(isDeleted("services", unused.getId())).isTrue();
+    }
+
+    @Test
+    void professionalWithAvailabilityIsNotDeleted() throws Exception {
+        Professional[] professionals = inTransaction(() -> {
+            Subsidiary subsidiary = persist(subsidiary(persist(company())));
+            Professional used = persist(professional(subsidiary));
+            persist(availability(subsidiary, a -> a.setProfessional(used)));
+            return new Professional[]{used, persist(professional(subsidiary))};
+        });
+
+        mockMvc.perform(delete("/v1/professionals/{id}", professionals[0].getId())).andExpect(status().isConflict());
+        mockMvc.perform(delete("/v1/professionals/{id}", professionals[1].getId())).andExpect(status().isNoContent());
+
+        assertThat(isDeleted("professionals", professionals[0].getId())).isFalse();
+        assertThat(isDeleted("professionals", professionals[1].getId())).isTrue();
+    }
+
+    @Test
+    void chairRoomWithAvailabilityIsNotDeleted() throws Exception {
+        ChairRoom[] rooms = inTransaction(() -> {
+            Subsidiary subsidiary = persist(subsidiary(persist(company())));
+            ChairRoom used = persist(chairRoom(subsidiary));
+            persist(availability(subsidiary, a -> a.setChairRoom(used)));
+            return new ChairRoom[]{used, persist(chairRoom(subsidiary))};
+        });
+
+        mockMvc.perform(delete("/api/chair-rooms/{id}", rooms[0].getId())).andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/chair-rooms/{id}", rooms[1].getId())).andExpect(status().isNoContent());
+
+        assertThat(isDeleted("chair_rooms", rooms[0].getId())).isFalse();
+        assertThat(isDeleted("chair_rooms", rooms[1].getId())).isTrue();
+    }
+
+    private boolean isDeleted(String table, UUID id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT is_deleted FROM " + table + " WHERE id = ?", Boolean.class, id));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private Appointment appointment() {
+        Company company = persist(company());
+        Subsidiary subsidiary = persist(subsidiary(company));
+        LocalDate day = LocalDate.now().plusDays(1);
+        Appointment appointment = new Appointment();
+        appointment.setCompany(company);
+        appointment.setSubsidiary(subsidiary);
+        appointment.setProfessional(persist(professional(subsidiary)));
+        appointment.setCustomer(persist(customer(company)));
+        appointment.setItem(persist(item(subsidiary)));
+        appointment.setDate(day);
+        appointment.setStartTime(day.atTime(9, 0));
+        appointment.setEndTime(day.atTime(9, 30));
+        appointment.setStatus(AppointmentStatus.CONFIRMED);
+        return persist(appointment);
+    }
+
+    private static Company company() {
+        Company company = new Company();
+        company.setName("Clínica " + UUID.randomUUID());
+        company.setTradingName("Clínica");
+        company.setAddress(address());
+        return company;
+    }
+
+    private static Subsidiary subsidiary(Company company) {
+        Subsidiary subsidiary = new Subsidiary();
+        subsidiary.setName("Unidade " + UUID.randomUUID());
+        subsidiary.setAddress(address());
+        subsidiary.setCompany(company);
+        return subsidiary;
+    }
+
+    private static ChairRoom chairRoom(Subsidiary subsidiary) {
+        ChairRoom room = new ChairRoom();
+        room.setName("Sala " + UUID.randomUUID());
+        room.setSubsidiary(subsidiary);
+        return room;
+    }
+
+    private static Customer customer(Company company) {
+        Customer customer = new Customer();
+        customer.setFirstName("Cliente");
+        customer.setLastName("Teste");
+        customer.setEmail("cliente@agenda.test");
+        customer.setDocumentNumber("00000000000");
+        customer.setAddress(address());
+        customer.setCompany(company);
+        return customer;
+    }
+
+    private static Professional professional(Subsidiary subsidiary) {
+        Professional professional = new Professional();
+        professional.setFirstName("Profissional");
+        professional.setLastName("Teste");
+        professional.setEmail(UUID.randomUUID() + "@agenda.test");
+        professional.setAddress(address());
+        professional.setSubsidiary(subsidiary);
+        return professional;
+    }
+
+    private static Item item(Subsidiary subsidiary) {
+        Item item = new Item();
+        item.setName("Serviço " + UUID.randomUUID());
+        item.setPrice(new BigDecimal("80.00"));
+        item.setDurationMinutes(30);
+        item.setCompany(subsidiary.getCompany());
+        item.setSubsidiary(subsidiary);
+        return item;
+    }
+
+    private static Availability availability(Subsidiary subsidiary, Consumer<Availability> target) {
+        Availability availability = new Availability();
+        availability.setSubsidiary(subsidiary);
+        availability.setDayOfWeek(DayOfWeek.MONDAY);
+        availability.setStartTime(LocalTime.of(8, 0));
+        availability.setEndTime(LocalTime.of(12, 0));
+        target.accept(availability);
+        return availability;
+    }
+
+    private static Address address() {
+        Address address = new Address();
+        address.setStreet("Rua das Flores");
+        address.setNumber("100");
+        address.setCity("São Paulo");
+        address.setState("SP");
+        address.setZipCode("01000-000");
+        return address;
+    }
+}
@@ -0,0 +1,278 @@
+package com.agenda.app.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Planos das consultas quentes sobre o esquema das migrações (Flyway) num PostgreSQL real,
+ * com volume suficiente para o planejador preferir índice. Falha se alguma das tabelas
+ * grandes (partições de appointments, account_transactions) for lida por Seq Scan.
+ * <p>
+ * Precisa de Docker; sem ele a classe é pulada.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class HotQueryPlanTest {
+
+    private static final int APPOINTMENTS = 200_000;
+    private static final int TRANSACTIONS = 200_000;
+    private static final int CUSTOMERS = 2_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static JdbcTemplate jdbc;
+    private static UUID subsidiaryId;
+    private static UUID professionalId;
+    private static UUID chairRoomId;
+    private static UUID customerId;
+    private static UUID accountId;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .load()
+                .migrate();
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+
+        UUID companyId = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO companies (id, created_at, is_active, is_deleted, version, name, trading_name,
+                                       street, number, city, state, zip_code)
+                VALUES (?, now(), true, false, 0, 'Clinic', 'Clinic', 'Street', '1', 'City', 'SP', '00000-000')
+                """, companyId);
+        jdbc.update("""
+                INSERT INTO users (id, created_at, is_active, is_deleted, version, username, password_hash, email,
+                                   role, first_name, last_name, company_id)
+                VALUES (gen_random_uuid(), now(), true, false, 0, 'admin', 'x', 'admin@clinic', 'ADMIN',
+                        'Admin', 'Clinic', ?)
+                """, companyId);
+        jdbc.update("""
+                INSERT INTO subsidiaries (id, created_at, is_active, is_deleted, version, name, street, number,
+                                          city, state, zip_code, company_id)
+                SELECT gen_random_uuid(), now(), true, false, 0, 'Unit ' || g, 'Street', '1', 'City', 'SP',
+                       '00000-000', ?
+                  FROM generate_series(1, 4) g
+                """, companyId);
+        jdbc.update("""
+                INSERT INTO professionals (id, created_at, is_active, is_deleted, version, first_name, last_name,
+                                           full_name, street, number, city, state, zip_code, email, subsidiary_id)
+                SELECT gen_random_uuid(), now(), true, false, 0, 'Pro', g::text, 'Pro ' || g, 'Street', '1',
+                       'City', 'SP', '00000-000', 'pro' || g || '@clinic',
+                       (SELECT id FROM subsidiaries ORDER BY id LIMIT 1)
+                  FROM generate_series(1, 40) g
+                """);
+        jdbc.update("""
+                INSERT INTO chair_rooms (id, created_at, is_active, is_deleted, version, name, subsidiary_id,
+                                         is_available)
+                SELECT gen_random_uuid(), now(), true, false, 0, 'Room ' || g,
+                       (SELECT id FROM subsidiaries ORDER BY id LIMIT 1), true
+                  FROM generate_series(1, 20) g
+                """);
+        jdbc.update("""
+                INSERT INTO customers (id, created_at, is_active, is_deleted, version, first_name, last_name,
+                                       full_name, email, street, number, city, state, zip_code, company_id)
+                SELECT gen_random_uuid(), now(), true, false, 0, 'Customer', g::text, 'Customer ' || g,
+                       'c' || g || '@mail', 'Street', '1', 'City', 'SP', '00000-000', ?
+                  FROM generate_series(1, ?) g
+                """, companyId, CUSTOMERS);
+        jdbc.update("""
+                INSERT INTO services (id, created_at, is_active, is_deleted, version, name, price,
+                                      requires_pre_payment, duration_minutes, company_id, subsidiary_id)
+                SELECT gen_random_uuid(), now(), true, false, 0, 'Service ' || g, 100, g % 2 = 0, 45, ?,
+                       (SELECT id FROM subsidiaries ORDER BY id LIMIT 1)
+                  FROM generate_series(1, 6) g
+                """, companyId);
+
+        // 60 dias a partir do início do mês corrente: caem nas partições mensais criadas pela V4
+        jdbc.update("""
+                WITH s AS (SELECT array_agg(id ORDER BY id) AS ids FROM subsidiaries),
+                     p AS (SELECT array_agg(id ORDER BY id) AS ids FROM professionals),
+                     r AS (SELECT array_agg(id ORDER BY id) AS ids FROM chair_rooms),
+                     c AS (SELECT array_agg(id ORDER BY id) AS ids FROM customers),
+                     v AS (SELECT array_agg(id ORDER BY id) AS ids FROM services)
+                INSERT INTO appointments (id, created_at, is_active, is_deleted, version, subsidiary_id,
+                                          professional_id, chair_room_id, customer_id, service_id, company_id,
+                                          date, start_time, end_time, status)
+                SELECT gen_random_uuid(), now() - interval '7 days', true, false, 0,
+                       s.ids[1 + g % 4], p.ids[1 + g % 40], r.ids[1 + g % 20], c.ids[1 + g % ?],
+                       v.ids[1 + g % 6], ?, t.start_time::date, t.start_time,
+                       t.start_time + interval '45 minutes',
+                       (ARRAY['CONFIRMED', 'PENDING', 'COMPLETED', 'CANCELLED', 'NOT_CONFIRMED'])[1 + g % 5]
+                  FROM generate_series(0, ? - 1) g
+                 CROSS JOIN s CROSS JOIN p CROSS JOIN r CROSS JOIN c CROSS JOIN v
+                 CROSS JOIN LATERAL (SELECT date_trunc('month', localtimestamp)
+                                            + (g % 60) * interval '1 day'
+                                            + ((g / 60) % 720) * interval '1 minute' AS start_time) t
+                """, CUSTOMERS, companyId, APPOINTMENTS);
+
+        jdbc.update("""
+                INSERT INTO client_account (id, created_at, is_active, is_deleted, version, customer_id,
+                                            free_balance, held_balance, total_balance, ledger_sequence)
+                SELECT gen_random_uuid(), now(), true, false, 0, id, 0, 0, 0, ?
+                  FROM customers
+                """, TRANSACTIONS / CUSTOMERS);
+        jdbc.update("""
+                WITH a AS (SELECT array_agg(id ORDER BY id) AS ids FROM client_account)
+                INSERT INTO account_transactions (id, created_at, is_active, is_deleted, version,
+                                                  client_account_id, transaction_type, amount, ledger_sequence)
+                SELECT gen_random_uuid(), now() - (g % 1000) * interval '1 hour', true, false, 0,
+                       a.ids[1 + g % ?], 'CREDIT', 10, 1 + g / ?
+                  FROM generate_series(0, ? - 1) g
+                 CROSS JOIN a
+                """, CUSTOMERS, CUSTOMERS, TRANSACTIONS);
+        jdbc.execute("ANALYZE");
+
+        subsidiaryId = jdbc.queryForObject("SELECT id FROM subsidiaries ORDER BY id LIMIT 1", UUID.class);
+        professionalId = jdbc.queryForObject("SELECT id FROM professionals ORDER BY id LIMIT 1", UUID.class);
+        chairRoomId = jdbc.queryForObject("SELECT id FROM chair_rooms ORDER BY id LIMIT 1", UUID.class);
+        customerId = jdbc.queryForObject("SELECT id FROM customers ORDER BY id LIMIT 1", UUID.class);
+        accountId = jdbc.queryForObject("SELECT id FROM client_account ORDER BY id LIMIT 1", UUID.class);
+    }
+
+    @Test
+    void agendaGridUsesTheActiveSubsidiaryIndex() {
+        LocalDateTime day = firstOfMonth().plusDays(10);
+        assertNoSeqScan("""
+                SELECT a.id, p.id, p.full_name, c.id, c.name, cu.full_name, s.name, a.start_time, a.end_time, a.status
+                  FROM appointments a
+                  JOIN professionals p ON p.id = a.professional_id
+                  LEFT JOIN chair_rooms c ON c.id = a.chair_room_id
+                  JOIN customers cu ON cu.id = a.customer_id
+                  JOIN services s ON s.id = a.service_id
+                 WHERE a.subsidiary_id = %s
+                   AND a.start_time >= %s
+                   AND a.start_time < %s
+                   AND a.status <> 'CANCELLED'
+                 ORDER BY a.start_time
+                """.formatted(uuid(subsidiaryId), timestamp(day), timestamp(day.plusDays(1))));
+    }
+
+    @Test
+    void professionalOverlapCheckUsesTheProfessionalIndex() {
+        LocalDateTime start = firstOfMonth().plusDays(12).plusHours(9);
+        assertNoSeqScan("""
+                SELECT count(*) > 0
+                  FROM appointments a
+                 WHERE a.professional_id = %s
+                   AND a.subsidiary_id <> %s
+                   AND a.start_time >= %s
+                   AND a.start_time < %s
+                   AND a.end_time > %s
+                """.formatted(uuid(professionalId), uuid(subsidiaryId), timestamp(start.minusHours(24)),
+                timestamp(start.plusHours(1)), timestamp(start)));
+    }
+
+    @Test
+    void chairRoomOverlapCheckUsesThePartialIndex() {
+        LocalDateTime start = firstOfMonth().plusDays(12).plusHours(9);
+        assertNoSeqScan("""
+                SELECT count(*) > 0
+                  FROM appointments a
+                 WHERE a.chair_room_id = %s
+                   AND a.status <> 'CANCELLED'
+                   AND a.start_time >= %s
+                   AND a.start_time < %s
+                   AND a.end_time > %s
+                """.formatted(uuid(chairRoomId), timestamp(start.minusHours(24)),
+                timestamp(start.plusHours(1)), timestamp(start)));
+    }
+
+    @Test
+    void prePaymentPageUsesThePendingIndex() {
+        LocalDateTime now = firstOfMonth().plusDays(20);
+        assertNoSeqScan("""
+                SELECT a.id, a.start_time, a.subsidiary_id, a.professional_id
+                  FROM appointments a
+                  JOIN services s ON s.id = a.service_id
+                 WHERE a.status = 'PENDING'
+                   AND s.requires_pre_payment = true
+                   AND a.start_time >= %s
+                   AND a.start_time < %s
+                   AND a.created_at < now()
+                   AND (a.start_time, a.id) > (%s, '00000000-0000-0000-0000-000000000000'::uuid)
+                 ORDER BY a.start_time, a.id
+                 LIMIT 200
+                   FOR UPDATE OF a SKIP LOCKED
+                """.formatted(timestamp(now), timestamp(now.plusDays(2)), timestamp(now)));
+    }
+
+    @Test
+    void customerHistoryUsesTheCustomerIndex() {
+        LocalDateTime from = firstOfMonth();
+        assertNoSeqScan("""
+                SELECT a.id, a.start_time, a.status
+                  FROM appointments a
+                 WHERE a.customer_id = %s
+                   AND a.start_time BETWEEN %s AND %s
+                """.formatted(uuid(customerId), timestamp(from), timestamp(from.plusDays(25))));
+    }
+
+    @Test
+    void statementPageUsesTheLedgerSequenceIndex() {
+        assertNoSeqScan("""
+                SELECT t.id, t.transaction_type, t.amount, t.ledger_sequence, t.new_free_balance
+                  FROM account_transactions t
+                 WHERE t.client_account_id = %s
+                   AND t.ledger_sequence < %d
+                 ORDER BY t.ledger_sequence DESC
+                 LIMIT 50
+                """.formatted(uuid(accountId), Long.MAX_VALUE));
+    }
+
+    private static void assertNoSeqScan(String sql) {
+        String json = jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+        List<String> seqScans = new ArrayList<>();
+        try {
+            collectSeqScans(objectMapper.readTree(json).get(0).get("Plan"), seqScans);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read plan: " + json, e);
+        }
+        assertThat(seqScans)
+                .as("Seq Scan over a seeded table in plan:%n%s", json)
+                .isEmpty();
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            String relation = node.path("Relation Name").asText();
+            if (relation.startsWith("appointments") || relation.equals("account_transactions")) {
+                seqScans.add(relation);
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    private static LocalDateTime firstOfMonth() {
+        return LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    }
+
+    private static String uuid(UUID id) {
+        return "'" + id + "'::uuid";
+    }
+
+    private static String timestamp(LocalDateTime value) {
+        return "'" + value + "'::timestamp";
+    }
+}
@@ -0,0 +1,228 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.LedgerBalance;
+import com.agenda.app.dto.LedgerPosting;
+import com.agenda.app.model.AccountHold;
+import com.agenda.app.model.AccountHoldStatus;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.model.Appointment;
+import com.agenda.app.model.ClientAccount;
+import com.agenda.app.model.Customer;
+import com.agenda.app.model.Item;
+import com.agenda.app.model.Subsidiary;
+import com.agenda.app.repository.AccountHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHoldServiceTest {
+
+    @Mock
+    private AccountHoldRepository holdRepository;
+    @Mock
+    private AccountLedgerService ledgerService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AccountHoldService holdService;
+    private ClientAccount account;
+
+    @BeforeEach
+    void setUp() {
+        holdService = new AccountHoldService(holdRepository, ledgerService, transactionManager);
+        ReflectionTestUtils.setField(holdService, "enabled", true);
+        ReflectionTestUtils.setField(holdService, "sweepEnabled", true);
+        ReflectionTestUtils.setField(holdService, "graceHours", 24L);
+        ReflectionTestUtils.setField(holdService, "batchSize", 2);
+        ReflectionTestUtils.setField(holdService, "maxBatches", 10);
+        ReflectionTestUtils.setField(holdService, "retryMinutes", 60L);
+
+        account = new ClientAccount();
+        account.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void placeHoldReservesServicePrice() {
+        Appointment appt = appointment("80.00", true);
+        when(holdRepository.findByAppointmentId(appt.getId())).thenReturn(Optional.empty());
+        when(ledgerService.openAccount(appt.getCustomer().getId())).thenReturn(account);
+        when(ledgerService.tryPost(any())).thenReturn(Optional.of(balance()));
+
+        assertThat(holdService.placeHold(appt)).isTrue();
+
+        ArgumentCaptor<LedgerPosting> posting = ArgumentCaptor.forClass(LedgerPosting.class);
+        verify(ledgerService).tryPost(posting.capture());
+        assertThat(posting.getValue().type()).isEqualTo(AccountTransactionType.HOLD);
+        assertThat(posting.getValue().amountCents()).isEqualTo(8000);
+        assertThat(posting.getValue().appointmentId()).isEqualTo(appt.getId());
+        assertThat(posting.getValue().subsidiaryId()).isEqualTo(appt.getSubsidiary().getId());
+
+        ArgumentCaptor<AccountHold> hold = ArgumentCaptor.forClass(AccountHold.class);
+        verify(holdRepository).save(hold.capture());
+        assertThat(hold.getValue().getStatus()).isEqualTo(AccountHoldStatus.ACTIVE);
+        assertThat(hold.getValue().getAmount()).isEqualByComparingTo("80.00");
+        assertThat(hold.getValue().getExpiresAt()).isEqualTo(appt.getEndTime().plusHours(24));
+    }
+
+    @Test
+    void placeHoldWithoutFreeBalanceKeepsNoHold() {
+        Appointment appt = appointment("80.00", true);
+        when(holdRepository.findByAppointmentId(appt.getId())).thenReturn(Optional.empty());
+        when(ledgerService.openAccount(appt.getCustomer().getId())).thenReturn(account);
+        when(ledgerService.tryPost(any())).thenReturn(Optional.empty());
+
+        assertThat(holdService.placeHold(appt)).isFalse();
+        verify(holdRepository, never()).save(any());
+    }
+
+    @Test
+    void placeHoldSkipsServicesWithoutPrePayment() {
+        assertThat(holdService.placeHold(appointment("80.00", false))).isFalse();
+        verify(ledgerService, never()).tryPost(any());
+    }
+
+    @Test
+    void placeHoldOnActiveHoldOnlyMovesExpiry() {
+        Appointment appt = appointment("80.00", true);
+        AccountHold existing = hold(appt, "80.00");
+        existing.setExpiresAt(LocalDateTime.of(2026, 1, 1, 0, 0));
+        when(holdRepository.findByAppointmentId(appt.getId())).thenReturn(Optional.of(existing));
+
+        assertThat(holdService.placeHold(appt)).isTrue();
+        assertThat(existing.getExpiresAt()).isEqualTo(appt.getEndTime().plusHours(24));
+        verify(ledgerService, never()).tryPost(any());
+    }
+
+    @Test
+    void consumeHoldConfirmsHeldAmount() {
+        Appointment appt = appointment("45.50", true);
+        AccountHold hold = hold(appt, "45.50");
+        when(holdRepository.findByAppointmentIdAndStatus(appt.getId(), AccountHoldStatus.ACTIVE))
+                .thenReturn(Optional.of(hold));
+
+        holdService.consumeHold(appt.getId());
+
+        ArgumentCaptor<LedgerPosting> posting = ArgumentCaptor.forClass(LedgerPosting.class);
+        verify(ledgerService).post(posting.capture());
+        assertThat(posting.getValue().type()).isEqualTo(AccountTransactionType.CONFIRM_HOLD);
+        assertThat(posting.getValue().amountCents()).isEqualTo(4550);
+        assertThat(hold.getStatus()).isEqualTo(AccountHoldStatus.CONSUMED);
+        assertThat(hold.getReleaseDate()).isNotNull();
+    }
+
+    @Test
+    void releaseHoldReturnsHeldAmount() {
+        Appointment appt = appointment("45.50", true);
+        AccountHold hold = hold(appt, "45.50");
+        when(holdRepository.findByAppointmentIdAndStatus(appt.getId(), AccountHoldStatus.ACTIVE))
+                .thenReturn(Optional.of(hold));
+
+        holdService.releaseHold(appt.getId(), "Cancelled");
+
+        ArgumentCaptor<LedgerPosting> posting = ArgumentCaptor.forClass(LedgerPosting.class);
+        verify(ledgerService).post(posting.capture());
+        assertThat(posting.getValue().type()).isEqualTo(AccountTransactionType.RELEASE_HOLD);
+        assertThat(hold.getStatus()).isEqualTo(AccountHoldStatus.RELEASED);
+        assertThat(hold.getReleaseReason()).isEqualTo("Cancelled");
+    }
+
+    @Test
+    void expireHoldsReleasesEveryBatchUntilShort() {
+        AccountHold first = hold(appointment("10.00", true), "10.00");
+        AccountHold second = hold(appointment("20.00", true), "20.00");
+        AccountHold third = hold(appointment("30.00", true), "30.00");
+        when(holdRepository.lockExpiredBatch(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(ledgerService.tryPost(any())).thenReturn(Optional.of(balance()));
+
+        holdService.expireHolds();
+
+        verify(holdRepository, times(2)).lockExpiredBatch(any(LocalDateTime.class), anyInt());
+        verify(ledgerService, times(3)).tryPost(any());
+        assertThat(List.of(first, second, third))
+                .extracting(AccountHold::getStatus)
+                .containsOnly(AccountHoldStatus.EXPIRED);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void expireHoldsKeepsUncoveredHoldActiveAndDefersIt() {
+        AccountHold covered = hold(appointment("10.00", true), "10.00");
+        AccountHold uncovered = hold(appointment("20.00", true), "20.00");
+        LocalDateTime dueAt = LocalDateTime.now().minusHours(1);
+        uncovered.setExpiresAt(dueAt);
+        when(holdRepository.lockExpiredBatch(any(LocalDateTime.class), anyInt()))
+                .thenReturn(List.of(covered, uncovered))
+                .thenReturn(List.of());
+        // Saldo retido que não cobre a retenção: nada é devolvido
+        when(ledgerService.tryPost(any()))
+                .thenReturn(Optional.of(balance()))
+                .thenReturn(Optional.empty());
+
+        LocalDateTime before = LocalDateTime.now();
+        holdService.expireHolds();
+
+        assertThat(covered.getStatus()).isEqualTo(AccountHoldStatus.EXPIRED);
+        assertThat(uncovered.getStatus()).isEqualTo(AccountHoldStatus.ACTIVE);
+        assertThat(uncovered.getReleaseDate()).isNull();
+        // Fora da fila até o novo vencimento: o lote seguinte da mesma execução não a trava de novo
+        assertThat(uncovered.getExpiresAt()).isAfterOrEqualTo(before.plusMinutes(60));
+        verify(ledgerService, times(2)).tryPost(any());
+    }
+
+    private Appointment appointment(String price, boolean requiresPrePayment) {
+        Item item = new Item();
+        item.setName("Consulta");
+        item.setPrice(new BigDecimal(price));
+        item.setRequiresPrePayment(requiresPrePayment);
+
+        Customer customer = new Customer();
+        customer.setId(UUID.randomUUID());
+        Subsidiary subsidiary = new Subsidiary();
+        subsidiary.setId(UUID.randomUUID());
+
+        Appointment appt = new Appointment();
+        appt.setId(UUID.randomUUID());
+        appt.setItem(item);
+        appt.setCustomer(customer);
+        appt.setSubsidiary(subsidiary);
+        appt.setStartTime(LocalDateTime.of(2026, 5, 4, 10, 0));
+        appt.setEndTime(LocalDateTime.of(2026, 5, 4, 11, 0));
+        return appt;
+    }
+
+    private AccountHold hold(Appointment appt, String amount) {
+        AccountHold hold = new AccountHold();
+        hold.setId(UUID.randomUUID());
+        hold.setAppointment(appt);
+        hold.setClientAccount(account);
+        hold.setAmount(new BigDecimal(amount));
+        hold.setStatus(AccountHoldStatus.ACTIVE);
+        return hold;
+    }
+
+    private LedgerBalance balance() {
+        return new LedgerBalance(account.getId(), 1, 0, 0, UUID.randomUUID());
+    }
+}
@@ -0,0 +1,280 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.AccountBalanceView;
+import com.agenda.app.dto.AccountStatementLine;
+import com.agenda.app.dto.BalanceDeltaRow;
+import com.agenda.app.dto.CursorPage;
+import com.agenda.app.dto.LedgerBalance;
+import com.agenda.app.dto.LedgerPosting;
+import com.agenda.app.exception.ConflictException;
+import com.agenda.app.exception.PaymentRequiredException;
+import com.agenda.app.model.AccountBalanceSnapshot;
+import com.agenda.app.model.AccountTransaction;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.model.ClientAccount;
+import com.agenda.app.repository.AccountBalanceSnapshotRepository;
+import com.agenda.app.repository.AccountTransactionRepository;
+import com.agenda.app.repository.AppointmentRepository;
+import com.agenda.app.repository.ClientAccountRepository;
+import com.agenda.app.repository.CustomerRepository;
+import com.agenda.app.repository.PaymentRepository;
+import com.agenda.app.repository.UserRepository;
+import com.agenda.app.util.CursorUtils;
+import com.agenda.app.util.MoneyUtils;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountLedgerServiceTest {
+
+    private static final UUID ACCOUNT_ID = UUID.randomUUID();
+    private static final UUID SUBSIDIARY_ID = UUID.randomUUID();
+
+    @Mock
+    private ClientAccountRepository clientAccountRepository;
+    @Mock
+    private AccountTransactionRepository transactionRepository;
+    @Mock
+    private AccountBalanceSnapshotRepository snapshotRepository;
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private CashRegisterService cashRegisterService;
+
+    @InjectMocks
+    private AccountLedgerService ledgerService;
+
+    @Test
+    void creditRecordsBalancesAndCashRegister() {
+        Instant createdAt = Instant.parse("2026-03-10T14:00:00Z");
+        when(clientAccountRepository.applyDelta(ACCOUNT_ID, 1500, 0))
+                .thenReturn(Optional.of(new Balance(2500, 300, 8)));
+        when(transactionRepository.save(any(AccountTransaction.class))).thenAnswer(inv -> {
+            AccountTransaction tx = inv.getArgument(0);
+            tx.setCreatedAt(createdAt);
+            return tx;
+        });
+
+        LedgerBalance balance = ledgerService.post(posting(AccountTransactionType.CREDIT, 1500));
+
+        assertThat(balance.freeBalanceCents()).isEqualTo(2500);
+        assertThat(balance.heldBalanceCents()).isEqualTo(300);
+        assertThat(balance.ledgerSequence()).isEqualTo(8);
+
+        ArgumentCaptor<AccountTransaction> saved = ArgumentCaptor.forClass(AccountTransaction.class);
+        verify(transactionRepository).save(saved.capture());
+        AccountTransaction tx = saved.getValue();
+        assertThat(tx.getAmount()).isEqualByComparingTo("15.00");
+        assertThat(tx.getPreviousFreeBalance()).isEqualByComparingTo("10.00");
+        assertThat(tx.getNewFreeBalance()).isEqualByComparingTo("25.00");
+        assertThat(tx.getPreviousHeldBalance()).isEqualByComparingTo("3.00");
+        assertThat(tx.getNewHeldBalance()).isEqualByComparingTo("3.00");
+        assertThat(tx.getLedgerSequence()).isEqualTo(8);
+
+        verify(cashRegisterService).recordAccountTransaction(
+                SUBSIDIARY_ID, AccountTransactionType.CREDIT, 1500, createdAt);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "HOLD,         -1000,  1000",
+            "RELEASE_HOLD,  1000, -1000",
+            "CONFIRM_HOLD,     0, -1000"
+    })
+    void holdMovementsStayOutOfCashRegister(AccountTransactionType type, long freeDelta, long heldDelta) {
+        when(clientAccountRepository.applyDelta(ACCOUNT_ID, freeDelta, heldDelta))
+                .thenReturn(Optional.of(new Balance(5000, 1000, 3)));
+        when(transactionRepository.save(any(AccountTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ledgerService.post(posting(type, 1000));
+
+        verifyNoInteractions(cashRegisterService);
+    }
+
+    @Test
+    void debitBeyondFreeBalanceIsPaymentRequired() {
+        when(clientAccountRepository.applyDelta(ACCOUNT_ID, -2000, 0)).thenReturn(Optional.empty());
+        when(clientAccountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account("5.00", "0.00")));
+
+        assertThatThrownBy(() -> ledgerService.post(posting(AccountTransactionType.DEBIT, 2000)))
+                .isInstanceOf(PaymentRequiredException.class);
+        verify(transactionRepository, never()).save(any());
+        verifyNoInteractions(cashRegisterService);
+    }
+
+    @Test
+    void releaseBeyondHeldBalanceIsConflict() {
+        when(clientAccountRepository.applyDelta(ACCOUNT_ID, 2000, -2000)).thenReturn(Optional.empty());
+        when(clientAccountRepository.findById(ACCOUNT_ID)).thenReturn(Optional.of(account("50.00", "5.00")));
+
+        assertThatThrownBy(() -> ledgerService.post(posting(AccountTransactionType.RELEASE_HOLD, 2000)))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void tryPostReturnsEmptyWhenBalanceIsInsufficient() {
+        when(clientAccountRepository.applyDelta(ACCOUNT_ID, -2000, 2000)).thenReturn(Optional.empty());
+        when(clientAccountRepository.existsById(ACCOUNT_ID)).thenReturn(true);
+
+        assertThat(ledgerService.tryPost(posting(AccountTransactionType.HOLD, 2000))).isEmpty();
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void tryPostOnMissingAccountIsNotFound() {
+        when(clientAccountRepository.applyDelta(ACCOUNT_ID, -2000, 2000)).thenReturn(Optional.empty());
+        when(clientAccountRepository.existsById(ACCOUNT_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> ledgerService.tryPost(posting(AccountTransactionType.HOLD, 2000)))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void onlyAdjustmentsAcceptNegativeAmounts() {
+        assertThatThrownBy(() -> ledgerService.post(posting(AccountTransactionType.DEBIT, -100)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ledgerService.post(posting(AccountTransactionType.CREDIT, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(clientAccountRepository, never()).applyDelta(any(), anyLong(), anyLong());
+
+        when(clientAccountRepository.applyDelta(ACCOUNT_ID, -100, 0))
+                .thenReturn(Optional.of(new Balance(900, 0, 2)));
+        when(transactionRepository.save(any(AccountTransaction.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        ledgerService.post(posting(AccountTransactionType.ADJUSTMENT, -100));
+
+        // O ajuste entra no caixa com sinal; o valor gravado no lançamento é absoluto
+        verify(cashRegisterService).recordAccountTransaction(
+                eq(SUBSIDIARY_ID), eq(AccountTransactionType.ADJUSTMENT), eq(-100L), any());
+        ArgumentCaptor<AccountTransaction> saved = ArgumentCaptor.forClass(AccountTransaction.class);
+        verify(transactionRepository).save(saved.capture());
+        assertThat(saved.getValue().getAmount()).isEqualByComparingTo("1.00");
+    }
+
+    @Test
+    void balanceAtAddsDeltasSinceSnapshot() {
+        // Entidade imutável, sem setters
+        AccountBalanceSnapshot snapshot = mock(AccountBalanceSnapshot.class);
+        when(snapshot.getLedgerSequence()).thenReturn(100L);
+        when(snapshot.getFreeBalance()).thenReturn(new BigDecimal("10.00"));
+        when(snapshot.getHeldBalance()).thenReturn(new BigDecimal("2.00"));
+        when(snapshotRepository.findFirstByClientAccountIdAndLedgerSequenceLessThanEqualOrderByLedgerSequenceDesc(
+                ACCOUNT_ID, 103)).thenReturn(Optional.of(snapshot));
+        when(transactionRepository.sumDeltas(ACCOUNT_ID, 100, 103))
+                .thenReturn(new BalanceDeltaRow(new BigDecimal("-4.50"), new BigDecimal("1.25"), 3));
+
+        LedgerBalance balance = ledgerService.balanceAt(ACCOUNT_ID, 103);
+
+        assertThat(balance.freeBalanceCents()).isEqualTo(550);
+        assertThat(balance.heldBalanceCents()).isEqualTo(325);
+    }
+
+    @Test
+    void balanceAtRejectsSequenceGaps() {
+        when(snapshotRepository.findFirstByClientAccountIdAndLedgerSequenceLessThanEqualOrderByLedgerSequenceDesc(
+                ACCOUNT_ID, 5)).thenReturn(Optional.empty());
+        when(transactionRepository.sumDeltas(ACCOUNT_ID, 0, 5))
+                .thenReturn(new BalanceDeltaRow(BigDecimal.ZERO, BigDecimal.ZERO, 4));
+
+        assertThatThrownBy(() -> ledgerService.balanceAt(ACCOUNT_ID, 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void statementPagesByLedgerSequence() {
+        when(clientAccountRepository.existsById(ACCOUNT_ID)).thenReturn(true);
+        when(transactionRepository.findStatementPage(ACCOUNT_ID, Long.MAX_VALUE, Limit.of(3)))
+                .thenReturn(List.of(line(10), line(9), line(8)));
+
+        CursorPage<AccountStatementLine> first = ledgerService.getStatement(ACCOUNT_ID, null, 2);
+
+        assertThat(first.items()).extracting(AccountStatementLine::ledgerSequence).containsExactly(10L, 9L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(CursorUtils.decodeLong(first.nextCursor())).isEqualTo(9);
+
+        when(transactionRepository.findStatementPage(ACCOUNT_ID, 9, Limit.of(3)))
+                .thenReturn(List.of(line(8)));
+
+        CursorPage<AccountStatementLine> second = ledgerService.getStatement(ACCOUNT_ID, first.nextCursor(), 2);
+
+        assertThat(second.items()).extracting(AccountStatementLine::ledgerSequence).containsExactly(8L);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void statementRejectsMalformedCursor() {
+        when(clientAccountRepository.existsById(ACCOUNT_ID)).thenReturn(true);
+
+        assertThatThrownBy(() -> ledgerService.getStatement(ACCOUNT_ID, CursorUtils.encode("abc"), 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static LedgerPosting posting(AccountTransactionType type, long amountCents) {
+        return new LedgerPosting(ACCOUNT_ID, type, amountCents, type.name(), null, null, null, SUBSIDIARY_ID);
+    }
+
+    private static ClientAccount account(String free, String held) {
+        ClientAccount account = new ClientAccount();
+        account.setId(ACCOUNT_ID);
+        account.setFreeBalance(new BigDecimal(free));
+        account.setHeldBalance(new BigDecimal(held));
+        return account;
+    }
+
+    private static AccountStatementLine line(long sequence) {
+        return new AccountStatementLine(UUID.randomUUID(), Instant.now(), AccountTransactionType.CREDIT,
+                new BigDecimal("1.00"), null, sequence, null, null, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /** Linha devolvida pelo UPDATE ... RETURNING do ledger */
+    private record Balance(long freeCents, long heldCents, long sequence) implements AccountBalanceView {
+
+        @Override
+        public BigDecimal getFreeBalance() {
+            return MoneyUtils.fromCents(freeCents);
+        }
+
+        @Override
+        public BigDecimal getHeldBalance() {
+            return MoneyUtils.fromCents(heldCents);
+        }
+
+        @Override
+        public Long getLedgerSequence() {
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.agenda.app.service;
+
+import com.agenda.app.event.AgendaEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.awaitility.Awaitility.await;
+
+class AgendaStreamServiceTest {
+
+    private static final UUID SUBSIDIARY_ID = UUID.randomUUID();
+
+    private ObjectMapper objectMapper;
+    private AgendaStreamService streamService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper = mock(ObjectMapper.class);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        streamService = new AgendaStreamService(objectMapper);
+        ReflectionTestUtils.setField(streamService, "queueCapacity", 16);
+        ReflectionTestUtils.setField(streamService, "maxSubscribers", 3);
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void refusesSubscribersOverTheLimit() {
+        for (int i = 0; i < 3; i++) {
+            streamService.subscribe(SUBSIDIARY_ID);
+        }
+
+        assertThatThrownBy(() -> streamService.subscribe(SUBSIDIARY_ID))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        // A tentativa recusada não ocupa vaga
+        assertThat(streamService.getSubscriberCount()).isEqualTo(3);
+    }
+
+    @Test
+    void serializesEachEventOnceForAllSubscribers() throws Exception {
+        streamService.subscribe(SUBSIDIARY_ID);
+        streamService.subscribe(SUBSIDIARY_ID);
+        streamService.subscribe(SUBSIDIARY_ID);
+
+        streamService.onAgendaEvent(new AgendaEvent(SUBSIDIARY_ID, AgendaEvent.APPOINTMENT, Map.of("id", 1)));
+
+        verify(objectMapper, times(1)).writeValueAsString(any());
+    }
+
+    @Test
+    void ignoresEventsWithoutSubscribers() throws Exception {
+        streamService.subscribe(SUBSIDIARY_ID);
+
+        assertThatNoException().isThrownBy(() -> streamService.onAgendaEvent(
+                new AgendaEvent(UUID.randomUUID(), AgendaEvent.SCHEDULE, Map.of())));
+        verify(objectMapper, never()).writeValueAsString(any());
+    }
+
+    @Test
+    void keepsTheRegistryConsistentUnderConcurrentChurn() throws Exception {
+        ReflectionTestUtils.setField(streamService, "maxSubscribers", 20_000);
+        // Fila folgada: aqui só saem os assinantes desconectados, não os lentos
+        ReflectionTestUtils.setField(streamService, "queueCapacity", 4_096);
+        List<UUID> subsidiaries = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        int threads = 8;
+        int perThread = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<SseEmitter>>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                List<SseEmitter> live = new ArrayList<>();
+                for (int i = 0; i < perThread; i++) {
+                    SseEmitter emitter = streamService.subscribe(subsidiaries.get(i % subsidiaries.size()));
+                    // Metade desconecta na hora: o próximo envio falha e remove o assinante
+                    if (i % 2 == 0) {
+                        emitter.complete();
+                    } else {
+                        live.add(emitter);
+                    }
+                }
+                return live;
+            }));
+        }
+        Future<?> heartbeats = executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < 50; i++) {
+                streamService.heartbeat();
+            }
+            return null;
+        });
+        start.countDown();
+
+        List<SseEmitter> live = new ArrayList<>();
+        for (Future<List<SseEmitter>> result : results) {
+            live.addAll(result.get());
+        }
+        heartbeats.get();
+        executor.shutdown();
+
+        // Todo assinante desconectado continua alcançável pelo heartbeat e acaba removido
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            streamService.heartbeat();
+            assertThat(streamService.getSubscriberCount()).isEqualTo(live.size());
+        });
+        assertThat(registered()).isEqualTo(live.size());
+
+        live.forEach(SseEmitter::complete);
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            streamService.heartbeat();
+            assertThat(streamService.getSubscriberCount()).isZero();
+        });
+        assertThat(registered()).isZero();
+    }
+
+    /** Assinantes alcançáveis pelo mapa de distribuição */
+    @SuppressWarnings("unchecked")
+    private int registered() {
+        Map<UUID, Set<?>> subscribers = (Map<UUID, Set<?>>) ReflectionTestUtils.getField(streamService, "subscribers");
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+}
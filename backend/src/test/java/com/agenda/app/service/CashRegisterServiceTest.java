@@ -0,0 +1,183 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.CashRegisterDriftView;
+import com.agenda.app.exception.ConflictException;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.model.CashRegisterDay;
+import com.agenda.app.model.CashRegisterRollup;
+import com.agenda.app.model.CashRegisterStatus;
+import com.agenda.app.repository.CashRegisterDayRepository;
+import com.agenda.app.repository.CashRegisterRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+class CashRegisterServiceTest {
+
+    private static final UUID SUBSIDIARY_ID = UUID.randomUUID();
+
+    @Mock
+    private CashRegisterDayRepository dayRepository;
+    @Mock
+    private CashRegisterRollupRepository rollupRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CashRegisterService cashRegisterService;
+
+    @BeforeEach
+    void setUp() {
+        cashRegisterService = new CashRegisterService(dayRepository, rollupRepository, transactionManager);
+        ReflectionTestUtils.setField(cashRegisterService, "reconcileEnabled", true);
+        ReflectionTestUtils.setField(cashRegisterService, "reconcileDays", 3);
+    }
+
+    @Test
+    void accountTransactionAddsToDayOfCreation() {
+        Instant createdAt = Instant.parse("2026-03-10T14:00:00Z");
+        LocalDate day = createdAt.atZone(ZoneId.systemDefault()).toLocalDate();
+        when(dayRepository.lockStatusForWrite(SUBSIDIARY_ID, day)).thenReturn(CashRegisterStatus.OPEN.name());
+
+        cashRegisterService.recordAccountTransaction(SUBSIDIARY_ID, AccountTransactionType.DEBIT, 2500, createdAt);
+
+        verify(dayRepository).ensureDay(SUBSIDIARY_ID, day);
+        verify(rollupRepository).addToRollup(SUBSIDIARY_ID, day, CashRegisterRollup.SOURCE_ACCOUNT,
+                "DEBIT", 1, new BigDecimal("25.00"), BigDecimal.ZERO);
+    }
+
+    @Test
+    void adjustmentKeepsItsSign() {
+        Instant createdAt = Instant.parse("2026-03-10T14:00:00Z");
+        LocalDate day = createdAt.atZone(ZoneId.systemDefault()).toLocalDate();
+        when(dayRepository.lockStatusForWrite(SUBSIDIARY_ID, day)).thenReturn(CashRegisterStatus.OPEN.name());
+
+        cashRegisterService.recordAccountTransaction(SUBSIDIARY_ID, AccountTransactionType.ADJUSTMENT, -700, createdAt);
+
+        verify(rollupRepository).addToRollup(SUBSIDIARY_ID, day, CashRegisterRollup.SOURCE_ACCOUNT,
+                "ADJUSTMENT", 1, new BigDecimal("-7.00"), BigDecimal.ZERO);
+    }
+
+    @Test
+    void closedDayRejectsAccountTransactions() {
+        Instant createdAt = Instant.parse("2026-03-10T14:00:00Z");
+        LocalDate day = createdAt.atZone(ZoneId.systemDefault()).toLocalDate();
+        when(dayRepository.lockStatusForWrite(SUBSIDIARY_ID, day)).thenReturn(CashRegisterStatus.CLOSED.name());
+
+        assertThatThrownBy(() -> cashRegisterService.recordAccountTransaction(
+                SUBSIDIARY_ID, AccountTransactionType.CREDIT, 1000, createdAt))
+                .isInstanceOf(ConflictException.class);
+        verify(rollupRepository, never()).addToRollup(any(), any(), any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void closingAClosedDayIsConflict() {
+        LocalDate day = LocalDate.now(ZoneId.systemDefault()).minusDays(1);
+        when(dayRepository.findForUpdate(SUBSIDIARY_ID, day)).thenReturn(Optional.of(day(CashRegisterStatus.CLOSED)));
+
+        assertThatThrownBy(() -> cashRegisterService.close(SUBSIDIARY_ID, day))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void closingAFutureDayIsRejected() {
+        LocalDate tomorrow = LocalDate.now(ZoneId.systemDefault()).plusDays(1);
+
+        assertThatThrownBy(() -> cashRegisterService.close(SUBSIDIARY_ID, tomorrow))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(dayRepository, never()).ensureDay(any(), any());
+    }
+
+    @Test
+    void closingRecomputesPaymentRollupsUnderTheDayLock() {
+        LocalDate day = LocalDate.now(ZoneId.systemDefault()).minusDays(1);
+        CashRegisterDay open = day(CashRegisterStatus.OPEN);
+        // Pagamento chegado depois da última reconciliação
+        CashRegisterDriftView drift = drift(day, CashRegisterRollup.SOURCE_PAYMENT, "CARD", 3, "210.00");
+        when(dayRepository.findForUpdate(SUBSIDIARY_ID, day)).thenReturn(Optional.of(open));
+        when(rollupRepository.findDrift(day, day, SUBSIDIARY_ID, ZoneId.systemDefault().getId()))
+                .thenReturn(List.of(drift));
+
+        cashRegisterService.close(SUBSIDIARY_ID, day);
+
+        InOrder inOrder = inOrder(dayRepository, rollupRepository);
+        inOrder.verify(dayRepository).findForUpdate(SUBSIDIARY_ID, day);
+        inOrder.verify(rollupRepository).replaceRollup(SUBSIDIARY_ID, day, CashRegisterRollup.SOURCE_PAYMENT, "CARD",
+                3, new BigDecimal("210.00"), BigDecimal.ZERO);
+        assertThat(open.getStatus()).isEqualTo(CashRegisterStatus.CLOSED);
+    }
+
+    @Test
+    void reconcileCorrectsOpenDaysUnderTheDayLock() {
+        LocalDate day = LocalDate.now(ZoneId.systemDefault()).minusDays(1);
+        CashRegisterDriftView drift = drift(day, CashRegisterRollup.SOURCE_PAYMENT, "PIX", 4, "320.00");
+        // A passada sem trava e o recálculo sob a trava acham a mesma divergência
+        when(rollupRepository.findDrift(any(), any(), any(), anyString())).thenReturn(List.of(drift));
+        when(dayRepository.findForUpdate(SUBSIDIARY_ID, day)).thenReturn(Optional.of(day(CashRegisterStatus.OPEN)));
+
+        cashRegisterService.reconcile();
+
+        verify(dayRepository).ensureDay(SUBSIDIARY_ID, day);
+        verify(rollupRepository).findDrift(day, day, SUBSIDIARY_ID, ZoneId.systemDefault().getId());
+        verify(rollupRepository).replaceRollup(SUBSIDIARY_ID, day, CashRegisterRollup.SOURCE_PAYMENT, "PIX",
+                4, new BigDecimal("320.00"), BigDecimal.ZERO);
+    }
+
+    @Test
+    void reconcileLeavesClosedDaysUntouched() {
+        LocalDate day = LocalDate.now(ZoneId.systemDefault()).minusDays(1);
+        CashRegisterDriftView drift = drift(day, CashRegisterRollup.SOURCE_ACCOUNT, "CREDIT", 2, "50.00");
+        // A passada sem trava e o recálculo sob a trava acham a mesma divergência
+        when(rollupRepository.findDrift(any(), any(), any(), anyString())).thenReturn(List.of(drift));
+        when(dayRepository.findForUpdate(SUBSIDIARY_ID, day)).thenReturn(Optional.of(day(CashRegisterStatus.CLOSED)));
+
+        cashRegisterService.reconcile();
+
+        verify(rollupRepository, never()).replaceRollup(any(), any(), any(), any(), anyLong(), any(), any());
+    }
+
+    private static CashRegisterDay day(CashRegisterStatus status) {
+        CashRegisterDay day = new CashRegisterDay();
+        day.setStatus(status);
+        return day;
+    }
+
+    private static CashRegisterDriftView drift(LocalDate day, String source, String kind, long count, String amount) {
+        // Leniente: o aviso de divergência só lê parte dos campos
+        CashRegisterDriftView drift = mock(CashRegisterDriftView.class, withSettings().strictness(Strictness.LENIENT));
+        when(drift.getSubsidiaryId()).thenReturn(SUBSIDIARY_ID);
+        when(drift.getBusinessDate()).thenReturn(day);
+        when(drift.getSource()).thenReturn(source);
+        when(drift.getKind()).thenReturn(kind);
+        when(drift.getExpectedCount()).thenReturn(count);
+        when(drift.getExpectedAmount()).thenReturn(new BigDecimal(amount));
+        when(drift.getExpectedOrderTotal()).thenReturn(BigDecimal.ZERO);
+        return drift;
+    }
+}
@@ -0,0 +1,204 @@
+package com.agenda.app.service;
+
+import com.agenda.app.config.JpaConfig;
+import com.agenda.app.dto.LedgerBalance;
+import com.agenda.app.dto.LedgerPosting;
+import com.agenda.app.model.AccountTransactionType;
+import com.agenda.app.repository.ClientAccountRepository;
+import com.agenda.app.util.MoneyUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lançamentos concorrentes na mesma conta pelo {@link AccountLedgerService}, num PostgreSQL real
+ * com o esquema das migrações: o UPDATE ... RETURNING de {@link ClientAccountRepository#applyDelta}
+ * serializa as variações na linha da conta. O teste confere, lendo o banco, que nenhum lançamento
+ * se perde, que a sequência do razão não tem lacunas e que a cadeia de saldos anterior/novo fecha.
+ * <p>
+ * Precisa de Docker; sem ele a classe é pulada.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JpaConfig.class, AccountLedgerService.class})
+@Testcontainers(disabledWithoutDocker = true)
+class ClientAccountConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientAccountConcurrencyTest.class);
+
+    private static final int THREADS = 8;
+    private static final int POSTINGS_PER_THREAD = 250;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS + 2);
+    }
+
+    /** Lançamentos sem subsidiária não passam pelo caixa */
+    @MockitoBean
+    private CashRegisterService cashRegisterService;
+
+    @Autowired
+    private AccountLedgerService ledgerService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private UUID accountId;
+
+    @BeforeEach
+    void openAccount() {
+        UUID companyId = UUID.randomUUID();
+        UUID customerId = UUID.randomUUID();
+        accountId = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO companies (id, created_at, is_active, is_deleted, version, name, trading_name,
+                                       street, number, city, state, zip_code)
+                VALUES (?, now(), true, false, 0, 'Clinic', 'Clinic', 'Street', '1', 'City', 'SP', '00000-000')
+                """, companyId);
+        jdbc.update("""
+                INSERT INTO customers (id, created_at, is_active, is_deleted, version, first_name, last_name,
+                                       full_name, email, street, number, city, state, zip_code, company_id)
+                VALUES (?, now(), true, false, 0, 'Customer', 'One', 'Customer One', 'c1@mail', 'Street', '1',
+                        'City', 'SP', '00000-000', ?)
+                """, customerId, companyId);
+        jdbc.update("""
+                INSERT INTO client_account (id, created_at, is_active, is_deleted, version, customer_id,
+                                            free_balance, held_balance, total_balance, ledger_sequence)
+                VALUES (?, now(), true, false, 0, ?, 0, 0, 0, 0)
+                """, accountId, customerId);
+    }
+
+    @Test
+    void concurrentPostingsKeepBalancesConsistent() throws Exception {
+        AtomicLong acceptedFree = new AtomicLong();
+        AtomicLong acceptedHeld = new AtomicLong();
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                    Movement movement = Movement.values()[(thread + i) % Movement.values().length];
+                    Optional<LedgerBalance> result = ledgerService.tryPost(new LedgerPosting(
+                            accountId, movement.type, movement.amountCents, null, null, null, null, null));
+                    if (result.isPresent()) {
+                        acceptedFree.addAndGet(movement.freeDelta);
+                        acceptedHeld.addAndGet(movement.heldDelta);
+                        accepted.incrementAndGet();
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        executor.shutdown();
+
+        int total = THREADS * POSTINGS_PER_THREAD;
+        log.info("{} postings ({} rejected) on one account from {} threads in {} ms",
+                total, rejected.get(), THREADS, elapsedMs);
+
+        assertThat(accepted.get() + rejected.get()).isEqualTo(total);
+        assertThat(accepted.get()).isPositive();
+
+        Map<String, Object> account = jdbc.queryForMap(
+                "SELECT free_balance, held_balance, total_balance, ledger_sequence FROM client_account WHERE id = ?",
+                accountId);
+        long freeCents = MoneyUtils.toCents((BigDecimal) account.get("free_balance"));
+        long heldCents = MoneyUtils.toCents((BigDecimal) account.get("held_balance"));
+        assertThat(freeCents).isEqualTo(acceptedFree.get()).isNotNegative();
+        assertThat(heldCents).isEqualTo(acceptedHeld.get()).isNotNegative();
+        assertThat(MoneyUtils.toCents((BigDecimal) account.get("total_balance"))).isEqualTo(freeCents + heldCents);
+        assertThat(((Number) account.get("ledger_sequence")).longValue()).isEqualTo(accepted.get());
+
+        // Uma sequência por lançamento, sem lacunas, e cada saldo anterior é o novo do lançamento anterior
+        List<Map<String, Object>> ledger = jdbc.queryForList("""
+                SELECT ledger_sequence, previous_free_balance, previous_held_balance, new_free_balance, new_held_balance
+                  FROM account_transactions
+                 WHERE client_account_id = ?
+                 ORDER BY ledger_sequence
+                """, accountId);
+        assertThat(ledger).hasSize((int) accepted.get());
+        BigDecimal free = BigDecimal.ZERO;
+        BigDecimal held = BigDecimal.ZERO;
+        for (int i = 0; i < ledger.size(); i++) {
+            Map<String, Object> tx = ledger.get(i);
+            assertThat(((Number) tx.get("ledger_sequence")).longValue()).isEqualTo(i + 1L);
+            assertThat((BigDecimal) tx.get("previous_free_balance")).isEqualByComparingTo(free);
+            assertThat((BigDecimal) tx.get("previous_held_balance")).isEqualByComparingTo(held);
+            free = (BigDecimal) tx.get("new_free_balance");
+            held = (BigDecimal) tx.get("new_held_balance");
+        }
+        assertThat(MoneyUtils.toCents(free)).isEqualTo(freeCents);
+        assertThat(MoneyUtils.toCents(held)).isEqualTo(heldCents);
+    }
+
+    /** Mistura de lançamentos: créditos sustentam débitos e retenções, parte deles é recusada */
+    private enum Movement {
+        CREDIT(AccountTransactionType.CREDIT, 500, 500, 0),
+        DEBIT(AccountTransactionType.DEBIT, 400, -400, 0),
+        HOLD(AccountTransactionType.HOLD, 300, -300, 300),
+        RELEASE(AccountTransactionType.RELEASE_HOLD, 200, 200, -200),
+        CONFIRM(AccountTransactionType.CONFIRM_HOLD, 100, 0, -100);
+
+        private final AccountTransactionType type;
+        private final long amountCents;
+        private final long freeDelta;
+        private final long heldDelta;
+
+        Movement(AccountTransactionType type, long amountCents, long freeDelta, long heldDelta) {
+            this.type = type;
+            this.amountCents = amountCents;
+            this.freeDelta = freeDelta;
+            this.heldDelta = heldDelta;
+        }
+    }
+}
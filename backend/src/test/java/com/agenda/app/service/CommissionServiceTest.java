@@ -0,0 +1,233 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.CommissionStatementResponse;
+import com.agenda.app.model.CommissionStatement;
+import com.agenda.app.model.Item;
+import com.agenda.app.model.Professional;
+import com.agenda.app.repository.CommissionStatementRepository;
+import com.agenda.app.repository.ItemRepository;
+import com.agenda.app.repository.ProfessionalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cálculo das comissões sobre um H2 em memória com as colunas que a consulta do
+ * {@link CommissionService} lê (a consulta é SQL puro, sem funções do PostgreSQL). Os
+ * repositórios JPA são simulados: os extratos gravados voltam na leitura do período.
+ */
+class CommissionServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CommissionServiceTest.class);
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2026, 4, 1);
+    private static final LocalDate PERIOD_END = LocalDate.of(2026, 4, 30);
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbc;
+    private CommissionService commissionService;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE services (id uuid PRIMARY KEY, price numeric(10, 2) NOT NULL)");
+        jdbc.execute("CREATE TABLE professional_service_cfg (professional_id uuid NOT NULL, service_id uuid NOT NULL,"
+                + " custom_price numeric(10, 2), commission_pct numeric(5, 2), commission_fixed numeric(10, 2))");
+        jdbc.execute("CREATE TABLE service_order (id uuid PRIMARY KEY, total_price numeric(38, 2) NOT NULL,"
+                + " discount numeric(38, 2) NOT NULL)");
+        jdbc.execute("CREATE TABLE payment (id uuid PRIMARY KEY, service_order_id uuid NOT NULL UNIQUE,"
+                + " status varchar(20) NOT NULL, amount numeric(10, 2) NOT NULL)");
+        jdbc.execute("CREATE TABLE appointments (id uuid PRIMARY KEY, professional_id uuid NOT NULL,"
+                + " service_id uuid NOT NULL, service_order_id uuid, status varchar(20) NOT NULL,"
+                + " start_time timestamp(6) NOT NULL)");
+
+        AtomicReference<List<CommissionStatement>> saved = new AtomicReference<>(List.of());
+        CommissionStatementRepository statementRepository = mock(CommissionStatementRepository.class);
+        when(statementRepository.saveAll(anyList())).thenAnswer(inv -> {
+            saved.set(new ArrayList<>(inv.<List<CommissionStatement>>getArgument(0)));
+            return saved.get();
+        });
+        when(statementRepository.findByPeriodStartAndPeriodEndOrderByProfessionalFullNameAsc(any(), any()))
+                .thenAnswer(inv -> saved.get());
+
+        ProfessionalRepository professionalRepository = mock(ProfessionalRepository.class);
+        when(professionalRepository.getReferenceById(any())).thenAnswer(inv -> {
+            Professional professional = new Professional();
+            professional.setId(inv.getArgument(0));
+            professional.setFullName("Professional " + inv.getArgument(0));
+            return professional;
+        });
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.getReferenceById(any())).thenAnswer(inv -> {
+            Item item = new Item();
+            item.setId(inv.getArgument(0));
+            item.setName("Service " + inv.getArgument(0));
+            return item;
+        });
+
+        commissionService = new CommissionService(dataSource, statementRepository, professionalRepository,
+                itemRepository, new DataSourceTransactionManager(dataSource), 4, 500);
+        ReflectionTestUtils.setField(commissionService, "partitionSize", 25);
+    }
+
+    @AfterEach
+    void tearDown() {
+        commissionService.shutdown();
+        dataSource.shutdown();
+    }
+
+    @Test
+    void commissionFollowsConfigurationAndPaidShare() {
+        UUID service = service("100.00");
+        UUID withConfig = UUID.randomUUID();
+        UUID withoutConfig = UUID.randomUUID();
+        // Preço personalizado 120,00, 10% + 5,00 fixo
+        jdbc.update("INSERT INTO professional_service_cfg VALUES (?, ?, 120.00, 10.00, 5.00)", withConfig, service);
+
+        // Sem comanda: base = preço personalizado
+        appointment(withConfig, service, null, "COMPLETED", PERIOD_START.atTime(9, 0));
+        // Comanda de 120,00 bruto com 30,00 de desconto, paga: base rateada = 120 × 90 / 120
+        appointment(withConfig, service, order("90.00", "30.00", "COMPLETED", "90.00"), "COMPLETED",
+                PERIOD_START.plusDays(3).atTime(10, 0));
+        // Comanda sem pagamento concluído: conta como atendimento, fica fora da base
+        appointment(withConfig, service, order("120.00", "0.00", "PENDING", "120.00"), "COMPLETED",
+                PERIOD_START.plusDays(5).atTime(11, 0));
+        // Fora da comissão: cancelado e concluído fora do período
+        appointment(withConfig, service, null, "CANCELLED", PERIOD_START.plusDays(6).atTime(9, 0));
+        appointment(withConfig, service, null, "COMPLETED", PERIOD_END.plusDays(1).atTime(9, 0));
+        // Sem configuração: preço do serviço, sem comissão
+        appointment(withoutConfig, service, null, "COMPLETED", PERIOD_END.atTime(18, 0));
+
+        Map<UUID, CommissionStatementResponse> statements = byProfessional(
+                commissionService.generateStatements(PERIOD_START, PERIOD_END));
+
+        assertThat(statements).hasSize(2);
+        CommissionStatementResponse configured = statements.get(withConfig);
+        assertThat(configured.appointmentCount()).isEqualTo(3);
+        assertThat(configured.unpaidCount()).isEqualTo(1);
+        assertThat(configured.baseAmount()).isEqualByComparingTo("210.00");
+        // (120,00 × 10% + 5,00) + (90,00 × 10% + 5,00)
+        assertThat(configured.commissionAmount()).isEqualByComparingTo("31.00");
+        assertThat(configured.lines()).singleElement().satisfies(line -> {
+            assertThat(line.appointmentCount()).isEqualTo(2);
+            assertThat(line.baseAmount()).isEqualByComparingTo("210.00");
+        });
+
+        CommissionStatementResponse plain = statements.get(withoutConfig);
+        assertThat(plain.baseAmount()).isEqualByComparingTo("100.00");
+        assertThat(plain.commissionAmount()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void proratedCommissionRoundsToTheCent() {
+        UUID service = service("33.33");
+        UUID professional = UUID.randomUUID();
+        jdbc.update("INSERT INTO professional_service_cfg VALUES (?, ?, NULL, 12.50, 0)", professional, service);
+        // 33,33 × 20,00 / 30,00 = 22,22; 12,5% de 22,22 = 2,7775 → 2,78
+        appointment(professional, service, order("25.00", "5.00", "COMPLETED", "20.00"), "COMPLETED",
+                PERIOD_START.atTime(9, 0));
+
+        CommissionStatementResponse statement = commissionService.generateStatements(PERIOD_START, PERIOD_END).get(0);
+
+        assertThat(statement.baseAmount()).isEqualByComparingTo("22.22");
+        assertThat(statement.commissionAmount()).isEqualByComparingTo("2.78");
+    }
+
+    @Test
+    void rejectsInvalidPeriods() {
+        assertThatThrownBy(() -> commissionService.generateStatements(PERIOD_END, PERIOD_START))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> commissionService.generateStatements(PERIOD_START, PERIOD_START.plusDays(400)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void largePeriodAcrossPartitions() {
+        int professionals = 120;
+        int perProfessional = 250;
+        UUID service = service("80.00");
+        List<Object[]> rows = new ArrayList<>(professionals * perProfessional);
+        List<UUID> ids = new ArrayList<>(professionals);
+        for (int p = 0; p < professionals; p++) {
+            UUID professional = UUID.randomUUID();
+            ids.add(professional);
+            jdbc.update("INSERT INTO professional_service_cfg VALUES (?, ?, NULL, 10.00, 1.00)", professional, service);
+            for (int i = 0; i < perProfessional; i++) {
+                LocalDateTime start = PERIOD_START.atTime(8, 0).plusMinutes(i * 150L);
+                rows.add(new Object[]{UUID.randomUUID(), professional, service, "COMPLETED", start});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO appointments (id, professional_id, service_id, status, start_time)"
+                + " VALUES (?, ?, ?, ?, ?)", rows);
+
+        long started = System.nanoTime();
+        List<CommissionStatementResponse> statements = commissionService.generateStatements(PERIOD_START, PERIOD_END);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Commission statements for {} appointment(s) of {} professional(s) in {} ms",
+                rows.size(), professionals, elapsedMs);
+
+        assertThat(statements).hasSize(professionals);
+        assertThat(byProfessional(statements).keySet()).containsExactlyInAnyOrderElementsOf(ids);
+        // Cada atendimento: base 80,00, comissão 8,00 + 1,00
+        assertThat(statements).allSatisfy(s -> {
+            assertThat(s.appointmentCount()).isEqualTo(perProfessional);
+            assertThat(s.baseAmount()).isEqualByComparingTo(new BigDecimal("80.00").multiply(BigDecimal.valueOf(perProfessional)));
+            assertThat(s.commissionAmount()).isEqualByComparingTo(new BigDecimal("9.00").multiply(BigDecimal.valueOf(perProfessional)));
+        });
+    }
+
+    private UUID service(String price) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO services (id, price) VALUES (?, ?)", id, new BigDecimal(price));
+        return id;
+    }
+
+    private UUID order(String totalPrice, String discount, String paymentStatus, String paid) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("INSERT INTO service_order (id, total_price, discount) VALUES (?, ?, ?)",
+                id, new BigDecimal(totalPrice), new BigDecimal(discount));
+        jdbc.update("INSERT INTO payment (id, service_order_id, status, amount) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), id, paymentStatus, new BigDecimal(paid));
+        return id;
+    }
+
+    private void appointment(UUID professional, UUID service, UUID order, String status, LocalDateTime start) {
+        jdbc.update("INSERT INTO appointments (id, professional_id, service_id, service_order_id, status, start_time)"
+                + " VALUES (?, ?, ?, ?, ?, ?)", UUID.randomUUID(), professional, service, order, status, start);
+    }
+
+    private static Map<UUID, CommissionStatementResponse> byProfessional(List<CommissionStatementResponse> statements) {
+        return statements.stream()
+                .collect(Collectors.toMap(CommissionStatementResponse::professionalId, Function.identity()));
+    }
+}
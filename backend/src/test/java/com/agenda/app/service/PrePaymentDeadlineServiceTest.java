@@ -0,0 +1,91 @@
+package com.agenda.app.service;
+
+import com.agenda.app.dto.PendingPrePaymentView;
+import com.agenda.app.repository.AppointmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrePaymentDeadlineServiceTest {
+
+    private AppointmentRepository appointmentRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PrePaymentDeadlineService service;
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PrePaymentDeadlineService(appointmentRepository, mock(AppointmentChangeService.class),
+                mock(AnalyticsService.class), transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "graceHours", 2L);
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        ReflectionTestUtils.setField(service, "maxBatches", 50);
+    }
+
+    @Test
+    void reportOnlyModeDoesNotAccumulateTheSameOverdueAppointments() {
+        ReflectionTestUtils.setField(service, "cancelOverdue", false);
+        PendingPrePaymentView pending = pending();
+        when(appointmentRepository.lockPendingPrePaymentPage(any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(pending));
+        when(appointmentRepository.findIdsWithCompletedPayment(any())).thenReturn(List.of());
+
+        service.enforceDeadlines();
+        service.enforceDeadlines();
+
+        // O mesmo agendamento segue atrasado: o gauge mostra o estado atual, não a soma das execuções
+        assertThat(overdue()).isEqualTo(1.0);
+        verify(appointmentRepository, never()).updatePendingStatus(any(), any(), any(), anyString());
+    }
+
+    @Test
+    void overdueGaugeDropsOnceTheAppointmentsAreGone() {
+        ReflectionTestUtils.setField(service, "cancelOverdue", true);
+        PendingPrePaymentView pending = pending();
+        when(appointmentRepository.lockPendingPrePaymentPage(any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(pending))
+                .thenReturn(List.of());
+        when(appointmentRepository.findIdsWithCompletedPayment(any())).thenReturn(List.of());
+        when(appointmentRepository.updatePendingStatus(any(), any(), any(), anyString())).thenReturn(1);
+
+        service.enforceDeadlines();
+        assertThat(overdue()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("agenda.prepayment.slots.reclaimed").counter().count()).isEqualTo(1.0);
+
+        service.enforceDeadlines();
+        assertThat(overdue()).isZero();
+    }
+
+    private double overdue() {
+        return meterRegistry.get("agenda.prepayment.overdue").gauge().value();
+    }
+
+    private static PendingPrePaymentView pending() {
+        PendingPrePaymentView view = mock(PendingPrePaymentView.class);
+        when(view.getId()).thenReturn(UUID.randomUUID());
+        when(view.getStartTime()).thenReturn(LocalDateTime.now().plusHours(3));
+        when(view.getSubsidiaryId()).thenReturn(UUID.randomUUID());
+        when(view.getProfessionalId()).thenReturn(UUID.randomUUID());
+        return view;
+    }
+}
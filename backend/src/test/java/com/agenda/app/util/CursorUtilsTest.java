@@ -0,0 +1,48 @@
+package com.agenda.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilsTest {
+
+    @Test
+    void roundTripsTheSortKey() {
+        LocalDateTime start = LocalDateTime.of(2026, 5, 4, 10, 30);
+        UUID id = UUID.randomUUID();
+
+        String[] parts = CursorUtils.decode(CursorUtils.encode(start, id), 2);
+
+        assertThat(LocalDateTime.parse(parts[0])).isEqualTo(start);
+        assertThat(UUID.fromString(parts[1])).isEqualTo(id);
+    }
+
+    @Test
+    void decodesSingleValueCursors() {
+        assertThat(CursorUtils.decodeDate(CursorUtils.encode(LocalDate.of(2026, 2, 28))))
+                .isEqualTo(LocalDate.of(2026, 2, 28));
+        assertThat(CursorUtils.decodeLong(CursorUtils.encode(42L))).isEqualTo(42L);
+        assertThat(CursorUtils.decodeLong(CursorUtils.encode(-3L))).isEqualTo(-3L);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> CursorUtils.decode("not base64!", 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> CursorUtils.decode(CursorUtils.encode("a", "b"), 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> CursorUtils.decodeDate(CursorUtils.encode("2026-13-01")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> CursorUtils.decodeLong(CursorUtils.encode("12x")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
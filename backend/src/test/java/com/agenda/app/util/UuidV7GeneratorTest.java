@@ -0,0 +1,77 @@
+package com.agenda.app.util;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidV7GeneratorTest.class);
+
+    @Test
+    void carriesVersionVariantAndCreationTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // Com o contador esgotado o milissegundo lógico avança à frente do relógio (rajadas de outros testes)
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 60_000);
+    }
+
+    @Test
+    void increasesWithinTheSameMillisecond() {
+        UUID previous = UuidV7Generator.next();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7Generator.next();
+            assertThat(next.getMostSignificantBits()).isGreaterThan(previous.getMostSignificantBits());
+            previous = next;
+        }
+    }
+
+    @Test
+    void staysUniqueAndOrderedPerThreadUnderContention() throws Exception {
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<UUID>>> results = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(UuidV7Generator.next());
+                }
+                return ids;
+            }));
+        }
+
+        Set<UUID> all = new HashSet<>();
+        for (Future<List<UUID>> result : results) {
+            List<UUID> ids = result.get();
+            for (int i = 1; i < ids.size(); i++) {
+                assertThat(ids.get(i).getMostSignificantBits())
+                        .isGreaterThan(ids.get(i - 1).getMostSignificantBits());
+            }
+            all.addAll(ids);
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        executor.shutdown();
+        log.info("Generated {} UUIDv7 from {} threads in {} ms ({} ids/ms)",
+                all.size(), threads, elapsedMs, all.size() / elapsedMs);
+
+        assertThat(all).hasSize(threads * perThread);
+    }
+}
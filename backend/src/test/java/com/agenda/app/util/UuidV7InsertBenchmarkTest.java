@@ -0,0 +1,83 @@
+package com.agenda.app.util;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara UUIDv7 e UUID aleatório (v4) como chave primária num PostgreSQL real: tempo de
+ * inserção em lotes e tamanho final do índice da chave. Com v4 cada inserção cai numa folha
+ * qualquer da B-tree (divisões de página espalhadas, folhas pela metade); com v7 as chaves
+ * chegam em ordem e só a folha mais à direita cresce.
+ * <p>
+ * Precisa de Docker; sem ele a classe é pulada.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UuidV7InsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidV7InsertBenchmarkTest.class);
+
+    private static final int ROWS = 500_000;
+    private static final int BATCH = 1_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void connect() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+    }
+
+    @Test
+    void timeOrderedKeysInsertFasterIntoASmallerIndex() {
+        Result random = insert("bench_uuid_v4", UUID::randomUUID);
+        Result timeOrdered = insert("bench_uuid_v7", UuidV7Generator::next);
+
+        log.info("UUIDv4: {} rows in {} ms ({} rows/s), primary key index {} KiB",
+                ROWS, random.elapsedMs(), random.rowsPerSecond(), random.indexBytes() / 1024);
+        log.info("UUIDv7: {} rows in {} ms ({} rows/s), primary key index {} KiB",
+                ROWS, timeOrdered.elapsedMs(), timeOrdered.rowsPerSecond(), timeOrdered.indexBytes() / 1024);
+
+        // O tempo varia com a máquina e só é registrado; o tamanho do índice é determinístico o bastante
+        assertThat(timeOrdered.indexBytes()).isLessThan(random.indexBytes() * 9 / 10);
+    }
+
+    private static Result insert(String table, Supplier<UUID> ids) {
+        jdbc.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, created_at timestamptz NOT NULL DEFAULT now(),"
+                + " amount numeric(10, 2) NOT NULL, description varchar(100))");
+        String sql = "INSERT INTO " + table + " (id, amount, description) VALUES (?, ?, ?)";
+        long started = System.nanoTime();
+        for (int done = 0; done < ROWS; done += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                rows.add(new Object[]{ids.get(), (done + i) % 1000, "row " + (done + i)});
+            }
+            jdbc.batchUpdate(sql, rows);
+        }
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        Long indexBytes = jdbc.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, table + "_pkey");
+        return new Result(elapsedMs, indexBytes);
+    }
+
+    private record Result(long elapsedMs, long indexBytes) {
+        long rowsPerSecond() {
+            return ROWS * 1000L / elapsedMs;
+        }
+    }
+}